@@ -28,6 +28,8 @@ public abstract class AbstractDiscoveryClientOptionalArgs<T> {
 
     PreRegistrationHandler preRegistrationHandler;
 
+    HeartbeatBatcher heartbeatBatcher;
+
     Collection<T> additionalFilters;
 
     EurekaJerseyClient eurekaJerseyClient;
@@ -79,6 +81,11 @@ public abstract class AbstractDiscoveryClientOptionalArgs<T> {
         this.preRegistrationHandler = preRegistrationHandler;
     }
 
+    @Inject(optional = true)
+    public void setHeartbeatBatcher(HeartbeatBatcher heartbeatBatcher) {
+        this.heartbeatBatcher = heartbeatBatcher;
+    }
+
 
     @Inject(optional = true) 
     public void setAdditionalFilters(Collection<T> additionalFilters) {
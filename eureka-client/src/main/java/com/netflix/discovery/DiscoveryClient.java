@@ -48,6 +48,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response.Status;
 
 import com.netflix.discovery.shared.resolver.EndpointRandomizer;
@@ -71,6 +72,7 @@ import com.netflix.discovery.endpoint.EndpointUtils;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
 import com.netflix.discovery.shared.resolver.ClosableResolver;
+import com.netflix.discovery.shared.resolver.EurekaEndpoint;
 import com.netflix.discovery.shared.resolver.aws.ApplicationsResolver;
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
 import com.netflix.discovery.shared.transport.EurekaHttpClientFactory;
@@ -153,10 +155,13 @@ public class DiscoveryClient implements EurekaClient {
     private final Provider<HealthCheckHandler> healthCheckHandlerProvider;
     private final Provider<HealthCheckCallback> healthCheckCallbackProvider;
     private final PreRegistrationHandler preRegistrationHandler;
+    private final HeartbeatBatcher heartbeatBatcher;
     private final AtomicReference<Applications> localRegionApps = new AtomicReference<>();
     private final Lock fetchRegistryUpdateLock = new ReentrantLock();
     // monotonically increasing generation counter to ensure stale threads do not reset registry to an older version
     private final AtomicLong fetchRegistryGeneration;
+    // entity tag of the last full registry fetch, valid as long as the registry has not been updated otherwise since
+    private volatile FullRegistryEntityTag fullRegistryEntityTag;
     private final ApplicationInfoManager applicationInfoManager;
     private final InstanceInfo instanceInfo;
     private final AtomicReference<String> remoteRegionsToFetch;
@@ -328,10 +333,12 @@ public class DiscoveryClient implements EurekaClient {
             this.healthCheckCallbackProvider = args.healthCheckCallbackProvider;
             this.eventListeners.addAll(args.getEventListeners());
             this.preRegistrationHandler = args.preRegistrationHandler;
+            this.heartbeatBatcher = args.heartbeatBatcher;
         } else {
             this.healthCheckCallbackProvider = null;
             this.healthCheckHandlerProvider = null;
             this.preRegistrationHandler = null;
+            this.heartbeatBatcher = null;
         }
         
         this.applicationInfoManager = applicationInfoManager;
@@ -884,13 +891,30 @@ public class DiscoveryClient implements EurekaClient {
         return httpResponse.getStatusCode() == Status.NO_CONTENT.getStatusCode();
     }
 
+    /**
+     * @return the service urls of the eureka servers the registration client talks to
+     */
+    private List<String> getRegistrationServiceUrls() {
+        List<String> serviceUrls = new ArrayList<>();
+        for (Object endpoint : eurekaTransport.bootstrapResolver.getClusterEndpoints()) {
+            serviceUrls.add(((EurekaEndpoint) endpoint).getServiceUrl());
+        }
+        return serviceUrls;
+    }
+
     /**
      * Renew with the eureka service by making the appropriate REST call
      */
     boolean renew() {
         EurekaHttpResponse<InstanceInfo> httpResponse;
         try {
-            httpResponse = eurekaTransport.registrationClient.sendHeartBeat(instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, null);
+            if (heartbeatBatcher == null) {
+                httpResponse = eurekaTransport.registrationClient.sendHeartBeat(instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, null);
+            } else {
+                httpResponse = heartbeatBatcher.sendHeartBeat(getRegistrationServiceUrls(),
+                        eurekaTransport.registrationClient, instanceInfo.getAppName(), instanceInfo.getId(),
+                        instanceInfo, null);
+            }
             logger.debug(PREFIX + "{} - Heartbeat status: {}", appPathIdentifier, httpResponse.getStatusCode());
             if (httpResponse.getStatusCode() == Status.NOT_FOUND.getStatusCode()) {
                 REREGISTER_COUNTER.increment();
@@ -1097,24 +1121,53 @@ public class DiscoveryClient implements EurekaClient {
         logger.info("Getting all instance registry info from the eureka server");
 
         Applications apps = null;
-        EurekaHttpResponse<Applications> httpResponse = clientConfig.getRegistryRefreshSingleVipAddress() == null
-                ? eurekaTransport.queryClient.getApplications(remoteRegionsRef.get())
-                : eurekaTransport.queryClient.getVip(clientConfig.getRegistryRefreshSingleVipAddress(), remoteRegionsRef.get());
+        String entityTag = currentFullRegistryEntityTag(currentUpdateGeneration);
+        EurekaHttpResponse<Applications> httpResponse;
+        if (clientConfig.getRegistryRefreshSingleVipAddress() != null) {
+            httpResponse = eurekaTransport.queryClient.getVip(clientConfig.getRegistryRefreshSingleVipAddress(), remoteRegionsRef.get());
+        } else if (entityTag != null) {
+            httpResponse = eurekaTransport.queryClient.getApplicationsIfNoneMatch(entityTag, remoteRegionsRef.get());
+        } else {
+            httpResponse = eurekaTransport.queryClient.getApplications(remoteRegionsRef.get());
+        }
         if (httpResponse.getStatusCode() == Status.OK.getStatusCode()) {
             apps = httpResponse.getEntity();
         }
         logger.info("The response status is {}", httpResponse.getStatusCode());
 
-        if (apps == null) {
+        if (entityTag != null && httpResponse.getStatusCode() == Status.NOT_MODIFIED.getStatusCode()) {
+            logger.info("The registry has not changed since the last full fetch. Keeping the local registry");
+        } else if (apps == null) {
             logger.error("The application is null for some reason. Not storing this information");
         } else if (fetchRegistryGeneration.compareAndSet(currentUpdateGeneration, currentUpdateGeneration + 1)) {
             localRegionApps.set(this.filterAndShuffle(apps));
+            String responseEntityTag = entityTagOf(httpResponse);
+            fullRegistryEntityTag = responseEntityTag == null
+                    ? null
+                    : new FullRegistryEntityTag(responseEntityTag, currentUpdateGeneration + 1);
             logger.debug("Got full registry with apps hashcode {}", apps.getAppsHashCode());
         } else {
             logger.warn("Not updating applications as another thread is updating it already");
         }
     }
 
+    /**
+     * @return the entity tag of the last full registry fetch, or null if the registry has been updated otherwise since
+     */
+    private String currentFullRegistryEntityTag(long currentUpdateGeneration) {
+        FullRegistryEntityTag current = fullRegistryEntityTag;
+        return current != null && current.generation == currentUpdateGeneration ? current.entityTag : null;
+    }
+
+    private static String entityTagOf(EurekaHttpResponse<?> httpResponse) {
+        for (Map.Entry<String, String> header : httpResponse.getHeaders().entrySet()) {
+            if (HttpHeaders.ETAG.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
     /**
      * Get the delta registry information from the eureka server and update it locally.
      * When applying the delta, the following flow is observed:
@@ -1582,6 +1635,7 @@ public class DiscoveryClient implements EurekaClient {
                     final Applications applications = this.filterAndShuffle(apps);
                     applications.setAppsHashCode(applications.getReconcileHashCode());
                     localRegionApps.set(applications);
+                    fullRegistryEntityTag = null;
                     logTotalInstances();
                     logger.info("Fetched registry successfully from the backup");
                     return true;
@@ -1817,4 +1871,14 @@ public class DiscoveryClient implements EurekaClient {
 
     }
 
+    private static final class FullRegistryEntityTag {
+        private final String entityTag;
+        private final long generation;
+
+        FullRegistryEntityTag(String entityTag, long generation) {
+            this.entityTag = entityTag;
+            this.generation = generation;
+        }
+    }
+
 }
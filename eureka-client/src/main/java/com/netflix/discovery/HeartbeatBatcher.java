@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.discovery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse.HeartbeatResult;
+import com.netflix.discovery.shared.transport.TransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+
+/**
+ * Groups the heartbeats of multiple {@link DiscoveryClient} instances running in the same JVM into batch requests
+ * (see {@link EurekaHttpClient#sendHeartBeats(HeartbeatBatch)}). A single batcher is shared by all clients through
+ * {@link AbstractDiscoveryClientOptionalArgs#setHeartbeatBatcher(HeartbeatBatcher)}.
+ *
+ * <p>
+ * A heartbeat waits at most {@code maxBatchDelayMs} for other heartbeats to join its batch. The heartbeats of a
+ * batch are grouped by the service urls of the Eureka servers their clients register with, and each group is sent
+ * with one request, through the transport of one of its clients. Clients talking to different Eureka servers can
+ * thus share a batcher. If a batch request fails, for example because the server does not support batched
+ * heartbeats, or if its result is not received within {@code maxWaitMs}, each client sends its heartbeat with a
+ * regular request through its own transport.
+ * </p>
+ *
+ * <p>
+ * The batcher is owned by the application, which must {@link #shutdown()} it after all clients are shut down.
+ * </p>
+ */
+public class HeartbeatBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeartbeatBatcher.class);
+
+    // Time allowed for a batch request once sent, about the read timeout of the default transport
+    private static final long DEFAULT_MAX_REQUEST_TIME_MS = 10 * 1000;
+
+    private final int maxBatchSize;
+    private final long maxBatchDelayMs;
+    private final long maxWaitMs;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private List<PendingHeartbeat> pending = new ArrayList<>();
+    private boolean shutdown;
+
+    public HeartbeatBatcher(int maxBatchSize, long maxBatchDelayMs) {
+        this(maxBatchSize, maxBatchDelayMs, maxBatchDelayMs + DEFAULT_MAX_REQUEST_TIME_MS);
+    }
+
+    /**
+     * @param maxWaitMs the maximum time a heartbeat waits for the result of its batch, after which it is sent
+     *                  with a regular request
+     */
+    public HeartbeatBatcher(int maxBatchSize, long maxBatchDelayMs, long maxWaitMs) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayMs = maxBatchDelayMs;
+        this.maxWaitMs = maxWaitMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                        .setNameFormat("DiscoveryClient-HeartbeatBatcher-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Sends the heartbeat as part of a batch, and waits for its result.
+     *
+     * @param serviceUrls the service urls of the Eureka servers the client registers with, in any order. The
+     *                    heartbeats of clients with the same service urls are sent together
+     * @param httpClient the transport of the client, which may send the batch and sends the heartbeat on its own if
+     *                   the batch is not accepted
+     * @return the heartbeat response, as returned by {@link EurekaHttpClient#sendHeartBeat}
+     */
+    public EurekaHttpResponse<InstanceInfo> sendHeartBeat(Collection<String> serviceUrls,
+                                                          EurekaHttpClient httpClient,
+                                                          String appName,
+                                                          String id,
+                                                          InstanceInfo info,
+                                                          InstanceStatus overriddenStatus) {
+        PendingHeartbeat heartbeat = new PendingHeartbeat(new TreeSet<>(serviceUrls), httpClient,
+                HeartbeatBatch.Heartbeat.of(appName, id, info, overriddenStatus));
+        List<PendingHeartbeat> fullBatch = null;
+        synchronized (lock) {
+            if (shutdown) {
+                return httpClient.sendHeartBeat(appName, id, info, overriddenStatus);
+            }
+            pending.add(heartbeat);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = pending;
+                pending = new ArrayList<>();
+            } else if (pending.size() == 1) {
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, maxBatchDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+
+        EurekaHttpResponse<InstanceInfo> httpResponse;
+        try {
+            httpResponse = heartbeat.result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("No result for batched heartbeat of {}/{} after {}ms; sending it individually", appName, id, maxWaitMs);
+            httpResponse = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportException("Interrupted while waiting for batched heartbeat of " + appName + '/' + id, e);
+        } catch (ExecutionException e) {
+            throw new TransportException("Batched heartbeat of " + appName + '/' + id + " failed", e.getCause());
+        }
+        // The batch was not accepted, so send the heartbeat on its own
+        if (httpResponse == null) {
+            httpResponse = httpClient.sendHeartBeat(appName, id, info, overriddenStatus);
+        }
+        return httpResponse;
+    }
+
+    public void shutdown() {
+        List<PendingHeartbeat> remaining;
+        synchronized (lock) {
+            shutdown = true;
+            remaining = pending;
+            pending = new ArrayList<>();
+        }
+        scheduler.shutdownNow();
+        for (PendingHeartbeat heartbeat : remaining) {
+            heartbeat.result.complete(null);
+        }
+    }
+
+    private void flush() {
+        List<PendingHeartbeat> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        send(batch);
+    }
+
+    /**
+     * Sends the heartbeats of a batch with one request per set of service urls, through the transport of the first
+     * heartbeat of each.
+     */
+    private static void send(List<PendingHeartbeat> batch) {
+        Map<Set<String>, List<PendingHeartbeat>> batchesByServiceUrls = new LinkedHashMap<>();
+        for (PendingHeartbeat heartbeat : batch) {
+            List<PendingHeartbeat> serviceUrlsBatch = batchesByServiceUrls.get(heartbeat.serviceUrls);
+            if (serviceUrlsBatch == null) {
+                serviceUrlsBatch = new ArrayList<>();
+                batchesByServiceUrls.put(heartbeat.serviceUrls, serviceUrlsBatch);
+            }
+            serviceUrlsBatch.add(heartbeat);
+        }
+        for (List<PendingHeartbeat> serviceUrlsBatch : batchesByServiceUrls.values()) {
+            send(serviceUrlsBatch.get(0).httpClient, serviceUrlsBatch);
+        }
+    }
+
+    private static void send(EurekaHttpClient httpClient, List<PendingHeartbeat> batch) {
+        HeartbeatBatch heartbeatBatch = new HeartbeatBatch();
+        for (PendingHeartbeat heartbeat : batch) {
+            heartbeatBatch.addHeartbeat(heartbeat.heartbeat);
+        }
+
+        List<HeartbeatResult> results = null;
+        try {
+            EurekaHttpResponse<HeartbeatBatchResponse> httpResponse = httpClient.sendHeartBeats(heartbeatBatch);
+            HeartbeatBatchResponse batchResponse = httpResponse.getEntity();
+            if (httpResponse.getStatusCode() == 200 && batchResponse != null
+                    && batchResponse.getResults().size() == batch.size()) {
+                results = batchResponse.getResults();
+            } else {
+                logger.warn("Batch heartbeat request rejected with status {}; sending {} heartbeats individually",
+                        httpResponse.getStatusCode(), batch.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Batch heartbeat request failed; sending {} heartbeats individually", batch.size(), e);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            EurekaHttpResponse<InstanceInfo> httpResponse = null;
+            if (results != null) {
+                httpResponse = anEurekaHttpResponse(results.get(i).getStatusCode(), InstanceInfo.class).build();
+            }
+            batch.get(i).result.complete(httpResponse);
+        }
+    }
+
+    private static final class PendingHeartbeat {
+        private final Set<String> serviceUrls;
+        private final EurekaHttpClient httpClient;
+        private final HeartbeatBatch.Heartbeat heartbeat;
+        private final CompletableFuture<EurekaHttpResponse<InstanceInfo>> result = new CompletableFuture<>();
+
+        PendingHeartbeat(Set<String> serviceUrls, EurekaHttpClient httpClient, HeartbeatBatch.Heartbeat heartbeat) {
+            this.serviceUrls = serviceUrls;
+            this.httpClient = httpClient;
+            this.heartbeat = heartbeat;
+        }
+    }
+}
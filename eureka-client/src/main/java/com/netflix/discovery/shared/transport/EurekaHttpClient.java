@@ -18,12 +18,49 @@ public interface EurekaHttpClient {
 
     EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info, InstanceStatus overriddenStatus);
 
+    /**
+     * Renews multiple leases in a single request. The response contains a result for each heartbeat in the batch,
+     * with the status code a regular {@link #sendHeartBeat} request would have returned.
+     *
+     * <p>
+     * Clients that do not support batch requests send each heartbeat with a regular {@link #sendHeartBeat}
+     * request instead.
+     * </p>
+     */
+    default EurekaHttpResponse<HeartbeatBatchResponse> sendHeartBeats(HeartbeatBatch heartbeatBatch) {
+        HeartbeatBatchResponse batchResponse = new HeartbeatBatchResponse();
+        for (HeartbeatBatch.Heartbeat heartbeat : heartbeatBatch.getHeartbeats()) {
+            EurekaHttpResponse<InstanceInfo> httpResponse = sendHeartBeat(
+                    heartbeat.getAppName(),
+                    heartbeat.getId(),
+                    heartbeat.toInstanceInfo(),
+                    heartbeat.toOverriddenStatus()
+            );
+            batchResponse.addResult(new HeartbeatBatchResponse.HeartbeatResult(
+                    heartbeat.getAppName(), heartbeat.getId(), httpResponse.getStatusCode()));
+        }
+        return EurekaHttpResponse.anEurekaHttpResponse(200, batchResponse).build();
+    }
+
     EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus, InstanceInfo info);
 
     EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info);
 
     EurekaHttpResponse<Applications> getApplications(String... regions);
 
+    /**
+     * Same as {@link #getApplications(String...)}, but conditional on the registry having changed since the
+     * response with the given entity tag (<code>ETag</code> header). If it has not, the response status is
+     * <code>304 Not Modified</code>, with no entity.
+     *
+     * <p>
+     * Clients that do not support conditional requests always fetch the registry.
+     * </p>
+     */
+    default EurekaHttpResponse<Applications> getApplicationsIfNoneMatch(String entityTag, String... regions) {
+        return getApplications(regions);
+    }
+
     EurekaHttpResponse<Applications> getDelta(String... regions);
 
     EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions);
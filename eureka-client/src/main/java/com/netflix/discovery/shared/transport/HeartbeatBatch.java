@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.discovery.shared.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.provider.Serializer;
+
+/**
+ * A list of heartbeats renewed by a single request, see {@link EurekaHttpClient#sendHeartBeats(HeartbeatBatch)}.
+ * Each heartbeat carries the same information as a regular heartbeat request.
+ */
+@Serializer("jackson") // For DiscoveryJerseyProvider
+public class HeartbeatBatch {
+
+    private final List<Heartbeat> heartbeats;
+
+    public HeartbeatBatch() {
+        this.heartbeats = new ArrayList<>();
+    }
+
+    @JsonCreator
+    public HeartbeatBatch(@JsonProperty("heartbeats") List<Heartbeat> heartbeats) {
+        this.heartbeats = heartbeats == null ? new ArrayList<Heartbeat>() : heartbeats;
+    }
+
+    public void addHeartbeat(Heartbeat heartbeat) {
+        heartbeats.add(heartbeat);
+    }
+
+    public List<Heartbeat> getHeartbeats() {
+        return heartbeats;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HeartbeatBatch that = (HeartbeatBatch) o;
+        return heartbeats.equals(that.heartbeats);
+    }
+
+    @Override
+    public int hashCode() {
+        return heartbeats.hashCode();
+    }
+
+    public static class Heartbeat {
+
+        private final String appName;
+        private final String id;
+        private final String status;
+        private final Long lastDirtyTimestamp;
+        private final String overriddenStatus;
+
+        @JsonCreator
+        public Heartbeat(@JsonProperty("appName") String appName,
+                         @JsonProperty("id") String id,
+                         @JsonProperty("status") String status,
+                         @JsonProperty("lastDirtyTimestamp") Long lastDirtyTimestamp,
+                         @JsonProperty("overriddenStatus") String overriddenStatus) {
+            this.appName = appName;
+            this.id = id;
+            this.status = status;
+            this.lastDirtyTimestamp = lastDirtyTimestamp;
+            this.overriddenStatus = overriddenStatus;
+        }
+
+        public static Heartbeat of(String appName, String id, InstanceInfo info, InstanceStatus overriddenStatus) {
+            return new Heartbeat(
+                    appName,
+                    id,
+                    info.getStatus().toString(),
+                    info.getLastDirtyTimestamp(),
+                    overriddenStatus == null ? null : overriddenStatus.name()
+            );
+        }
+
+        public String getAppName() {
+            return appName;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public Long getLastDirtyTimestamp() {
+            return lastDirtyTimestamp;
+        }
+
+        public String getOverriddenStatus() {
+            return overriddenStatus;
+        }
+
+        /**
+         * @return an instance with the status and dirty timestamp of this heartbeat, as needed by
+         * {@link EurekaHttpClient#sendHeartBeat} to send it with a regular request
+         */
+        public InstanceInfo toInstanceInfo() {
+            InstanceInfo.Builder builder = InstanceInfo.Builder.newBuilder()
+                    .setAppName(appName)
+                    .setInstanceId(id)
+                    .setStatus(InstanceStatus.toEnum(status));
+            if (lastDirtyTimestamp != null) {
+                builder.setLastDirtyTimestamp(lastDirtyTimestamp);
+            }
+            return builder.build();
+        }
+
+        /**
+         * @return the overridden status of this heartbeat, or null if there is none
+         */
+        public InstanceStatus toOverriddenStatus() {
+            return overriddenStatus == null ? null : InstanceStatus.toEnum(overriddenStatus);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Heartbeat that = (Heartbeat) o;
+            if (appName != null ? !appName.equals(that.appName) : that.appName != null) {
+                return false;
+            }
+            if (id != null ? !id.equals(that.id) : that.id != null) {
+                return false;
+            }
+            if (status != null ? !status.equals(that.status) : that.status != null) {
+                return false;
+            }
+            if (lastDirtyTimestamp != null ? !lastDirtyTimestamp.equals(that.lastDirtyTimestamp) : that.lastDirtyTimestamp != null) {
+                return false;
+            }
+            return overriddenStatus != null ? overriddenStatus.equals(that.overriddenStatus) : that.overriddenStatus == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = appName != null ? appName.hashCode() : 0;
+            result = 31 * result + (id != null ? id.hashCode() : 0);
+            result = 31 * result + (status != null ? status.hashCode() : 0);
+            result = 31 * result + (lastDirtyTimestamp != null ? lastDirtyTimestamp.hashCode() : 0);
+            result = 31 * result + (overriddenStatus != null ? overriddenStatus.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Heartbeat{appName='" + appName + "', id='" + id + "'}";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.discovery.shared.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.netflix.discovery.provider.Serializer;
+
+/**
+ * Per heartbeat results of a {@link HeartbeatBatch}, in the same order as the heartbeats in the batch.
+ * Each status code is the one a regular heartbeat request would have returned.
+ */
+@Serializer("jackson") // For DiscoveryJerseyProvider
+public class HeartbeatBatchResponse {
+
+    private final List<HeartbeatResult> results;
+
+    public HeartbeatBatchResponse() {
+        this.results = new ArrayList<>();
+    }
+
+    @JsonCreator
+    public HeartbeatBatchResponse(@JsonProperty("results") List<HeartbeatResult> results) {
+        this.results = results == null ? new ArrayList<HeartbeatResult>() : results;
+    }
+
+    public void addResult(HeartbeatResult result) {
+        results.add(result);
+    }
+
+    public List<HeartbeatResult> getResults() {
+        return results;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HeartbeatBatchResponse that = (HeartbeatBatchResponse) o;
+        return results.equals(that.results);
+    }
+
+    @Override
+    public int hashCode() {
+        return results.hashCode();
+    }
+
+    public static class HeartbeatResult {
+
+        private final String appName;
+        private final String id;
+        private final int statusCode;
+
+        @JsonCreator
+        public HeartbeatResult(@JsonProperty("appName") String appName,
+                               @JsonProperty("id") String id,
+                               @JsonProperty("statusCode") int statusCode) {
+            this.appName = appName;
+            this.id = id;
+            this.statusCode = statusCode;
+        }
+
+        public String getAppName() {
+            return appName;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            HeartbeatResult that = (HeartbeatResult) o;
+            if (statusCode != that.statusCode) {
+                return false;
+            }
+            if (appName != null ? !appName.equals(that.appName) : that.appName != null) {
+                return false;
+            }
+            return id != null ? id.equals(that.id) : that.id == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = appName != null ? appName.hashCode() : 0;
+            result = 31 * result + (id != null ? id.hashCode() : 0);
+            result = 31 * result + statusCode;
+            return result;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
 
 /**
  * @author Tomasz Bak
@@ -32,6 +34,7 @@ public abstract class EurekaHttpClientDecorator implements EurekaHttpClient {
         Register,
         Cancel,
         SendHeartBeat,
+        SendHeartBeats,
         StatusUpdate,
         DeleteStatusOverride,
         GetApplications,
@@ -99,6 +102,21 @@ public abstract class EurekaHttpClientDecorator implements EurekaHttpClient {
         });
     }
 
+    @Override
+    public EurekaHttpResponse<HeartbeatBatchResponse> sendHeartBeats(final HeartbeatBatch heartbeatBatch) {
+        return execute(new RequestExecutor<HeartbeatBatchResponse>() {
+            @Override
+            public EurekaHttpResponse<HeartbeatBatchResponse> execute(EurekaHttpClient delegate) {
+                return delegate.sendHeartBeats(heartbeatBatch);
+            }
+
+            @Override
+            public RequestType getRequestType() {
+                return RequestType.SendHeartBeats;
+            }
+        });
+    }
+
     @Override
     public EurekaHttpResponse<Void> statusUpdate(final String appName, final String id, final InstanceStatus newStatus, final InstanceInfo info) {
         return execute(new RequestExecutor<Void>() {
@@ -144,6 +162,21 @@ public abstract class EurekaHttpClientDecorator implements EurekaHttpClient {
         });
     }
 
+    @Override
+    public EurekaHttpResponse<Applications> getApplicationsIfNoneMatch(final String entityTag, final String... regions) {
+        return execute(new RequestExecutor<Applications>() {
+            @Override
+            public EurekaHttpResponse<Applications> execute(EurekaHttpClient delegate) {
+                return delegate.getApplicationsIfNoneMatch(entityTag, regions);
+            }
+
+            @Override
+            public RequestType getRequestType() {
+                return RequestType.GetApplications;
+            }
+        });
+    }
+
     @Override
     public EurekaHttpResponse<Applications> getDelta(final String... regions) {
         return execute(new RequestExecutor<Applications>() {
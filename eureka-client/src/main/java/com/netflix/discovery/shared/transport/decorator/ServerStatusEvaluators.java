@@ -28,6 +28,8 @@ public final class ServerStatusEvaluators {
         public boolean accept(int statusCode, RequestType requestType) {
             if (statusCode >= 200 && statusCode < 300 || statusCode == 302) {
                 return true;
+            } else if (requestType == RequestType.GetApplications && statusCode == 304) {  // conditional fetch
+                return true;
             } else if (requestType == RequestType.Register && statusCode == 404) {
                 return true;
             } else if (requestType == RequestType.SendHeartBeat && statusCode == 404) {
@@ -44,7 +46,8 @@ public final class ServerStatusEvaluators {
     private static final ServerStatusEvaluator HTTP_SUCCESS_EVALUATOR = new ServerStatusEvaluator() {
         @Override
         public boolean accept(int statusCode, RequestType requestType) {
-            return statusCode >= 200 && statusCode < 300;
+            return statusCode >= 200 && statusCode < 300
+                    || requestType == RequestType.GetApplications && statusCode == 304;
         }
     };
 
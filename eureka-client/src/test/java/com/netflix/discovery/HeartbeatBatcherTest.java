@@ -0,0 +1,406 @@
+package com.netflix.discovery;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.appinfo.MyDataCenterInstanceConfig;
+import com.netflix.config.ConfigurationManager;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.resolver.EurekaEndpoint;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse.HeartbeatResult;
+import com.netflix.discovery.shared.transport.TransportClientFactory;
+import com.netflix.discovery.shared.transport.jersey.EurekaJerseyClient;
+import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.sun.jersey.api.client.filter.ClientFilter;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HeartbeatBatcherTest {
+
+    private static final String SERVICE_URL = "http://localhost:8080/eureka/v2/";
+    private static final List<String> SERVICE_URLS = Collections.singletonList(SERVICE_URL);
+
+    private final EurekaHttpClient httpClient = mock(EurekaHttpClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final InstanceInfo first = InstanceInfoGenerator.takeOne();
+    private final InstanceInfo second = new InstanceInfo.Builder(new InstanceInfo(first)).setInstanceId("secondId").build();
+
+    private HeartbeatBatcher batcher;
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        ConfigurationManager.getConfigInstance().clear();
+    }
+
+    @Test
+    public void testHeartbeatsAreSentInOneBatch() throws Exception {
+        batcher = new HeartbeatBatcher(2, TimeUnit.MINUTES.toMillis(1));
+        HeartbeatBatchResponse batchResponse = new HeartbeatBatchResponse();
+        batchResponse.addResult(new HeartbeatResult(first.getAppName(), first.getId(), 200));
+        batchResponse.addResult(new HeartbeatResult(second.getAppName(), second.getId(), 404));
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenReturn(anEurekaHttpResponse(200, batchResponse).build());
+
+        Future<EurekaHttpResponse<InstanceInfo>> firstResponse = executor.submit(heartbeatOf(first));
+        Future<EurekaHttpResponse<InstanceInfo>> secondResponse = executor.submit(heartbeatOf(second));
+
+        // Results are in the order heartbeats were added to the batch
+        int firstStatus = firstResponse.get(30, TimeUnit.SECONDS).getStatusCode();
+        int secondStatus = secondResponse.get(30, TimeUnit.SECONDS).getStatusCode();
+        assertThat(firstStatus + secondStatus, is(200 + 404));
+
+        ArgumentCaptor<HeartbeatBatch> batchCaptor = ArgumentCaptor.forClass(HeartbeatBatch.class);
+        verify(httpClient, times(1)).sendHeartBeats(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().getHeartbeats().size(), is(2));
+        verify(httpClient, times(0)).sendHeartBeat(first.getAppName(), first.getId(), first, null);
+    }
+
+    @Test
+    public void testPartialBatchIsSentAfterDelay() throws Exception {
+        batcher = new HeartbeatBatcher(10, 10);
+        HeartbeatBatchResponse batchResponse = new HeartbeatBatchResponse();
+        batchResponse.addResult(new HeartbeatResult(first.getAppName(), first.getId(), 200));
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenReturn(anEurekaHttpResponse(200, batchResponse).build());
+
+        EurekaHttpResponse<InstanceInfo> httpResponse = heartbeatOf(first).call();
+        assertThat(httpResponse.getStatusCode(), is(200));
+    }
+
+    @Test
+    public void testFallbackToRegularHeartbeatIfBatchIsRejected() throws Exception {
+        batcher = new HeartbeatBatcher(1, 10);
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class)))
+                .thenReturn(anEurekaHttpResponse(400, HeartbeatBatchResponse.class).build());
+        when(httpClient.sendHeartBeat(first.getAppName(), first.getId(), first, null))
+                .thenReturn(anEurekaHttpResponse(200, InstanceInfo.class).build());
+
+        EurekaHttpResponse<InstanceInfo> httpResponse = heartbeatOf(first).call();
+        assertThat(httpResponse.getStatusCode(), is(200));
+        verify(httpClient, times(1)).sendHeartBeat(first.getAppName(), first.getId(), first, null);
+    }
+
+    @Test
+    public void testHeartbeatsToDifferentServersAreSentSeparately() throws Exception {
+        batcher = new HeartbeatBatcher(2, TimeUnit.MINUTES.toMillis(1));
+        EurekaHttpClient otherHttpClient = mock(EurekaHttpClient.class);
+        HeartbeatBatchResponse firstBatchResponse = new HeartbeatBatchResponse();
+        firstBatchResponse.addResult(new HeartbeatResult(first.getAppName(), first.getId(), 200));
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenReturn(anEurekaHttpResponse(200, firstBatchResponse).build());
+        HeartbeatBatchResponse secondBatchResponse = new HeartbeatBatchResponse();
+        secondBatchResponse.addResult(new HeartbeatResult(second.getAppName(), second.getId(), 404));
+        when(otherHttpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenReturn(anEurekaHttpResponse(200, secondBatchResponse).build());
+
+        Future<EurekaHttpResponse<InstanceInfo>> firstResponse = executor.submit(heartbeatOf(httpClient, first));
+        Future<EurekaHttpResponse<InstanceInfo>> secondResponse = executor.submit(heartbeatOf(
+                Collections.singletonList("http://otherhost:8080/eureka/v2/"), otherHttpClient, second));
+
+        assertThat(firstResponse.get(30, TimeUnit.SECONDS).getStatusCode(), is(200));
+        assertThat(secondResponse.get(30, TimeUnit.SECONDS).getStatusCode(), is(404));
+        ArgumentCaptor<HeartbeatBatch> batchCaptor = ArgumentCaptor.forClass(HeartbeatBatch.class);
+        verify(otherHttpClient, times(1)).sendHeartBeats(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().getHeartbeats().size(), is(1));
+        assertThat(batchCaptor.getValue().getHeartbeats().get(0).getId(), is(second.getId()));
+    }
+
+    @Test
+    public void testHeartbeatsOfSeparateTransportsToSameServersShareOneBatch() throws Exception {
+        batcher = new HeartbeatBatcher(2, TimeUnit.MINUTES.toMillis(1));
+        EurekaHttpClient otherHttpClient = mock(EurekaHttpClient.class);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenAnswer(allRenewed(batchSizes));
+        when(otherHttpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenAnswer(allRenewed(batchSizes));
+
+        String otherServiceUrl = "http://otherhost:8080/eureka/v2/";
+        // The same servers, listed in another order
+        Future<EurekaHttpResponse<InstanceInfo>> firstResponse = executor.submit(heartbeatOf(
+                Arrays.asList(SERVICE_URL, otherServiceUrl), httpClient, first));
+        Future<EurekaHttpResponse<InstanceInfo>> secondResponse = executor.submit(heartbeatOf(
+                Arrays.asList(otherServiceUrl, SERVICE_URL), otherHttpClient, second));
+
+        assertThat(firstResponse.get(30, TimeUnit.SECONDS).getStatusCode(), is(200));
+        assertThat(secondResponse.get(30, TimeUnit.SECONDS).getStatusCode(), is(200));
+        assertThat(batchSizes, is((List<Integer>) Collections.singletonList(2)));
+    }
+
+    @Test
+    public void testDiscoveryClientsWithSeparateTransportsShareOneBatch() throws Exception {
+        batcher = new HeartbeatBatcher(2, TimeUnit.MINUTES.toMillis(1));
+        ConfigurationManager.getConfigInstance().setProperty("eureka.registration.enabled", "true");
+        ConfigurationManager.getConfigInstance().setProperty("eureka.shouldFetchRegistry", "false");
+        ConfigurationManager.getConfigInstance().setProperty("eureka.shouldUnregisterOnShutdown", "false");
+        ConfigurationManager.getConfigInstance().setProperty("eureka.serviceUrl.default", SERVICE_URL);
+        EurekaHttpClient otherHttpClient = mock(EurekaHttpClient.class);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenAnswer(allRenewed(batchSizes));
+        when(otherHttpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenAnswer(allRenewed(batchSizes));
+
+        final DiscoveryClient firstClient = newDiscoveryClient(first, httpClient);
+        final DiscoveryClient secondClient = newDiscoveryClient(second, otherHttpClient);
+        try {
+            Future<Boolean> firstRenewed = executor.submit(renewalOf(firstClient));
+            Future<Boolean> secondRenewed = executor.submit(renewalOf(secondClient));
+
+            assertThat(firstRenewed.get(30, TimeUnit.SECONDS), is(true));
+            assertThat(secondRenewed.get(30, TimeUnit.SECONDS), is(true));
+            assertThat(batchSizes, is((List<Integer>) Collections.singletonList(2)));
+            verify(httpClient, never()).sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceStatus.class));
+            verify(otherHttpClient, never()).sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceStatus.class));
+        } finally {
+            firstClient.shutdown();
+            secondClient.shutdown();
+        }
+    }
+
+    @Test
+    public void testFallbackToRegularHeartbeatIfBatchResultIsLate() throws Exception {
+        batcher = new HeartbeatBatcher(2, 10, 100);
+        final CountDownLatch batchReleased = new CountDownLatch(1);
+        when(httpClient.sendHeartBeats(any(HeartbeatBatch.class))).thenAnswer(new Answer<EurekaHttpResponse<HeartbeatBatchResponse>>() {
+            @Override
+            public EurekaHttpResponse<HeartbeatBatchResponse> answer(InvocationOnMock invocation) throws Throwable {
+                batchReleased.await();
+                return anEurekaHttpResponse(500, HeartbeatBatchResponse.class).build();
+            }
+        });
+        when(httpClient.sendHeartBeat(first.getAppName(), first.getId(), first, null))
+                .thenReturn(anEurekaHttpResponse(200, InstanceInfo.class).build());
+
+        try {
+            // The partial batch is sent by the scheduler of the batcher, which stays blocked in the request
+            Future<EurekaHttpResponse<InstanceInfo>> httpResponse = executor.submit(heartbeatOf(httpClient, first));
+            assertThat(httpResponse.get(30, TimeUnit.SECONDS).getStatusCode(), is(200));
+            verify(httpClient, times(1)).sendHeartBeat(first.getAppName(), first.getId(), first, null);
+        } finally {
+            batchReleased.countDown();
+        }
+    }
+
+    @Test
+    public void testClientWithoutBatchSupportSendsRegularHeartbeats() throws Exception {
+        SingleHeartbeatHttpClient singleHeartbeatClient = new SingleHeartbeatHttpClient();
+        HeartbeatBatch heartbeatBatch = new HeartbeatBatch();
+        heartbeatBatch.addHeartbeat(HeartbeatBatch.Heartbeat.of(first.getAppName(), first.getId(), first, null));
+        heartbeatBatch.addHeartbeat(HeartbeatBatch.Heartbeat.of(second.getAppName(), second.getId(), second, InstanceStatus.OUT_OF_SERVICE));
+
+        EurekaHttpResponse<HeartbeatBatchResponse> httpResponse = singleHeartbeatClient.sendHeartBeats(heartbeatBatch);
+        assertThat(httpResponse.getStatusCode(), is(200));
+        assertThat(httpResponse.getEntity().getResults().size(), is(2));
+        assertThat(httpResponse.getEntity().getResults().get(0).getStatusCode(), is(200));
+        assertThat(httpResponse.getEntity().getResults().get(1).getStatusCode(), is(404));
+        assertThat(singleHeartbeatClient.lastDirtyTimestamp, is(second.getLastDirtyTimestamp()));
+    }
+
+    private Callable<EurekaHttpResponse<InstanceInfo>> heartbeatOf(InstanceInfo instanceInfo) {
+        return heartbeatOf(httpClient, instanceInfo);
+    }
+
+    private Callable<EurekaHttpResponse<InstanceInfo>> heartbeatOf(EurekaHttpClient client, InstanceInfo instanceInfo) {
+        return heartbeatOf(SERVICE_URLS, client, instanceInfo);
+    }
+
+    private Callable<EurekaHttpResponse<InstanceInfo>> heartbeatOf(final Collection<String> serviceUrls,
+                                                                   final EurekaHttpClient client,
+                                                                   final InstanceInfo instanceInfo) {
+        return new Callable<EurekaHttpResponse<InstanceInfo>>() {
+            @Override
+            public EurekaHttpResponse<InstanceInfo> call() throws Exception {
+                return batcher.sendHeartBeat(serviceUrls, client, instanceInfo.getAppName(), instanceInfo.getId(),
+                        instanceInfo, null);
+            }
+        };
+    }
+
+    private static Callable<Boolean> renewalOf(final DiscoveryClient client) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return client.renew();
+            }
+        };
+    }
+
+    /**
+     * Renews all the heartbeats of a batch, recording the size of each batch.
+     */
+    private static Answer<EurekaHttpResponse<HeartbeatBatchResponse>> allRenewed(final List<Integer> batchSizes) {
+        return new Answer<EurekaHttpResponse<HeartbeatBatchResponse>>() {
+            @Override
+            public EurekaHttpResponse<HeartbeatBatchResponse> answer(InvocationOnMock invocation) throws Throwable {
+                HeartbeatBatch heartbeatBatch = (HeartbeatBatch) invocation.getArguments()[0];
+                batchSizes.add(heartbeatBatch.getHeartbeats().size());
+                HeartbeatBatchResponse batchResponse = new HeartbeatBatchResponse();
+                for (HeartbeatBatch.Heartbeat heartbeat : heartbeatBatch.getHeartbeats()) {
+                    batchResponse.addResult(new HeartbeatResult(heartbeat.getAppName(), heartbeat.getId(), 200));
+                }
+                return anEurekaHttpResponse(200, batchResponse).build();
+            }
+        };
+    }
+
+    /**
+     * A discovery client sharing the batcher, whose transport is the given client.
+     */
+    private DiscoveryClient newDiscoveryClient(InstanceInfo instanceInfo, EurekaHttpClient transport) {
+        DiscoveryClient.DiscoveryClientOptionalArgs args = new DiscoveryClient.DiscoveryClientOptionalArgs();
+        args.setHeartbeatBatcher(batcher);
+        args.setTransportClientFactories(new SingleTransportClientFactories(transport));
+        ApplicationInfoManager applicationInfoManager =
+                new ApplicationInfoManager(new MyDataCenterInstanceConfig(), new InstanceInfo(instanceInfo));
+        return new DiscoveryClient(applicationInfoManager, new DefaultEurekaClientConfig(), args);
+    }
+
+    /**
+     * Makes every transport client of a discovery client delegate to the given client.
+     */
+    private static class SingleTransportClientFactories implements TransportClientFactories<ClientFilter> {
+
+        private final TransportClientFactory transportClientFactory;
+
+        SingleTransportClientFactories(final EurekaHttpClient transport) {
+            this.transportClientFactory = new TransportClientFactory() {
+                @Override
+                public EurekaHttpClient newClient(EurekaEndpoint serviceUrl) {
+                    return transport;
+                }
+
+                @Override
+                public void shutdown() {
+                }
+            };
+        }
+
+        @Override
+        public TransportClientFactory newTransportClientFactory(Collection<ClientFilter> additionalFilters,
+                                                                EurekaJerseyClient providedJerseyClient) {
+            return transportClientFactory;
+        }
+
+        @Override
+        public TransportClientFactory newTransportClientFactory(EurekaClientConfig clientConfig,
+                                                                Collection<ClientFilter> additionalFilters,
+                                                                InstanceInfo myInstanceInfo) {
+            return transportClientFactory;
+        }
+
+        @Override
+        public TransportClientFactory newTransportClientFactory(EurekaClientConfig clientConfig,
+                                                                Collection<ClientFilter> additionalFilters,
+                                                                InstanceInfo myInstanceInfo,
+                                                                Optional<SSLContext> sslContext,
+                                                                Optional<HostnameVerifier> hostnameVerifier) {
+            return transportClientFactory;
+        }
+    }
+
+    /**
+     * A client implementing regular heartbeats only, which fail for instances with an overridden status.
+     */
+    private static class SingleHeartbeatHttpClient implements EurekaHttpClient {
+
+        private Long lastDirtyTimestamp;
+
+        @Override
+        public EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info, InstanceStatus overriddenStatus) {
+            lastDirtyTimestamp = info.getLastDirtyTimestamp();
+            return anEurekaHttpResponse(overriddenStatus == null ? 200 : 404, InstanceInfo.class).build();
+        }
+
+        @Override
+        public EurekaHttpResponse<Void> register(InstanceInfo info) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Void> cancel(String appName, String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus, InstanceInfo info) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Applications> getApplications(String... regions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Applications> getDelta(String... regions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Applications> getSecureVip(String secureVipAddress, String... regions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<Application> getApplication(String appName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<InstanceInfo> getInstance(String appName, String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EurekaHttpResponse<InstanceInfo> getInstance(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
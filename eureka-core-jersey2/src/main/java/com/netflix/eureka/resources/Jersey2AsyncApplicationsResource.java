@@ -0,0 +1,154 @@
+package com.netflix.eureka.resources;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ManagedAsyncExecutor;
+import org.glassfish.jersey.server.model.Resource;
+
+import com.netflix.appinfo.EurekaAccept;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.EurekaServerContextHolder;
+import com.netflix.eureka.cluster.PeerEurekaNode;
+
+/**
+ * Jersey2 replacement of {@link ApplicationsResource} that serves the queries of all applications and of the delta
+ * asynchronously, through {@link EurekaResources#getApplicationsAsync}. A request whose payload is being generated,
+ * for instance after the registry changed, is suspended instead of blocking a container thread, and all the
+ * requests suspended on the same payload are resumed together on the managed async executor of jersey when it is
+ * ready. The remaining requests are delegated to {@link ApplicationsResource}.
+ *
+ * <p>
+ * The class has no {@link Path} annotation, so that scanning the resource packages does not map two resources to the
+ * same path. Register the model returned by {@link #resourceModel()} and leave {@link ApplicationsResource} out.
+ * The servlet serving the resources has to support asynchronous requests.
+ * </p>
+ */
+@Produces({"application/xml", "application/json"})
+public class Jersey2AsyncApplicationsResource {
+
+    static final String PATH = "{version}/apps";
+
+    private final ApplicationsResource delegate;
+    private final EurekaResources resources;
+
+    @Inject
+    @ManagedAsyncExecutor
+    private ExecutorService responseExecutor;
+
+    @Inject
+    Jersey2AsyncApplicationsResource(EurekaServerContext eurekaServer) {
+        this.delegate = new ApplicationsResource(eurekaServer);
+        this.resources = new EurekaResources(eurekaServer);
+    }
+
+    public Jersey2AsyncApplicationsResource() {
+        this(EurekaServerContextHolder.getInstance().getServerContext());
+    }
+
+    /**
+     * @return the model of this resource at the path of {@link ApplicationsResource}, to register with
+     *         {@link org.glassfish.jersey.server.ResourceConfig#registerResources}
+     */
+    public static Resource resourceModel() {
+        return Resource.builder(Jersey2AsyncApplicationsResource.class).path(PATH).build();
+    }
+
+    /**
+     * See {@link ApplicationsResource#getContainers}.
+     */
+    @GET
+    public void getContainers(@PathParam("version") String version,
+                              @HeaderParam(HttpHeaders.ACCEPT) String acceptHeader,
+                              @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                              @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
+                              @Nullable @QueryParam("regions") String regionsStr,
+                              @Nullable @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                              @Suspended AsyncResponse asyncResponse) {
+        resumeWithApplications(version, acceptHeader, acceptEncoding, eurekaAccept, regionsStr, ifNoneMatch,
+                false, asyncResponse);
+    }
+
+    /**
+     * See {@link ApplicationsResource#getContainerDifferential}. The changes after a given version are specific to
+     * the requesting client, so these requests are served synchronously.
+     */
+    @Path("delta")
+    @GET
+    public void getContainerDifferential(@PathParam("version") String version,
+                                         @HeaderParam(HttpHeaders.ACCEPT) String acceptHeader,
+                                         @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                                         @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
+                                         @Nullable @QueryParam("regions") String regionsStr,
+                                         @Nullable @QueryParam("since") String sinceStr,
+                                         @Nullable @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                         @Suspended AsyncResponse asyncResponse) {
+        if (sinceStr != null && !sinceStr.isEmpty()) {
+            asyncResponse.resume(resources.getApplicationsDelta(version, acceptHeader, acceptEncoding,
+                    eurekaAccept, regionsStr, sinceStr, ifNoneMatch));
+            return;
+        }
+        resumeWithApplications(version, acceptHeader, acceptEncoding, eurekaAccept, regionsStr, ifNoneMatch,
+                true, asyncResponse);
+    }
+
+    /**
+     * See {@link ApplicationsResource#getApplicationResource}.
+     */
+    @Path("{appId}")
+    public ApplicationResource getApplicationResource(@PathParam("version") String version,
+                                                      @PathParam("appId") String appId) {
+        return delegate.getApplicationResource(version, appId);
+    }
+
+    /**
+     * See {@link ApplicationsResource#batchHeartbeats}.
+     */
+    @Path("heartbeats")
+    @POST
+    @Consumes("application/json")
+    @Produces("application/json")
+    public Response batchHeartbeats(@PathParam("version") String version,
+                                    @HeaderParam(PeerEurekaNode.HEADER_REPLICATION) String isReplication,
+                                    HeartbeatBatch heartbeatBatch) {
+        return delegate.batchHeartbeats(version, isReplication, heartbeatBatch);
+    }
+
+    private void resumeWithApplications(String version,
+                                        String acceptHeader,
+                                        String acceptEncoding,
+                                        String eurekaAccept,
+                                        @Nullable String regionsStr,
+                                        @Nullable String ifNoneMatch,
+                                        boolean delta,
+                                        final AsyncResponse asyncResponse) {
+        resources.getApplicationsAsync(version, acceptHeader, acceptEncoding, eurekaAccept, regionsStr, ifNoneMatch,
+                delta, responseExecutor
+        ).whenComplete(new BiConsumer<Response, Throwable>() {
+            @Override
+            public void accept(Response response, Throwable error) {
+                if (error != null) {
+                    asyncResponse.resume(error);
+                } else {
+                    asyncResponse.resume(response);
+                }
+            }
+        });
+    }
+}
@@ -29,6 +29,8 @@ import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.EurekaServerIdentity;
 import com.netflix.eureka.cluster.HttpReplicationClient;
 import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
 import com.netflix.eureka.resources.ASGResource.ASGStatus;
@@ -126,6 +128,26 @@ public class Jersey2ReplicationClient extends AbstractJersey2EurekaHttpClient im
         }
     }
 
+    @Override
+    public EurekaHttpResponse<HeartbeatReplicationListResponse> submitHeartbeats(HeartbeatReplicationList heartbeatList) {
+        Response response = null;
+        try {
+            response = jerseyClient.target(serviceUrl)
+                    .path(PeerEurekaNode.HEARTBEATS_URL_PATH)
+                    .request(MediaType.APPLICATION_JSON_TYPE)
+                    .post(Entity.json(heartbeatList));
+            if (!isSuccess(response.getStatus())) {
+                return anEurekaHttpResponse(response.getStatus(), HeartbeatReplicationListResponse.class).build();
+            }
+            HeartbeatReplicationListResponse heartbeatsResponse = response.readEntity(HeartbeatReplicationListResponse.class);
+            return anEurekaHttpResponse(response.getStatus(), heartbeatsResponse).type(MediaType.APPLICATION_JSON_TYPE).build();
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.eureka.RateLimitingFilter.Target;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.registry.ResponseCache;
+
+/**
+ * Load adaptive admission of the registry fetches of non privileged clients, used by the {@link RateLimitingFilter}.
+ * The load of the server is the highest of two ratios: the smoothed time to first byte of the full and delta
+ * registry fetches to {@link EurekaServerConfig#getRateLimiterTargetFetchLatencyMs()}, and the payload generation
+ * time of the response cache to {@link EurekaServerConfig#getRateLimiterTargetPayloadGenerationMs()}.
+ * <p>
+ * Above a load of 1, a share of the full fetches growing with the load is shed. Above a load of 2, the delta fetches
+ * are shed the same way. At most {@link #MAX_SHED_RATIO} of a kind of fetch is shed, so that the latency keeps being
+ * measured and the server recovers once the load goes down. Other requests are never shed.
+ */
+class AdmissionController {
+
+    static final double MAX_SHED_RATIO = 0.9;
+
+    // Weight of the latest request in the smoothed fetch latency
+    private static final double LATENCY_WEIGHT = 0.05;
+
+    private final EurekaServerConfig serverConfig;
+    private final PeerAwareInstanceRegistry registry;
+    private final AtomicLong fetchLatencyNanos = new AtomicLong();
+
+    /**
+     * @param registry the registry whose response cache is watched, or null to watch the fetch latency only
+     */
+    AdmissionController(EurekaServerConfig serverConfig, PeerAwareInstanceRegistry registry) {
+        this.serverConfig = serverConfig;
+        this.registry = registry;
+    }
+
+    /**
+     * @return true if the fetch is to be shed, given the current load
+     */
+    boolean shouldShed(Target target) {
+        double shedRatio = getShedRatio(target);
+        return shedRatio > 0 && ThreadLocalRandom.current().nextDouble() < shedRatio;
+    }
+
+    double getShedRatio(Target target) {
+        double load = getLoad();
+        double overload;
+        if (target == Target.FullFetch) {
+            overload = load - 1;
+        } else if (target == Target.DeltaFetch) {
+            overload = load - 2;
+        } else {
+            return 0;
+        }
+        return Math.max(0, Math.min(MAX_SHED_RATIO, overload));
+    }
+
+    /**
+     * Records the time to first byte of an admitted full or delta registry fetch.
+     */
+    void fetchCompleted(long latencyNanos) {
+        long current;
+        long next;
+        do {
+            current = fetchLatencyNanos.get();
+            next = current + (long) ((latencyNanos - current) * LATENCY_WEIGHT);
+        } while (!fetchLatencyNanos.compareAndSet(current, next));
+    }
+
+    /**
+     * @return the load of the server, where 1 means that a measure reached its target
+     */
+    double getLoad() {
+        double latencyLoad = fetchLatencyNanos.get()
+                / (double) TimeUnit.MILLISECONDS.toNanos(Math.max(1, serverConfig.getRateLimiterTargetFetchLatencyMs()));
+        ResponseCache responseCache = registry == null ? null : registry.getResponseCache();
+        if (responseCache == null) {
+            return latencyLoad;
+        }
+        double generationLoad = responseCache.getPayloadGenerationTimeMs()
+                / (double) Math.max(1, serverConfig.getRateLimiterTargetPayloadGenerationMs());
+        return Math.max(latencyLoad, generationLoad);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.appinfo.AbstractEurekaIdentity;
+import com.netflix.discovery.util.RateLimiter;
+import com.netflix.discovery.util.ServoUtil;
+import com.netflix.eureka.RateLimitingFilter.Target;
+import com.netflix.servo.monitor.BasicCounter;
+import com.netflix.servo.monitor.MonitorConfig;
+
+/**
+ * The rate limiters of the {@link RateLimitingFilter} when {@link EurekaServerConfig#isRateLimiterPerClient()} is
+ * set: each client, identified as configured by {@link EurekaServerConfig#getRateLimiterClientKey()}, has its own
+ * registry fetch and full fetch buckets. The configured average rates are shared equally by the active clients,
+ * with at least one request per second each, so that a client sending more than its share is throttled while the
+ * others are still served. These buckets come on top of the global buckets of the {@link RateLimitingFilter}.
+ * <p>
+ * Beyond {@link EurekaServerConfig#getRateLimiterMaxClients()} clients, the new clients share one more set of
+ * buckets, until idle clients are evicted. The throttled requests of each client are counted by a
+ * <code>rateLimiter.clientThrottled</code> counter tagged with the client, registered on the first throttled
+ * request and unregistered when the client is evicted.
+ */
+class ClientRateLimiters {
+
+    static final String CLIENT_KEY_IP = "ip";
+    static final String OVERFLOW_CLIENT = "overflow";
+
+    private final EurekaServerConfig serverConfig;
+
+    // Striped for updates, and lock-free for the lookups of the clients already known
+    private final ConcurrentMap<String, ClientRateLimiter> clientRateLimiters = new ConcurrentHashMap<>();
+    private final ClientRateLimiter overflowRateLimiter = new ClientRateLimiter(OVERFLOW_CLIENT);
+    private final AtomicLong lastEvictionTime = new AtomicLong(System.currentTimeMillis());
+
+    ClientRateLimiters(EurekaServerConfig serverConfig) {
+        this.serverConfig = serverConfig;
+    }
+
+    /**
+     * @return true if the client of the request has exceeded its share of the budget of the given target
+     */
+    boolean isOverloaded(HttpServletRequest request, Target target) {
+        long now = System.currentTimeMillis();
+        evictIdleClients(now);
+
+        ClientRateLimiter rateLimiter = getRateLimiter(getClientKey(request), now);
+        int clientCount = Math.max(1, clientRateLimiters.size());
+        int maxInWindow = serverConfig.getRateLimiterClientBurstSize();
+        int fetchWindowSize = fairShare(serverConfig.getRateLimiterRegistryFetchAverageRate(), clientCount);
+        boolean overloaded = !rateLimiter.registryFetchRateLimiter.acquire(maxInWindow, fetchWindowSize, now);
+
+        if (target == Target.FullFetch) {
+            int fullFetchWindowSize = fairShare(serverConfig.getRateLimiterFullFetchAverageRate(), clientCount);
+            overloaded |= !rateLimiter.registryFullFetchRateLimiter.acquire(maxInWindow, fullFetchWindowSize, now);
+        }
+        if (overloaded) {
+            rateLimiter.throttled();
+        }
+        return overloaded;
+    }
+
+    String getClientKey(HttpServletRequest request) {
+        if (!CLIENT_KEY_IP.equals(serverConfig.getRateLimiterClientKey())) {
+            String clientName = request.getHeader(AbstractEurekaIdentity.AUTH_NAME_HEADER_KEY);
+            if (clientName != null) {
+                return clientName;
+            }
+        }
+        return String.valueOf(request.getRemoteAddr());
+    }
+
+    int getClientCount() {
+        return clientRateLimiters.size();
+    }
+
+    /**
+     * Unregisters the throttle counters of all clients, and forgets them.
+     */
+    void clear() {
+        for (Iterator<ClientRateLimiter> it = clientRateLimiters.values().iterator(); it.hasNext(); ) {
+            it.next().unregister();
+            it.remove();
+        }
+        overflowRateLimiter.unregister();
+    }
+
+    private ClientRateLimiter getRateLimiter(String clientKey, long now) {
+        ClientRateLimiter rateLimiter = clientRateLimiters.get(clientKey);
+        if (rateLimiter == null) {
+            if (clientRateLimiters.size() >= serverConfig.getRateLimiterMaxClients()) {
+                rateLimiter = overflowRateLimiter;
+            } else {
+                ClientRateLimiter newRateLimiter = new ClientRateLimiter(clientKey);
+                rateLimiter = clientRateLimiters.putIfAbsent(clientKey, newRateLimiter);
+                if (rateLimiter == null) {
+                    rateLimiter = newRateLimiter;
+                }
+            }
+        }
+        rateLimiter.lastAccessTime = now;
+        return rateLimiter;
+    }
+
+    /**
+     * Evicts the clients idle for longer than the configured timeout. At most one thread sweeps the map, once every
+     * half timeout.
+     */
+    private void evictIdleClients(long now) {
+        long idleTimeout = serverConfig.getRateLimiterClientIdleTimeoutMs();
+        long lastEviction = lastEvictionTime.get();
+        if (now - lastEviction < idleTimeout / 2 || !lastEvictionTime.compareAndSet(lastEviction, now)) {
+            return;
+        }
+        for (Iterator<ClientRateLimiter> it = clientRateLimiters.values().iterator(); it.hasNext(); ) {
+            ClientRateLimiter rateLimiter = it.next();
+            if (now - rateLimiter.lastAccessTime > idleTimeout) {
+                it.remove();
+                rateLimiter.unregister();
+            }
+        }
+    }
+
+    private static int fairShare(int averageRate, int clientCount) {
+        if (averageRate <= 0) {  // rate limiting disabled
+            return averageRate;
+        }
+        return Math.max(1, averageRate / clientCount);
+    }
+
+    private static class ClientRateLimiter {
+
+        private final String clientKey;
+        private final RateLimiter registryFetchRateLimiter = new RateLimiter(TimeUnit.SECONDS);
+        private final RateLimiter registryFullFetchRateLimiter = new RateLimiter(TimeUnit.SECONDS);
+
+        private volatile long lastAccessTime;
+        private BasicCounter throttledCounter;
+        private boolean unregistered;
+
+        ClientRateLimiter(String clientKey) {
+            this.clientKey = clientKey;
+        }
+
+        void throttled() {
+            BasicCounter counter;
+            synchronized (this) {
+                if (unregistered) {  // evicted while in use
+                    return;
+                }
+                if (throttledCounter == null) {
+                    throttledCounter = new BasicCounter(
+                            MonitorConfig.builder("rateLimiter.clientThrottled").withTag("client", clientKey).build()
+                    );
+                    ServoUtil.register(throttledCounter);
+                }
+                counter = throttledCounter;
+            }
+            counter.increment();
+        }
+
+        synchronized long getThrottledCount() {
+            return throttledCounter == null ? 0 : throttledCounter.getValue().longValue();
+        }
+
+        synchronized void unregister() {
+            ServoUtil.unregister(throttledCounter);
+            throttledCounter = null;
+            unregistered = true;
+        }
+    }
+
+    // For testing purposes
+    long getThrottledCount(String clientKey) {
+        ClientRateLimiter rateLimiter = OVERFLOW_CLIENT.equals(clientKey)
+                ? overflowRateLimiter
+                : clientRateLimiters.get(clientKey);
+        return rateLimiter == null ? 0 : rateLimiter.getThrottledCount();
+    }
+}
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.Deflater;
 
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
@@ -86,6 +87,14 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
     private final DynamicIntProperty rateLimiterBurstSize = configInstance.getIntProperty(namespace + "rateLimiter.burstSize", 10);
     private final DynamicIntProperty rateLimiterRegistryFetchAverageRate = configInstance.getIntProperty(namespace + "rateLimiter.registryFetchAverageRate", 500);
     private final DynamicIntProperty rateLimiterFullFetchAverageRate = configInstance.getIntProperty(namespace + "rateLimiter.fullFetchAverageRate", 100);
+    private final DynamicBooleanProperty rateLimiterAdaptive = configInstance.getBooleanProperty(namespace + "rateLimiter.adaptive", false);
+    private final DynamicIntProperty rateLimiterTargetFetchLatencyMs = configInstance.getIntProperty(namespace + "rateLimiter.targetFetchLatencyMs", 1000);
+    private final DynamicIntProperty rateLimiterTargetPayloadGenerationMs = configInstance.getIntProperty(namespace + "rateLimiter.targetPayloadGenerationMs", 5000);
+    private final DynamicBooleanProperty rateLimiterPerClient = configInstance.getBooleanProperty(namespace + "rateLimiter.perClient", false);
+    private final DynamicIntProperty rateLimiterClientBurstSize = configInstance.getIntProperty(namespace + "rateLimiter.clientBurstSize", 5);
+    private final DynamicStringProperty rateLimiterClientKey = configInstance.getStringProperty(namespace + "rateLimiter.clientKey", "identity");
+    private final DynamicIntProperty rateLimiterMaxClients = configInstance.getIntProperty(namespace + "rateLimiter.maxClients", 10000);
+    private final DynamicIntProperty rateLimiterClientIdleTimeoutMs = configInstance.getIntProperty(namespace + "rateLimiter.clientIdleTimeoutMs", 5 * 60 * 1000);
 
     private final DynamicStringProperty listAutoScalingGroupsRoleName =
             configInstance.getStringProperty(namespace + "listAutoScalingGroupsRoleName", "ListAutoScalingGroups");
@@ -310,6 +319,12 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
                 .get();
     }
 
+    @Override
+    public int getDeltaChangeLogCapacity() {
+        return configInstance.getIntProperty(
+                namespace + "deltaChangeLogCapacity", 128 * 1024).get();
+    }
+
     @Override
     public long getEvictionIntervalTimerInMs() {
         return configInstance.getLongProperty(
@@ -357,6 +372,66 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
                 namespace + "shouldUseReadOnlyResponseCache", true).get();
     }
 
+    @Override
+    public boolean shouldRefreshReadOnlyResponseCacheOnChange() {
+        return configInstance.getBooleanProperty(
+                namespace + "refreshReadOnlyResponseCacheOnChange", false).get();
+    }
+
+    @Override
+    public long getResponseCacheMinRefreshIntervalMs() {
+        return configInstance.getLongProperty(
+                namespace + "responseCacheMinRefreshIntervalMs", 1000).get();
+    }
+
+    @Override
+    public long getResponseCacheFullUpdateIntervalMs() {
+        return configInstance.getLongProperty(
+                namespace + "responseCacheFullUpdateIntervalMs", (5 * 60 * 1000)).get();
+    }
+
+    @Override
+    public boolean shouldUseApplicationFragmentsInResponseCache() {
+        return configInstance.getBooleanProperty(
+                namespace + "useApplicationFragmentsInResponseCache", false).get();
+    }
+
+    @Override
+    public boolean shouldUseDirectBuffersInResponseCache() {
+        return configInstance.getBooleanProperty(
+                namespace + "useDirectBuffersInResponseCache", false).get();
+    }
+
+    @Override
+    public long getResponseCacheMaxSizeInBytes() {
+        return configInstance.getLongProperty(
+                namespace + "responseCacheMaxSizeInBytes", 0).get();
+    }
+
+    @Override
+    public long getResponseCacheDeltaSinceMaxSizeInBytes() {
+        return configInstance.getLongProperty(
+                namespace + "responseCacheDeltaSinceMaxSizeInBytes", 0).get();
+    }
+
+    @Override
+    public boolean shouldCompressResponseCachePayloadsOnDemand() {
+        return configInstance.getBooleanProperty(
+                namespace + "compressResponseCachePayloadsOnDemand", false).get();
+    }
+
+    @Override
+    public int getResponseCacheCompressionLevel() {
+        return configInstance.getIntProperty(
+                namespace + "responseCacheCompressionLevel", Deflater.DEFAULT_COMPRESSION).get();
+    }
+
+    @Override
+    public int getResponseCacheAsyncLoaderThreadPoolSize() {
+        return configInstance.getIntProperty(
+                namespace + "responseCacheAsyncLoaderThreadPoolSize", 4).get();
+    }
+
     @Override
     public boolean shouldDisableDelta() {
         return configInstance.getBooleanProperty(namespace + "disableDelta",
@@ -407,6 +482,24 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
                 namespace + "registrySyncRetryWaitMs", 30 * 1000).get();
     }
 
+    @Override
+    public String getRegistrySnapshotFile() {
+        return configInstance.getStringProperty(
+                namespace + "registrySnapshotFile", null).get();
+    }
+
+    @Override
+    public long getRegistrySnapshotIntervalMs() {
+        return configInstance.getLongProperty(
+                namespace + "registrySnapshotIntervalMs", 30 * 1000).get();
+    }
+
+    @Override
+    public long getRegistrySnapshotMaxAgeMs() {
+        return configInstance.getLongProperty(
+                namespace + "registrySnapshotMaxAgeMs", 10 * 60 * 1000).get();
+    }
+
     @Override
     public int getMaxElementsInPeerReplicationPool() {
         return configInstance.getIntProperty(
@@ -432,6 +525,12 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
                 namespace + "maxThreadsForPeerReplication", 20).get();
     }
 
+    @Override
+    public int getMaxThreadsForBatchReplicationProcessing() {
+        return configInstance.getIntProperty(
+                namespace + "maxThreadsForBatchReplicationProcessing", 0).get();
+    }
+
     @Override
     public int getMaxTimeForReplication() {
         return configInstance.getIntProperty(
@@ -609,6 +708,32 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
         return configInstance.getBooleanProperty(namespace + "shouldBatchReplication", false).get();
     }
 
+    @Override
+    public boolean shouldCompactHeartbeatReplication() {
+        return configInstance.getBooleanProperty(namespace + "shouldCompactHeartbeatReplication", false).get();
+    }
+
+    @Override
+    public long getCompactHeartbeatReplicationRetryIntervalMs() {
+        return configInstance.getLongProperty(namespace + "compactHeartbeatReplicationRetryIntervalMs",
+                (5 * 60 * 1000)).get();
+    }
+
+    @Override
+    public boolean shouldAdaptReplicationBatching() {
+        return configInstance.getBooleanProperty(namespace + "shouldAdaptReplicationBatching", false).get();
+    }
+
+    @Override
+    public int getMaxReplicationBatchSize() {
+        return configInstance.getIntProperty(namespace + "maxReplicationBatchSize", 1000).get();
+    }
+
+    @Override
+    public long getReplicationBatchTargetLatencyMs() {
+        return configInstance.getLongProperty(namespace + "replicationBatchTargetLatencyMs", 1000).get();
+    }
+
     @Override
     public String getMyUrl() {
         return myUrl.get();
@@ -661,6 +786,46 @@ public class DefaultEurekaServerConfig implements EurekaServerConfig {
         return rateLimiterFullFetchAverageRate.get();
     }
 
+    @Override
+    public boolean isRateLimiterAdaptive() {
+        return rateLimiterAdaptive.get();
+    }
+
+    @Override
+    public int getRateLimiterTargetFetchLatencyMs() {
+        return rateLimiterTargetFetchLatencyMs.get();
+    }
+
+    @Override
+    public int getRateLimiterTargetPayloadGenerationMs() {
+        return rateLimiterTargetPayloadGenerationMs.get();
+    }
+
+    @Override
+    public boolean isRateLimiterPerClient() {
+        return rateLimiterPerClient.get();
+    }
+
+    @Override
+    public int getRateLimiterClientBurstSize() {
+        return rateLimiterClientBurstSize.get();
+    }
+
+    @Override
+    public String getRateLimiterClientKey() {
+        return rateLimiterClientKey.get();
+    }
+
+    @Override
+    public int getRateLimiterMaxClients() {
+        return rateLimiterMaxClients.get();
+    }
+
+    @Override
+    public int getRateLimiterClientIdleTimeoutMs() {
+        return rateLimiterClientIdleTimeoutMs.get();
+    }
+
     @Override
     public String getListAutoScalingGroupsRoleName() {
         return listAutoScalingGroupsRoleName.get();
@@ -257,6 +257,15 @@ public interface EurekaServerConfig {
      */
     long getDeltaRetentionTimerIntervalInMs();
 
+    /**
+     * Get the maximum number of registry changes kept in the delta change log. Changes are dropped from the log
+     * after {@link #getRetentionTimeInMSInDeltaQueue()}, or earlier if more changes than this happen within the
+     * retention window. The value is rounded up to the nearest power of two.
+     *
+     * @return the maximum number of retained registry changes.
+     */
+    int getDeltaChangeLogCapacity();
+
     /**
      * Get the time interval with which the task that expires instances should
      * wake up and run.
@@ -320,6 +329,97 @@ public interface EurekaServerConfig {
      */
     boolean shouldUseReadOnlyResponseCache();
 
+    /**
+     * If true, an invalidation of the response cache also marks the matching entries of the read only cache as
+     * dirty, and these entries are regenerated shortly after in the background, instead of waiting for the next
+     * periodic update. Every {@link #getResponseCacheUpdateIntervalMs()}, only the entries that include remote
+     * regions are updated, as remote region updates are not signalled by an invalidation. All the entries are
+     * updated every {@link #getResponseCacheFullUpdateIntervalMs()}, as a safety net for the other changes not
+     * signalled, like the fallback of an application query to a remote region.
+     *
+     * @return true if the read only cache is refreshed on registry changes
+     */
+    boolean shouldRefreshReadOnlyResponseCacheOnChange();
+
+    /**
+     * Gets the minimum time between two refreshes of the read only cache triggered by registry changes.
+     * Changes happening within this interval are coalesced into a single refresh.
+     *
+     * @return time in milliseconds.
+     */
+    long getResponseCacheMinRefreshIntervalMs();
+
+    /**
+     * Gets the time between two updates of all the entries of the read only cache, when it is refreshed on
+     * registry changes, see {@link #shouldRefreshReadOnlyResponseCacheOnChange()}.
+     *
+     * @return time in milliseconds.
+     */
+    long getResponseCacheFullUpdateIntervalMs();
+
+    /**
+     * If true, the response cache encodes each application of the local region separately, and assembles the
+     * payload of all applications from these encoded fragments. Only the applications changed since the previous
+     * cache fill are encoded again. Payloads that include remote regions are always encoded as a whole.
+     *
+     * @return true if the payload of all applications is assembled from per application fragments
+     */
+    boolean shouldUseApplicationFragmentsInResponseCache();
+
+    /**
+     * If true, the payloads of the response cache are kept in direct (off-heap) buffers, which reduces the heap
+     * used by large registries at the cost of a copy through a small buffer when writing a response.
+     *
+     * @return true if the response cache payloads are kept off-heap
+     */
+    boolean shouldUseDirectBuffersInResponseCache();
+
+    /**
+     * The maximum size in bytes of the payloads held by the response cache, counting both the uncompressed and the
+     * compressed form of each payload. When the budget is exceeded, the least recently used entries are evicted,
+     * from the read only cache as well. The budget should be a few times the size of the largest payload, which is
+     * the one of all applications. A value of 0 or less means the cache is bounded only by expiry.
+     *
+     * @return the maximum size of the response cache in bytes, or 0 if it is not bounded
+     */
+    long getResponseCacheMaxSizeInBytes();
+
+    /**
+     * The maximum size in bytes of the cached payloads of the changes after a given registry version, counting both
+     * the uncompressed and the compressed form of each payload. These payloads are kept apart from the regular
+     * response cache. A value of 0 or less keeps the last 64 payloads, whatever their size.
+     *
+     * @return the maximum size of the cached changes after a version in bytes, or 0 to bound them by count
+     */
+    long getResponseCacheDeltaSinceMaxSizeInBytes();
+
+    /**
+     * If true, the gzip and deflate variants of a response cache payload are compressed on the first request for
+     * them, instead of compressing every payload to gzip when it is cached. Payloads that are never requested
+     * compressed are then never compressed. A variant compressed on demand is weighed against
+     * {@link #getResponseCacheMaxSizeInBytes()} once it is made, which restarts the expiry of its payload.
+     *
+     * @return true if compressed payloads are made on demand
+     */
+    boolean shouldCompressResponseCachePayloadsOnDemand();
+
+    /**
+     * The compression level of the gzip and deflate response cache payloads, from 0 (no compression) to 9 (best
+     * compression), or -1 for the default level of {@link java.util.zip.Deflater}.
+     *
+     * @return the compression level of the response cache payloads
+     */
+    int getResponseCacheCompressionLevel();
+
+    /**
+     * The number of threads that generate the response cache payloads requested asynchronously, see
+     * {@link com.netflix.eureka.registry.ResponseCache#getPayloadAsync}. The waiting requests are completed on the
+     * executor of the container. The threads are started on the first asynchronous request.
+     *
+     * @return the size of the asynchronous loader thread pool of the response cache
+     */
+    int getResponseCacheAsyncLoaderThreadPoolSize();
+
     /**
      * Checks to see if the delta information can be served to client or not.
      * <p>
@@ -392,6 +492,30 @@ public interface EurekaServerConfig {
      */
     long getRegistrySyncRetryWaitMs();
 
+    /**
+     * Get the file the local registry is periodically saved to, and restored from on startup, so that a node
+     * restarting with its peers can serve the registry without waiting for all clients to register again. The
+     * restored registry is complemented by the one of the peers, as without a snapshot.
+     *
+     * @return the path of the registry snapshot file, or null to disable the snapshots
+     */
+    String getRegistrySnapshotFile();
+
+    /**
+     * Get the interval between the snapshots of the local registry, see {@link #getRegistrySnapshotFile()}.
+     *
+     * @return the interval in ms between the registry snapshots
+     */
+    long getRegistrySnapshotIntervalMs();
+
+    /**
+     * Get the maximum age of a registry snapshot restored on startup. Older snapshots are ignored, as most of
+     * their instances are likely gone.
+     *
+     * @return the maximum age in ms of a restored registry snapshot
+     */
+    long getRegistrySnapshotMaxAgeMs();
+
     /**
      * Get the maximum number of replication events that can be allowed to back
      * up in the replication pool. This replication pool is responsible for all
@@ -427,6 +551,15 @@ public interface EurekaServerConfig {
      */
     int getMaxThreadsForPeerReplication();
 
+    /**
+     * Get the number of threads processing the items of the replication batches received from the peers. The items
+     * of an instance are processed in order, and the items of different instances in parallel. With 0 threads,
+     * the items are processed one at a time by the thread of the request.
+     *
+     * @return the number of threads processing the replication batches of the peers.
+     */
+    int getMaxThreadsForBatchReplicationProcessing();
+
     /**
      * Get the minimum number of available peer replication instances
      * for this instance to be considered healthy. The design of eureka allows
@@ -590,6 +723,49 @@ public interface EurekaServerConfig {
      */
     boolean shouldBatchReplication();
 
+    /**
+     * Indicates whether the batched replication sends the heartbeats to the peers in a compact form, holding only
+     * the instance id and last dirty timestamp of each heartbeat, grouped by application. A peer not supporting it
+     * gets the heartbeats in regular batches.
+     *
+     * @return {@code true} if the replicated heartbeats should be compacted.
+     */
+    boolean shouldCompactHeartbeatReplication();
+
+    /**
+     * Get the time in milliseconds after which a peer that answered it does not support compact heartbeats is
+     * sent them again, so that a peer upgraded since gets them.
+     *
+     * @return time in milliseconds.
+     */
+    long getCompactHeartbeatReplicationRetryIntervalMs();
+
+    /**
+     * Indicates whether the size of the replication batches sent to each peer, and the delay to gather them, adapt
+     * to the time the peer takes to process them. While the peer answers within
+     * {@link #getReplicationBatchTargetLatencyMs()}, the batches grow up to {@link #getMaxReplicationBatchSize()} and
+     * are sent more often; a slower answer, a timeout or an unavailable peer halves the batch size and doubles the
+     * delay. Otherwise the batches hold up to 250 items, gathered for 500 milliseconds.
+     *
+     * @return {@code true} if the replication batches should adapt to the peers.
+     */
+    boolean shouldAdaptReplicationBatching();
+
+    /**
+     * Get the largest replication batch an adaptive batching can grow to.
+     *
+     * @return the maximum number of items in a replication batch.
+     */
+    int getMaxReplicationBatchSize();
+
+    /**
+     * Get the time within which a peer is expected to process a replication batch, for the adaptive batching to
+     * consider it healthy.
+     *
+     * @return the target replication batch latency in milliseconds.
+     */
+    long getReplicationBatchTargetLatencyMs();
+
     /**
      * Allows to configure URL which Eureka should treat as its own during replication. In some cases Eureka URLs don't
      * match IP address or hostname (for example, when nodes are behind load balancers). Setting this parameter on each
@@ -640,6 +816,61 @@ public interface EurekaServerConfig {
      */
     int getRateLimiterFullFetchAverageRate();
 
+    /**
+     * Indicates whether the rate limiter also sheds registry fetches of non privileged clients according to the
+     * load of the server, measured by the fetch latency and the payload generation time of the response cache.
+     * Full fetches are shed first, then delta fetches. See also {@link #getRateLimiterTargetFetchLatencyMs()} and
+     * {@link #getRateLimiterTargetPayloadGenerationMs()}.
+     */
+    boolean isRateLimiterAdaptive();
+
+    /**
+     * Adaptive rate limiter property. The time to first byte of the full and delta registry fetches, in
+     * milliseconds, above which the server is considered overloaded.
+     */
+    int getRateLimiterTargetFetchLatencyMs();
+
+    /**
+     * Adaptive rate limiter property. The time to generate the payload of all applications or of the delta, in
+     * milliseconds, above which the server is considered overloaded.
+     */
+    int getRateLimiterTargetPayloadGenerationMs();
+
+    /**
+     * Indicates whether each client gets its own rate limiter buckets, so that a single client cannot exhaust the
+     * budget of all the others. The average rates of {@link #getRateLimiterRegistryFetchAverageRate()} and
+     * {@link #getRateLimiterFullFetchAverageRate()} are shared equally by the active clients, and each client may
+     * burst up to {@link #getRateLimiterClientBurstSize()} requests. The requests admitted by the buckets of their
+     * client still take from the global buckets, which keep capping the total rate of the fetches.
+     */
+    boolean isRateLimiterPerClient();
+
+    /**
+     * Per client rate limiter property. The maximum number of requests a single client may send as a burst. It is
+     * meant to be lower than {@link #getRateLimiterBurstSize()}, so that one client bursting does not empty the
+     * global buckets.
+     */
+    int getRateLimiterClientBurstSize();
+
+    /**
+     * Per client rate limiter property. How a client is identified: <code>identity</code> for the client name of
+     * the {@link com.netflix.appinfo.AbstractEurekaIdentity} headers, falling back to the source address, or
+     * <code>ip</code> for the source address.
+     */
+    String getRateLimiterClientKey();
+
+    /**
+     * Per client rate limiter property. The maximum number of clients with their own buckets. Further clients share
+     * the buckets of the rate limiter until idle clients are evicted.
+     */
+    int getRateLimiterMaxClients();
+
+    /**
+     * Per client rate limiter property. The time, in milliseconds, after which the buckets of a client that made no
+     * request are evicted.
+     */
+    int getRateLimiterClientIdleTimeoutMs();
+
     /**
      * Name of the Role used to describe auto scaling groups from third AWS accounts.
      */
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.CurrentRequestVersion;
+import com.netflix.eureka.resources.Heartbeats;
+
+/**
+ * Serves the heartbeats of the clients, <code>PUT /{version}/apps/{appId}/{id}</code>, without going through
+ * <em>jersey</em>. The lease is renewed, replicated and counted as by
+ * {@link com.netflix.eureka.resources.InstanceResource#renewLease}, calling the registry directly, without the
+ * resource matching and injection, and without creating resources or a response. Heartbeats replicated from other
+ * nodes may be answered with the registry copy of the instance, so they are left to <em>jersey</em>, as are the
+ * requests whose path or parameters need decoding or validation.
+ * <p>
+ * The filter is optional. It is mapped to the paths of the applications, after the filters that apply to all
+ * requests and before <em>jersey</em>.
+ */
+@Singleton
+public class HeartbeatFilter implements Filter {
+
+    private static final String APPS_SEGMENT = "apps";
+
+    private EurekaServerConfig serverConfig;
+    private PeerAwareInstanceRegistry registry;
+
+    @Inject
+    public HeartbeatFilter(EurekaServerContext server) {
+        this.serverConfig = server.getServerConfig();
+        this.registry = server.getRegistry();
+    }
+
+    // for non-DI use
+    public HeartbeatFilter() {
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        if (registry == null) {
+            EurekaServerContext serverContext = (EurekaServerContext) filterConfig.getServletContext()
+                    .getAttribute(EurekaServerContext.class.getName());
+            serverConfig = serverContext.getServerConfig();
+            registry = serverContext.getRegistry();
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof HttpServletRequest && response instanceof HttpServletResponse) {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            String[] pathSegments = getHeartbeatPath(httpRequest);
+            if (pathSegments != null) {
+                renewLease(httpRequest, (HttpServletResponse) response, pathSegments);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        // nothing to do here
+    }
+
+    private void renewLease(HttpServletRequest request, HttpServletResponse response, String[] pathSegments) {
+        CurrentRequestVersion.set(Version.toEnum(pathSegments[1]));
+        try {
+            String lastDirtyTimestamp = request.getParameter("lastDirtyTimestamp");
+            int statusCode = Heartbeats.renewLease(
+                    serverConfig,
+                    registry,
+                    pathSegments[3],
+                    pathSegments[4],
+                    lastDirtyTimestamp == null ? null : Long.valueOf(lastDirtyTimestamp)
+            );
+            response.setStatus(statusCode);
+            response.setContentLength(0);
+        } finally {
+            CurrentRequestVersion.remove();
+        }
+    }
+
+    /**
+     * @return the segments of the path of a heartbeat served by this filter, that is an empty segment, the version,
+     *         <code>apps</code>, the application name and the instance id, or null if the request is left to
+     *         <em>jersey</em>
+     */
+    static String[] getHeartbeatPath(HttpServletRequest request) {
+        if (!"PUT".equals(request.getMethod()) || "true".equals(request.getHeader(PeerEurekaNode.HEADER_REPLICATION))) {
+            return null;
+        }
+        String lastDirtyTimestamp = request.getParameter("lastDirtyTimestamp");
+        if (lastDirtyTimestamp != null && !isLong(lastDirtyTimestamp)) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/") || path.indexOf('%') >= 0 || path.indexOf(';') >= 0) {
+            return null;
+        }
+        String[] pathSegments = path.split("/");
+        if (pathSegments.length != 5 || !pathSegments[0].isEmpty() || !APPS_SEGMENT.equals(pathSegments[2])) {
+            return null;
+        }
+        for (int i = 1; i < pathSegments.length; i++) {
+            if (pathSegments[i].isEmpty()) {
+                return null;
+            }
+        }
+        return pathSegments;
+    }
+
+    private static boolean isLong(String value) {
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
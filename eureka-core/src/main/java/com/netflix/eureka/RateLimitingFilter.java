@@ -22,11 +22,14 @@ import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -82,6 +85,19 @@ import org.slf4j.LoggerFactory;
  * </li>
  * </ul>
  *
+ * <p>
+ * The rate limiter can also adapt to the load of the server, see {@link EurekaServerConfig#isRateLimiterAdaptive()}.
+ * When the full and delta registry fetches get slow to start their responses, or the response cache takes long to generate its payloads, a share of the
+ * full fetches of non privileged clients is shed, then of their delta fetches as well. The shed requests are counted
+ * by {@link EurekaMonitors#SHED_FULL_FETCH} and {@link EurekaMonitors#SHED_DELTA_FETCH}, in addition to
+ * {@link EurekaMonitors#RATE_LIMITED}.
+ *
+ * <p>
+ * By default the buckets are shared by all the non privileged clients. With
+ * {@link EurekaServerConfig#isRateLimiterPerClient()}, each client also has its own buckets with a fair share of the
+ * average rates, so that one client cannot use the budget of all the others, see {@link ClientRateLimiters}. The
+ * shared buckets still cap the total rate.
+ *
  * @author Tomasz Bak
  */
 @Singleton
@@ -108,10 +124,14 @@ public class RateLimitingFilter implements Filter {
     private static final RateLimiter registryFullFetchRateLimiter = new RateLimiter(TimeUnit.SECONDS);
 
     private EurekaServerConfig serverConfig;
+    private AdmissionController admissionController;
+    private ClientRateLimiters clientRateLimiters;
 
     @Inject
     public RateLimitingFilter(EurekaServerContext server) {
         this.serverConfig = server.getServerConfig();
+        this.admissionController = new AdmissionController(serverConfig, server.getRegistry());
+        this.clientRateLimiters = new ClientRateLimiters(serverConfig);
     }
 
     // for non-DI use
@@ -124,6 +144,8 @@ public class RateLimitingFilter implements Filter {
             EurekaServerContext serverContext = (EurekaServerContext) filterConfig.getServletContext()
                     .getAttribute(EurekaServerContext.class.getName());
             serverConfig = serverContext.getServerConfig();
+            admissionController = new AdmissionController(serverConfig, serverContext.getRegistry());
+            clientRateLimiters = new ClientRateLimiters(serverConfig);
         }
     }
 
@@ -144,6 +166,16 @@ public class RateLimitingFilter implements Filter {
                 return;
             }
         }
+        if (serverConfig.isRateLimiterAdaptive() && (target == Target.FullFetch || target == Target.DeltaFetch)) {
+            // The time to first byte measures the load of the server, not the time taken by the client to read
+            FirstByteTimingResponse timingResponse = new FirstByteTimingResponse((HttpServletResponse) response);
+            try {
+                chain.doFilter(request, timingResponse);
+            } finally {
+                admissionController.fetchCompleted(timingResponse.getTimeToFirstByteNanos());
+            }
+            return;
+        }
         chain.doFilter(request, response);
     }
 
@@ -177,7 +209,11 @@ public class RateLimitingFilter implements Filter {
             logger.debug("Privileged {} request", target);
             return false;
         }
-        if (isOverloaded(target)) {
+        if (isShedUnderLoad(target)) {
+            logger.debug("Server under load; shedding {} request", target);
+            return true;
+        }
+        if (isOverloaded(request, target)) {
             logger.debug("Overloaded {} request; discarding it", target);
             return true;
         }
@@ -194,7 +230,11 @@ public class RateLimitingFilter implements Filter {
         return privilegedClients.contains(clientName) || DEFAULT_PRIVILEGED_CLIENTS.contains(clientName);
     }
 
-    private boolean isOverloaded(Target target) {
+    private boolean isOverloaded(HttpServletRequest request, Target target) {
+        // A request throttled by the buckets of its client takes nothing from the global ones
+        if (serverConfig.isRateLimiterPerClient() && clientRateLimiters.isOverloaded(request, target)) {
+            return true;
+        }
         int maxInWindow = serverConfig.getRateLimiterBurstSize();
         int fetchWindowSize = serverConfig.getRateLimiterRegistryFetchAverageRate();
         boolean overloaded = !registryFetchRateLimiter.acquire(maxInWindow, fetchWindowSize);
@@ -206,6 +246,20 @@ public class RateLimitingFilter implements Filter {
         return overloaded;
     }
 
+    private boolean isShedUnderLoad(Target target) {
+        if (!serverConfig.isRateLimiterAdaptive() || !admissionController.shouldShed(target)) {
+            return false;
+        }
+        if (serverConfig.isRateLimiterEnabled()) {
+            if (target == Target.FullFetch) {
+                EurekaMonitors.SHED_FULL_FETCH.increment();
+            } else {
+                EurekaMonitors.SHED_DELTA_FETCH.increment();
+            }
+        }
+        return true;
+    }
+
     private void incrementStats(Target target) {
         if (serverConfig.isRateLimiterEnabled()) {
             EurekaMonitors.RATE_LIMITED.increment();
@@ -222,6 +276,66 @@ public class RateLimitingFilter implements Filter {
 
     @Override
     public void destroy() {
+        if (clientRateLimiters != null) {
+            clientRateLimiters.clear();
+        }
+    }
+
+    /**
+     * Records when the body of the response starts being written, or when the response is committed without a body.
+     */
+    static class FirstByteTimingResponse extends HttpServletResponseWrapper {
+
+        private final long startTime = System.nanoTime();
+        private volatile long firstByteTime;
+
+        FirstByteTimingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            markFirstByte();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            markFirstByte();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            markFirstByte();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            markFirstByte();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            markFirstByte();
+            super.sendError(sc, msg);
+        }
+
+        /**
+         * @return the time from the creation of the response to its first byte, or to now if nothing was written
+         */
+        long getTimeToFirstByteNanos() {
+            long endTime = firstByteTime;
+            return (endTime == 0 ? System.nanoTime() : endTime) - startTime;
+        }
+
+        private void markFirstByte() {
+            if (firstByteTime == 0) {
+                firstByteTime = System.nanoTime();
+            }
+        }
     }
 
     // For testing purposes
@@ -229,4 +343,9 @@ public class RateLimitingFilter implements Filter {
         registryFetchRateLimiter.reset();
         registryFullFetchRateLimiter.reset();
     }
+
+    // For testing purposes
+    ClientRateLimiters getClientRateLimiters() {
+        return clientRateLimiters;
+    }
 }
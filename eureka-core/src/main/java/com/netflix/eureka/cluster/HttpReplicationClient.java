@@ -2,6 +2,8 @@ package com.netflix.eureka.cluster;
 
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
 import com.netflix.eureka.resources.ASGResource.ASGStatus;
@@ -14,4 +16,6 @@ public interface HttpReplicationClient extends EurekaHttpClient {
     EurekaHttpResponse<Void> statusUpdate(String asgName, ASGStatus newStatus);
 
     EurekaHttpResponse<ReplicationListResponse> submitBatchUpdates(ReplicationList replicationList);
+
+    EurekaHttpResponse<HeartbeatReplicationListResponse> submitHeartbeats(HeartbeatReplicationList heartbeatList);
 }
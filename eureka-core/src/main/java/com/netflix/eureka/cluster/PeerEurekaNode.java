@@ -29,6 +29,7 @@ import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
 import com.netflix.eureka.resources.ASGResource.ASGStatus;
 import com.netflix.eureka.util.batcher.TaskDispatcher;
 import com.netflix.eureka.util.batcher.TaskDispatchers;
+import com.netflix.eureka.util.batcher.TaskPriority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +42,9 @@ import org.slf4j.LoggerFactory;
  * <em>Register,Renew,Cancel,Expiration and Status Changes</em> to the eureka
  * node it represents.
  * <p>
+ * The registrations, cancellations and status changes are replicated with a high priority, and the heartbeats,
+ * which are repeated anyway, with a low priority. Under load, the heartbeats are then batched after the state
+ * changes, and dropped first when the replication pool is full.
  *
  * @author Karthik Ranganathan, Greg Kim
  *
@@ -67,10 +71,18 @@ public class PeerEurekaNode {
      */
     private static final int BATCH_SIZE = 250;
 
+    /**
+     * With adaptive batching, the smallest batch size and batching delay are this fraction of the fixed ones, and
+     * also the steps by which they grow and shrink.
+     */
+    private static final int ADAPTIVE_BATCHING_STEP_RATIO = 10;
+
     private static final Logger logger = LoggerFactory.getLogger(PeerEurekaNode.class);
 
     public static final String BATCH_URL_PATH = "peerreplication/batch/";
 
+    public static final String HEARTBEATS_URL_PATH = "peerreplication/heartbeats/";
+
     public static final String HEADER_REPLICATION = "x-netflix-discovery-replication";
 
     private final String serviceUrl;
@@ -100,17 +112,33 @@ public class PeerEurekaNode {
         this.maxProcessingDelayMs = config.getMaxTimeForReplication();
 
         String batcherName = getBatcherName();
-        ReplicationTaskProcessor taskProcessor = new ReplicationTaskProcessor(targetHost, replicationClient);
-        this.batchingDispatcher = TaskDispatchers.createBatchingTaskDispatcher(
-                batcherName,
-                config.getMaxElementsInPeerReplicationPool(),
-                batchSize,
-                config.getMaxThreadsForPeerReplication(),
-                maxBatchingDelayMs,
-                serverUnavailableSleepTimeMs,
-                retrySleepTimeMs,
-                taskProcessor
-        );
+        ReplicationTaskProcessor taskProcessor = new ReplicationTaskProcessor(targetHost, replicationClient, config);
+        if (config.shouldAdaptReplicationBatching()) {
+            this.batchingDispatcher = TaskDispatchers.createAdaptiveBatchingTaskDispatcher(
+                    batcherName,
+                    config.getMaxElementsInPeerReplicationPool(),
+                    batchSize / ADAPTIVE_BATCHING_STEP_RATIO,
+                    Math.max(batchSize, config.getMaxReplicationBatchSize()),
+                    config.getMaxThreadsForPeerReplication(),
+                    maxBatchingDelayMs / ADAPTIVE_BATCHING_STEP_RATIO,
+                    maxBatchingDelayMs,
+                    config.getReplicationBatchTargetLatencyMs(),
+                    serverUnavailableSleepTimeMs,
+                    retrySleepTimeMs,
+                    taskProcessor
+            );
+        } else {
+            this.batchingDispatcher = TaskDispatchers.createBatchingTaskDispatcher(
+                    batcherName,
+                    config.getMaxElementsInPeerReplicationPool(),
+                    batchSize,
+                    config.getMaxThreadsForPeerReplication(),
+                    maxBatchingDelayMs,
+                    serverUnavailableSleepTimeMs,
+                    retrySleepTimeMs,
+                    taskProcessor
+            );
+        }
         this.nonBatchingDispatcher = TaskDispatchers.createNonBatchingTaskDispatcher(
                 targetHost,
                 config.getMaxElementsInStatusReplicationPool(),
@@ -140,7 +168,8 @@ public class PeerEurekaNode {
                         return replicationClient.register(info);
                     }
                 },
-                expiryTime
+                expiryTime,
+                TaskPriority.High
         );
     }
 
@@ -172,7 +201,8 @@ public class PeerEurekaNode {
                         }
                     }
                 },
-                expiryTime
+                expiryTime,
+                TaskPriority.High
         );
     }
 
@@ -210,7 +240,9 @@ public class PeerEurekaNode {
                 super.handleFailure(statusCode, responseEntity);
                 if (statusCode == 404) {
                     logger.warn("{}: missing entry.", getTaskName());
-                    if (info != null) {
+                    // As heartbeats have a lower priority, this one may have been sent after the cancellation
+                    // of the instance, which must not be undone
+                    if (info != null && registry.getInstanceByAppAndId(appName, id, false) != null) {
                         logger.warn("{}: cannot find instance id {} and hence replicating the instance with status {}",
                                 getTaskName(), info.getId(), info.getStatus());
                         register(info);
@@ -224,7 +256,7 @@ public class PeerEurekaNode {
             }
         };
         long expiryTime = System.currentTimeMillis() + getLeaseRenewalOf(info);
-        batchingDispatcher.process(taskId("heartbeat", info), replicationTask, expiryTime);
+        batchingDispatcher.process(taskId("heartbeat", info), replicationTask, expiryTime, TaskPriority.Low);
     }
 
     /**
@@ -277,7 +309,8 @@ public class PeerEurekaNode {
                         return replicationClient.statusUpdate(appName, id, newStatus, info);
                     }
                 },
-                expiryTime
+                expiryTime,
+                TaskPriority.High
         );
     }
 
@@ -301,7 +334,8 @@ public class PeerEurekaNode {
                         return replicationClient.deleteStatusOverride(appName, id, info);
                     }
                 },
-                expiryTime);
+                expiryTime,
+                TaskPriority.High);
     }
 
     /**
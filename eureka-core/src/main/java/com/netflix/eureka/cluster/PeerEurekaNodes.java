@@ -9,11 +9,16 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.EurekaClientConfig;
@@ -35,6 +40,12 @@ public class PeerEurekaNodes {
 
     private static final Logger logger = LoggerFactory.getLogger(PeerEurekaNodes.class);
 
+    /**
+     * Maximum number of batch items waiting for a batch replication thread. Beyond it, the items are processed by
+     * the request thread, which slows down the peers sending the batches.
+     */
+    private static final int BATCH_REPLICATION_QUEUE_SIZE = 1000;
+
     protected final PeerAwareInstanceRegistry registry;
     protected final EurekaServerConfig serverConfig;
     protected final EurekaClientConfig clientConfig;
@@ -45,6 +56,7 @@ public class PeerEurekaNodes {
     private volatile Set<String> peerEurekaNodeUrls = Collections.emptySet();
 
     private ScheduledExecutorService taskExecutor;
+    private volatile ThreadPoolExecutor batchReplicationExecutor;
 
     @Inject
     public PeerEurekaNodes(
@@ -72,6 +84,14 @@ public class PeerEurekaNodes {
         return serverConfig.getHealthStatusMinNumberOfAvailablePeers();
     }
 
+    /**
+     * @return the executor processing the items of the replication batches received from the peers, or null if
+     * they are processed by the request thread
+     */
+    public ExecutorService getBatchReplicationExecutor() {
+        return batchReplicationExecutor;
+    }
+
     public void start() {
         taskExecutor = Executors.newSingleThreadScheduledExecutor(
                 new ThreadFactory() {
@@ -108,10 +128,15 @@ public class PeerEurekaNodes {
         for (PeerEurekaNode node : peerEurekaNodes) {
             logger.info("Replica node URL:  {}", node.getServiceUrl());
         }
+        batchReplicationExecutor = createBatchReplicationExecutor();
     }
 
     public void shutdown() {
         taskExecutor.shutdown();
+        if (batchReplicationExecutor != null) {
+            batchReplicationExecutor.shutdown();
+            batchReplicationExecutor = null;
+        }
         List<PeerEurekaNode> toRemove = this.peerEurekaNodes;
 
         this.peerEurekaNodes = Collections.emptyList();
@@ -122,6 +147,28 @@ public class PeerEurekaNodes {
         }
     }
 
+    private ThreadPoolExecutor createBatchReplicationExecutor() {
+        int threads = serverConfig.getMaxThreadsForBatchReplicationProcessing();
+        if (threads <= 0) {
+            return null;
+        }
+        // Runs the rejected items in the request thread, also once shut down, as the request waits for them
+        RejectedExecutionHandler callerRuns = new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+                task.run();
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(BATCH_REPLICATION_QUEUE_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("Eureka-BatchReplicationProcessor-%d").setDaemon(true).build(),
+                callerRuns
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Resolve peer URLs.
      *
@@ -1,17 +1,29 @@
 package com.netflix.eureka.cluster;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList.AppHeartbeats;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse.HeartbeatFailure;
 import com.netflix.eureka.cluster.protocol.ReplicationInstance;
 import com.netflix.eureka.cluster.protocol.ReplicationInstance.ReplicationInstanceBuilder;
 import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
 import com.netflix.eureka.util.batcher.TaskProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,13 +41,23 @@ class ReplicationTaskProcessor implements TaskProcessor<ReplicationTask> {
 
     private final String peerId;
 
+    private final EurekaServerConfig config;
+
     private volatile long lastNetworkErrorTime;
+
+    // The time until which the peer is not sent compact heartbeats, after it answered that it does not support them
+    private volatile long compactHeartbeatsUnsupportedUntil;
     
     private static final Pattern READ_TIME_OUT_PATTERN = Pattern.compile(".*read.*time.*out.*"); 
 
     ReplicationTaskProcessor(String peerId, HttpReplicationClient replicationClient) {
+        this(peerId, replicationClient, null);
+    }
+
+    ReplicationTaskProcessor(String peerId, HttpReplicationClient replicationClient, EurekaServerConfig config) {
         this.replicationClient = replicationClient;
         this.peerId = peerId;
+        this.config = config;
     }
 
     @Override
@@ -75,6 +97,48 @@ class ReplicationTaskProcessor implements TaskProcessor<ReplicationTask> {
 
     @Override
     public ProcessingResult process(List<ReplicationTask> tasks) {
+        return process(tasks, new ArrayList<ReplicationTask>());
+    }
+
+    /**
+     * Sends the heartbeats in a compact form if enabled, and the other tasks in a regular batch. If the heartbeats
+     * were delivered but the regular batch failed, only the tasks of the regular batch are failed, so that the
+     * heartbeats are not replicated twice.
+     */
+    @Override
+    public ProcessingResult process(List<ReplicationTask> tasks, List<ReplicationTask> failedTasks) {
+        if (shouldCompactHeartbeats()) {
+            List<ReplicationTask> heartbeatTasks = new ArrayList<>();
+            List<ReplicationTask> otherTasks = new ArrayList<>();
+            splitHeartbeats(tasks, heartbeatTasks, otherTasks);
+            if (!heartbeatTasks.isEmpty()) {
+                ProcessingResult result = processHeartbeats(heartbeatTasks);
+                if (result == null) {
+                    // Not supported by the peer, all the tasks go in a regular batch
+                    return processBatch(tasks, failedTasks);
+                }
+                if (result != ProcessingResult.Success) {
+                    failedTasks.addAll(tasks);
+                    return result;
+                }
+                if (otherTasks.isEmpty()) {
+                    return result;
+                }
+                return processBatch(otherTasks, failedTasks);
+            }
+        }
+        return processBatch(tasks, failedTasks);
+    }
+
+    private ProcessingResult processBatch(List<ReplicationTask> tasks, List<ReplicationTask> failedTasks) {
+        ProcessingResult result = processBatch(tasks);
+        if (result != ProcessingResult.Success) {
+            failedTasks.addAll(tasks);
+        }
+        return result;
+    }
+
+    private ProcessingResult processBatch(List<ReplicationTask> tasks) {
         ReplicationList list = createReplicationListOf(tasks);
         try {
             EurekaHttpResponse<ReplicationListResponse> response = replicationClient.submitBatchUpdates(list);
@@ -92,21 +156,110 @@ class ReplicationTaskProcessor implements TaskProcessor<ReplicationTask> {
                 handleBatchResponse(tasks, response.getEntity().getResponseList());
             }
         } catch (Throwable e) {
-            if (maybeReadTimeOut(e)) {
-                logger.error("It seems to be a socket read timeout exception, it will retry later. if it continues to happen and some eureka node occupied all the cpu time, you should set property 'eureka.server.peer-node-read-timeout-ms' to a bigger value", e);
-            	//read timeout exception is more Congestion then TransientError, return Congestion for longer delay 
-                return ProcessingResult.Congestion;
-            } else if (isNetworkConnectException(e)) {
-                logNetworkErrorSample(null, e);
-                return ProcessingResult.TransientError;
-            } else {
-                logger.error("Not re-trying this exception because it does not seem to be a network exception", e);
-                return ProcessingResult.PermanentError;
+            return handleBatchException(e);
+        }
+        return ProcessingResult.Success;
+    }
+
+    /**
+     * Sends the heartbeats in a {@link HeartbeatReplicationList}.
+     *
+     * @return the processing result, or null if the peer does not support compact heartbeats
+     */
+    private ProcessingResult processHeartbeats(List<ReplicationTask> tasks) {
+        HeartbeatReplicationList list = new HeartbeatReplicationList();
+        List<ReplicationTask> orderedTasks = createHeartbeatReplicationListOf(tasks, list);
+        try {
+            EurekaHttpResponse<HeartbeatReplicationListResponse> response = replicationClient.submitHeartbeats(list);
+            int statusCode = response.getStatusCode();
+            if (!isSuccess(statusCode)) {
+                if (statusCode == 404) {
+                    long retryIntervalMs = config.getCompactHeartbeatReplicationRetryIntervalMs();
+                    logger.warn("Peer {} does not support compact heartbeat replication; sending heartbeats in regular batches for {}ms",
+                            peerId, retryIntervalMs);
+                    compactHeartbeatsUnsupportedUntil = System.currentTimeMillis() + retryIntervalMs;
+                    return null;
+                } else if (statusCode == 503) {
+                    logger.warn("Server busy (503) HTTP status code received from the peer {}; rescheduling tasks after delay", peerId);
+                    return ProcessingResult.Congestion;
+                } else {
+                    logger.error("Heartbeat batch failure with HTTP status code {}; discarding {} replication tasks", statusCode, tasks.size());
+                    return ProcessingResult.PermanentError;
+                }
             }
+            handleHeartbeatsResponse(orderedTasks, response.getEntity().getFailures());
+        } catch (Throwable e) {
+            return handleBatchException(e);
         }
         return ProcessingResult.Success;
     }
 
+    private ProcessingResult handleBatchException(Throwable e) {
+        if (maybeReadTimeOut(e)) {
+            logger.error("It seems to be a socket read timeout exception, it will retry later. if it continues to happen and some eureka node occupied all the cpu time, you should set property 'eureka.server.peer-node-read-timeout-ms' to a bigger value", e);
+            //read timeout exception is more Congestion then TransientError, return Congestion for longer delay
+            return ProcessingResult.Congestion;
+        } else if (isNetworkConnectException(e)) {
+            logNetworkErrorSample(null, e);
+            return ProcessingResult.TransientError;
+        } else {
+            logger.error("Not re-trying this exception because it does not seem to be a network exception", e);
+            return ProcessingResult.PermanentError;
+        }
+    }
+
+    private boolean shouldCompactHeartbeats() {
+        return config != null && config.shouldCompactHeartbeatReplication()
+                && System.currentTimeMillis() >= compactHeartbeatsUnsupportedUntil;
+    }
+
+    /**
+     * Separates the heartbeats sent in a compact form from the other tasks. The heartbeats of an instance that has
+     * other tasks in the batch stay with them, so that the peer processes the tasks of an instance in order.
+     */
+    private static void splitHeartbeats(List<ReplicationTask> tasks,
+                                        List<ReplicationTask> heartbeatTasks,
+                                        List<ReplicationTask> otherTasks) {
+        Set<String> otherInstances = new HashSet<>();
+        for (ReplicationTask task : tasks) {
+            if (!isCompactHeartbeat(task)) {
+                InstanceReplicationTask instanceTask = (InstanceReplicationTask) task;
+                otherInstances.add(instanceTask.getAppName() + '/' + instanceTask.getId());
+            }
+        }
+        for (ReplicationTask task : tasks) {
+            InstanceReplicationTask instanceTask = (InstanceReplicationTask) task;
+            if (isCompactHeartbeat(task) && !otherInstances.contains(instanceTask.getAppName() + '/' + instanceTask.getId())) {
+                heartbeatTasks.add(task);
+            } else {
+                otherTasks.add(task);
+            }
+        }
+    }
+
+    private static boolean isCompactHeartbeat(ReplicationTask task) {
+        return task.getAction() == Action.Heartbeat && !((InstanceReplicationTask) task).shouldReplicateInstanceInfo();
+    }
+
+    private void handleHeartbeatsResponse(List<ReplicationTask> tasks, List<HeartbeatFailure> failures) {
+        boolean[] failed = new boolean[tasks.size()];
+        for (HeartbeatFailure failure : failures) {
+            int index = failure.getIndex();
+            if (index < 0 || index >= tasks.size()) {
+                // This should ideally never happen unless there is a bug in the software.
+                logger.error("Heartbeat batch response refers to heartbeat {} of {}; ignoring it", index, tasks.size());
+                continue;
+            }
+            failed[index] = true;
+            handleBatchResponse(tasks.get(index), new ReplicationInstanceResponse(failure.getStatusCode(), failure.getResponseEntity()));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!failed[i]) {
+                tasks.get(i).handleSuccess();
+            }
+        }
+    }
+
     /**
      * We want to retry eagerly, but without flooding log file with tons of error entries.
      * As tasks are executed by a pool of threads the error logging multiplies. For example:
@@ -161,6 +314,41 @@ class ReplicationTaskProcessor implements TaskProcessor<ReplicationTask> {
         return list;
     }
 
+    /**
+     * Fills the heartbeat list with the heartbeat tasks, grouped by application.
+     *
+     * @return the tasks in the order of the heartbeats in the list
+     */
+    private static List<ReplicationTask> createHeartbeatReplicationListOf(List<ReplicationTask> tasks,
+                                                                          HeartbeatReplicationList list) {
+        Map<String, AppHeartbeats> appHeartbeats = new LinkedHashMap<>();
+        Map<String, List<ReplicationTask>> appTasks = new LinkedHashMap<>();
+        for (ReplicationTask task : tasks) {
+            InstanceReplicationTask instanceTask = (InstanceReplicationTask) task;
+            String appName = instanceTask.getAppName();
+            AppHeartbeats heartbeats = appHeartbeats.get(appName);
+            if (heartbeats == null) {
+                heartbeats = new AppHeartbeats(appName);
+                appHeartbeats.put(appName, heartbeats);
+                appTasks.put(appName, new ArrayList<ReplicationTask>());
+            }
+            InstanceInfo instanceInfo = instanceTask.getInstanceInfo();
+            InstanceStatus overriddenStatus = instanceTask.getOverriddenStatus();
+            heartbeats.addHeartbeat(
+                    instanceTask.getId(),
+                    instanceInfo == null ? null : instanceInfo.getLastDirtyTimestamp(),
+                    overriddenStatus == null || overriddenStatus == InstanceStatus.UNKNOWN ? null : overriddenStatus.name()
+            );
+            appTasks.get(appName).add(task);
+        }
+        List<ReplicationTask> orderedTasks = new ArrayList<>(tasks.size());
+        for (Map.Entry<String, AppHeartbeats> entry : appHeartbeats.entrySet()) {
+            list.addAppHeartbeats(entry.getValue());
+            orderedTasks.addAll(appTasks.get(entry.getKey()));
+        }
+        return orderedTasks;
+    }
+
     private static boolean isSuccess(int statusCode) {
         return statusCode >= 200 && statusCode < 300;
     }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.cluster.protocol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.netflix.discovery.provider.Serializer;
+
+/**
+ * A compact batch of replicated heartbeats. Unlike a {@link ReplicationList}, which carries a full
+ * {@link ReplicationInstance} per heartbeat, the heartbeats are grouped by application, and each one is reduced to
+ * the instance id and its last dirty timestamp. The overridden status, only used by the peer when the timestamps
+ * differ, is only sent for the instances that have one.
+ * <p>
+ * The heartbeats are numbered in the order of the applications, and then of the instance ids within each
+ * application, which is the order of the results in the {@link HeartbeatReplicationListResponse}.
+ */
+@Serializer("jackson") // For DiscoveryJerseyProvider
+public class HeartbeatReplicationList {
+
+    private final List<AppHeartbeats> apps;
+
+    public HeartbeatReplicationList() {
+        this.apps = new ArrayList<>();
+    }
+
+    @JsonCreator
+    public HeartbeatReplicationList(@JsonProperty("apps") List<AppHeartbeats> apps) {
+        this.apps = apps == null ? new ArrayList<AppHeartbeats>() : apps;
+    }
+
+    public void addAppHeartbeats(AppHeartbeats appHeartbeats) {
+        apps.add(appHeartbeats);
+    }
+
+    public List<AppHeartbeats> getApps() {
+        return apps;
+    }
+
+    /**
+     * @return the number of heartbeats in the batch
+     */
+    public int size() {
+        int size = 0;
+        for (AppHeartbeats appHeartbeats : apps) {
+            size += appHeartbeats.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HeartbeatReplicationList that = (HeartbeatReplicationList) o;
+        return apps.equals(that.apps);
+    }
+
+    @Override
+    public int hashCode() {
+        return apps.hashCode();
+    }
+
+    /**
+     * The heartbeats of the instances of one application. The ids and the last dirty timestamps are parallel lists.
+     */
+    public static class AppHeartbeats {
+
+        private final String appName;
+        private final List<String> ids;
+        private final List<Long> lastDirtyTimestamps;
+        private Map<String, String> overriddenStatuses;
+
+        public AppHeartbeats(String appName) {
+            this(appName, new ArrayList<String>(), new ArrayList<Long>(), null);
+        }
+
+        @JsonCreator
+        public AppHeartbeats(@JsonProperty("appName") String appName,
+                             @JsonProperty("ids") List<String> ids,
+                             @JsonProperty("lastDirtyTimestamps") List<Long> lastDirtyTimestamps,
+                             @JsonProperty("overriddenStatuses") Map<String, String> overriddenStatuses) {
+            this.appName = appName;
+            this.ids = ids == null ? new ArrayList<String>() : ids;
+            this.lastDirtyTimestamps = lastDirtyTimestamps == null ? new ArrayList<Long>() : lastDirtyTimestamps;
+            this.overriddenStatuses = overriddenStatuses;
+            if (this.ids.size() != this.lastDirtyTimestamps.size()) {
+                throw new IllegalArgumentException("Heartbeats of " + appName + " with "
+                        + this.ids.size() + " ids and " + this.lastDirtyTimestamps.size() + " timestamps");
+            }
+        }
+
+        /**
+         * @param overriddenStatus the overridden status of the instance, or null if it has none
+         */
+        public void addHeartbeat(String id, Long lastDirtyTimestamp, String overriddenStatus) {
+            ids.add(id);
+            lastDirtyTimestamps.add(lastDirtyTimestamp);
+            if (overriddenStatus != null) {
+                if (overriddenStatuses == null) {
+                    overriddenStatuses = new HashMap<>();
+                }
+                overriddenStatuses.put(id, overriddenStatus);
+            }
+        }
+
+        public String getAppName() {
+            return appName;
+        }
+
+        public List<String> getIds() {
+            return ids;
+        }
+
+        public List<Long> getLastDirtyTimestamps() {
+            return lastDirtyTimestamps;
+        }
+
+        /**
+         * @return the overridden statuses by instance id, or null if no instance has one
+         */
+        public Map<String, String> getOverriddenStatuses() {
+            return overriddenStatuses;
+        }
+
+        public String getOverriddenStatus(String id) {
+            return overriddenStatuses == null ? null : overriddenStatuses.get(id);
+        }
+
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            AppHeartbeats that = (AppHeartbeats) o;
+            if (appName != null ? !appName.equals(that.appName) : that.appName != null) {
+                return false;
+            }
+            if (!ids.equals(that.ids)) {
+                return false;
+            }
+            if (!lastDirtyTimestamps.equals(that.lastDirtyTimestamps)) {
+                return false;
+            }
+            return overriddenStatuses != null ? overriddenStatuses.equals(that.overriddenStatuses) : that.overriddenStatuses == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = appName != null ? appName.hashCode() : 0;
+            result = 31 * result + ids.hashCode();
+            result = 31 * result + lastDirtyTimestamps.hashCode();
+            result = 31 * result + (overriddenStatuses != null ? overriddenStatuses.hashCode() : 0);
+            return result;
+        }
+    }
+}
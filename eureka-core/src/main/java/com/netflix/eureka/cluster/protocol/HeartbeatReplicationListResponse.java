@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.cluster.protocol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.provider.Serializer;
+
+/**
+ * The response to a {@link HeartbeatReplicationList}. As nearly all the replicated heartbeats succeed, only the
+ * heartbeats that did not are listed, by their position in the batch, with the response a
+ * {@link ReplicationListResponse} would have held for them.
+ */
+@Serializer("jackson") // For DiscoveryJerseyProvider
+public class HeartbeatReplicationListResponse {
+
+    private final List<HeartbeatFailure> failures;
+
+    public HeartbeatReplicationListResponse() {
+        this.failures = new ArrayList<>();
+    }
+
+    @JsonCreator
+    public HeartbeatReplicationListResponse(@JsonProperty("failures") List<HeartbeatFailure> failures) {
+        this.failures = failures == null ? new ArrayList<HeartbeatFailure>() : failures;
+    }
+
+    public void addFailure(HeartbeatFailure failure) {
+        failures.add(failure);
+    }
+
+    public List<HeartbeatFailure> getFailures() {
+        return failures;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HeartbeatReplicationListResponse that = (HeartbeatReplicationListResponse) o;
+        return failures.equals(that.failures);
+    }
+
+    @Override
+    public int hashCode() {
+        return failures.hashCode();
+    }
+
+    public static class HeartbeatFailure {
+
+        private final int index;
+        private final int statusCode;
+        private final InstanceInfo responseEntity;
+
+        @JsonCreator
+        public HeartbeatFailure(@JsonProperty("index") int index,
+                                @JsonProperty("statusCode") int statusCode,
+                                @JsonProperty("responseEntity") InstanceInfo responseEntity) {
+            this.index = index;
+            this.statusCode = statusCode;
+            this.responseEntity = responseEntity;
+        }
+
+        /**
+         * @return the position of the heartbeat in the batch
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public InstanceInfo getResponseEntity() {
+            return responseEntity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            HeartbeatFailure that = (HeartbeatFailure) o;
+            if (index != that.index || statusCode != that.statusCode) {
+                return false;
+            }
+            return responseEntity != null ? responseEntity.equals(that.responseEntity) : that.responseEntity == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = index;
+            result = 31 * result + statusCode;
+            result = 31 * result + (responseEntity != null ? responseEntity.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -111,6 +111,16 @@ public class Lease<T> {
         return (evictionTimestamp > 0 || System.currentTimeMillis() > (lastUpdateTimestamp + duration + additionalLeaseMs));
     }
 
+    /**
+     * Gets the milliseconds since epoch after which the lease is expired, not counting any additional lease
+     * time passed to {@link #isExpired(long)}. The same 2 * duration caveat applies.
+     *
+     * @return the milliseconds since epoch when the lease expires.
+     */
+    public long getExpirationTimestamp() {
+        return lastUpdateTimestamp + duration;
+    }
+
     /**
      * Gets the milliseconds since epoch when the lease was registered.
      *
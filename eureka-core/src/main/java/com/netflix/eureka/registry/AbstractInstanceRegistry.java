@@ -23,23 +23,23 @@ import java.util.AbstractQueue;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.google.common.cache.CacheBuilder;
 import com.netflix.appinfo.InstanceInfo;
@@ -88,11 +88,16 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
     // CircularQueues here for debugging/statistics purposes only
     private final CircularQueue<Pair<Long, String>> recentRegisteredQueue;
     private final CircularQueue<Pair<Long, String>> recentCanceledQueue;
-    private ConcurrentLinkedQueue<RecentlyChangedItem> recentlyChangedQueue = new ConcurrentLinkedQueue<>();
-
-    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-    private final Lock read = readWriteLock.readLock();
-    private final Lock write = readWriteLock.writeLock();
+    private final RegistryChangeLog recentlyChangedLog;
+    private final RegistrySnapshot localRegistrySnapshot;
+    private final LeaseExpiryIndex leaseExpiryIndex = new LeaseExpiryIndex();
+    private final VipIndex vipIndex;
+    private final InstanceIdIndex instanceIdIndex = new InstanceIdIndex();
+
+    private final InstanceStatusCounts instanceStatusCounts = new InstanceStatusCounts();
+    // Guards the status counts, and orders the changes appended to the change log with them, see recordChange
+    private final Object changeLock = new Object();
+    private volatile DeltaState deltaState;
     protected final Object lock = new Object();
 
     private Timer deltaRetentionTimer = new Timer("Eureka-DeltaRetentionTimer", true);
@@ -119,6 +124,10 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         this.serverCodecs = serverCodecs;
         this.recentCanceledQueue = new CircularQueue<Pair<Long, String>>(1000);
         this.recentRegisteredQueue = new CircularQueue<Pair<Long, String>>(1000);
+        this.recentlyChangedLog = new RegistryChangeLog(serverConfig.getDeltaChangeLogCapacity());
+        this.deltaState = new DeltaState(recentlyChangedLog.getLastVersion(), instanceStatusCounts.toArray(), 0);
+        this.localRegistrySnapshot = new RegistrySnapshot(registry, this::decorateInstanceInfo);
+        this.vipIndex = new VipIndex(registry);
 
         this.renewsLastMin = new MeasuredRate(1000 * 60 * 1);
 
@@ -159,6 +168,14 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         return responseCache;
     }
 
+    /**
+     * @return the lease of the given instance of the local region, or null if there is none
+     */
+    Lease<InstanceInfo> getLease(String appName, String id) {
+        Map<String, Lease<InstanceInfo>> leases = registry.get(appName);
+        return leases == null ? null : leases.get(id);
+    }
+
     public long getLocalRegistrySize() {
         long total = 0;
         for (Map<String, Lease<InstanceInfo>> entry : registry.values()) {
@@ -175,8 +192,16 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         overriddenInstanceStatusMap.clear();
         recentCanceledQueue.clear();
         recentRegisteredQueue.clear();
-        recentlyChangedQueue.clear();
+        recentlyChangedLog.clear();
         registry.clear();
+        synchronized (changeLock) {
+            instanceStatusCounts.clear();
+            publishDeltaState(deltaState.getVersion());
+        }
+        leaseExpiryIndex.clear();
+        vipIndex.clear();
+        instanceIdIndex.clear();
+        localRegistrySnapshot.invalidateAll();
     }
 
     // for server info use
@@ -191,83 +216,84 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
      * @see com.netflix.eureka.lease.LeaseManager#register(java.lang.Object, int, boolean)
      */
     public void register(InstanceInfo registrant, int leaseDuration, boolean isReplication) {
-        read.lock();
-        try {
-            Map<String, Lease<InstanceInfo>> gMap = registry.get(registrant.getAppName());
-            REGISTER.increment(isReplication);
+        Map<String, Lease<InstanceInfo>> gMap = registry.get(registrant.getAppName());
+        REGISTER.increment(isReplication);
+        if (gMap == null) {
+            final ConcurrentHashMap<String, Lease<InstanceInfo>> gNewMap = new ConcurrentHashMap<String, Lease<InstanceInfo>>();
+            gMap = registry.putIfAbsent(registrant.getAppName(), gNewMap);
             if (gMap == null) {
-                final ConcurrentHashMap<String, Lease<InstanceInfo>> gNewMap = new ConcurrentHashMap<String, Lease<InstanceInfo>>();
-                gMap = registry.putIfAbsent(registrant.getAppName(), gNewMap);
-                if (gMap == null) {
-                    gMap = gNewMap;
-                }
+                gMap = gNewMap;
             }
-            Lease<InstanceInfo> existingLease = gMap.get(registrant.getId());
-            // Retain the last dirty timestamp without overwriting it, if there is already a lease
-            if (existingLease != null && (existingLease.getHolder() != null)) {
-                Long existingLastDirtyTimestamp = existingLease.getHolder().getLastDirtyTimestamp();
-                Long registrationLastDirtyTimestamp = registrant.getLastDirtyTimestamp();
-                logger.debug("Existing lease found (existing={}, provided={}", existingLastDirtyTimestamp, registrationLastDirtyTimestamp);
-
-                // this is a > instead of a >= because if the timestamps are equal, we still take the remote transmitted
-                // InstanceInfo instead of the server local copy.
-                if (existingLastDirtyTimestamp > registrationLastDirtyTimestamp) {
-                    logger.warn("There is an existing lease and the existing lease's dirty timestamp {} is greater" +
-                            " than the one that is being registered {}", existingLastDirtyTimestamp, registrationLastDirtyTimestamp);
-                    logger.warn("Using the existing instanceInfo instead of the new instanceInfo as the registrant");
-                    registrant = existingLease.getHolder();
-                }
-            } else {
-                // The lease does not exist and hence it is a new registration
-                synchronized (lock) {
-                    if (this.expectedNumberOfClientsSendingRenews > 0) {
-                        // Since the client wants to register it, increase the number of clients sending renews
-                        this.expectedNumberOfClientsSendingRenews = this.expectedNumberOfClientsSendingRenews + 1;
-                        updateRenewsPerMinThreshold();
-                    }
-                }
-                logger.debug("No previous lease information found; it is new registration");
-            }
-            Lease<InstanceInfo> lease = new Lease<>(registrant, leaseDuration);
-            if (existingLease != null) {
-                lease.setServiceUpTimestamp(existingLease.getServiceUpTimestamp());
+        }
+        Lease<InstanceInfo> existingLease = gMap.get(registrant.getId());
+        // Retain the last dirty timestamp without overwriting it, if there is already a lease
+        if (existingLease != null && (existingLease.getHolder() != null)) {
+            Long existingLastDirtyTimestamp = existingLease.getHolder().getLastDirtyTimestamp();
+            Long registrationLastDirtyTimestamp = registrant.getLastDirtyTimestamp();
+            logger.debug("Existing lease found (existing={}, provided={}", existingLastDirtyTimestamp, registrationLastDirtyTimestamp);
+
+            // this is a > instead of a >= because if the timestamps are equal, we still take the remote transmitted
+            // InstanceInfo instead of the server local copy.
+            if (existingLastDirtyTimestamp > registrationLastDirtyTimestamp) {
+                logger.warn("There is an existing lease and the existing lease's dirty timestamp {} is greater" +
+                        " than the one that is being registered {}", existingLastDirtyTimestamp, registrationLastDirtyTimestamp);
+                logger.warn("Using the existing instanceInfo instead of the new instanceInfo as the registrant");
+                registrant = existingLease.getHolder();
             }
-            gMap.put(registrant.getId(), lease);
-            recentRegisteredQueue.add(new Pair<Long, String>(
-                    System.currentTimeMillis(),
-                    registrant.getAppName() + "(" + registrant.getId() + ")"));
-            // This is where the initial state transfer of overridden status happens
-            if (!InstanceStatus.UNKNOWN.equals(registrant.getOverriddenStatus())) {
-                logger.debug("Found overridden status {} for instance {}. Checking to see if needs to be add to the "
-                                + "overrides", registrant.getOverriddenStatus(), registrant.getId());
-                if (!overriddenInstanceStatusMap.containsKey(registrant.getId())) {
-                    logger.info("Not found overridden id {} and hence adding it", registrant.getId());
-                    overriddenInstanceStatusMap.put(registrant.getId(), registrant.getOverriddenStatus());
+        } else {
+            // The lease does not exist and hence it is a new registration
+            synchronized (lock) {
+                if (this.expectedNumberOfClientsSendingRenews > 0) {
+                    // Since the client wants to register it, increase the number of clients sending renews
+                    this.expectedNumberOfClientsSendingRenews = this.expectedNumberOfClientsSendingRenews + 1;
+                    updateRenewsPerMinThreshold();
                 }
             }
-            InstanceStatus overriddenStatusFromMap = overriddenInstanceStatusMap.get(registrant.getId());
-            if (overriddenStatusFromMap != null) {
-                logger.info("Storing overridden status {} from map", overriddenStatusFromMap);
-                registrant.setOverriddenStatus(overriddenStatusFromMap);
+            logger.debug("No previous lease information found; it is new registration");
+        }
+        Lease<InstanceInfo> lease = new Lease<>(registrant, leaseDuration);
+        if (existingLease != null) {
+            lease.setServiceUpTimestamp(existingLease.getServiceUpTimestamp());
+        }
+        gMap.put(registrant.getId(), lease);
+        leaseExpiryIndex.add(lease);
+        instanceIdIndex.add(registrant.getAppName(), registrant.getId());
+        vipIndex.add(registrant);
+        if (existingLease != null && existingLease.getHolder() != null && hasDifferentVips(existingLease.getHolder(), registrant)) {
+            vipIndex.remove(existingLease.getHolder());
+        }
+        recentRegisteredQueue.add(new Pair<Long, String>(
+                System.currentTimeMillis(),
+                registrant.getAppName() + "(" + registrant.getId() + ")"));
+        // This is where the initial state transfer of overridden status happens
+        if (!InstanceStatus.UNKNOWN.equals(registrant.getOverriddenStatus())) {
+            logger.debug("Found overridden status {} for instance {}. Checking to see if needs to be add to the "
+                            + "overrides", registrant.getOverriddenStatus(), registrant.getId());
+            if (!overriddenInstanceStatusMap.containsKey(registrant.getId())) {
+                logger.info("Not found overridden id {} and hence adding it", registrant.getId());
+                overriddenInstanceStatusMap.put(registrant.getId(), registrant.getOverriddenStatus());
             }
+        }
+        InstanceStatus overriddenStatusFromMap = overriddenInstanceStatusMap.get(registrant.getId());
+        if (overriddenStatusFromMap != null) {
+            logger.info("Storing overridden status {} from map", overriddenStatusFromMap);
+            registrant.setOverriddenStatus(overriddenStatusFromMap);
+        }
 
-            // Set the status based on the overridden status rules
-            InstanceStatus overriddenInstanceStatus = getOverriddenInstanceStatus(registrant, existingLease, isReplication);
-            registrant.setStatusWithoutDirty(overriddenInstanceStatus);
+        // Set the status based on the overridden status rules
+        InstanceStatus overriddenInstanceStatus = getOverriddenInstanceStatus(registrant, existingLease, isReplication);
+        registrant.setStatusWithoutDirty(overriddenInstanceStatus);
 
-            // If the lease is registered with UP status, set lease service up timestamp
-            if (InstanceStatus.UP.equals(registrant.getStatus())) {
-                lease.serviceUp();
-            }
-            registrant.setActionType(ActionType.ADDED);
-            recentlyChangedQueue.add(new RecentlyChangedItem(lease));
-            registrant.setLastUpdatedTimestamp();
-            invalidateCache(registrant.getAppName(), registrant.getVIPAddress(), registrant.getSecureVipAddress());
-            logger.info("Registered instance {}/{} with status {} (replication={})",
-                    registrant.getAppName(), registrant.getId(), registrant.getStatus(), isReplication);
-        } finally {
-            read.unlock();
+        // If the lease is registered with UP status, set lease service up timestamp
+        if (InstanceStatus.UP.equals(registrant.getStatus())) {
+            lease.serviceUp();
         }
+        registrant.setActionType(ActionType.ADDED);
+        registrant.setLastUpdatedTimestamp();
+        recordChange(lease);
+        invalidateCache(registrant.getAppName(), registrant.getVIPAddress(), registrant.getSecureVipAddress());
+        logger.info("Registered instance {}/{} with status {} (replication={})",
+                registrant.getAppName(), registrant.getId(), registrant.getStatus(), isReplication);
     }
 
     /**
@@ -295,40 +321,43 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
      * in the remote peers as valid cancellations, so self preservation mode would not kick-in.
      */
     protected boolean internalCancel(String appName, String id, boolean isReplication) {
-        read.lock();
-        try {
-            CANCEL.increment(isReplication);
-            Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
-            Lease<InstanceInfo> leaseToCancel = null;
-            if (gMap != null) {
-                leaseToCancel = gMap.remove(id);
-            }
-            recentCanceledQueue.add(new Pair<Long, String>(System.currentTimeMillis(), appName + "(" + id + ")"));
-            InstanceStatus instanceStatus = overriddenInstanceStatusMap.remove(id);
-            if (instanceStatus != null) {
-                logger.debug("Removed instance id {} from the overridden map which has value {}", id, instanceStatus.name());
+        CANCEL.increment(isReplication);
+        Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
+        Lease<InstanceInfo> leaseToCancel = null;
+        if (gMap != null) {
+            leaseToCancel = gMap.remove(id);
+        }
+        if (leaseToCancel != null) {
+            instanceIdIndex.remove(appName, id);
+            // Restore the entry if the instance registered again in the meantime
+            if (gMap.containsKey(id)) {
+                instanceIdIndex.add(appName, id);
             }
-            if (leaseToCancel == null) {
-                CANCEL_NOT_FOUND.increment(isReplication);
-                logger.warn("DS: Registry: cancel failed because Lease is not registered for: {}/{}", appName, id);
-                return false;
-            } else {
-                leaseToCancel.cancel();
-                InstanceInfo instanceInfo = leaseToCancel.getHolder();
-                String vip = null;
-                String svip = null;
-                if (instanceInfo != null) {
-                    instanceInfo.setActionType(ActionType.DELETED);
-                    recentlyChangedQueue.add(new RecentlyChangedItem(leaseToCancel));
-                    instanceInfo.setLastUpdatedTimestamp();
-                    vip = instanceInfo.getVIPAddress();
-                    svip = instanceInfo.getSecureVipAddress();
-                }
-                invalidateCache(appName, vip, svip);
-                logger.info("Cancelled instance {}/{} (replication={})", appName, id, isReplication);
+        }
+        recentCanceledQueue.add(new Pair<Long, String>(System.currentTimeMillis(), appName + "(" + id + ")"));
+        InstanceStatus instanceStatus = overriddenInstanceStatusMap.remove(id);
+        if (instanceStatus != null) {
+            logger.debug("Removed instance id {} from the overridden map which has value {}", id, instanceStatus.name());
+        }
+        if (leaseToCancel == null) {
+            CANCEL_NOT_FOUND.increment(isReplication);
+            logger.warn("DS: Registry: cancel failed because Lease is not registered for: {}/{}", appName, id);
+            return false;
+        } else {
+            leaseToCancel.cancel();
+            InstanceInfo instanceInfo = leaseToCancel.getHolder();
+            String vip = null;
+            String svip = null;
+            if (instanceInfo != null) {
+                vipIndex.remove(instanceInfo);
+                instanceInfo.setActionType(ActionType.DELETED);
+                instanceInfo.setLastUpdatedTimestamp();
+                recordChange(leaseToCancel);
+                vip = instanceInfo.getVIPAddress();
+                svip = instanceInfo.getSecureVipAddress();
             }
-        } finally {
-            read.unlock();
+            invalidateCache(appName, vip, svip);
+            logger.info("Cancelled instance {}/{} (replication={})", appName, id, isReplication);
         }
 
         synchronized (lock) {
@@ -349,6 +378,19 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
      * @see com.netflix.eureka.lease.LeaseManager#renew(java.lang.String, java.lang.String, boolean)
      */
     public boolean renew(String appName, String id, boolean isReplication) {
+        return renewAndGet(appName, id, isReplication) != null;
+    }
+
+    /**
+     * Same as {@link #renew(String, String, boolean)}, but returns the renewed lease, so that the caller can
+     * inspect the instance without looking it up again. This path does not allocate, unless the instance
+     * status has to be changed.
+     *
+     * @return the renewed lease, or null if the renewal failed
+     */
+    @Override
+    @Nullable
+    public Lease<InstanceInfo> renewAndGet(String appName, String id, boolean isReplication) {
         RENEW.increment(isReplication);
         Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
         Lease<InstanceInfo> leaseToRenew = null;
@@ -358,7 +400,7 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         if (leaseToRenew == null) {
             RENEW_NOT_FOUND.increment(isReplication);
             logger.warn("DS: Registry: lease doesn't exist, registering resource: {} - {}", appName, id);
-            return false;
+            return null;
         } else {
             InstanceInfo instanceInfo = leaseToRenew.getHolder();
             if (instanceInfo != null) {
@@ -369,7 +411,7 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
                     logger.info("Instance status UNKNOWN possibly due to deleted override for instance {}"
                             + "; re-register required", instanceInfo.getId());
                     RENEW_NOT_FOUND.increment(isReplication);
-                    return false;
+                    return null;
                 }
                 if (!instanceInfo.getStatus().equals(overriddenInstanceStatus)) {
                     logger.info(
@@ -378,12 +420,13 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
                                     overriddenInstanceStatus.name(),
                                     instanceInfo.getId());
                     instanceInfo.setStatusWithoutDirty(overriddenInstanceStatus);
-
+                    localRegistrySnapshot.invalidate(appName);
+                    recountStatus(appName, id);
                 }
             }
             renewsLastMin.increment();
             leaseToRenew.renew();
-            return true;
+            return leaseToRenew;
         }
     }
 
@@ -462,53 +505,48 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
     public boolean statusUpdate(String appName, String id,
                                 InstanceStatus newStatus, String lastDirtyTimestamp,
                                 boolean isReplication) {
-        read.lock();
-        try {
-            STATUS_UPDATE.increment(isReplication);
-            Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
-            Lease<InstanceInfo> lease = null;
-            if (gMap != null) {
-                lease = gMap.get(id);
+        STATUS_UPDATE.increment(isReplication);
+        Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
+        Lease<InstanceInfo> lease = null;
+        if (gMap != null) {
+            lease = gMap.get(id);
+        }
+        if (lease == null) {
+            return false;
+        } else {
+            lease.renew();
+            InstanceInfo info = lease.getHolder();
+            // Lease is always created with its instance info object.
+            // This log statement is provided as a safeguard, in case this invariant is violated.
+            if (info == null) {
+                logger.error("Found Lease without a holder for instance id {}", id);
             }
-            if (lease == null) {
-                return false;
-            } else {
-                lease.renew();
-                InstanceInfo info = lease.getHolder();
-                // Lease is always created with its instance info object.
-                // This log statement is provided as a safeguard, in case this invariant is violated.
-                if (info == null) {
-                    logger.error("Found Lease without a holder for instance id {}", id);
+            if ((info != null) && !(info.getStatus().equals(newStatus))) {
+                // Mark service as UP if needed
+                if (InstanceStatus.UP.equals(newStatus)) {
+                    lease.serviceUp();
                 }
-                if ((info != null) && !(info.getStatus().equals(newStatus))) {
-                    // Mark service as UP if needed
-                    if (InstanceStatus.UP.equals(newStatus)) {
-                        lease.serviceUp();
-                    }
-                    // This is NAC overridden status
-                    overriddenInstanceStatusMap.put(id, newStatus);
-                    // Set it for transfer of overridden status to replica on
-                    // replica start up
-                    info.setOverriddenStatus(newStatus);
-                    long replicaDirtyTimestamp = 0;
-                    info.setStatusWithoutDirty(newStatus);
-                    if (lastDirtyTimestamp != null) {
-                        replicaDirtyTimestamp = Long.parseLong(lastDirtyTimestamp);
-                    }
-                    // If the replication's dirty timestamp is more than the existing one, just update
-                    // it to the replica's.
-                    if (replicaDirtyTimestamp > info.getLastDirtyTimestamp()) {
-                        info.setLastDirtyTimestamp(replicaDirtyTimestamp);
-                    }
-                    info.setActionType(ActionType.MODIFIED);
-                    recentlyChangedQueue.add(new RecentlyChangedItem(lease));
-                    info.setLastUpdatedTimestamp();
-                    invalidateCache(appName, info.getVIPAddress(), info.getSecureVipAddress());
+                // This is NAC overridden status
+                overriddenInstanceStatusMap.put(id, newStatus);
+                // Set it for transfer of overridden status to replica on
+                // replica start up
+                info.setOverriddenStatus(newStatus);
+                long replicaDirtyTimestamp = 0;
+                info.setStatusWithoutDirty(newStatus);
+                if (lastDirtyTimestamp != null) {
+                    replicaDirtyTimestamp = Long.parseLong(lastDirtyTimestamp);
                 }
-                return true;
+                // If the replication's dirty timestamp is more than the existing one, just update
+                // it to the replica's.
+                if (replicaDirtyTimestamp > info.getLastDirtyTimestamp()) {
+                    info.setLastDirtyTimestamp(replicaDirtyTimestamp);
+                }
+                info.setActionType(ActionType.MODIFIED);
+                info.setLastUpdatedTimestamp();
+                recordChange(lease);
+                invalidateCache(appName, info.getVIPAddress(), info.getSecureVipAddress());
             }
-        } finally {
-            read.unlock();
+            return true;
         }
     }
 
@@ -528,48 +566,43 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
                                         InstanceStatus newStatus,
                                         String lastDirtyTimestamp,
                                         boolean isReplication) {
-        read.lock();
-        try {
-            STATUS_OVERRIDE_DELETE.increment(isReplication);
-            Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
-            Lease<InstanceInfo> lease = null;
-            if (gMap != null) {
-                lease = gMap.get(id);
+        STATUS_OVERRIDE_DELETE.increment(isReplication);
+        Map<String, Lease<InstanceInfo>> gMap = registry.get(appName);
+        Lease<InstanceInfo> lease = null;
+        if (gMap != null) {
+            lease = gMap.get(id);
+        }
+        if (lease == null) {
+            return false;
+        } else {
+            lease.renew();
+            InstanceInfo info = lease.getHolder();
+
+            // Lease is always created with its instance info object.
+            // This log statement is provided as a safeguard, in case this invariant is violated.
+            if (info == null) {
+                logger.error("Found Lease without a holder for instance id {}", id);
             }
-            if (lease == null) {
-                return false;
-            } else {
-                lease.renew();
-                InstanceInfo info = lease.getHolder();
-
-                // Lease is always created with its instance info object.
-                // This log statement is provided as a safeguard, in case this invariant is violated.
-                if (info == null) {
-                    logger.error("Found Lease without a holder for instance id {}", id);
-                }
 
-                InstanceStatus currentOverride = overriddenInstanceStatusMap.remove(id);
-                if (currentOverride != null && info != null) {
-                    info.setOverriddenStatus(InstanceStatus.UNKNOWN);
-                    info.setStatusWithoutDirty(newStatus);
-                    long replicaDirtyTimestamp = 0;
-                    if (lastDirtyTimestamp != null) {
-                        replicaDirtyTimestamp = Long.parseLong(lastDirtyTimestamp);
-                    }
-                    // If the replication's dirty timestamp is more than the existing one, just update
-                    // it to the replica's.
-                    if (replicaDirtyTimestamp > info.getLastDirtyTimestamp()) {
-                        info.setLastDirtyTimestamp(replicaDirtyTimestamp);
-                    }
-                    info.setActionType(ActionType.MODIFIED);
-                    recentlyChangedQueue.add(new RecentlyChangedItem(lease));
-                    info.setLastUpdatedTimestamp();
-                    invalidateCache(appName, info.getVIPAddress(), info.getSecureVipAddress());
+            InstanceStatus currentOverride = overriddenInstanceStatusMap.remove(id);
+            if (currentOverride != null && info != null) {
+                info.setOverriddenStatus(InstanceStatus.UNKNOWN);
+                info.setStatusWithoutDirty(newStatus);
+                long replicaDirtyTimestamp = 0;
+                if (lastDirtyTimestamp != null) {
+                    replicaDirtyTimestamp = Long.parseLong(lastDirtyTimestamp);
+                }
+                // If the replication's dirty timestamp is more than the existing one, just update
+                // it to the replica's.
+                if (replicaDirtyTimestamp > info.getLastDirtyTimestamp()) {
+                    info.setLastDirtyTimestamp(replicaDirtyTimestamp);
                 }
-                return true;
+                info.setActionType(ActionType.MODIFIED);
+                info.setLastUpdatedTimestamp();
+                recordChange(lease);
+                invalidateCache(appName, info.getVIPAddress(), info.getSecureVipAddress());
             }
-        } finally {
-            read.unlock();
+            return true;
         }
     }
 
@@ -594,18 +627,7 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         // We collect first all expired items, to evict them in random order. For large eviction sets,
         // if we do not that, we might wipe out whole apps before self preservation kicks in. By randomizing it,
         // the impact should be evenly distributed across all applications.
-        List<Lease<InstanceInfo>> expiredLeases = new ArrayList<>();
-        for (Entry<String, Map<String, Lease<InstanceInfo>>> groupEntry : registry.entrySet()) {
-            Map<String, Lease<InstanceInfo>> leaseMap = groupEntry.getValue();
-            if (leaseMap != null) {
-                for (Entry<String, Lease<InstanceInfo>> leaseEntry : leaseMap.entrySet()) {
-                    Lease<InstanceInfo> lease = leaseEntry.getValue();
-                    if (lease.isExpired(additionalLeaseMs) && lease.getHolder() != null) {
-                        expiredLeases.add(lease);
-                    }
-                }
-            }
-        }
+        List<Lease<InstanceInfo>> expiredLeases = leaseExpiryIndex.pollExpired(additionalLeaseMs, this::isRegistered);
 
         // To compensate for GC pauses or drifting local time, we need to use current registry size as a base for
         // triggering self-preservation. Without that we would wipe out full registry.
@@ -631,6 +653,16 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
                 internalCancel(appName, id, false);
             }
         }
+        // Leases spared by the eviction limit stay in the index, to be evicted in the next runs
+        for (int i = Math.max(toEvict, 0); i < expiredLeases.size(); i++) {
+            leaseExpiryIndex.add(expiredLeases.get(i));
+        }
+    }
+
+    private boolean isRegistered(Lease<InstanceInfo> lease) {
+        InstanceInfo instanceInfo = lease.getHolder();
+        Map<String, Lease<InstanceInfo>> leaseMap = instanceInfo == null ? null : registry.get(instanceInfo.getAppName());
+        return leaseMap != null && leaseMap.get(instanceInfo.getId()) == lease;
     }
 
 
@@ -715,6 +747,36 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         return getApplicationsFromMultipleRegions(EMPTY_STR_ARRAY);
     }
 
+    /**
+     * Copies the instances of the local region with the timestamps of their live leases. The lease info of the
+     * shared snapshot returned by {@link #getApplicationsFromLocalRegionOnly()} is only refreshed when the
+     * application changes, so it misses the renewals since.
+     */
+    Applications copyApplicationsFromLocalRegionWithLeases() {
+        Applications apps = new Applications();
+        for (Entry<String, Map<String, Lease<InstanceInfo>>> entry : registry.entrySet()) {
+            Application app = null;
+            for (Lease<InstanceInfo> lease : entry.getValue().values()) {
+                if (app == null) {
+                    app = new Application(entry.getKey());
+                }
+                app.addInstance(new InstanceInfo(decorateInstanceInfo(lease)));
+            }
+            if (app != null) {
+                apps.addApplication(app);
+            }
+        }
+        return apps;
+    }
+
+    /**
+     * Tells if the given applications are the incrementally maintained snapshot of the local region, whose
+     * {@link Application} objects are reused until the application changes.
+     */
+    boolean isLocalRegionSnapshot(Applications applications) {
+        return localRegistrySnapshot.isCurrent(applications);
+    }
+
     /**
      * This method will return applications with instances from all passed remote regions as well as the current region.
      * Thus, this gives a union view of instances from multiple regions. <br/>
@@ -730,7 +792,9 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
      *                      included.
      *
      * @return The applications with instances from the passed remote regions as well as local region. The instances
-     * from remote regions can be only for certain whitelisted apps as explained above.
+     * from remote regions can be only for certain whitelisted apps as explained above. If no remote region is
+     * requested, an incrementally maintained snapshot of the local region is returned, which is shared between
+     * callers and must not be modified.
      */
     public Applications getApplicationsFromMultipleRegions(String[] remoteRegions) {
 
@@ -743,6 +807,7 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
             GET_ALL_WITH_REMOTE_REGIONS_CACHE_MISS.increment();
         } else {
             GET_ALL_CACHE_MISS.increment();
+            return localRegistrySnapshot.get();
         }
         Applications apps = new Applications();
         apps.setVersion(1L);
@@ -795,6 +860,50 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
         return apps;
     }
 
+    /**
+     * Returns the applications with instances having the given VIP (or secure VIP) address, out of the applications
+     * returned by {@link #getApplications()}. The local region instances are looked up in an index, so the cost
+     * is proportional to the number of instances of the VIP, not to the size of the registry.
+     *
+     * @param vipAddress a single VIP address, matched against each address of the comma separated instance VIPs
+     * @param secure true to look for secure VIP addresses
+     */
+    public Applications getApplicationsForVip(String vipAddress, boolean secure) {
+        Applications apps = new Applications();
+        for (Lease<InstanceInfo> lease : vipIndex.getLeases(vipAddress, secure)) {
+            addInstance(apps, decorateInstanceInfo(lease));
+        }
+        if (!serverConfig.disableTransparentFallbackToOtherRegion()) {
+            for (String remoteRegion : allKnownRemoteRegions) {
+                RemoteRegionRegistry remoteRegistry = regionNameVSRemoteRegistry.get(remoteRegion);
+                if (remoteRegistry == null) {
+                    continue;
+                }
+                for (InstanceInfo instanceInfo : remoteRegistry.getInstancesByVip(vipAddress, secure)) {
+                    if (shouldFetchFromRemoteRegistry(instanceInfo.getAppName(), remoteRegion)) {
+                        addInstance(apps, instanceInfo);
+                    }
+                }
+            }
+        }
+        apps.setAppsHashCode(apps.getReconcileHashCode());
+        return apps;
+    }
+
+    private static void addInstance(Applications apps, InstanceInfo instanceInfo) {
+        Application app = apps.getRegisteredApplications(instanceInfo.getAppName());
+        if (app == null) {
+            app = new Application(instanceInfo.getAppName());
+            apps.addApplication(app);
+        }
+        app.addInstance(instanceInfo);
+    }
+
+    private static boolean hasDifferentVips(InstanceInfo previous, InstanceInfo current) {
+        return !Objects.equals(previous.getVIPAddress(), current.getVIPAddress())
+                || !Objects.equals(previous.getSecureVipAddress(), current.getSecureVipAddress());
+    }
+
     private boolean shouldFetchFromRemoteRegistry(String appName, String remoteRegion) {
         Set<String> whiteList = serverConfig.getRemoteRegionAppWhitelist(remoteRegion);
         if (null == whiteList) {
@@ -871,53 +980,39 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
     @Deprecated
     public Applications getApplicationDeltas() {
         GET_ALL_CACHE_MISS_DELTA.increment();
-        Applications apps = new Applications();
-        apps.setVersion(responseCache.getVersionDelta().get());
-        Map<String, Application> applicationInstancesMap = new HashMap<String, Application>();
-        write.lock();
-        try {
-            Iterator<RecentlyChangedItem> iter = this.recentlyChangedQueue.iterator();
-            logger.debug("The number of elements in the delta queue is : {}",
-                    this.recentlyChangedQueue.size());
-            while (iter.hasNext()) {
-                Lease<InstanceInfo> lease = iter.next().getLeaseInfo();
-                InstanceInfo instanceInfo = lease.getHolder();
-                logger.debug(
-                        "The instance id {} is found with status {} and actiontype {}",
-                        instanceInfo.getId(), instanceInfo.getStatus().name(), instanceInfo.getActionType().name());
-                Application app = applicationInstancesMap.get(instanceInfo
-                        .getAppName());
-                if (app == null) {
-                    app = new Application(instanceInfo.getAppName());
-                    applicationInstancesMap.put(instanceInfo.getAppName(), app);
-                    apps.addApplication(app);
-                }
-                app.addInstance(new InstanceInfo(decorateInstanceInfo(lease)));
-            }
+        DeltaSnapshot snapshot = takeDeltaSnapshot(null);
+        Applications apps = toDeltaApplications(snapshot.getChanges());
+        if (isDeltaSinceSupported()) {
+            // Lets clients ask for the changes made after this delta with getApplicationDeltasSince
+            apps.setVersion(snapshot.getVersion());
+        } else {
+            apps.setVersion(responseCache.getVersionDelta().get());
+        }
+        Map<String, AtomicInteger> instanceCountMap = snapshot.getInstanceCountMap();
 
-            boolean disableTransparentFallback = serverConfig.disableTransparentFallbackToOtherRegion();
+        boolean disableTransparentFallback = serverConfig.disableTransparentFallbackToOtherRegion();
 
-            if (!disableTransparentFallback) {
-                Applications allAppsInLocalRegion = getApplications(false);
+        if (!disableTransparentFallback) {
+            Set<String> localAppNames = getLocalAppNames();
+            Set<String> allAppNames = new HashSet<String>(localAppNames);
 
-                for (RemoteRegionRegistry remoteRegistry : this.regionNameVSRemoteRegistry.values()) {
-                    Applications applications = remoteRegistry.getApplicationDeltas();
-                    for (Application application : applications.getRegisteredApplications()) {
-                        Application appInLocalRegistry =
-                                allAppsInLocalRegion.getRegisteredApplications(application.getName());
-                        if (appInLocalRegistry == null) {
-                            apps.addApplication(application);
-                        }
+            for (RemoteRegionRegistry remoteRegistry : this.regionNameVSRemoteRegistry.values()) {
+                Applications applications = remoteRegistry.getApplicationDeltas();
+                for (Application application : applications.getRegisteredApplications()) {
+                    if (!localAppNames.contains(application.getName())) {
+                        apps.addApplication(application);
+                    }
+                }
+                for (Application application : remoteRegistry.getApplications().getRegisteredApplications()) {
+                    if (allAppNames.add(application.getName())) {
+                        populateInstanceCountMap(instanceCountMap, application);
                     }
                 }
             }
-
-            Applications allApps = getApplications(!disableTransparentFallback);
-            apps.setAppsHashCode(allApps.getReconcileHashCode());
-            return apps;
-        } finally {
-            write.unlock();
         }
+
+        apps.setAppsHashCode(Applications.getReconcileHashCode(instanceCountMap));
+        return apps;
     }
 
     /**
@@ -951,56 +1046,242 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
             GET_ALL_CACHE_MISS_DELTA.increment();
         }
 
-        Applications apps = new Applications();
+        DeltaSnapshot snapshot = takeDeltaSnapshot(null);
+        Applications apps = toDeltaApplications(snapshot.getChanges());
         apps.setVersion(responseCache.getVersionDeltaWithRegions().get());
-        Map<String, Application> applicationInstancesMap = new HashMap<String, Application>();
-        write.lock();
-        try {
-            Iterator<RecentlyChangedItem> iter = this.recentlyChangedQueue.iterator();
-            logger.debug("The number of elements in the delta queue is :{}", this.recentlyChangedQueue.size());
-            while (iter.hasNext()) {
-                Lease<InstanceInfo> lease = iter.next().getLeaseInfo();
-                InstanceInfo instanceInfo = lease.getHolder();
-                logger.debug("The instance id {} is found with status {} and actiontype {}",
-                        instanceInfo.getId(), instanceInfo.getStatus().name(), instanceInfo.getActionType().name());
-                Application app = applicationInstancesMap.get(instanceInfo.getAppName());
-                if (app == null) {
-                    app = new Application(instanceInfo.getAppName());
-                    applicationInstancesMap.put(instanceInfo.getAppName(), app);
-                    apps.addApplication(app);
-                }
-                app.addInstance(new InstanceInfo(decorateInstanceInfo(lease)));
-            }
+        Map<String, AtomicInteger> instanceCountMap = snapshot.getInstanceCountMap();
 
-            if (includeRemoteRegion) {
-                for (String remoteRegion : remoteRegions) {
-                    RemoteRegionRegistry remoteRegistry = regionNameVSRemoteRegistry.get(remoteRegion);
-                    if (null != remoteRegistry) {
-                        Applications remoteAppsDelta = remoteRegistry.getApplicationDeltas();
-                        if (null != remoteAppsDelta) {
-                            for (Application application : remoteAppsDelta.getRegisteredApplications()) {
-                                if (shouldFetchFromRemoteRegistry(application.getName(), remoteRegion)) {
-                                    Application appInstanceTillNow =
-                                            apps.getRegisteredApplications(application.getName());
-                                    if (appInstanceTillNow == null) {
-                                        appInstanceTillNow = new Application(application.getName());
-                                        apps.addApplication(appInstanceTillNow);
-                                    }
-                                    for (InstanceInfo instanceInfo : application.getInstances()) {
-                                        appInstanceTillNow.addInstance(new InstanceInfo(instanceInfo));
-                                    }
+        if (includeRemoteRegion) {
+            for (String remoteRegion : remoteRegions) {
+                RemoteRegionRegistry remoteRegistry = regionNameVSRemoteRegistry.get(remoteRegion);
+                if (null != remoteRegistry) {
+                    Applications remoteAppsDelta = remoteRegistry.getApplicationDeltas();
+                    if (null != remoteAppsDelta) {
+                        for (Application application : remoteAppsDelta.getRegisteredApplications()) {
+                            if (shouldFetchFromRemoteRegistry(application.getName(), remoteRegion)) {
+                                Application appInstanceTillNow =
+                                        apps.getRegisteredApplications(application.getName());
+                                if (appInstanceTillNow == null) {
+                                    appInstanceTillNow = new Application(application.getName());
+                                    apps.addApplication(appInstanceTillNow);
+                                }
+                                for (InstanceInfo instanceInfo : application.getInstances()) {
+                                    appInstanceTillNow.addInstance(new InstanceInfo(instanceInfo));
                                 }
                             }
                         }
                     }
+                    for (Application application : remoteRegistry.getApplications().getRegisteredApplications()) {
+                        if (shouldFetchFromRemoteRegistry(application.getName(), remoteRegion)) {
+                            populateInstanceCountMap(instanceCountMap, application);
+                        }
+                    }
                 }
             }
+        }
+
+        apps.setAppsHashCode(Applications.getReconcileHashCode(instanceCountMap));
+        return apps;
+    }
+
+    /**
+     * Gets the local region changes made after the given registry version. Unlike
+     * {@link #getApplicationDeltasFromMultipleRegions(String[])}, which always returns the whole retention window,
+     * the result contains only the changes the caller has not seen yet. The version of the returned
+     * {@link Applications} is the version of the last change included, and is meant to be passed back on the
+     * next request.
+     *
+     * @param version the registry version the caller has last seen
+     * @return the changes made after the given version, or null if the caller must fall back to a regular delta
+     * or a full fetch
+     */
+    @Override
+    @Nullable
+    public Applications getApplicationDeltasSince(long version) {
+        if (!isDeltaSinceSupported()) {
+            return null;
+        }
+        GET_ALL_CACHE_MISS_DELTA.increment();
+        DeltaSnapshot snapshot = takeDeltaSnapshot(version);
+        if (snapshot.getChanges() == null) {
+            return null;
+        }
+        Applications apps = toDeltaApplications(snapshot.getChanges());
+        apps.setVersion(snapshot.getVersion());
+        apps.setAppsHashCode(Applications.getReconcileHashCode(snapshot.getInstanceCountMap()));
+        return apps;
+    }
+
+    /**
+     * Versioned deltas cover the local region only, so they cannot be served if regular deltas transparently
+     * fall back to remote regions.
+     */
+    private boolean isDeltaSinceSupported() {
+        return serverConfig.disableTransparentFallbackToOtherRegion() || regionNameVSRemoteRegistry.isEmpty();
+    }
+
+    /**
+     * Takes a consistent snapshot of the retained changes and of the local instance status counts, so that
+     * the delta and its reconcile hash code describe the same registry state.
+     *
+     * <p>
+     * Every change is recorded in the change log together with the status counts right after it, see
+     * {@link #recordChange(Lease)}, so the snapshot is made of the changes up to the last published version and of
+     * the counts published with it. Neither registry changes nor other readers are blocked, and the cost does not
+     * depend on the size of the registry.
+     * </p>
+     *
+     * @param sinceVersion if not null, only the changes made after this version are included
+     */
+    private DeltaSnapshot takeDeltaSnapshot(@Nullable Long sinceVersion) {
+        DeltaState state = deltaState;
+        List<RegistryChangeLog.Change> changes = sinceVersion == null
+                ? recentlyChangedLog.retainedChanges(state.getVersion())
+                : recentlyChangedLog.changesSince(sinceVersion, state.getVersion());
+        return new DeltaSnapshot(state.getVersion(), changes, InstanceStatusCounts.toInstanceCountMap(state.getStatusCounts()));
+    }
+
+    /**
+     * @return the names of the local region applications
+     */
+    private Set<String> getLocalAppNames() {
+        Set<String> appNames = new HashSet<String>();
+        for (Entry<String, Map<String, Lease<InstanceInfo>>> entry : registry.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                appNames.add(entry.getKey());
+            }
+        }
+        return appNames;
+    }
+
+    private Applications toDeltaApplications(List<RegistryChangeLog.Change> changes) {
+        Applications apps = new Applications();
+        Map<String, Application> applicationInstancesMap = new HashMap<String, Application>();
+        logger.debug("The number of elements in the delta queue is : {}", changes.size());
+        for (RegistryChangeLog.Change change : changes) {
+            InstanceInfo instanceInfo = change.getInstanceInfo();
+            logger.debug("The instance id {} is found with status {} and actiontype {}",
+                    instanceInfo.getId(), instanceInfo.getStatus().name(), instanceInfo.getActionType().name());
+            Application app = applicationInstancesMap.get(instanceInfo.getAppName());
+            if (app == null) {
+                app = new Application(instanceInfo.getAppName());
+                applicationInstancesMap.put(instanceInfo.getAppName(), app);
+                apps.addApplication(app);
+            }
+            app.addInstance(instanceInfo);
+        }
+        return apps;
+    }
+
+    private static void populateInstanceCountMap(Map<String, AtomicInteger> instanceCountMap, Application application) {
+        for (InstanceInfo instanceInfo : application.getInstancesAsIsFromEureka()) {
+            String status = instanceInfo.getStatus().name();
+            AtomicInteger instanceCount = instanceCountMap.get(status);
+            if (instanceCount == null) {
+                instanceCount = new AtomicInteger(0);
+                instanceCountMap.put(status, instanceCount);
+            }
+            instanceCount.incrementAndGet();
+        }
+    }
 
-            Applications allApps = getApplicationsFromMultipleRegions(remoteRegions);
-            apps.setAppsHashCode(allApps.getReconcileHashCode());
-            return apps;
-        } finally {
-            write.unlock();
+    /**
+     * Records a change of the given lease in the change log, with a copy of its instance as it is now, and recounts
+     * the status of the instance. Both are done under the same lock, so that every version comes with the status
+     * counts of the registry right after its change, and delta snapshots never have to look at the live registry.
+     */
+    private void recordChange(Lease<InstanceInfo> lease) {
+        InstanceInfo instanceInfo = new InstanceInfo(decorateInstanceInfo(lease));
+        synchronized (changeLock) {
+            instanceStatusCounts.recount(instanceInfo.getAppName(), instanceInfo.getId(),
+                    currentStatusOf(instanceInfo.getAppName(), instanceInfo.getId()));
+            publishDeltaState(recentlyChangedLog.append(instanceInfo));
+        }
+    }
+
+    /**
+     * Recounts the status of an instance changed without a change log entry, as when a renewal applies an
+     * overridden status.
+     */
+    private void recountStatus(String appName, String id) {
+        synchronized (changeLock) {
+            if (instanceStatusCounts.recount(appName, id, currentStatusOf(appName, id))) {
+                publishDeltaState(deltaState.getVersion());
+            }
+        }
+    }
+
+    @Nullable
+    private InstanceStatus currentStatusOf(String appName, String id) {
+        Lease<InstanceInfo> lease = getLease(appName, id);
+        InstanceInfo instanceInfo = lease == null ? null : lease.getHolder();
+        return instanceInfo == null ? null : instanceInfo.getStatus();
+    }
+
+    // To be called holding the change lock
+    private void publishDeltaState(long version) {
+        deltaState = new DeltaState(version, instanceStatusCounts.toArray(), deltaState.getStamp() + 1);
+    }
+
+    /**
+     * @return a number that changes whenever the content of the local region deltas changes, that is with every
+     * recorded change or change of the status counts
+     */
+    long getDeltaStamp() {
+        return deltaState.getStamp();
+    }
+
+    /**
+     * The last published change log version, with the status counts of the registry right after it.
+     */
+    private static final class DeltaState {
+        private final long version;
+        private final int[] statusCounts;
+        private final long stamp;
+
+        DeltaState(long version, int[] statusCounts, long stamp) {
+            this.version = version;
+            this.statusCounts = statusCounts;
+            this.stamp = stamp;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        int[] getStatusCounts() {
+            return statusCounts;
+        }
+
+        long getStamp() {
+            return stamp;
+        }
+    }
+
+    private static final class DeltaSnapshot {
+        private final long version;
+        private final List<RegistryChangeLog.Change> changes;
+        private final Map<String, AtomicInteger> instanceCountMap;
+
+        DeltaSnapshot(long version,
+                      @Nullable List<RegistryChangeLog.Change> changes,
+                      Map<String, AtomicInteger> instanceCountMap) {
+            this.version = version;
+            this.changes = changes;
+            this.instanceCountMap = instanceCountMap;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        @Nullable
+        List<RegistryChangeLog.Change> getChanges() {
+            return changes;
+        }
+
+        Map<String, AtomicInteger> getInstanceCountMap() {
+            return instanceCountMap;
         }
     }
 
@@ -1074,32 +1355,23 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
     public List<InstanceInfo> getInstancesById(String id, boolean includeRemoteRegions) {
         List<InstanceInfo> list = new ArrayList<>();
 
-        for (Iterator<Entry<String, Map<String, Lease<InstanceInfo>>>> iter =
-                     registry.entrySet().iterator(); iter.hasNext(); ) {
-
-            Map<String, Lease<InstanceInfo>> leaseMap = iter.next().getValue();
+        for (String appName : instanceIdIndex.getAppNames(id)) {
+            Map<String, Lease<InstanceInfo>> leaseMap = registry.get(appName);
             if (leaseMap != null) {
                 Lease<InstanceInfo> lease = leaseMap.get(id);
 
                 if (lease == null || (isLeaseExpirationEnabled() && lease.isExpired())) {
                     continue;
                 }
-
-                if (list == Collections.EMPTY_LIST) {
-                    list = new ArrayList<>();
-                }
                 list.add(decorateInstanceInfo(lease));
             }
         }
         if (list.isEmpty() && includeRemoteRegions) {
             for (RemoteRegionRegistry remoteRegistry : this.regionNameVSRemoteRegistry.values()) {
-                for (Application application : remoteRegistry.getApplications()
-                        .getRegisteredApplications()) {
-                    InstanceInfo instanceInfo = application.getByInstanceId(id);
-                    if (instanceInfo != null) {
-                        list.add(instanceInfo);
-                        return list;
-                    }
+                List<InstanceInfo> remoteInstances = remoteRegistry.getInstancesById(id);
+                if (!remoteInstances.isEmpty()) {
+                    list.add(remoteInstances.get(0));
+                    return list;
                 }
             }
         }
@@ -1182,6 +1454,7 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
 
     private void invalidateCache(String appName, @Nullable String vipAddress, @Nullable String secureVipAddress) {
         // invalidate cache
+        localRegistrySnapshot.invalidate(appName);
         responseCache.invalidate(appName, vipAddress, secureVipAddress);
     }
 
@@ -1191,24 +1464,6 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
                 * serverConfig.getRenewalPercentThreshold());
     }
 
-    private static final class RecentlyChangedItem {
-        private long lastUpdateTime;
-        private Lease<InstanceInfo> leaseInfo;
-
-        public RecentlyChangedItem(Lease<InstanceInfo> lease) {
-            this.leaseInfo = lease;
-            lastUpdateTime = System.currentTimeMillis();
-        }
-
-        public long getLastUpdateTime() {
-            return this.lastUpdateTime;
-        }
-
-        public Lease<InstanceInfo> getLeaseInfo() {
-            return this.leaseInfo;
-        }
-    }
-
     protected void postInit() {
         renewsLastMin.start();
         if (evictionTaskRef.get() != null) {
@@ -1342,15 +1597,8 @@ public abstract class AbstractInstanceRegistry implements InstanceRegistry {
 
             @Override
             public void run() {
-                Iterator<RecentlyChangedItem> it = recentlyChangedQueue.iterator();
-                while (it.hasNext()) {
-                    if (it.next().getLastUpdateTime() <
-                            System.currentTimeMillis() - serverConfig.getRetentionTimeInMSInDeltaQueue()) {
-                        it.remove();
-                    } else {
-                        break;
-                    }
-                }
+                recentlyChangedLog.evictOlderThan(
+                        System.currentTimeMillis() - serverConfig.getRetentionTimeInMSInDeltaQueue());
             }
 
         };
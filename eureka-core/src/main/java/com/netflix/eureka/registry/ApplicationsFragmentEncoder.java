@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.converters.wrappers.EncoderWrapper;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+
+/**
+ * Encodes {@link Applications} by stitching together separately encoded applications, so that only the applications
+ * changed since the previous encoding have to be encoded again.
+ *
+ * <p>
+ * The encoder makes no assumption about the format of a codec. Instead, it encodes the envelope with two different
+ * placeholder applications, one at a time and both together, and derives from the results the prefix, the
+ * separator and the suffix surrounding the applications. An application is encoded on its own within the same
+ * envelope, and the prefix and suffix are stripped to get its fragment. If a codec does not encode applications
+ * independently of each other, this is detected, and {@link #encode(Applications)} returns null so the caller
+ * falls back to encoding the whole payload.
+ * </p>
+ *
+ * <p>
+ * A fragment is reused as long as the {@link Application} object it was encoded from is part of the encoded
+ * applications, which holds for the incrementally maintained local registry snapshot until the application changes,
+ * but at most {@code maxFragmentAgeMs}, so that lease timestamps in the payload are eventually refreshed.
+ * </p>
+ */
+class ApplicationsFragmentEncoder {
+
+    private static final Application FIRST_PLACEHOLDER = new Application("A");
+    private static final Application SECOND_PLACEHOLDER = new Application("B");
+
+    static {
+        SECOND_PLACEHOLDER.addInstance(InstanceInfo.Builder.newBuilder()
+                .setAppName("B")
+                .setHostName("b")
+                .setIPAddr("127.0.0.1")
+                .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+                .setLeaseInfo(LeaseInfo.Builder.newBuilder().build())
+                .build());
+    }
+
+    private final EncoderWrapper encoder;
+    private final long maxFragmentAgeMs;
+
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+
+    ApplicationsFragmentEncoder(EncoderWrapper encoder, long maxFragmentAgeMs) {
+        this.encoder = encoder;
+        this.maxFragmentAgeMs = maxFragmentAgeMs;
+    }
+
+    /**
+     * @return the encoded applications, or null if the applications cannot be encoded from fragments
+     */
+    @Nullable
+    String encode(Applications applications) throws IOException {
+        List<Application> registeredApplications = applications.getRegisteredApplications();
+        if (registeredApplications.isEmpty()) {
+            return null;
+        }
+        Template template = createTemplate(applications);
+        if (template == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String[] appFragments = new String[registeredApplications.size()];
+        int length = template.prefix.length() + template.suffix.length();
+        int idx = 0;
+        for (Application application : registeredApplications) {
+            Fragment fragment = fragments.get(application.getName());
+            if (fragment == null || fragment.application != application || now - fragment.createdAt > maxFragmentAgeMs) {
+                String encoded = template.extractFragment(encoder.encode(envelope(applications, application)));
+                if (encoded == null) {
+                    return null;
+                }
+                fragment = new Fragment(application, encoded, now);
+                fragments.put(application.getName(), fragment);
+            }
+            appFragments[idx++] = fragment.payload;
+            length += fragment.payload.length() + template.separator.length();
+        }
+        if (fragments.size() > registeredApplications.size()) {
+            Set<String> appNames = new HashSet<>();
+            for (Application application : registeredApplications) {
+                appNames.add(application.getName());
+            }
+            fragments.keySet().retainAll(appNames);
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(template.prefix);
+        for (int i = 0; i < appFragments.length; i++) {
+            if (i > 0) {
+                sb.append(template.separator);
+            }
+            sb.append(appFragments[i]);
+        }
+        sb.append(template.suffix);
+        return sb.toString();
+    }
+
+    /**
+     * Drops the fragment of the given application.
+     */
+    void invalidate(String appName) {
+        fragments.remove(appName);
+    }
+
+    @Nullable
+    private Template createTemplate(Applications applications) throws IOException {
+        String first = encoder.encode(envelope(applications, FIRST_PLACEHOLDER));
+        String second = encoder.encode(envelope(applications, SECOND_PLACEHOLDER));
+        String both = encoder.encode(envelope(applications, FIRST_PLACEHOLDER, SECOND_PLACEHOLDER));
+
+        int prefixLength = 0;
+        int maxLength = Math.min(first.length(), second.length());
+        while (prefixLength < maxLength && first.charAt(prefixLength) == second.charAt(prefixLength)) {
+            prefixLength++;
+        }
+        int suffixLength = 0;
+        while (suffixLength < maxLength - prefixLength
+                && first.charAt(first.length() - 1 - suffixLength) == second.charAt(second.length() - 1 - suffixLength)) {
+            suffixLength++;
+        }
+
+        String prefix = first.substring(0, prefixLength);
+        String suffix = first.substring(first.length() - suffixLength);
+        String firstFragment = first.substring(prefixLength, first.length() - suffixLength);
+        String secondFragment = second.substring(prefixLength, second.length() - suffixLength);
+        int separatorLength = both.length() - prefix.length() - firstFragment.length() - secondFragment.length() - suffix.length();
+        if (separatorLength < 0
+                || !both.startsWith(prefix + firstFragment)
+                || !both.endsWith(secondFragment + suffix)) {
+            return null;
+        }
+        int separatorStart = prefix.length() + firstFragment.length();
+        return new Template(prefix, both.substring(separatorStart, separatorStart + separatorLength), suffix);
+    }
+
+    private static Applications envelope(Applications applications, Application... content) {
+        Applications envelope = new Applications();
+        envelope.setVersion(applications.getVersion());
+        envelope.setAppsHashCode(applications.getAppsHashCode());
+        for (Application application : content) {
+            envelope.addApplication(application);
+        }
+        return envelope;
+    }
+
+    private static final class Template {
+        private final String prefix;
+        private final String separator;
+        private final String suffix;
+
+        Template(String prefix, String separator, String suffix) {
+            this.prefix = prefix;
+            this.separator = separator;
+            this.suffix = suffix;
+        }
+
+        @Nullable
+        String extractFragment(String encoded) {
+            if (encoded.length() < prefix.length() + suffix.length()
+                    || !encoded.startsWith(prefix) || !encoded.endsWith(suffix)) {
+                return null;
+            }
+            return encoded.substring(prefix.length(), encoded.length() - suffix.length());
+        }
+    }
+
+    private static final class Fragment {
+        private final Application application;
+        private final String payload;
+        private final long createdAt;
+
+        Fragment(Application application, String payload, long createdAt) {
+            this.application = application;
+            this.payload = payload;
+            this.createdAt = createdAt;
+        }
+    }
+}
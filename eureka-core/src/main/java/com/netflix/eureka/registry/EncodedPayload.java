@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable, encoded response payload held by the {@link ResponseCache}, either on the heap or in a direct
+ * (off-heap) buffer.
+ *
+ * <p>
+ * The payload is written as is to the response output, so serving it does not create a copy of the payload on
+ * the heap. Text payloads are UTF-8 encoded.
+ * </p>
+ *
+ * <p>
+ * A payload may carry a strong entity tag, which changes whenever the payload bytes change, so that clients can
+ * make conditional requests with <code>If-None-Match</code>.
+ * </p>
+ */
+public final class EncodedPayload implements StreamingOutput {
+
+    private final byte[] heapBytes;
+    private final ByteBuffer directBuffer;
+    private final int length;
+    private final String entityTag;
+
+    private EncodedPayload(byte[] heapBytes, ByteBuffer directBuffer, int length, String entityTag) {
+        this.heapBytes = heapBytes;
+        this.directBuffer = directBuffer;
+        this.length = length;
+        this.entityTag = entityTag;
+    }
+
+    /**
+     * Creates a payload holding the given bytes, which must not be modified afterwards. If direct is true,
+     * the bytes are copied to a direct buffer, and the given array can be discarded.
+     */
+    public static EncodedPayload of(byte[] bytes, boolean direct) {
+        return of(bytes, direct, null);
+    }
+
+    /**
+     * Same as {@link #of(byte[], boolean)}, with the given quoted entity tag, see {@link #getEntityTag()}.
+     */
+    public static EncodedPayload of(byte[] bytes, boolean direct, @Nullable String entityTag) {
+        if (!direct) {
+            return new EncodedPayload(bytes, null, bytes.length, entityTag);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return new EncodedPayload(null, buffer.asReadOnlyBuffer(), bytes.length, entityTag);
+    }
+
+    public static EncodedPayload of(String payload, boolean direct) {
+        return of(payload.getBytes(StandardCharsets.UTF_8), direct);
+    }
+
+    /**
+     * @return the payload size in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the quoted, strong entity tag of the payload, or null if it has none
+     */
+    @Nullable
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public boolean isDirect() {
+        return directBuffer != null;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        if (heapBytes != null) {
+            output.write(heapBytes);
+            return;
+        }
+        ByteBuffer buffer = directBuffer.duplicate();
+        WritableByteChannel channel = Channels.newChannel(output);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * @return the payload bytes, which must not be modified, or a copy of them for a direct payload
+     */
+    byte[] bytes() {
+        return heapBytes != null ? heapBytes : toByteArray();
+    }
+
+    /**
+     * @return a copy of the payload bytes
+     */
+    public byte[] toByteArray() {
+        if (heapBytes != null) {
+            return heapBytes.clone();
+        }
+        byte[] bytes = new byte[length];
+        directBuffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return the payload decoded as UTF-8 text
+     */
+    @Override
+    public String toString() {
+        if (heapBytes != null) {
+            return new String(heapBytes, StandardCharsets.UTF_8);
+        }
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+
+/**
+ * An index from instance ids to the names of the applications having an instance with that id. Instance ids are
+ * not guaranteed to be unique across applications, so an id may map to more than one application.
+ *
+ * <p>
+ * The index does not hold the instances themselves. Callers resolve the application names against their own
+ * registry, and must treat a returned name as a hint, as the index is updated after the registry.
+ * </p>
+ */
+class InstanceIdIndex {
+
+    private final Map<String, Set<String>> appNamesById = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an index of all instances of the given applications.
+     */
+    static InstanceIdIndex of(Applications applications) {
+        InstanceIdIndex index = new InstanceIdIndex();
+        for (Application application : applications.getRegisteredApplications()) {
+            for (InstanceInfo instanceInfo : application.getInstancesAsIsFromEureka()) {
+                index.add(application.getName(), instanceInfo.getId());
+            }
+        }
+        return index;
+    }
+
+    void add(String appName, String id) {
+        appNamesById.compute(id, (key, appNames) -> {
+            Set<String> result = appNames == null ? ConcurrentHashMap.<String>newKeySet() : appNames;
+            result.add(appName);
+            return result;
+        });
+    }
+
+    void remove(String appName, String id) {
+        appNamesById.computeIfPresent(id, (key, appNames) -> {
+            appNames.remove(appName);
+            return appNames.isEmpty() ? null : appNames;
+        });
+    }
+
+    /**
+     * @return the names of the applications with an instance with the given id, or an empty set if there is none
+     */
+    Set<String> getAppNames(String id) {
+        Set<String> appNames = appNamesById.get(id);
+        return appNames == null ? Collections.<String>emptySet() : appNames;
+    }
+
+    void clear() {
+        appNamesById.clear();
+    }
+}
@@ -7,8 +7,10 @@ import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
 import com.netflix.discovery.shared.LookupService;
 import com.netflix.discovery.shared.Pair;
+import com.netflix.eureka.lease.Lease;
 import com.netflix.eureka.lease.LeaseManager;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 
@@ -34,10 +36,46 @@ public interface InstanceRegistry extends LeaseManager<InstanceInfo>, LookupServ
 
     Map<String, InstanceStatus> overriddenInstanceStatusesSnapshot();
 
+    /**
+     * Renews the lease of the given instance, see {@link LeaseManager#renew(String, String, boolean)}.
+     *
+     * By default, renews the lease and wraps the registry copy of the instance in a lease of its own, whose only
+     * meaningful field is the holder. Registries that can hand out the renewed lease itself should override it.
+     *
+     * @return the renewed lease, or null if the renewal failed
+     */
+    @Nullable
+    default Lease<InstanceInfo> renewAndGet(String appName, String id, boolean isReplication) {
+        if (!renew(appName, id, isReplication)) {
+            return null;
+        }
+        InstanceInfo instanceInfo = getInstanceByAppAndId(appName, id, false);
+        if (instanceInfo == null) {
+            return null;
+        }
+        int durationInSecs = instanceInfo.getLeaseInfo() == null
+                ? Lease.DEFAULT_DURATION_IN_SECS
+                : instanceInfo.getLeaseInfo().getDurationInSecs();
+        return new Lease<InstanceInfo>(instanceInfo, durationInSecs);
+    }
+
     Applications getApplicationsFromLocalRegionOnly();
 
     List<Application> getSortedApplications();
 
+    /**
+     * Gets the local region changes made after the given registry version.
+     *
+     * @param version the registry version the caller has last seen, as returned in {@link Applications#getVersion()}
+     *                of a previous delta
+     * @return the changes made after the given version, or null if they are no longer retained, or if the version
+     * was not issued by this registry. By default null, that is the caller falls back to the regular delta.
+     */
+    @Nullable
+    default Applications getApplicationDeltasSince(long version) {
+        return null;
+    }
+
     /**
      * Get application information.
      *
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+
+/**
+ * Counts the local region instances by status, for the reconcile hash code of the deltas, without scanning the
+ * registry.
+ *
+ * <p>
+ * The status each instance is counted with is remembered, so that recounting an instance after any change moves it
+ * from that status to its current one. The registry passes the status read from its live state on every recount,
+ * so concurrent changes of the same instance cannot leave the counts off: whichever recount comes last counts the
+ * final status. This class is not thread safe.
+ * </p>
+ */
+class InstanceStatusCounts {
+
+    private static final InstanceStatus[] STATUSES = InstanceStatus.values();
+
+    private final Map<String, Map<String, InstanceStatus>> countedStatuses = new HashMap<>();
+    private final int[] counts = new int[STATUSES.length];
+
+    /**
+     * Counts the given instance with its current status.
+     *
+     * @param status the current status of the instance, or null if it is no longer in the registry
+     * @return true if the counts changed
+     */
+    boolean recount(String appName, String id, @Nullable InstanceStatus status) {
+        Map<String, InstanceStatus> appStatuses = countedStatuses.get(appName);
+        InstanceStatus previousStatus = appStatuses == null ? null : appStatuses.get(id);
+        if (previousStatus == status) {
+            return false;
+        }
+        if (previousStatus != null) {
+            counts[previousStatus.ordinal()]--;
+        }
+        if (status == null) {
+            appStatuses.remove(id);
+            if (appStatuses.isEmpty()) {
+                countedStatuses.remove(appName);
+            }
+        } else {
+            if (appStatuses == null) {
+                appStatuses = new HashMap<>();
+                countedStatuses.put(appName, appStatuses);
+            }
+            appStatuses.put(id, status);
+            counts[status.ordinal()]++;
+        }
+        return true;
+    }
+
+    void clear() {
+        countedStatuses.clear();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+    }
+
+    /**
+     * @return a copy of the counts, indexed by status ordinal
+     */
+    int[] toArray() {
+        return counts.clone();
+    }
+
+    /**
+     * @param counts counts returned by {@link #toArray()}
+     * @return the instance count map of the given counts, as used by
+     * {@link com.netflix.discovery.shared.Applications#getReconcileHashCode(Map)}
+     */
+    static Map<String, AtomicInteger> toInstanceCountMap(int[] counts) {
+        Map<String, AtomicInteger> instanceCountMap = new TreeMap<String, AtomicInteger>();
+        for (InstanceStatus status : STATUSES) {
+            int count = counts[status.ordinal()];
+            if (count > 0) {
+                instanceCountMap.put(status.name(), new AtomicInteger(count));
+            }
+        }
+        return instanceCountMap;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.lease.Lease;
+
+/**
+ * An index of leases ordered by their expiration time, in buckets of one second.
+ *
+ * <p>
+ * Renewals do not update the index, to keep them cheap. Instead, a lease is checked when the bucket it was
+ * placed in becomes due; if it was renewed in the meantime, it is moved to the bucket of its new expiration time.
+ * This way eviction only looks at leases that may have expired, and each actively renewed lease is looked at
+ * about once per lease duration, instead of on every eviction run.
+ * </p>
+ */
+class LeaseExpiryIndex {
+
+    private static final long BUCKET_MS = 1000;
+
+    private final ConcurrentSkipListMap<Long, Queue<Lease<InstanceInfo>>> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds the lease to the bucket of its current expiration time.
+     */
+    void add(Lease<InstanceInfo> lease) {
+        Long bucket = bucketOf(lease.getExpirationTimestamp());
+        while (true) {
+            Queue<Lease<InstanceInfo>> queue = buckets.get(bucket);
+            if (queue == null) {
+                Queue<Lease<InstanceInfo>> newQueue = new ConcurrentLinkedQueue<>();
+                queue = buckets.putIfAbsent(bucket, newQueue);
+                if (queue == null) {
+                    queue = newQueue;
+                }
+            }
+            queue.add(lease);
+            // If the bucket was drained concurrently, the lease might have been missed, so add it again.
+            // Duplicates are filtered out when leases are polled.
+            if (buckets.get(bucket) == queue) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the expired leases from the index.
+     *
+     * @param additionalLeaseMs additional lease time, as in {@link Lease#isExpired(long)}
+     * @param isRegistered tells if the lease is still the current lease of its instance; other leases are dropped
+     * @return the expired leases, in no particular order
+     */
+    List<Lease<InstanceInfo>> pollExpired(long additionalLeaseMs, Predicate<Lease<InstanceInfo>> isRegistered) {
+        long cutoff = System.currentTimeMillis() - additionalLeaseMs;
+        List<Lease<InstanceInfo>> expiredLeases = new ArrayList<>();
+        List<Lease<InstanceInfo>> renewedLeases = new ArrayList<>();
+        Set<Lease<InstanceInfo>> seen = Collections.newSetFromMap(new IdentityHashMap<Lease<InstanceInfo>, Boolean>());
+
+        List<Long> dueBuckets = new ArrayList<>(buckets.headMap(cutoff, true).keySet());
+        for (Long bucket : dueBuckets) {
+            Queue<Lease<InstanceInfo>> queue = buckets.remove(bucket);
+            if (queue == null) {
+                continue;
+            }
+            for (Lease<InstanceInfo> lease : queue) {
+                if (!seen.add(lease) || !isRegistered.test(lease)) {
+                    continue;
+                }
+                if (lease.isExpired(additionalLeaseMs) && lease.getHolder() != null) {
+                    expiredLeases.add(lease);
+                } else {
+                    renewedLeases.add(lease);
+                }
+            }
+        }
+
+        for (Lease<InstanceInfo> lease : renewedLeases) {
+            add(lease);
+        }
+        return expiredLeases;
+    }
+
+    void clear() {
+        buckets.clear();
+    }
+
+    private static Long bucketOf(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, BUCKET_MS);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses response cache payloads in the gzip and deflate formats. The {@link Deflater}s and the output buffer
+ * are pooled and reused, so compressing a payload allocates only the resulting array. The pool keeps a bounded
+ * number of them, and the native memory of the {@link Deflater}s is released on {@link #stop()}.
+ */
+class PayloadCompressor {
+
+    private static final byte[] GZIP_HEADER = {
+            (byte) 0x1f, (byte) 0x8b, // magic number
+            Deflater.DEFLATED,        // compression method
+            0,                        // flags
+            0, 0, 0, 0,               // modification time
+            0,                        // extra flags
+            0                         // operating system
+    };
+
+    // Larger buffers are not kept for the next payload, to bound the memory held by the pool
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final int level;
+    private final BlockingQueue<Compressor> pool;
+    private volatile boolean stopped;
+
+    /**
+     * @param level the compression level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param maxRetained the maximum number of compressors kept for reuse. Payloads compressed concurrently beyond
+     *                    it get a compressor that is released once done
+     */
+    PayloadCompressor(int level, int maxRetained) {
+        this.level = level;
+        this.pool = new ArrayBlockingQueue<Compressor>(Math.max(1, maxRetained));
+    }
+
+    /**
+     * @return the input in the gzip format
+     */
+    byte[] gzip(byte[] input) {
+        CRC32 crc = new CRC32();
+        crc.update(input, 0, input.length);
+
+        Compressor compressor = acquire();
+        try {
+            Output output = compressor.output;
+            output.reset();
+            output.write(GZIP_HEADER);
+            output.deflate(compressor.gzipDeflater(), input);
+            output.writeIntLE((int) crc.getValue());
+            output.writeIntLE(input.length);
+            return output.release();
+        } finally {
+            release(compressor);
+        }
+    }
+
+    /**
+     * @return the input in the deflate format of HTTP, that is the zlib format
+     */
+    byte[] deflate(byte[] input) {
+        Compressor compressor = acquire();
+        try {
+            Output output = compressor.output;
+            output.reset();
+            output.deflate(compressor.zlibDeflater(), input);
+            return output.release();
+        } finally {
+            release(compressor);
+        }
+    }
+
+    /**
+     * Releases the pooled compressors. Payloads compressed afterwards, for instance by requests still being
+     * served, get a compressor that is released once done.
+     */
+    void stop() {
+        stopped = true;
+        Compressor compressor;
+        while ((compressor = pool.poll()) != null) {
+            compressor.end();
+        }
+    }
+
+    /* visible for testing */ int retainedCount() {
+        return pool.size();
+    }
+
+    private Compressor acquire() {
+        Compressor compressor = pool.poll();
+        return compressor != null ? compressor : new Compressor();
+    }
+
+    private void release(Compressor compressor) {
+        if (stopped || !pool.offer(compressor)) {
+            compressor.end();
+            return;
+        }
+        // Stopped meanwhile, after the pool was drained
+        if (stopped && pool.remove(compressor)) {
+            compressor.end();
+        }
+    }
+
+    /**
+     * The {@link Deflater}s and the output buffer used to compress one payload at a time. The {@link Deflater}s
+     * are made on first use, as most payloads are only ever compressed to gzip.
+     */
+    private final class Compressor {
+        private final Output output = new Output();
+        private Deflater gzipDeflater;
+        private Deflater zlibDeflater;
+
+        Deflater gzipDeflater() {
+            if (gzipDeflater == null) {
+                gzipDeflater = new Deflater(level, true);
+            }
+            return gzipDeflater;
+        }
+
+        Deflater zlibDeflater() {
+            if (zlibDeflater == null) {
+                zlibDeflater = new Deflater(level, false);
+            }
+            return zlibDeflater;
+        }
+
+        void end() {
+            if (gzipDeflater != null) {
+                gzipDeflater.end();
+            }
+            if (zlibDeflater != null) {
+                zlibDeflater.end();
+            }
+        }
+    }
+
+    /**
+     * A growable output buffer, reused for the payloads compressed with a compressor.
+     */
+    private static final class Output {
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        void write(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void writeIntLE(int value) {
+            ensureCapacity(4);
+            buffer[length++] = (byte) value;
+            buffer[length++] = (byte) (value >> 8);
+            buffer[length++] = (byte) (value >> 16);
+            buffer[length++] = (byte) (value >> 24);
+        }
+
+        void deflate(Deflater deflater, byte[] input) {
+            deflater.reset();
+            deflater.setInput(input, 0, input.length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                ensureCapacity(1);
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+        }
+
+        /**
+         * @return a copy of the output, after which the buffer is ready for the next payload
+         */
+        byte[] release() {
+            byte[] result = Arrays.copyOf(buffer, length);
+            if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+                buffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+            return result;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import javax.annotation.Nullable;
+
+/**
+ * The content encodings in which the {@link ResponseCache} serves payloads.
+ */
+public enum PayloadEncoding {
+    IDENTITY(null),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String contentEncoding;
+
+    PayloadEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return the value of the <code>Content-Encoding</code> header, or null for an uncompressed payload
+     */
+    @Nullable
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * Chooses the encoding of a response from the <code>Accept-Encoding</code> header of the request. gzip is
+     * preferred over deflate, as it is supported by more clients.
+     */
+    public static PayloadEncoding fromAcceptEncoding(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return IDENTITY;
+        }
+        if (acceptEncoding.contains(GZIP.contentEncoding)) {
+            return GZIP;
+        }
+        if (acceptEncoding.contains(DEFLATE.contentEncoding)) {
+            return DEFLATE;
+        }
+        return IDENTITY;
+    }
+}
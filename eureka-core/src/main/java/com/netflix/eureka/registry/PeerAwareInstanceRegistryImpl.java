@@ -16,7 +16,9 @@
 
 package com.netflix.eureka.registry;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -97,7 +99,7 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
     private static final String US_EAST_1 = "us-east-1";
     private static final int PRIME_PEER_NODES_RETRY_MS = 30000;
 
-    private long startupTime = 0;
+    private volatile long startupTime = 0;
     private boolean peerInstancesTransferEmptyOnStartup = true;
 
     public enum Action {
@@ -126,6 +128,8 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
     private Timer timer = new Timer(
             "ReplicaAwareInstanceRegistry - RenewalThresholdUpdater", true);
 
+    private final RegistrySnapshotStore snapshotStore;
+
     @Inject
     public PeerAwareInstanceRegistryImpl(
             EurekaServerConfig serverConfig,
@@ -140,6 +144,10 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
         // then we check the status of a potentially existing lease.
         this.instanceStatusOverrideRule = new FirstMatchWinsCompositeRule(new DownOrStartingRule(),
                 new OverrideExistsRule(overriddenInstanceStatusMap), new LeaseExistsRule());
+        String snapshotFile = serverConfig.getRegistrySnapshotFile();
+        this.snapshotStore = snapshotFile == null || snapshotFile.isEmpty()
+                ? null
+                : new RegistrySnapshotStore(Paths.get(snapshotFile), serverCodecs.getFullJsonCodec());
     }
 
     @Override
@@ -153,6 +161,7 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
         this.peerEurekaNodes = peerEurekaNodes;
         initializedResponseCache();
         scheduleRenewalThresholdUpdateTask();
+        scheduleRegistrySnapshotTask();
         initRemoteRegionRegistry();
 
         try {
@@ -207,11 +216,18 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
      */
     @Override
     public int syncUp() {
+        // Restore the local snapshot first, so that the registry is not empty if the peers are restarting too
+        int restoredCount = restoreRegistrySnapshot();
+
         // Copy entire entry from neighboring DS node
         int count = 0;
 
         for (int i = 0; ((i < serverConfig.getRegistrySyncRetries()) && (count == 0)); i++) {
             if (i > 0) {
+                if (restoredCount > 0) {
+                    logger.info("Not waiting for the peers, as the registry was restored from the snapshot");
+                    break;
+                }
                 try {
                     Thread.sleep(serverConfig.getRegistrySyncRetryWaitMs());
                 } catch (InterruptedException e) {
@@ -233,9 +249,97 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
                 }
             }
         }
+        // The restored instances and the ones of the peers overlap
+        return restoredCount > 0 ? (int) getLocalRegistrySize() : count;
+    }
+
+    /**
+     * Registers the instances of the registry snapshot, if there is a recent one. As for the instances copied from
+     * the peers, the leases start anew, so the instances have a full lease duration to renew them. The instances
+     * whose lease had already expired when the snapshot was taken are skipped, so that the renewal threshold only
+     * counts the instances expected to renew, and the self preservation does not keep the dead ones.
+     *
+     * @return the number of restored instances
+     */
+    private int restoreRegistrySnapshot() {
+        if (snapshotStore == null) {
+            return 0;
+        }
+        RegistrySnapshotStore.Snapshot snapshot = snapshotStore.read();
+        if (snapshot == null) {
+            return 0;
+        }
+        long snapshotAge = System.currentTimeMillis() - snapshot.getTimestamp();
+        if (snapshotAge > serverConfig.getRegistrySnapshotMaxAgeMs()) {
+            logger.info("Not restoring the registry snapshot taken {}ms ago", snapshotAge);
+            return 0;
+        }
+
+        int count = 0;
+        int expiredCount = 0;
+        for (Application app : snapshot.getApplications().getRegisteredApplications()) {
+            for (InstanceInfo instance : app.getInstances()) {
+                try {
+                    LeaseInfo leaseInfo = instance.getLeaseInfo();
+                    int leaseDuration = leaseInfo == null ? Lease.DEFAULT_DURATION_IN_SECS : leaseInfo.getDurationInSecs();
+                    if (leaseInfo != null
+                            && snapshot.getTimestamp() - leaseInfo.getRenewalTimestamp() > leaseDuration * 1000L) {
+                        expiredCount++;
+                        continue;
+                    }
+                    if (isRegisterable(instance)) {
+                        register(instance, leaseDuration, true);
+                        restoreServiceUpTimestamp(instance, leaseInfo);
+                        count++;
+                    }
+                } catch (Throwable t) {
+                    logger.error("During registry snapshot restore", t);
+                }
+            }
+        }
+        logger.info("Restored {} instances from the registry snapshot taken {}ms ago, skipped {} expired instances",
+                count, snapshotAge, expiredCount);
         return count;
     }
 
+    private void restoreServiceUpTimestamp(InstanceInfo instance, LeaseInfo leaseInfo) {
+        if (leaseInfo == null || leaseInfo.getServiceUpTimestamp() <= 0) {
+            return;
+        }
+        Lease<InstanceInfo> lease = getLease(instance.getAppName(), instance.getId());
+        if (lease != null) {
+            lease.setServiceUpTimestamp(leaseInfo.getServiceUpTimestamp());
+        }
+    }
+
+    /**
+     * Schedule the task that saves the local registry to the snapshot file, if snapshots are enabled. Snapshots
+     * start once the registry is open for traffic, so that an empty registry of a starting node does not replace
+     * the snapshot it is to restore.
+     */
+    private void scheduleRegistrySnapshotTask() {
+        if (snapshotStore == null) {
+            return;
+        }
+        long intervalMs = serverConfig.getRegistrySnapshotIntervalMs();
+        timer.schedule(new TimerTask() {
+                           @Override
+                           public void run() {
+                               if (startupTime > 0) {
+                                   writeRegistrySnapshot();
+                               }
+                           }
+                       }, intervalMs, intervalMs);
+    }
+
+    void writeRegistrySnapshot() {
+        try {
+            snapshotStore.write(copyApplicationsFromLocalRegionWithLeases(), System.currentTimeMillis());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot write the registry snapshot", e);
+        }
+    }
+
     @Override
     public void openForTraffic(ApplicationInfoManager applicationInfoManager, int count) {
         // Renewals happen every 30 seconds and for a minute it should be a factor of 2.
@@ -415,15 +519,16 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
     /*
      * (non-Javadoc)
      *
-     * @see com.netflix.eureka.registry.InstanceRegistry#renew(java.lang.String,
-     * java.lang.String, long, boolean)
+     * @see com.netflix.eureka.registry.InstanceRegistry#renewAndGet(java.lang.String,
+     * java.lang.String, boolean)
      */
-    public boolean renew(final String appName, final String id, final boolean isReplication) {
-        if (super.renew(appName, id, isReplication)) {
+    @Override
+    public Lease<InstanceInfo> renewAndGet(final String appName, final String id, final boolean isReplication) {
+        Lease<InstanceInfo> lease = super.renewAndGet(appName, id, isReplication);
+        if (lease != null) {
             replicateToPeers(Action.Heartbeat, appName, id, null, null, isReplication);
-            return true;
         }
-        return false;
+        return lease;
     }
 
     /*
@@ -629,6 +734,11 @@ public class PeerAwareInstanceRegistryImpl extends AbstractInstanceRegistry impl
     private void replicateToPeers(Action action, String appName, String id,
                                   InstanceInfo info /* optional */,
                                   InstanceStatus newStatus /* optional */, boolean isReplication) {
+        // Replicated heartbeats are not timed, to keep them free of allocations
+        if (isReplication && action == Action.Heartbeat) {
+            numberOfReplicationsLastMin.increment();
+            return;
+        }
         Stopwatch tracer = action.getTimer().start();
         try {
             if (isReplication) {
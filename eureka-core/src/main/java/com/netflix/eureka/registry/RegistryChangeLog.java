@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.netflix.appinfo.InstanceInfo;
+
+/**
+ * A bounded, sequence numbered log of registry changes, used to serve delta requests.
+ *
+ * <p>
+ * Every change appended to the log gets the next registry version. Versions are composed of a random
+ * epoch (upper 32 bits), which is different for every log instance, and a monotonically increasing
+ * sequence number (lower 32 bits). This way a version obtained from another eureka server, or from a previous
+ * incarnation of this one, is never mistaken for a local one.
+ * </p>
+ *
+ * <p>
+ * The changes are kept in a ring buffer indexed by version, so a client that knows the last version it has seen
+ * can be served exactly the changes made after it, in time proportional to the number of those changes. Entries
+ * leave the log either when they are older than the retention window (see {@link #evictOlderThan(long)}), or
+ * when they are overwritten after the ring buffer wraps around.
+ * </p>
+ *
+ * <p>
+ * Each change holds a copy of the instance as it was right after the change, so reading the log never looks at
+ * the live registry. Appending is lock free and can be done concurrently, in which case readers only get the
+ * changes published so far; the registry appends its changes one at a time, and reads the log up to a version
+ * it knows is published, so that its readers get a gap free view.
+ * </p>
+ */
+class RegistryChangeLog {
+
+    private static final int EPOCH_SHIFT = 32;
+    private static final long SEQUENCE_MASK = (1L << EPOCH_SHIFT) - 1;
+
+    private final long epoch;
+    private final int capacity;
+    private final int indexMask;
+    private final AtomicReferenceArray<Change> ring;
+    private final AtomicLong lastVersion;
+    private volatile long oldestRetainedVersion;
+
+    RegistryChangeLog(int capacity) {
+        this(capacity, new Random().nextInt(Integer.MAX_VALUE) + 1);
+    }
+
+    /* visible for testing */ RegistryChangeLog(int capacity, long epoch) {
+        this.capacity = roundUpToPowerOfTwo(capacity);
+        this.indexMask = this.capacity - 1;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+        this.epoch = epoch;
+        this.lastVersion = new AtomicLong(epoch << EPOCH_SHIFT);
+        this.oldestRetainedVersion = lastVersion.get() + 1;
+    }
+
+    /**
+     * Appends a change of the given instance.
+     *
+     * @param instanceInfo a copy of the instance as it is after the change, which must not be modified afterwards
+     * @return the registry version assigned to this change
+     */
+    long append(InstanceInfo instanceInfo) {
+        long version = lastVersion.incrementAndGet();
+        ring.set(indexOf(version), new Change(version, instanceInfo));
+        return version;
+    }
+
+    /**
+     * @return the version of the most recent change, or a version with a zero sequence number if the log is empty
+     */
+    long getLastVersion() {
+        return lastVersion.get();
+    }
+
+    /**
+     * @return true if the given version was issued by this log
+     */
+    boolean isOwnVersion(long version) {
+        return (version >>> EPOCH_SHIFT) == epoch && version <= lastVersion.get();
+    }
+
+    /**
+     * Gets all changes made after the given version.
+     *
+     * @param version last version seen by the caller
+     * @return changes in version order, or null if some of the changes following the given version are no longer
+     * retained, or if the version was not issued by this log
+     */
+    @Nullable
+    List<Change> changesSince(long version) {
+        return changesSince(version, lastVersion.get());
+    }
+
+    /**
+     * Gets the changes made after the given version, up to and including the last version.
+     *
+     * @param version last version seen by the caller
+     * @param last the last version to include
+     * @return changes in version order, or null if some of the changes following the given version are no longer
+     * retained, or if the version was not issued by this log
+     */
+    @Nullable
+    List<Change> changesSince(long version, long last) {
+        if (!isOwnVersion(version) || version > last) {
+            return null;
+        }
+        if (version + 1 < oldestAvailableVersion(lastVersion.get())) {
+            return null;
+        }
+        return collect(version + 1, last);
+    }
+
+    /**
+     * @return all changes currently retained in the log, in version order
+     */
+    List<Change> retainedChanges() {
+        return retainedChanges(lastVersion.get());
+    }
+
+    /**
+     * @param last the last version to include
+     * @return the changes currently retained in the log up to and including the last version, in version order
+     */
+    List<Change> retainedChanges(long last) {
+        List<Change> changes = collect(oldestAvailableVersion(lastVersion.get()), last);
+        if (changes == null) {
+            // Changes evicted or overwritten while we were reading them, the retained ones start further
+            changes = collect(oldestAvailableVersion(lastVersion.get()), last);
+        }
+        return changes == null ? Collections.<Change>emptyList() : changes;
+    }
+
+    /**
+     * Removes from the log all changes made before the given time, releasing their instance copies.
+     */
+    void evictOlderThan(long timestamp) {
+        long last = lastVersion.get();
+        long oldest = oldestAvailableVersion(last);
+        long version = oldest;
+        while (version <= last) {
+            Change change = ring.get(indexOf(version));
+            if (change == null || change.getVersion() != version || change.getTimestamp() >= timestamp) {
+                break;
+            }
+            version++;
+        }
+        oldestRetainedVersion = version;
+        release(oldest, version);
+    }
+
+    /**
+     * Drops all retained changes. The version sequence is not reset.
+     */
+    void clear() {
+        long last = lastVersion.get();
+        long oldest = oldestAvailableVersion(last);
+        oldestRetainedVersion = last + 1;
+        release(oldest, last + 1);
+    }
+
+    /**
+     * Empties the slots of the changes from the first version, included, to the last one, excluded, unless they
+     * were overwritten by newer changes in the meantime. Must be called after the changes left the log, so that a
+     * reader finding an empty slot can tell an evicted change from one not published yet.
+     */
+    private void release(long fromVersion, long toVersion) {
+        for (long version = fromVersion; version < toVersion; version++) {
+            int index = indexOf(version);
+            Change change = ring.get(index);
+            if (change != null && change.getVersion() == version) {
+                ring.compareAndSet(index, change, null);
+            }
+        }
+    }
+
+    /**
+     * @return number of changes currently retained in the log
+     */
+    int size() {
+        long last = lastVersion.get();
+        return (int) Math.max(0, last - oldestAvailableVersion(last) + 1);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /* visible for testing */ int occupiedSlots() {
+        int count = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (ring.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Change> collect(long fromVersion, long toVersion) {
+        List<Change> changes = new ArrayList<>((int) Math.max(0, toVersion - fromVersion + 1));
+        for (long version = fromVersion; version <= toVersion; version++) {
+            Change change = ring.get(indexOf(version));
+            if (change == null || change.getVersion() < version) {
+                if (version < oldestAvailableVersion(lastVersion.get())) {
+                    // Evicted while we were reading it
+                    return null;
+                }
+                // Version allocated but not published yet; this is where the consistent view ends
+                break;
+            }
+            if (change.getVersion() > version) {
+                // The ring buffer wrapped around while we were reading it
+                return null;
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    private long oldestAvailableVersion(long last) {
+        return Math.max(oldestRetainedVersion, last - capacity + 1);
+    }
+
+    private int indexOf(long version) {
+        return (int) ((version & SEQUENCE_MASK) & indexMask);
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+
+    /**
+     * A single registry change.
+     */
+    static final class Change {
+        private final long version;
+        private final long timestamp;
+        private final InstanceInfo instanceInfo;
+
+        Change(long version, InstanceInfo instanceInfo) {
+            this.version = version;
+            this.instanceInfo = instanceInfo;
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return the instance as it was right after the change
+         */
+        InstanceInfo getInstanceInfo() {
+            return instanceInfo;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.lease.Lease;
+
+/**
+ * An incrementally maintained {@link Applications} view of the local region registry.
+ *
+ * <p>
+ * The registry reports every changed application with {@link #invalidate(String)}. Reading the snapshot rebuilds
+ * only the applications changed since the previous read, reusing the {@link Application} objects of all other
+ * applications, together with their precomputed instance status counts used for the reconcile hash code.
+ * If nothing changed since the previous read, the same {@link Applications} object is returned.
+ * </p>
+ *
+ * <p>
+ * The returned {@link Applications} object is shared between callers, and must not be modified.
+ * </p>
+ */
+class RegistrySnapshot {
+
+    private final Map<String, Map<String, Lease<InstanceInfo>>> registry;
+    private final Function<Lease<InstanceInfo>, InstanceInfo> leaseDecorator;
+
+    private final Map<String, ApplicationSnapshot> applicationSnapshots = new ConcurrentHashMap<>();
+    private final Set<String> changedApps = ConcurrentHashMap.newKeySet();
+    private final AtomicLong modificationCount = new AtomicLong();
+    private volatile boolean rebuildAll = true;
+    private volatile Snapshot current;
+
+    RegistrySnapshot(Map<String, Map<String, Lease<InstanceInfo>>> registry,
+                     Function<Lease<InstanceInfo>, InstanceInfo> leaseDecorator) {
+        this.registry = registry;
+        this.leaseDecorator = leaseDecorator;
+    }
+
+    /**
+     * Marks the given application as changed.
+     */
+    void invalidate(String appName) {
+        changedApps.add(appName);
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Marks all applications as changed.
+     */
+    void invalidateAll() {
+        rebuildAll = true;
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * @return the applications currently in the registry, with the reconcile hash code set
+     */
+    Applications get() {
+        long currentModificationCount = modificationCount.get();
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.modificationCount == currentModificationCount) {
+            return snapshot.applications;
+        }
+        synchronized (this) {
+            snapshot = current;
+            if (snapshot != null && snapshot.modificationCount == currentModificationCount) {
+                return snapshot.applications;
+            }
+            if (rebuildAll) {
+                rebuildAll = false;
+                changedApps.clear();
+                applicationSnapshots.clear();
+                for (String appName : registry.keySet()) {
+                    rebuild(appName);
+                }
+            } else {
+                for (Iterator<String> it = changedApps.iterator(); it.hasNext(); ) {
+                    String appName = it.next();
+                    it.remove();
+                    rebuild(appName);
+                }
+            }
+
+            Applications applications = new Applications();
+            applications.setVersion(1L);
+            Map<String, AtomicInteger> instanceCountMap = new TreeMap<>();
+            for (ApplicationSnapshot applicationSnapshot : applicationSnapshots.values()) {
+                applications.addApplication(applicationSnapshot.application);
+                for (Map.Entry<String, AtomicInteger> entry : applicationSnapshot.instanceCountMap.entrySet()) {
+                    AtomicInteger instanceCount = instanceCountMap.get(entry.getKey());
+                    if (instanceCount == null) {
+                        instanceCount = new AtomicInteger(0);
+                        instanceCountMap.put(entry.getKey(), instanceCount);
+                    }
+                    instanceCount.addAndGet(entry.getValue().get());
+                }
+            }
+            applications.setAppsHashCode(Applications.getReconcileHashCode(instanceCountMap));
+
+            current = new Snapshot(currentModificationCount, applications);
+            return applications;
+        }
+    }
+
+    /**
+     * @return true if the given applications are the latest snapshot returned by {@link #get()}
+     */
+    boolean isCurrent(Applications applications) {
+        Snapshot snapshot = current;
+        return snapshot != null && snapshot.applications == applications;
+    }
+
+    private void rebuild(String appName) {
+        Map<String, Lease<InstanceInfo>> leaseMap = registry.get(appName);
+        Application app = null;
+        Map<String, AtomicInteger> instanceCountMap = new TreeMap<>();
+        if (leaseMap != null) {
+            for (Lease<InstanceInfo> lease : leaseMap.values()) {
+                if (app == null) {
+                    app = new Application(lease.getHolder().getAppName());
+                }
+                InstanceInfo instanceInfo = leaseDecorator.apply(lease);
+                app.addInstance(instanceInfo);
+
+                String status = instanceInfo.getStatus().name();
+                AtomicInteger instanceCount = instanceCountMap.get(status);
+                if (instanceCount == null) {
+                    instanceCount = new AtomicInteger(0);
+                    instanceCountMap.put(status, instanceCount);
+                }
+                instanceCount.incrementAndGet();
+            }
+        }
+        if (app == null) {
+            applicationSnapshots.remove(appName);
+        } else {
+            applicationSnapshots.put(appName, new ApplicationSnapshot(app, instanceCountMap));
+        }
+    }
+
+    private static final class ApplicationSnapshot {
+        private final Application application;
+        private final Map<String, AtomicInteger> instanceCountMap;
+
+        ApplicationSnapshot(Application application, Map<String, AtomicInteger> instanceCountMap) {
+            this.application = application;
+            this.instanceCountMap = instanceCountMap;
+        }
+    }
+
+    private static final class Snapshot {
+        private final long modificationCount;
+        private final Applications applications;
+
+        Snapshot(long modificationCount, Applications applications) {
+            this.modificationCount = modificationCount;
+            this.applications = applications;
+        }
+    }
+}
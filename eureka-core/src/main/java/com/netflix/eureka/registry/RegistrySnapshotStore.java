@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves snapshots of the local registry to a file, and reads them back on startup. A snapshot holds the
+ * applications encoded with the full JSON codec, with the lease information of their instances, and deflated.
+ * <p>
+ * The file starts with a header made of a magic number, the format version, the snapshot time, the instance count,
+ * the sizes of the payload before and after compression, and the CRC32 checksum of the compressed payload. A
+ * snapshot is written to a temporary file that replaces the previous snapshot once complete, and it is read through
+ * a memory mapping of the file, so a truncated or corrupted snapshot is detected and ignored.
+ */
+class RegistrySnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrySnapshotStore.class);
+
+    static final int MAGIC = 0x45524b53;  // "ERKS"
+    static final int FORMAT_VERSION = 1;
+
+    // magic, version, timestamp, instance count, uncompressed size, compressed size, checksum
+    static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4 + 8;
+
+    private final Path file;
+    private final Path tempFile;
+    private final CodecWrapper codec;
+
+    RegistrySnapshotStore(Path file, CodecWrapper codec) {
+        this.file = file;
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.codec = codec;
+    }
+
+    /**
+     * A registry snapshot read from the file.
+     */
+    static class Snapshot {
+
+        private final long timestamp;
+        private final Applications applications;
+
+        Snapshot(long timestamp, Applications applications) {
+            this.timestamp = timestamp;
+            this.applications = applications;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        Applications getApplications() {
+            return applications;
+        }
+    }
+
+    /**
+     * Replaces the snapshot file with a snapshot of the given applications.
+     */
+    void write(Applications applications, long timestamp) throws IOException {
+        byte[] json = codec.encode(applications).getBytes(StandardCharsets.UTF_8);
+        byte[] payload = deflate(json);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(timestamp)
+                .putInt(countInstances(applications))
+                .putInt(json.length)
+                .putInt(payload.length)
+                .putLong(crc.getValue());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the snapshot held by the file, or null if there is none, or if it is not readable
+     */
+    @Nullable
+    Snapshot read() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                logger.warn("Ignoring registry snapshot {} of invalid size {}", file, size);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                logger.warn("Ignoring registry snapshot {} of unknown format", file);
+                return null;
+            }
+            long timestamp = buffer.getLong();
+            int instanceCount = buffer.getInt();
+            int uncompressedSize = buffer.getInt();
+            int compressedSize = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (compressedSize != size - HEADER_SIZE || uncompressedSize < 0) {
+                logger.warn("Ignoring truncated registry snapshot {}", file);
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum) {
+                logger.warn("Ignoring registry snapshot {} with an invalid checksum", file);
+                return null;
+            }
+
+            byte[] json = inflate(buffer, uncompressedSize);
+            Applications applications = codec.decode(new String(json, StandardCharsets.UTF_8), Applications.class);
+            logger.info("Read registry snapshot {} of {} instances, taken at {}", file, instanceCount, timestamp);
+            return new Snapshot(timestamp, applications);
+        } catch (NoSuchFileException e) {
+            logger.info("No registry snapshot {} to restore", file);
+            return null;
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            logger.warn("Cannot read registry snapshot {}", file, e);
+            return null;
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int uncompressedSize) throws DataFormatException {
+        byte[] input = new byte[compressed.remaining()];
+        compressed.get(input);
+        byte[] output = new byte[uncompressedSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < uncompressedSize && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length, uncompressedSize - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated registry snapshot payload");
+                }
+                length += inflated;
+            }
+            if (length != uncompressedSize || !inflater.finished()) {
+                throw new DataFormatException("Registry snapshot payload of unexpected size");
+            }
+            return output;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int countInstances(Applications applications) {
+        int count = 0;
+        for (Application application : applications.getRegisteredApplications()) {
+            count += application.getInstances().size();
+        }
+        return count;
+    }
+}
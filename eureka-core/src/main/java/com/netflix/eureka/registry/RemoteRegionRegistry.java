@@ -90,6 +90,9 @@ public class RemoteRegionRegistry implements LookupService<String> {
 
     private final AtomicReference<Applications> applications = new AtomicReference<>(new Applications());
     private final AtomicReference<Applications> applicationsDelta = new AtomicReference<>(new Applications());
+    // Replaced together with applications on a full fetch, and updated with each delta
+    private volatile InstanceIdIndex instanceIdIndex = new InstanceIdIndex();
+    private volatile RemoteVipIndex vipIndex = new RemoteVipIndex();
     private final EurekaServerConfig serverConfig;
     private volatile boolean readyForServingData;
     private final EurekaHttpClient eurekaHttpClient;
@@ -323,8 +326,11 @@ public class RemoteRegionRegistry implements LookupService<String> {
                     }
                     logger.debug("Added instance {} to the existing apps ",
                             instance.getId());
+                    removeFromVipIndex(instance);
                     getApplications().getRegisteredApplications(
                             instance.getAppName()).addInstance(instance);
+                    instanceIdIndex.add(instance.getAppName(), instance.getId());
+                    vipIndex.add(instance);
                 } else if (ActionType.MODIFIED.equals(instance.getActionType())) {
                     Application existingApp = getApplications()
                             .getRegisteredApplications(instance.getAppName());
@@ -334,8 +340,11 @@ public class RemoteRegionRegistry implements LookupService<String> {
                     logger.debug("Modified instance {} to the existing apps ",
                             instance.getId());
 
+                    removeFromVipIndex(instance);
                     getApplications().getRegisteredApplications(
                             instance.getAppName()).addInstance(instance);
+                    instanceIdIndex.add(instance.getAppName(), instance.getId());
+                    vipIndex.add(instance);
 
                 } else if (ActionType.DELETED.equals(instance.getActionType())) {
                     Application existingApp = getApplications()
@@ -345,8 +354,11 @@ public class RemoteRegionRegistry implements LookupService<String> {
                     }
                     logger.debug("Deleted instance {} to the existing apps ",
                             instance.getId());
+                    removeFromVipIndex(instance);
                     getApplications().getRegisteredApplications(
                             instance.getAppName()).removeInstance(instance);
+                    instanceIdIndex.remove(instance.getAppName(), instance.getId());
+                    vipIndex.remove(instance);
                 }
             }
         }
@@ -356,6 +368,18 @@ public class RemoteRegionRegistry implements LookupService<String> {
 
     }
 
+    /**
+     * Removes the VIP addresses of the stored copy of the given instance, which may differ from the ones of the
+     * instance in the delta.
+     */
+    private void removeFromVipIndex(InstanceInfo instance) {
+        Application app = getApplications().getRegisteredApplications(instance.getAppName());
+        InstanceInfo previous = app == null ? null : app.getByInstanceId(instance.getId());
+        if (previous != null) {
+            vipIndex.remove(previous);
+        }
+    }
+
     /**
      * Close HTTP response object and its respective resources.
      *
@@ -384,6 +408,8 @@ public class RemoteRegionRegistry implements LookupService<String> {
         if (apps == null) {
             logger.error("The application is null for some reason. Not storing this information");
         } else if (fetchRegistryGeneration.compareAndSet(currentGeneration, currentGeneration + 1)) {
+            instanceIdIndex = InstanceIdIndex.of(apps);
+            vipIndex = RemoteVipIndex.of(apps);
             applications.set(apps);
             applicationsDelta.set(apps);
             logger.info("Successfully updated registry with the latest content");
@@ -458,6 +484,8 @@ public class RemoteRegionRegistry implements LookupService<String> {
         }
 
         if (fetchRegistryGeneration.compareAndSet(currentGeneration, currentGeneration + 1)) {
+            instanceIdIndex = InstanceIdIndex.of(apps);
+            vipIndex = RemoteVipIndex.of(apps);
             applications.set(apps);
             applicationsDelta.set(apps);
             logger.warn("The Reconcile hashcodes after complete sync up, client : {}, server : {}.",
@@ -500,8 +528,10 @@ public class RemoteRegionRegistry implements LookupService<String> {
     public List<InstanceInfo> getInstancesById(String id) {
         List<InstanceInfo> list = new ArrayList<>(1);
 
-        for (Application app : applications.get().getRegisteredApplications()) {
-            InstanceInfo info = app.getByInstanceId(id);
+        Applications apps = applications.get();
+        for (String appName : instanceIdIndex.getAppNames(id)) {
+            Application app = apps.getRegisteredApplications(appName);
+            InstanceInfo info = app == null ? null : app.getByInstanceId(id);
             if (info != null) {
                 list.add(info);
                 return list;
@@ -514,6 +544,13 @@ public class RemoteRegionRegistry implements LookupService<String> {
         return this.applicationsDelta.get();
     }
 
+    /**
+     * @return the instances with the given VIP (or secure VIP) address
+     */
+    List<InstanceInfo> getInstancesByVip(String vipAddress, boolean secure) {
+        return vipIndex.getInstances(applications.get(), vipAddress, secure);
+    }
+
     private boolean shouldUseExperimentalTransport() {
         if (eurekaHttpClient == null) {
             return false;
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.VipIndex.InstanceKey;
+
+/**
+ * An inverted index from VIP and secure VIP addresses to the instances of a remote region registry that have them,
+ * the counterpart of {@link VipIndex} for the {@link Applications} fetched from a remote region.
+ *
+ * <p>
+ * As {@link InstanceIdIndex}, the index does not hold the instances themselves. Lookups resolve the entries against
+ * the given applications and check the VIP addresses of the instances found, as the index is updated after the
+ * applications.
+ * </p>
+ */
+class RemoteVipIndex {
+
+    private final Map<String, Set<InstanceKey>> vipIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<InstanceKey>> secureVipIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an index of all instances of the given applications.
+     */
+    static RemoteVipIndex of(Applications applications) {
+        RemoteVipIndex index = new RemoteVipIndex();
+        for (Application application : applications.getRegisteredApplications()) {
+            for (InstanceInfo instanceInfo : application.getInstancesAsIsFromEureka()) {
+                index.add(instanceInfo);
+            }
+        }
+        return index;
+    }
+
+    void add(InstanceInfo instanceInfo) {
+        InstanceKey key = new InstanceKey(instanceInfo.getAppName(), instanceInfo.getId());
+        VipIndex.forEachVip(instanceInfo.getVIPAddress(), key, vipIndex, true);
+        VipIndex.forEachVip(instanceInfo.getSecureVipAddress(), key, secureVipIndex, true);
+    }
+
+    void remove(InstanceInfo instanceInfo) {
+        InstanceKey key = new InstanceKey(instanceInfo.getAppName(), instanceInfo.getId());
+        VipIndex.forEachVip(instanceInfo.getVIPAddress(), key, vipIndex, false);
+        VipIndex.forEachVip(instanceInfo.getSecureVipAddress(), key, secureVipIndex, false);
+    }
+
+    /**
+     * @return the instances of the given applications with the given VIP (or secure VIP) address
+     */
+    List<InstanceInfo> getInstances(Applications applications, String vipAddress, boolean secure) {
+        Set<InstanceKey> keys = (secure ? secureVipIndex : vipIndex).get(vipAddress);
+        if (keys == null) {
+            return new ArrayList<>();
+        }
+        List<InstanceInfo> instances = new ArrayList<>(keys.size());
+        for (InstanceKey key : keys) {
+            Application application = applications.getRegisteredApplications(key.getAppName());
+            InstanceInfo instanceInfo = application == null ? null : application.getByInstanceId(key.getId());
+            if (instanceInfo != null && VipIndex.hasVipAddress(instanceInfo, vipAddress, secure)) {
+                instances.add(instanceInfo);
+            }
+        }
+        return instances;
+    }
+}
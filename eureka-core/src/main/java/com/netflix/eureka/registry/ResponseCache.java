@@ -1,7 +1,13 @@
 package com.netflix.eureka.registry;
 
 import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * @author David Liu
@@ -36,6 +42,85 @@ public interface ResponseCache {
      */
     byte[] getGZIP(Key key);
 
+    /**
+     * Get the cached information about the applications, as an immutable UTF-8 encoded payload that can be
+     * written to a response without copying it.
+     *
+     * @param key the key for which the cached information needs to be obtained.
+     * @param encoding the content encoding of the payload. Compressed payloads may be made on the first request.
+     * @return payload which contains information about the applications, or null if there is none.
+     */
+    @Nullable
+    default EncodedPayload getPayload(Key key, PayloadEncoding encoding) {
+        if (encoding == PayloadEncoding.GZIP) {
+            byte[] gzip = getGZIP(key);
+            return gzip == null ? null : EncodedPayload.of(gzip, false);
+        }
+        String payload = get(key);
+        if (payload == null) {
+            return null;
+        }
+        if (encoding == PayloadEncoding.DEFLATE) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DeflaterOutputStream output = new DeflaterOutputStream(bytes)) {
+                output.write(payload.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot compress the payload of " + key, e);
+            }
+            return EncodedPayload.of(bytes.toByteArray(), false);
+        }
+        return EncodedPayload.of(payload, false);
+    }
+
+    /**
+     * Get the cached information about the applications without blocking the calling thread. A payload that is
+     * not cached is generated in the background, once for all the concurrent requests of the same key, which are
+     * completed together when it is ready.
+     *
+     * @param key the key for which the cached information needs to be obtained.
+     * @param encoding the content encoding of the payload.
+     * @param responseExecutor the executor of the container, on which the requests waiting for a payload being
+     *                         generated are completed. It must not reject tasks while the container is running.
+     * @return a future of the payload, which completes with null if there is none. By default, the payload is
+     *         got with {@link #getPayload(Key, PayloadEncoding)} on the calling thread, which may block.
+     */
+    default CompletableFuture<EncodedPayload> getPayloadAsync(Key key,
+                                                              PayloadEncoding encoding,
+                                                              Executor responseExecutor) {
+        CompletableFuture<EncodedPayload> future = new CompletableFuture<>();
+        try {
+            future.complete(getPayload(key, encoding));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Get the local region changes made after the given registry version, see
+     * {@link InstanceRegistry#getApplicationDeltasSince(long)}. Clients that applied the same delta ask for the
+     * same changes, so the payload is shared by their requests until the registry changes.
+     *
+     * @param key the key of the regular delta the changes are requested with.
+     * @param version the registry version the client has last seen.
+     * @param encoding the content encoding of the payload.
+     * @return payload which contains the changes, or null if the regular delta must be served instead.
+     */
+    @Nullable
+    default EncodedPayload getDeltaSincePayload(Key key, long version, PayloadEncoding encoding) {
+        return null;
+    }
+
+    /**
+     * Get the time recently taken to generate the most expensive payloads, as a measure of the load of the server.
+     *
+     * @return the smoothed time, in milliseconds, taken to generate the payloads of all applications and of the
+     *         delta, or 0 if none was generated recently. By default 0, as the generation is not measured.
+     */
+    default long getPayloadGenerationTimeMs() {
+        return 0;
+    }
+
     /**
      * Performs a shutdown of this cache by stopping internal threads and unregistering
      * Servo monitors.
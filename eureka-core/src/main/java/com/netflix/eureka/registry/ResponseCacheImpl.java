@@ -17,31 +17,43 @@
 package com.netflix.eureka.registry;
 
 import javax.annotation.Nullable;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.GZIPOutputStream;
+import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.netflix.appinfo.EurekaAccept;
-import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.converters.wrappers.EncoderWrapper;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
@@ -85,6 +97,8 @@ public class ResponseCacheImpl implements ResponseCache {
     private static final AtomicLong versionDeltaWithRegionsLegacy = new AtomicLong(0);
 
     private static final String EMPTY_PAYLOAD = "";
+    // Clients mostly ask for the changes after the last few versions, so a few payloads are enough
+    private static final int MAX_DELTA_SINCE_PAYLOADS = 64;
     private final java.util.Timer timer = new java.util.Timer("Eureka-CacheFillTimer", true);
     private final AtomicLong versionDelta = new AtomicLong(0);
     private final AtomicLong versionDeltaWithRegions = new AtomicLong(0);
@@ -95,7 +109,9 @@ public class ResponseCacheImpl implements ResponseCache {
     private final Timer serializeDeltaAppsWithRemoteRegionTimer = Monitors.newTimer("serialize-all-delta_remote_region");
     private final Timer serializeOneApptimer = Monitors.newTimer("serialize-one");
     private final Timer serializeViptimer = Monitors.newTimer("serialize-one-vip");
+    private final Timer serializeDeltaSinceTimer = Monitors.newTimer("serialize-delta-since");
     private final Timer compressPayloadTimer = Monitors.newTimer("compress-payload");
+    private final Timer deflatePayloadTimer = Monitors.newTimer("compress-payload-deflate");
 
     /**
      * This map holds mapping of keys without regions to a list of keys with region (provided by clients)
@@ -114,8 +130,29 @@ public class ResponseCacheImpl implements ResponseCache {
 
     private final ConcurrentMap<Key, Value> readOnlyCacheMap = new ConcurrentHashMap<Key, Value>();
 
+    // Read only cache entries invalidated since the last refresh, when refreshing on change
+    private final Set<Key> dirtyReadOnlyKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private volatile long lastRefreshTime;
+
     private final LoadingCache<Key, Value> readWriteCacheMap;
+    // Payloads of the changes made after a registry version, valid as long as the registry does not change
+    private final Cache<DeltaSinceKey, Value> deltaSinceCacheMap;
+    // Payloads being generated for asynchronous requests, shared by the concurrent requests of a key
+    private final ConcurrentMap<Key, CompletableFuture<Value>> pendingLoads =
+            new ConcurrentHashMap<Key, CompletableFuture<Value>>();
+    private final ThreadPoolExecutor asyncLoader;
     private final boolean shouldUseReadOnlyResponseCache;
+    private final boolean shouldRefreshReadOnlyCacheOnChange;
+    private final boolean shouldUseApplicationFragments;
+    private final boolean shouldUseDirectBuffers;
+    private final boolean shouldCompressOnDemand;
+    private final PayloadCompressor payloadCompressor;
+    // Encoders of the local region payload of all applications, by codec
+    private final ConcurrentMap<EncoderWrapper, ApplicationsFragmentEncoder> fragmentEncoders =
+            new ConcurrentHashMap<EncoderWrapper, ApplicationsFragmentEncoder>();
+    private final ResponseCacheMetrics metrics = new ResponseCacheMetrics();
+    private final long deltaSinceMaxSizeInBytes;
     private final AbstractInstanceRegistry registry;
     private final EurekaServerConfig serverConfig;
     private final ServerCodecs serverCodecs;
@@ -124,20 +161,57 @@ public class ResponseCacheImpl implements ResponseCache {
         this.serverConfig = serverConfig;
         this.serverCodecs = serverCodecs;
         this.shouldUseReadOnlyResponseCache = serverConfig.shouldUseReadOnlyResponseCache();
+        this.shouldRefreshReadOnlyCacheOnChange = shouldUseReadOnlyResponseCache
+                && serverConfig.shouldRefreshReadOnlyResponseCacheOnChange();
+        this.shouldUseApplicationFragments = serverConfig.shouldUseApplicationFragmentsInResponseCache();
+        this.shouldUseDirectBuffers = serverConfig.shouldUseDirectBuffersInResponseCache();
+        this.shouldCompressOnDemand = serverConfig.shouldCompressResponseCachePayloadsOnDemand();
+        // Compressing is bound by the CPU, so no more compressors than processors are kept
+        this.payloadCompressor = new PayloadCompressor(serverConfig.getResponseCacheCompressionLevel(),
+                Runtime.getRuntime().availableProcessors());
         this.registry = registry;
 
+        int asyncLoaderThreads = Math.max(1, serverConfig.getResponseCacheAsyncLoaderThreadPoolSize());
+        this.asyncLoader = new ThreadPoolExecutor(asyncLoaderThreads, asyncLoaderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("Eureka-ResponseCacheLoader-%d").setDaemon(true).build());
+        this.asyncLoader.allowCoreThreadTimeOut(true);
+
         long responseCacheUpdateIntervalMs = serverConfig.getResponseCacheUpdateIntervalMs();
-        this.readWriteCacheMap =
+        CacheBuilder<Object, Object> cacheBuilder =
                 CacheBuilder.newBuilder().initialCapacity(serverConfig.getInitialCapacityOfResponseCache())
-                        .expireAfterWrite(serverConfig.getResponseCacheAutoExpirationInSeconds(), TimeUnit.SECONDS)
-                        .removalListener(new RemovalListener<Key, Value>() {
+                        .expireAfterWrite(serverConfig.getResponseCacheAutoExpirationInSeconds(), TimeUnit.SECONDS);
+        final long maxSizeInBytes = serverConfig.getResponseCacheMaxSizeInBytes();
+        if (maxSizeInBytes > 0) {
+            // The budget is split between the segments of the cache, so a single segment is used to fit
+            // the payload of all applications. Reads do not lock, and writes are rare.
+            cacheBuilder.concurrencyLevel(1)
+                    .maximumWeight(maxSizeInBytes)
+                    .weigher(new Weigher<Key, Value>() {
+                        @Override
+                        public int weigh(Key key, Value value) {
+                            return value.getSizeInBytes();
+                        }
+                    });
+        }
+        this.readWriteCacheMap =
+                cacheBuilder.removalListener(new RemovalListener<Key, Value>() {
                             @Override
                             public void onRemoval(RemovalNotification<Key, Value> notification) {
                                 Key removedKey = notification.getKey();
+                                if (isReweighed(readWriteCacheMap, notification)) {
+                                    return;
+                                }
                                 if (removedKey.hasRegions()) {
                                     Key cloneWithNoRegions = removedKey.cloneWithoutRegions();
                                     regionSpecificKeys.remove(cloneWithNoRegions, removedKey);
                                 }
+                                boolean evicted = notification.getCause() == RemovalCause.SIZE;
+                                if (evicted) {
+                                    // Otherwise the read only cache would keep the payload around
+                                    readOnlyCacheMap.remove(removedKey, notification.getValue());
+                                }
+                                metrics.removed(notification.getValue().markRemoved(), evicted);
                             }
                         })
                         .build(new CacheLoader<Key, Value>() {
@@ -148,11 +222,50 @@ public class ResponseCacheImpl implements ResponseCache {
                                     regionSpecificKeys.put(cloneWithNoRegions, key);
                                 }
                                 Value value = generatePayload(key);
+                                if (maxSizeInBytes > 0) {
+                                    value.weighedIn(readWriteCacheMap, key);
+                                }
+                                metrics.added(value.getSizeInBytes());
                                 return value;
                             }
                         });
+        CacheBuilder<Object, Object> deltaSinceCacheBuilder = CacheBuilder.newBuilder()
+                .expireAfterWrite(serverConfig.getResponseCacheAutoExpirationInSeconds(), TimeUnit.SECONDS);
+        this.deltaSinceMaxSizeInBytes = serverConfig.getResponseCacheDeltaSinceMaxSizeInBytes();
+        if (deltaSinceMaxSizeInBytes > 0) {
+            deltaSinceCacheBuilder.concurrencyLevel(1)
+                    .maximumWeight(deltaSinceMaxSizeInBytes)
+                    .weigher(new Weigher<DeltaSinceKey, Value>() {
+                        @Override
+                        public int weigh(DeltaSinceKey key, Value value) {
+                            return value.getSizeInBytes();
+                        }
+                    });
+        } else {
+            deltaSinceCacheBuilder.maximumSize(MAX_DELTA_SINCE_PAYLOADS);
+        }
+        this.deltaSinceCacheMap = deltaSinceCacheBuilder
+                .removalListener(new RemovalListener<DeltaSinceKey, Value>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<DeltaSinceKey, Value> notification) {
+                        if (isReweighed(deltaSinceCacheMap, notification)) {
+                            return;
+                        }
+                        // Payloads of past registry states are replaced as a matter of course, not evicted
+                        metrics.removed(notification.getValue().markRemoved(), false);
+                    }
+                })
+                .build();
 
-        if (shouldUseReadOnlyResponseCache) {
+        if (shouldRefreshReadOnlyCacheOnChange) {
+            // The local changes are refreshed as they are invalidated, see markReadOnlyEntryDirty
+            timer.schedule(getRegionKeysUpdateTask(),
+                    new Date(((System.currentTimeMillis() / responseCacheUpdateIntervalMs) * responseCacheUpdateIntervalMs)
+                            + responseCacheUpdateIntervalMs),
+                    responseCacheUpdateIntervalMs);
+            long fullUpdateIntervalMs = serverConfig.getResponseCacheFullUpdateIntervalMs();
+            timer.schedule(getCacheUpdateTask(), fullUpdateIntervalMs, fullUpdateIntervalMs);
+        } else if (shouldUseReadOnlyResponseCache) {
             timer.schedule(getCacheUpdateTask(),
                     new Date(((System.currentTimeMillis() / responseCacheUpdateIntervalMs) * responseCacheUpdateIntervalMs)
                             + responseCacheUpdateIntervalMs),
@@ -164,6 +277,16 @@ public class ResponseCacheImpl implements ResponseCache {
         } catch (Throwable e) {
             logger.warn("Cannot register the JMX monitor for the InstanceRegistry", e);
         }
+        metrics.register();
+    }
+
+    /**
+     * @return true if the notification is about a value put back in place of itself to weigh a variant compressed
+     *         on demand, which is still cached
+     */
+    private static <K> boolean isReweighed(Cache<K, Value> cache, RemovalNotification<K, Value> notification) {
+        return notification.getCause() == RemovalCause.REPLACED
+                && cache.asMap().get(notification.getKey()) == notification.getValue();
     }
 
     private TimerTask getCacheUpdateTask() {
@@ -172,27 +295,84 @@ public class ResponseCacheImpl implements ResponseCache {
             public void run() {
                 logger.debug("Updating the client cache from response cache");
                 for (Key key : readOnlyCacheMap.keySet()) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Updating the client cache from response cache for key : {} {} {} {}",
-                                key.getEntityType(), key.getName(), key.getVersion(), key.getType());
+                    updateReadOnlyEntry(key);
+                }
+            }
+        };
+    }
+
+    /**
+     * Updates the read only cache entries that include remote regions, whose changes are not signalled by an
+     * invalidation. There is nothing to do unless clients ask for remote regions.
+     */
+    private TimerTask getRegionKeysUpdateTask() {
+        return new TimerTask() {
+            @Override
+            public void run() {
+                for (Key key : regionSpecificKeys.values()) {
+                    if (readOnlyCacheMap.containsKey(key)) {
+                        updateReadOnlyEntry(key);
                     }
-                    try {
-                        CurrentRequestVersion.set(key.getVersion());
-                        Value cacheValue = readWriteCacheMap.get(key);
-                        Value currentCacheValue = readOnlyCacheMap.get(key);
-                        if (cacheValue != currentCacheValue) {
-                            readOnlyCacheMap.put(key, cacheValue);
-                        }
-                    } catch (Throwable th) {
-                        logger.error("Error while updating the client cache from response cache for key {}", key.toStringCompact(), th);
-                    } finally {
-                        CurrentRequestVersion.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Regenerates the read only cache entries invalidated since the last run. Invalidations that happen while
+     * a refresh is scheduled are handled by that refresh, so a burst of registry changes costs a single refresh.
+     */
+    private TimerTask getDirtyKeysRefreshTask() {
+        return new TimerTask() {
+            @Override
+            public void run() {
+                refreshScheduled.set(false);
+                lastRefreshTime = System.currentTimeMillis();
+                logger.debug("Refreshing {} invalidated client cache entries", dirtyReadOnlyKeys.size());
+                for (Key key : dirtyReadOnlyKeys) {
+                    dirtyReadOnlyKeys.remove(key);
+                    if (readOnlyCacheMap.containsKey(key)) {
+                        updateReadOnlyEntry(key);
                     }
                 }
             }
         };
     }
 
+    private void updateReadOnlyEntry(Key key) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updating the client cache from response cache for key : {} {} {} {}",
+                    key.getEntityType(), key.getName(), key.getVersion(), key.getType());
+        }
+        try {
+            CurrentRequestVersion.set(key.getVersion());
+            Value cacheValue = readWriteCacheMap.get(key);
+            Value currentCacheValue = readOnlyCacheMap.get(key);
+            if (cacheValue != currentCacheValue) {
+                readOnlyCacheMap.put(key, cacheValue);
+            }
+        } catch (Throwable th) {
+            logger.error("Error while updating the client cache from response cache for key {}", key.toStringCompact(), th);
+        } finally {
+            CurrentRequestVersion.remove();
+        }
+    }
+
+    private void markReadOnlyEntryDirty(Key key) {
+        if (!readOnlyCacheMap.containsKey(key)) {
+            return;
+        }
+        dirtyReadOnlyKeys.add(key);
+        if (refreshScheduled.compareAndSet(false, true)) {
+            long delay = Math.max(0, lastRefreshTime + serverConfig.getResponseCacheMinRefreshIntervalMs() - System.currentTimeMillis());
+            try {
+                timer.schedule(getDirtyKeysRefreshTask(), delay);
+            } catch (IllegalStateException e) {
+                logger.debug("Response cache is stopped; not refreshing the client cache");
+            }
+        }
+    }
+
     /**
      * Get the cached information about applications.
      *
@@ -212,13 +392,29 @@ public class ResponseCacheImpl implements ResponseCache {
     @VisibleForTesting
     String get(final Key key, boolean useReadOnlyCache) {
         Value payload = getValue(key, useReadOnlyCache);
-        if (payload == null || payload.getPayload().equals(EMPTY_PAYLOAD)) {
+        if (payload == null || payload.getEncodedPayload(PayloadEncoding.IDENTITY) == null) {
             return null;
         } else {
             return payload.getPayload();
         }
     }
 
+    /**
+     * Get the cached information about the applications, in the form it is written to a response.
+     *
+     * @param key the key for which the cached information needs to be obtained.
+     * @param encoding the content encoding of the payload
+     * @return payload which contains information about the applications, or null if there is none
+     */
+    @Override
+    public EncodedPayload getPayload(Key key, PayloadEncoding encoding) {
+        Value payload = getValue(key, shouldUseReadOnlyResponseCache);
+        if (payload == null) {
+            return null;
+        }
+        return payload.getEncodedPayload(encoding);
+    }
+
     /**
      * Get the compressed information about the applications.
      *
@@ -236,10 +432,138 @@ public class ResponseCacheImpl implements ResponseCache {
         return payload.getGzipped();
     }
 
+    /**
+     * Get the cached information about the applications without blocking the calling thread. A cached payload
+     * completes the future right away. Otherwise the payload is generated by the asynchronous loader threads, once
+     * for all the requests of the key made meanwhile, and each request is completed on the response executor, so
+     * that writing the responses does not hold up the loader threads.
+     *
+     * @param key the key for which the cached information needs to be obtained.
+     * @param encoding the content encoding of the payload
+     * @param responseExecutor the executor completing the requests that wait for the payload
+     * @return a future of the payload, which completes with null if there is none
+     */
+    @Override
+    public CompletableFuture<EncodedPayload> getPayloadAsync(Key key, final PayloadEncoding encoding,
+                                                             Executor responseExecutor) {
+        Value payload = getPresentValue(key);
+        if (payload != null) {
+            return CompletableFuture.completedFuture(payload.getEncodedPayload(encoding));
+        }
+        metrics.miss(key);
+        try {
+            return loadAsync(key).thenApplyAsync(new Function<Value, EncodedPayload>() {
+                @Override
+                public EncodedPayload apply(Value value) {
+                    return value == null ? null : value.getEncodedPayload(encoding);
+                }
+            }, responseExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Response cache is stopped; loading {} synchronously", key.toStringCompact());
+            return CompletableFuture.completedFuture(getPayload(key, encoding));
+        }
+    }
+
+    /**
+     * Get the local region changes made after the given registry version. The payloads are cached by version
+     * until the registry changes, so the clients that applied the same delta share one payload, generated once.
+     *
+     * @param key the key of the regular delta the changes are requested with
+     * @param version the registry version the client has last seen
+     * @param encoding the content encoding of the payload
+     * @return payload which contains the changes, or null if the regular delta must be served instead
+     */
+    @Override
+    public EncodedPayload getDeltaSincePayload(final Key key, final long version, PayloadEncoding encoding) {
+        DeltaSinceKey sinceKey = new DeltaSinceKey(key, version, registry.getDeltaStamp());
+        Value payload = deltaSinceCacheMap.getIfPresent(sinceKey);
+        if (payload != null) {
+            metrics.hit(key);
+        } else {
+            metrics.miss(key);
+            try {
+                payload = deltaSinceCacheMap.get(sinceKey, new Callable<Value>() {
+                    @Override
+                    public Value call() throws Exception {
+                        Value value = generateDeltaSincePayload(key, version);
+                        if (deltaSinceMaxSizeInBytes > 0) {
+                            value.weighedIn(deltaSinceCacheMap, sinceKey);
+                        }
+                        metrics.added(value.getSizeInBytes());
+                        return value;
+                    }
+                });
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                logger.error("Cannot get the delta since version {} for key : {}", version, key, e);
+                return null;
+            }
+        }
+        return payload.getEncodedPayload(encoding);
+    }
+
+    /**
+     * @return the cached payload of the key, or null if it has to be generated
+     */
+    @Nullable
+    private Value getPresentValue(Key key) {
+        Value payload = shouldUseReadOnlyResponseCache ? readOnlyCacheMap.get(key) : null;
+        if (payload == null) {
+            payload = readWriteCacheMap.getIfPresent(key);
+            if (payload != null && shouldUseReadOnlyResponseCache) {
+                readOnlyCacheMap.put(key, payload);
+            }
+        }
+        if (payload != null) {
+            metrics.hit(key);
+        }
+        return payload;
+    }
+
+    private CompletableFuture<Value> loadAsync(final Key key) {
+        CompletableFuture<Value> pendingLoad = pendingLoads.get(key);
+        if (pendingLoad != null) {
+            return pendingLoad;
+        }
+        final CompletableFuture<Value> load = new CompletableFuture<Value>();
+        pendingLoad = pendingLoads.putIfAbsent(key, load);
+        if (pendingLoad != null) {
+            return pendingLoad;
+        }
+        try {
+            asyncLoader.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Value payload = null;
+                    try {
+                        CurrentRequestVersion.set(key.getVersion());
+                        payload = readWriteCacheMap.get(key);
+                        if (shouldUseReadOnlyResponseCache) {
+                            readOnlyCacheMap.put(key, payload);
+                        }
+                    } catch (Throwable t) {
+                        logger.error("Cannot get value for key : {}", key, t);
+                    } finally {
+                        CurrentRequestVersion.remove();
+                        // Later requests find the payload in the cache
+                        pendingLoads.remove(key, load);
+                        load.complete(payload);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingLoads.remove(key, load);
+            throw e;
+        }
+        return load;
+    }
+
     @Override
     public void stop() {
         timer.cancel();
+        asyncLoader.shutdown();
+        payloadCompressor.stop();
         Monitors.unregisterObject(this);
+        metrics.unregister();
     }
 
     /**
@@ -249,6 +573,9 @@ public class ResponseCacheImpl implements ResponseCache {
      */
     @Override
     public void invalidate(String appName, @Nullable String vipAddress, @Nullable String secureVipAddress) {
+        for (ApplicationsFragmentEncoder fragmentEncoder : fragmentEncoders.values()) {
+            fragmentEncoder.invalidate(appName);
+        }
         for (Key.KeyType type : Key.KeyType.values()) {
             for (Version v : Version.values()) {
                 invalidate(
@@ -280,12 +607,18 @@ public class ResponseCacheImpl implements ResponseCache {
                     key.getEntityType(), key.getName(), key.getVersion(), key.getType(), key.getEurekaAccept());
 
             readWriteCacheMap.invalidate(key);
+            if (shouldRefreshReadOnlyCacheOnChange) {
+                markReadOnlyEntryDirty(key);
+            }
             Collection<Key> keysWithRegions = regionSpecificKeys.get(key);
             if (null != keysWithRegions && !keysWithRegions.isEmpty()) {
                 for (Key keysWithRegion : keysWithRegions) {
                     logger.debug("Invalidating the response cache key : {} {} {} {} {}",
                             key.getEntityType(), key.getName(), key.getVersion(), key.getType(), key.getEurekaAccept());
                     readWriteCacheMap.invalidate(keysWithRegion);
+                    if (shouldRefreshReadOnlyCacheOnChange) {
+                        markReadOnlyEntryDirty(keysWithRegion);
+                    }
                 }
             }
         }
@@ -345,6 +678,27 @@ public class ResponseCacheImpl implements ResponseCache {
         return readWriteCacheMap.asMap().size();
     }
 
+    /**
+     * @return the size in bytes of the payloads held by the read write cache
+     */
+    public long getCurrentSizeInBytes() {
+        return metrics.getBytes();
+    }
+
+    /**
+     * @return the smoothed time, in milliseconds, taken recently to generate the payloads of all applications and
+     *         of the delta, or 0 if none was generated recently
+     */
+    @Override
+    public long getPayloadGenerationTimeMs() {
+        return metrics.getGenerationTimeMs();
+    }
+
+    @VisibleForTesting
+    ResponseCacheMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Get the payload in both compressed and uncompressed form.
      */
@@ -355,13 +709,14 @@ public class ResponseCacheImpl implements ResponseCache {
             if (useReadOnlyCache) {
                 final Value currentPayload = readOnlyCacheMap.get(key);
                 if (currentPayload != null) {
+                    metrics.hit(key);
                     payload = currentPayload;
                 } else {
-                    payload = readWriteCacheMap.get(key);
+                    payload = getReadWriteValue(key);
                     readOnlyCacheMap.put(key, payload);
                 }
             } else {
-                payload = readWriteCacheMap.get(key);
+                payload = getReadWriteValue(key);
             }
         } catch (Throwable t) {
             logger.error("Cannot get value for key : {}", key, t);
@@ -369,6 +724,16 @@ public class ResponseCacheImpl implements ResponseCache {
         return payload;
     }
 
+    private Value getReadWriteValue(Key key) throws ExecutionException {
+        Value payload = readWriteCacheMap.getIfPresent(key);
+        if (payload != null) {
+            metrics.hit(key);
+            return payload;
+        }
+        metrics.miss(key);
+        return readWriteCacheMap.get(key);
+    }
+
     /**
      * Generate pay load with both JSON and XML formats for all applications.
      */
@@ -387,6 +752,36 @@ public class ResponseCacheImpl implements ResponseCache {
         return result;
     }
 
+    /**
+     * Generate pay load for all applications, from per application fragments if possible. Fragments are used only
+     * for the local region snapshot, whose {@link Application} objects are reused until the application changes.
+     */
+    private String getAllAppsPayLoad(Key key, Applications apps) {
+        if (!shouldUseApplicationFragments || !registry.isLocalRegionSnapshot(apps)) {
+            return getPayLoad(key, apps);
+        }
+        EncoderWrapper encoderWrapper = serverCodecs.getEncoder(key.getType(), key.getEurekaAccept());
+        ApplicationsFragmentEncoder fragmentEncoder = fragmentEncoders.get(encoderWrapper);
+        if (fragmentEncoder == null) {
+            fragmentEncoder = new ApplicationsFragmentEncoder(encoderWrapper,
+                    TimeUnit.SECONDS.toMillis(serverConfig.getResponseCacheAutoExpirationInSeconds()));
+            ApplicationsFragmentEncoder existing = fragmentEncoders.putIfAbsent(encoderWrapper, fragmentEncoder);
+            if (existing != null) {
+                fragmentEncoder = existing;
+            }
+        }
+        try {
+            String result = fragmentEncoder.encode(apps);
+            if (result != null) {
+                return result;
+            }
+            logger.debug("Cannot assemble the payload of {} from application fragments", key.toStringCompact());
+        } catch (Exception e) {
+            logger.warn("Failed to assemble the payload of {} from application fragments", key.toStringCompact(), e);
+        }
+        return getPayLoad(key, apps);
+    }
+
     /**
      * Generate pay load with both JSON and XML formats for a given application.
      */
@@ -421,7 +816,7 @@ public class ResponseCacheImpl implements ResponseCache {
                             payload = getPayLoad(key, registry.getApplicationsFromMultipleRegions(key.getRegions()));
                         } else {
                             tracer = serializeAllAppsTimer.start();
-                            payload = getPayLoad(key, registry.getApplications());
+                            payload = getAllAppsPayLoad(key, registry.getApplications());
                         }
                     } else if (ALL_APPS_DELTA.equals(key.getName())) {
                         if (isRemoteRegionRequested) {
@@ -455,92 +850,214 @@ public class ResponseCacheImpl implements ResponseCache {
         } finally {
             if (tracer != null) {
                 tracer.stop();
+                if (ALL_APPS.equals(key.getName()) || ALL_APPS_DELTA.equals(key.getName())) {
+                    metrics.generated(tracer.getDuration(TimeUnit.MILLISECONDS));
+                }
             }
         }
     }
 
+    /**
+     * Generate the payload of the changes made after the given version. An empty payload tells the requests to
+     * fall back to the regular delta.
+     */
+    private Value generateDeltaSincePayload(Key key, long version) {
+        Stopwatch tracer = serializeDeltaSinceTimer.start();
+        try {
+            Applications delta = registry.getApplicationDeltasSince(version);
+            return new Value(delta == null ? EMPTY_PAYLOAD : getPayLoad(key, delta));
+        } finally {
+            tracer.stop();
+        }
+    }
+
     private static Applications getApplicationsForVip(Key key, AbstractInstanceRegistry registry) {
         logger.debug(
                 "Retrieving applications from registry for key : {} {} {} {}",
                 key.getEntityType(), key.getName(), key.getVersion(), key.getType());
-        Applications toReturn = new Applications();
-        Applications applications = registry.getApplications();
-        for (Application application : applications.getRegisteredApplications()) {
-            Application appToAdd = null;
-            for (InstanceInfo instanceInfo : application.getInstances()) {
-                String vipAddress;
-                if (Key.EntityType.VIP.equals(key.getEntityType())) {
-                    vipAddress = instanceInfo.getVIPAddress();
-                } else if (Key.EntityType.SVIP.equals(key.getEntityType())) {
-                    vipAddress = instanceInfo.getSecureVipAddress();
-                } else {
-                    // should not happen, but just in case.
-                    continue;
-                }
-
-                if (null != vipAddress) {
-                    String[] vipAddresses = vipAddress.split(",");
-                    Arrays.sort(vipAddresses);
-                    if (Arrays.binarySearch(vipAddresses, key.getName()) >= 0) {
-                        if (null == appToAdd) {
-                            appToAdd = new Application(application.getName());
-                            toReturn.addApplication(appToAdd);
-                        }
-                        appToAdd.addInstance(instanceInfo);
-                    }
-                }
-            }
-        }
-        toReturn.setAppsHashCode(toReturn.getReconcileHashCode());
+        Applications toReturn = registry.getApplicationsForVip(key.getName(), Key.EntityType.SVIP.equals(key.getEntityType()));
         logger.debug(
                 "Retrieved applications from registry for key : {} {} {} {}, reconcile hashcode: {}",
                 key.getEntityType(), key.getName(), key.getVersion(), key.getType(),
-                toReturn.getReconcileHashCode());
+                toReturn.getAppsHashCode());
         return toReturn;
     }
 
     /**
-     * The class that stores payload in both compressed and uncompressed form.
+     * The key of the changes made after a registry version, for a given state of the registry.
+     */
+    private static final class DeltaSinceKey {
+        private final Key key;
+        private final long version;
+        private final long deltaStamp;
+
+        DeltaSinceKey(Key key, long version, long deltaStamp) {
+            this.key = key;
+            this.version = version;
+            this.deltaStamp = deltaStamp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DeltaSinceKey)) {
+                return false;
+            }
+            DeltaSinceKey that = (DeltaSinceKey) o;
+            return version == that.version && deltaStamp == that.deltaStamp && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = key.hashCode();
+            result = 31 * result + (int) (version ^ (version >>> 32));
+            result = 31 * result + (int) (deltaStamp ^ (deltaStamp >>> 32));
+            return result;
+        }
+    }
+
+    /**
+     * The class that stores payload in both compressed and uncompressed form, as UTF-8 encoded bytes.
      *
      */
     public class Value {
-        private final String payload;
-        private byte[] gzipped;
+        private final EncodedPayload payload;
+        private final String hash;
+        private volatile EncodedPayload gzipped;
+        private volatile EncodedPayload deflated;
+        // Set once the value is removed from the read write cache, guarded by this
+        private boolean removed;
+        // Puts the value back in its weighed cache, so that the variants compressed on demand are weighed too
+        private volatile Runnable reweigher;
 
         public Value(String payload) {
-            this.payload = payload;
             if (!EMPTY_PAYLOAD.equals(payload)) {
-                Stopwatch tracer = compressPayloadTimer.start();
-                try {
-                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                    GZIPOutputStream out = new GZIPOutputStream(bos);
-                    byte[] rawBytes = payload.getBytes();
-                    out.write(rawBytes);
-                    // Finish creation of gzip file
-                    out.finish();
-                    out.close();
-                    bos.close();
-                    gzipped = bos.toByteArray();
-                } catch (IOException e) {
-                    gzipped = null;
-                } finally {
-                    if (tracer != null) {
-                        tracer.stop();
-                    }
+                byte[] rawBytes = payload.getBytes(StandardCharsets.UTF_8);
+                // The entity tag is derived from the content only, so that all servers agree on it
+                this.hash = Hashing.murmur3_128().hashBytes(rawBytes).toString();
+                this.payload = EncodedPayload.of(rawBytes, shouldUseDirectBuffers, '"' + hash + '"');
+                if (!shouldCompressOnDemand) {
+                    this.gzipped = compress(rawBytes, PayloadEncoding.GZIP);
                 }
             } else {
-                gzipped = null;
+                this.payload = null;
+                this.hash = null;
             }
         }
 
+        private EncodedPayload compress(byte[] rawBytes, PayloadEncoding encoding) {
+            String entityTag = '"' + hash + '-' + encoding.getContentEncoding() + '"';
+            Stopwatch tracer = encoding == PayloadEncoding.GZIP ? compressPayloadTimer.start() : deflatePayloadTimer.start();
+            try {
+                byte[] compressed = encoding == PayloadEncoding.GZIP
+                        ? payloadCompressor.gzip(rawBytes)
+                        : payloadCompressor.deflate(rawBytes);
+                return EncodedPayload.of(compressed, shouldUseDirectBuffers, entityTag);
+            } finally {
+                if (tracer != null) {
+                    tracer.stop();
+                }
+            }
+        }
+
+        /**
+         * Compresses the payload on the first request for the encoding. Concurrent requests wait for the payload
+         * to be compressed once, instead of compressing it each.
+         */
+        private EncodedPayload compressOnDemand(PayloadEncoding encoding) {
+            EncodedPayload compressed;
+            boolean added = false;
+            synchronized (this) {
+                compressed = encoding == PayloadEncoding.GZIP ? gzipped : deflated;
+                if (compressed == null) {
+                    compressed = compress(payload.bytes(), encoding);
+                    if (encoding == PayloadEncoding.GZIP) {
+                        gzipped = compressed;
+                    } else {
+                        deflated = compressed;
+                    }
+                    if (!removed) {
+                        metrics.added(compressed.length());
+                        added = true;
+                    }
+                }
+            }
+            // Outside of the lock, as weighing the value again may evict and mark removed other values
+            Runnable currentReweigher = reweigher;
+            if (added && currentReweigher != null) {
+                currentReweigher.run();
+            }
+            return compressed;
+        }
+
+        /**
+         * Has the value put back in the given cache whenever a variant is compressed on demand, so that the cache
+         * weighs it again. Guava weighs an entry only when it is written.
+         */
+        <K> void weighedIn(final Cache<K, Value> cache, final K key) {
+            this.reweigher = new Runnable() {
+                @Override
+                public void run() {
+                    cache.asMap().replace(key, Value.this, Value.this);
+                }
+            };
+        }
+
+        /**
+         * Marks the value as removed from the read write cache, after which variants compressed on demand are no
+         * longer accounted for.
+         *
+         * @return the size in bytes of the value when it was removed, or 0 if it was already removed
+         */
+        synchronized int markRemoved() {
+            if (removed) {
+                return 0;
+            }
+            removed = true;
+            return getSizeInBytes();
+        }
+
         public String getPayload() {
-            return payload;
+            return payload == null ? EMPTY_PAYLOAD : payload.toString();
         }
 
         public byte[] getGzipped() {
-            return gzipped;
+            EncodedPayload compressed = getEncodedPayload(PayloadEncoding.GZIP);
+            return compressed == null ? null : compressed.toByteArray();
+        }
+
+        /**
+         * @return the size in bytes of the payload and of its compressed variants made so far
+         */
+        int getSizeInBytes() {
+            return sizeOf(payload) + sizeOf(gzipped) + sizeOf(deflated);
         }
 
+        /**
+         * @return the payload in the given encoding, or null if it is empty
+         */
+        EncodedPayload getEncodedPayload(PayloadEncoding encoding) {
+            if (payload == null) {
+                return null;
+            }
+            switch (encoding) {
+                case GZIP:
+                    EncodedPayload currentGzipped = gzipped;
+                    return currentGzipped != null ? currentGzipped : compressOnDemand(encoding);
+                case DEFLATE:
+                    EncodedPayload currentDeflated = deflated;
+                    return currentDeflated != null ? currentDeflated : compressOnDemand(encoding);
+                case IDENTITY:
+                default:
+                    return payload;
+            }
+        }
+
+        private int sizeOf(EncodedPayload encodedPayload) {
+            return encodedPayload == null ? 0 : encodedPayload.length();
+        }
     }
 
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.discovery.util.ServoUtil;
+import com.netflix.servo.monitor.BasicCounter;
+import com.netflix.servo.monitor.BasicGauge;
+import com.netflix.servo.monitor.Counter;
+import com.netflix.servo.monitor.Monitor;
+import com.netflix.servo.monitor.MonitorConfig;
+
+/**
+ * Metrics of the {@link ResponseCacheImpl}: hits, misses and hit ratio by {@link Key.EntityType}, the bytes held by
+ * the read write cache, the number of entries evicted to stay within the byte budget and the recent time taken to
+ * generate the payloads of all applications and of the delta.
+ */
+class ResponseCacheMetrics {
+
+    private static final String METRIC_PREFIX = "responseCache.";
+
+    // Weight of the latest payload generation in the smoothed generation time
+    private static final double GENERATION_TIME_WEIGHT = 0.3;
+    // A generation time not updated for this long no longer reflects the load of the server
+    private static final long GENERATION_TIME_TTL_MS = 60 * 1000;
+
+    private final Map<Key.EntityType, Counter> hits = new EnumMap<>(Key.EntityType.class);
+    private final Map<Key.EntityType, Counter> misses = new EnumMap<>(Key.EntityType.class);
+    private final AtomicLong bytes = new AtomicLong();
+    private final Counter evictions = new BasicCounter(MonitorConfig.builder(METRIC_PREFIX + "evictions").build());
+    private volatile long generationTimeMs;
+    private volatile long lastGenerationTime;
+
+    private final List<Monitor<?>> monitors = new ArrayList<>();
+
+    ResponseCacheMetrics() {
+        for (final Key.EntityType entityType : Key.EntityType.values()) {
+            final Counter hitCounter = new BasicCounter(
+                    MonitorConfig.builder(METRIC_PREFIX + "hits").withTag("entityType", entityType.name()).build()
+            );
+            final Counter missCounter = new BasicCounter(
+                    MonitorConfig.builder(METRIC_PREFIX + "misses").withTag("entityType", entityType.name()).build()
+            );
+            hits.put(entityType, hitCounter);
+            misses.put(entityType, missCounter);
+            monitors.add(hitCounter);
+            monitors.add(missCounter);
+            monitors.add(new BasicGauge<>(
+                    MonitorConfig.builder(METRIC_PREFIX + "hitRatio").withTag("entityType", entityType.name()).build(),
+                    new Callable<Double>() {
+                        @Override
+                        public Double call() throws Exception {
+                            return hitRatio(entityType);
+                        }
+                    }
+            ));
+        }
+        monitors.add(evictions);
+        monitors.add(new BasicGauge<>(
+                MonitorConfig.builder(METRIC_PREFIX + "bytes").build(),
+                new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        return bytes.get();
+                    }
+                }
+        ));
+        monitors.add(new BasicGauge<>(
+                MonitorConfig.builder(METRIC_PREFIX + "generationTimeMs").build(),
+                new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        return getGenerationTimeMs();
+                    }
+                }
+        ));
+    }
+
+    void register() {
+        for (Monitor<?> monitor : monitors) {
+            ServoUtil.register(monitor);
+        }
+    }
+
+    void unregister() {
+        for (Monitor<?> monitor : monitors) {
+            ServoUtil.unregister(monitor);
+        }
+    }
+
+    void hit(Key key) {
+        hits.get(key.getEntityType()).increment();
+    }
+
+    void miss(Key key) {
+        misses.get(key.getEntityType()).increment();
+    }
+
+    void added(int sizeInBytes) {
+        bytes.addAndGet(sizeInBytes);
+    }
+
+    void removed(int sizeInBytes, boolean evicted) {
+        bytes.addAndGet(-sizeInBytes);
+        if (evicted) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return the ratio of the lookups of the given entity type found in the cache, or 0 if there were none
+     */
+    double hitRatio(Key.EntityType entityType) {
+        long hitCount = hits.get(entityType).getValue().longValue();
+        long total = hitCount + misses.get(entityType).getValue().longValue();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Records the time taken to generate the payload of all applications or of the delta.
+     */
+    synchronized void generated(long durationMs) {
+        long now = System.currentTimeMillis();
+        if (now - lastGenerationTime > GENERATION_TIME_TTL_MS) {
+            generationTimeMs = durationMs;
+        } else {
+            generationTimeMs = Math.round(generationTimeMs + GENERATION_TIME_WEIGHT * (durationMs - generationTimeMs));
+        }
+        lastGenerationTime = now;
+    }
+
+    /**
+     * @return the smoothed time taken recently to generate the payloads of all applications and of the delta, or 0
+     *         if none was generated recently
+     */
+    long getGenerationTimeMs() {
+        if (System.currentTimeMillis() - lastGenerationTime > GENERATION_TIME_TTL_MS) {
+            return 0;
+        }
+        return generationTimeMs;
+    }
+
+    long getBytes() {
+        return bytes.get();
+    }
+
+    long getEvictions() {
+        return evictions.getValue().longValue();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.lease.Lease;
+
+/**
+ * An inverted index from VIP and secure VIP addresses to the instances of the local region registry that have them.
+ *
+ * <p>
+ * The registry adds an instance after its lease is stored, and removes it after its lease is removed. As these
+ * updates are not atomic with the registry change, a removal re-checks the registry and restores the entries that
+ * are still valid, and lookups verify each entry against the current lease. This way a lookup never misses
+ * an instance, and the cost of a lookup is proportional to the number of instances of the VIP.
+ * </p>
+ */
+class VipIndex {
+
+    private final Map<String, Map<String, Lease<InstanceInfo>>> registry;
+
+    private final Map<String, Set<InstanceKey>> vipIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<InstanceKey>> secureVipIndex = new ConcurrentHashMap<>();
+
+    VipIndex(Map<String, Map<String, Lease<InstanceInfo>>> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Indexes the VIP addresses of an instance, whose lease is already in the registry.
+     */
+    void add(InstanceInfo instanceInfo) {
+        InstanceKey key = new InstanceKey(instanceInfo.getAppName(), instanceInfo.getId());
+        forEachVip(instanceInfo.getVIPAddress(), key, vipIndex, true);
+        forEachVip(instanceInfo.getSecureVipAddress(), key, secureVipIndex, true);
+    }
+
+    /**
+     * Removes the VIP addresses of an instance, whose lease was replaced or removed from the registry. Entries still
+     * valid for the current lease of the instance (if any) are kept.
+     */
+    void remove(InstanceInfo instanceInfo) {
+        InstanceKey key = new InstanceKey(instanceInfo.getAppName(), instanceInfo.getId());
+        forEachVip(instanceInfo.getVIPAddress(), key, vipIndex, false);
+        forEachVip(instanceInfo.getSecureVipAddress(), key, secureVipIndex, false);
+
+        // Restore entries removed concurrently with a registration of the same instance
+        Lease<InstanceInfo> current = getLease(key);
+        if (current != null && current.getHolder() != null) {
+            add(current.getHolder());
+        }
+    }
+
+    /**
+     * @return the current leases of all instances with the given VIP (or secure VIP) address
+     */
+    List<Lease<InstanceInfo>> getLeases(String vipAddress, boolean secure) {
+        Set<InstanceKey> keys = (secure ? secureVipIndex : vipIndex).get(vipAddress);
+        if (keys == null) {
+            return new ArrayList<>();
+        }
+        List<Lease<InstanceInfo>> leases = new ArrayList<>(keys.size());
+        for (InstanceKey key : keys) {
+            Lease<InstanceInfo> lease = getLease(key);
+            if (lease != null && lease.getHolder() != null && hasVipAddress(lease.getHolder(), vipAddress, secure)) {
+                leases.add(lease);
+            }
+        }
+        return leases;
+    }
+
+    void clear() {
+        vipIndex.clear();
+        secureVipIndex.clear();
+    }
+
+    /**
+     * Tells if the instance has the given address in its comma separated list of VIP (or secure VIP) addresses.
+     */
+    static boolean hasVipAddress(InstanceInfo instanceInfo, String vipAddress, boolean secure) {
+        String vipAddresses = secure ? instanceInfo.getSecureVipAddress() : instanceInfo.getVIPAddress();
+        if (vipAddresses == null) {
+            return false;
+        }
+        int start = 0;
+        while (true) {
+            int end = vipAddresses.indexOf(',', start);
+            int length = (end < 0 ? vipAddresses.length() : end) - start;
+            if (length == vipAddress.length() && vipAddresses.regionMatches(start, vipAddress, 0, length)) {
+                return true;
+            }
+            if (end < 0) {
+                return false;
+            }
+            start = end + 1;
+        }
+    }
+
+    private Lease<InstanceInfo> getLease(InstanceKey key) {
+        Map<String, Lease<InstanceInfo>> leaseMap = registry.get(key.appName);
+        return leaseMap == null ? null : leaseMap.get(key.id);
+    }
+
+    static void forEachVip(String vipAddresses, InstanceKey key, Map<String, Set<InstanceKey>> index, boolean add) {
+        if (vipAddresses == null) {
+            return;
+        }
+        for (String vipAddress : vipAddresses.split(",")) {
+            if (add) {
+                index.compute(vipAddress, (vip, keys) -> {
+                    Set<InstanceKey> result = keys == null ? ConcurrentHashMap.<InstanceKey>newKeySet() : keys;
+                    result.add(key);
+                    return result;
+                });
+            } else {
+                index.computeIfPresent(vipAddress, (vip, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+    }
+
+    static final class InstanceKey {
+        private final String appName;
+        private final String id;
+
+        InstanceKey(String appName, String id) {
+            this.appName = appName;
+            this.id = id;
+        }
+
+        String getAppName() {
+            return appName;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            InstanceKey that = (InstanceKey) o;
+            return appName.equals(that.appName) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * appName.hashCode() + id.hashCode();
+        }
+    }
+}
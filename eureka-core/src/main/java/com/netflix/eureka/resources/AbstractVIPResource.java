@@ -22,9 +22,12 @@ import com.netflix.appinfo.EurekaAccept;
 import com.netflix.eureka.EurekaServerContext;
 import com.netflix.eureka.EurekaServerContextHolder;
 import com.netflix.eureka.Version;
+import com.netflix.eureka.registry.EncodedPayload;
+import com.netflix.eureka.registry.PayloadEncoding;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import com.netflix.eureka.registry.ResponseCache;
 import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.util.EurekaMonitors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,7 +53,7 @@ abstract class AbstractVIPResource {
     }
 
     protected Response getVipResponse(String version, String entityName, String acceptHeader,
-                                      EurekaAccept eurekaAccept, Key.EntityType entityType) {
+                                      EurekaAccept eurekaAccept, Key.EntityType entityType, String ifNoneMatch) {
         if (!registry.shouldAllowAccess(false)) {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
@@ -68,12 +71,17 @@ abstract class AbstractVIPResource {
                 eurekaAccept
         );
 
-        String payLoad = responseCache.get(cacheKey);
+        EncodedPayload payLoad = responseCache.getPayload(cacheKey, PayloadEncoding.IDENTITY);
         CurrentRequestVersion.remove();
 
-        if (payLoad != null) {
+        Response notModified = EntityTags.notModified(payLoad, ifNoneMatch);
+        if (notModified != null) {
+            logger.debug("Not modified: {}", entityName);
+            EurekaMonitors.GET_NOT_MODIFIED.increment();
+            return notModified;
+        } else if (payLoad != null) {
             logger.debug("Found: {}", entityName);
-            return Response.ok(payLoad).build();
+            return EntityTags.ok(payLoad).build();
         } else {
             logger.debug("Not Found: {}", entityName);
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -32,6 +32,8 @@ import com.netflix.appinfo.EurekaAccept;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.appinfo.UniqueIdentifier;
 import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.EncodedPayload;
+import com.netflix.eureka.registry.PayloadEncoding;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import com.netflix.eureka.Version;
 import com.netflix.eureka.cluster.PeerEurekaNode;
@@ -79,13 +81,17 @@ public class ApplicationResource {
      * @param acceptHeader
      *            the accept header of the request to indicate whether to serve
      *            JSON or XML data.
+     * @param ifNoneMatch
+     *            the entity tag of the payload the client already has, if
+     *            any.
      * @return the response containing information about a particular
-     *         application.
+     *         application, or <em>304 Not Modified</em> if it has not changed.
      */
     @GET
     public Response getApplication(@PathParam("version") String version,
                                    @HeaderParam("Accept") final String acceptHeader,
-                                   @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept) {
+                                   @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
+                                   @HeaderParam(EntityTags.HEADER_IF_NONE_MATCH) String ifNoneMatch) {
         if (!registry.shouldAllowAccess(false)) {
             return Response.status(Status.FORBIDDEN).build();
         }
@@ -106,12 +112,17 @@ public class ApplicationResource {
                 EurekaAccept.fromString(eurekaAccept)
         );
 
-        String payLoad = responseCache.get(cacheKey);
+        EncodedPayload payLoad = responseCache.getPayload(cacheKey, PayloadEncoding.IDENTITY);
         CurrentRequestVersion.remove();
 
-        if (payLoad != null) {
+        Response notModified = EntityTags.notModified(payLoad, ifNoneMatch);
+        if (notModified != null) {
+            logger.debug("Not modified: {}", appName);
+            EurekaMonitors.GET_NOT_MODIFIED.increment();
+            return notModified;
+        } else if (payLoad != null) {
             logger.debug("Found: {}", appName);
-            return Response.ok(payLoad).build();
+            return EntityTags.ok(payLoad).build();
         } else {
             logger.debug("Not Found: {}", appName);
             return Response.status(Status.NOT_FOUND).build();
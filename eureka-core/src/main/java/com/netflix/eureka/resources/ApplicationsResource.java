@@ -18,8 +18,10 @@ package com.netflix.eureka.resources;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -32,9 +34,16 @@ import javax.ws.rs.core.UriInfo;
 import java.util.Arrays;
 
 import com.netflix.appinfo.EurekaAccept;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatch.Heartbeat;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse.HeartbeatResult;
 import com.netflix.eureka.EurekaServerContext;
 import com.netflix.eureka.EurekaServerContextHolder;
+import com.netflix.eureka.cluster.PeerEurekaNode;
 import com.netflix.eureka.registry.AbstractInstanceRegistry;
+import com.netflix.eureka.registry.EncodedPayload;
+import com.netflix.eureka.registry.PayloadEncoding;
 import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import com.netflix.eureka.Version;
@@ -43,6 +52,8 @@ import com.netflix.eureka.registry.Key.KeyType;
 import com.netflix.eureka.registry.ResponseCacheImpl;
 import com.netflix.eureka.registry.Key;
 import com.netflix.eureka.util.EurekaMonitors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A <em>jersey</em> resource that handles request related to all
@@ -54,11 +65,12 @@ import com.netflix.eureka.util.EurekaMonitors;
 @Path("/{version}/apps")
 @Produces({"application/xml", "application/json"})
 public class ApplicationsResource {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationsResource.class);
+
     private static final String HEADER_ACCEPT = "Accept";
     private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
     private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
     private static final String HEADER_CONTENT_TYPE = "Content-Type";
-    private static final String HEADER_GZIP_VALUE = "gzip";
     private static final String HEADER_JSON_VALUE = "json";
 
     private final EurekaServerConfig serverConfig;
@@ -101,6 +113,12 @@ public class ApplicationsResource {
     /**
      * Get information about all {@link com.netflix.discovery.shared.Applications}.
      *
+     * <p>
+     * The request holds its thread while a payload that is not cached is generated. Servers supporting
+     * asynchronous requests serve this query and the delta without it, see
+     * <code>Jersey2AsyncApplicationsResource</code> in eureka-core-jersey2 and {@link EurekaResources}.
+     * </p>
+     *
      * @param version the version of the request.
      * @param acceptHeader the accept header to indicate whether to serve JSON or XML data.
      * @param acceptEncoding the accept header to indicate whether to serve compressed or uncompressed data.
@@ -109,6 +127,7 @@ public class ApplicationsResource {
      * @param regionsStr A comma separated list of remote regions from which the instances will also be returned.
      *                   The applications returned from the remote region can be limited to the applications
      *                   returned by {@link EurekaServerConfig#getRemoteRegionAppWhitelist(String)}
+     * @param ifNoneMatch the entity tag of the payload the client already has, if any.
      *
      * @return a response containing information about all {@link com.netflix.discovery.shared.Applications}
      *         from the {@link AbstractInstanceRegistry}.
@@ -119,8 +138,26 @@ public class ApplicationsResource {
                                   @HeaderParam(HEADER_ACCEPT_ENCODING) String acceptEncoding,
                                   @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
                                   @Context UriInfo uriInfo,
-                                  @Nullable @QueryParam("regions") String regionsStr) {
+                                  @Nullable @QueryParam("regions") String regionsStr,
+                                  @Nullable @HeaderParam(EntityTags.HEADER_IF_NONE_MATCH) String ifNoneMatch) {
+
+        Key cacheKey = getContainersKey(version, acceptHeader, eurekaAccept, regionsStr);
+        if (cacheKey == null) {
+            return Response.status(Status.FORBIDDEN).build();
+        }
+        CurrentRequestVersion.set(cacheKey.getVersion());
+        Response response = getCachedResponse(cacheKey, acceptEncoding, ifNoneMatch);
+        CurrentRequestVersion.remove();
+        return response;
+    }
 
+    /**
+     * Resolves a query of all applications to its response cache key.
+     *
+     * @return the cache key, or null if the registry does not allow the access
+     */
+    @Nullable
+    Key getContainersKey(String version, String acceptHeader, String eurekaAccept, @Nullable String regionsStr) {
         boolean isRemoteRegionRequested = null != regionsStr && !regionsStr.isEmpty();
         String[] regions = null;
         if (!isRemoteRegionRequested) {
@@ -135,33 +172,12 @@ public class ApplicationsResource {
         // restrict access if it is not
         // ready to serve traffic depending on various reasons.
         if (!registry.shouldAllowAccess(isRemoteRegionRequested)) {
-            return Response.status(Status.FORBIDDEN).build();
-        }
-        CurrentRequestVersion.set(Version.toEnum(version));
-        KeyType keyType = Key.KeyType.JSON;
-        String returnMediaType = MediaType.APPLICATION_JSON;
-        if (acceptHeader == null || !acceptHeader.contains(HEADER_JSON_VALUE)) {
-            keyType = Key.KeyType.XML;
-            returnMediaType = MediaType.APPLICATION_XML;
+            return null;
         }
-
-        Key cacheKey = new Key(Key.EntityType.Application,
+        return new Key(Key.EntityType.Application,
                 ResponseCacheImpl.ALL_APPS,
-                keyType, CurrentRequestVersion.get(), EurekaAccept.fromString(eurekaAccept), regions
+                keyTypeOf(acceptHeader), Version.toEnum(version), EurekaAccept.fromString(eurekaAccept), regions
         );
-
-        Response response;
-        if (acceptEncoding != null && acceptEncoding.contains(HEADER_GZIP_VALUE)) {
-            response = Response.ok(responseCache.getGZIP(cacheKey))
-                    .header(HEADER_CONTENT_ENCODING, HEADER_GZIP_VALUE)
-                    .header(HEADER_CONTENT_TYPE, returnMediaType)
-                    .build();
-        } else {
-            response = Response.ok(responseCache.get(cacheKey))
-                    .build();
-        }
-        CurrentRequestVersion.remove();
-        return response;
     }
 
     /**
@@ -184,11 +200,20 @@ public class ApplicationsResource {
      * are expected to handle this duplicate information.
      * <p>
      *
+     * <p>
+     * Clients that pass the version of the last delta they have applied in the <code>since</code> query
+     * parameter receive only the changes made after that version instead. If those changes are no longer
+     * retained, or a remote region is requested, the regular delta is returned.
+     * </p>
+     *
      * @param version the version of the request.
      * @param acceptHeader the accept header to indicate whether to serve  JSON or XML data.
      * @param acceptEncoding the accept header to indicate whether to serve compressed or uncompressed data.
      * @param eurekaAccept an eureka accept extension, see {@link com.netflix.appinfo.EurekaAccept}
      * @param uriInfo  the {@link java.net.URI} information of the request made.
+     * @param regionsStr A comma separated list of remote regions from which the instances will also be returned.
+     * @param sinceStr the registry version of the last delta seen by the client.
+     * @param ifNoneMatch the entity tag of the payload the client already has, if any.
      * @return response containing the delta information of the
      *         {@link AbstractInstanceRegistry}.
      */
@@ -199,14 +224,42 @@ public class ApplicationsResource {
             @HeaderParam(HEADER_ACCEPT) String acceptHeader,
             @HeaderParam(HEADER_ACCEPT_ENCODING) String acceptEncoding,
             @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
-            @Context UriInfo uriInfo, @Nullable @QueryParam("regions") String regionsStr) {
+            @Context UriInfo uriInfo, @Nullable @QueryParam("regions") String regionsStr,
+            @Nullable @QueryParam("since") String sinceStr,
+            @Nullable @HeaderParam(EntityTags.HEADER_IF_NONE_MATCH) String ifNoneMatch) {
+
+        Key cacheKey = getContainerDifferentialKey(version, acceptHeader, eurekaAccept, regionsStr);
+        if (cacheKey == null) {
+            return Response.status(Status.FORBIDDEN).build();
+        }
+        CurrentRequestVersion.set(cacheKey.getVersion());
+
+        if (!cacheKey.hasRegions() && sinceStr != null && !sinceStr.isEmpty()) {
+            Response sinceResponse = getDeltaSince(cacheKey, sinceStr, acceptEncoding, ifNoneMatch);
+            if (sinceResponse != null) {
+                CurrentRequestVersion.remove();
+                return sinceResponse;
+            }
+        }
+
+        Response response = getCachedResponse(cacheKey, acceptEncoding, ifNoneMatch);
+        CurrentRequestVersion.remove();
+        return response;
+    }
 
+    /**
+     * Resolves a query of the delta changes to its response cache key.
+     *
+     * @return the cache key, or null if deltas are disabled or the registry does not allow the access
+     */
+    @Nullable
+    Key getContainerDifferentialKey(String version, String acceptHeader, String eurekaAccept, @Nullable String regionsStr) {
         boolean isRemoteRegionRequested = null != regionsStr && !regionsStr.isEmpty();
 
         // If the delta flag is disabled in discovery or if the lease expiration
         // has been disabled, redirect clients to get all instances
         if ((serverConfig.shouldDisableDelta()) || (!registry.shouldAllowAccess(isRemoteRegionRequested))) {
-            return Response.status(Status.FORBIDDEN).build();
+            return null;
         }
 
         String[] regions = null;
@@ -218,31 +271,113 @@ public class ApplicationsResource {
             EurekaMonitors.GET_ALL_DELTA_WITH_REMOTE_REGIONS.increment();
         }
 
-        CurrentRequestVersion.set(Version.toEnum(version));
-        KeyType keyType = Key.KeyType.JSON;
-        String returnMediaType = MediaType.APPLICATION_JSON;
-        if (acceptHeader == null || !acceptHeader.contains(HEADER_JSON_VALUE)) {
-            keyType = Key.KeyType.XML;
-            returnMediaType = MediaType.APPLICATION_XML;
-        }
-
-        Key cacheKey = new Key(Key.EntityType.Application,
+        return new Key(Key.EntityType.Application,
                 ResponseCacheImpl.ALL_APPS_DELTA,
-                keyType, CurrentRequestVersion.get(), EurekaAccept.fromString(eurekaAccept), regions
+                keyTypeOf(acceptHeader), Version.toEnum(version), EurekaAccept.fromString(eurekaAccept), regions
         );
+    }
 
-        final Response response;
+    private Response getCachedResponse(Key cacheKey, String acceptEncoding, String ifNoneMatch) {
+        PayloadEncoding encoding = PayloadEncoding.fromAcceptEncoding(acceptEncoding);
+        return toCachedResponse(cacheKey, responseCache.getPayload(cacheKey, encoding), encoding, ifNoneMatch);
+    }
 
-        if (acceptEncoding != null && acceptEncoding.contains(HEADER_GZIP_VALUE)) {
-             response = Response.ok(responseCache.getGZIP(cacheKey))
-                    .header(HEADER_CONTENT_ENCODING, HEADER_GZIP_VALUE)
-                    .header(HEADER_CONTENT_TYPE, returnMediaType)
+    /**
+     * Answers with the cached payload of the given key, or with <code>304 Not Modified</code> if the
+     * <code>If-None-Match</code> header matches the entity tag of the payload.
+     */
+    Response toCachedResponse(Key cacheKey, @Nullable EncodedPayload payload, PayloadEncoding encoding, String ifNoneMatch) {
+        Response notModified = EntityTags.notModified(payload, ifNoneMatch);
+        if (notModified != null) {
+            EurekaMonitors.GET_NOT_MODIFIED.increment();
+            return notModified;
+        }
+        if (encoding != PayloadEncoding.IDENTITY) {
+            return EntityTags.ok(payload)
+                    .header(HEADER_CONTENT_ENCODING, encoding.getContentEncoding())
+                    .header(HEADER_CONTENT_TYPE, mediaTypeOf(cacheKey))
                     .build();
-        } else {
-            response = Response.ok(responseCache.get(cacheKey)).build();
         }
+        return EntityTags.ok(payload).build();
+    }
 
-        CurrentRequestVersion.remove();
-        return response;
+    private static KeyType keyTypeOf(String acceptHeader) {
+        if (acceptHeader == null || !acceptHeader.contains(HEADER_JSON_VALUE)) {
+            return Key.KeyType.XML;
+        }
+        return Key.KeyType.JSON;
+    }
+
+    private static String mediaTypeOf(Key cacheKey) {
+        return cacheKey.getType() == Key.KeyType.JSON ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_XML;
+    }
+
+    /**
+     * Renews the leases of multiple instances in a single request, for hosts running many instances.
+     * Each heartbeat is handled as a regular heartbeat request, see {@link InstanceResource#renewLease}.
+     *
+     * @param version the version of the request.
+     * @param isReplication a header parameter containing information whether this is replicated from other nodes.
+     * @param heartbeatBatch the heartbeats to process.
+     * @return response containing the status code of each heartbeat, in the order of the batch.
+     */
+    @Path("heartbeats")
+    @POST
+    @Consumes("application/json")
+    @Produces("application/json")
+    public Response batchHeartbeats(
+            @PathParam("version") String version,
+            @HeaderParam(PeerEurekaNode.HEADER_REPLICATION) String isReplication,
+            HeartbeatBatch heartbeatBatch) {
+        if (heartbeatBatch == null) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+        CurrentRequestVersion.set(Version.toEnum(version));
+        try {
+            HeartbeatBatchResponse batchResponse = new HeartbeatBatchResponse();
+            for (Heartbeat heartbeat : heartbeatBatch.getHeartbeats()) {
+                int statusCode;
+                try {
+                    if ("true".equals(isReplication)) {
+                        statusCode = Heartbeats.renewReplicatedLease(serverConfig, registry, heartbeat.getAppName(),
+                                heartbeat.getId(), heartbeat.getLastDirtyTimestamp(), heartbeat.getOverriddenStatus()
+                        ).getStatusCode();
+                    } else {
+                        statusCode = Heartbeats.renewLease(serverConfig, registry, heartbeat.getAppName(),
+                                heartbeat.getId(), heartbeat.getLastDirtyTimestamp());
+                    }
+                } catch (Exception e) {
+                    statusCode = Status.INTERNAL_SERVER_ERROR.getStatusCode();
+                    logger.error("Heartbeat processing failed for batch item {}/{}", heartbeat.getAppName(), heartbeat.getId(), e);
+                }
+                batchResponse.addResult(new HeartbeatResult(heartbeat.getAppName(), heartbeat.getId(), statusCode));
+            }
+            return Response.ok(batchResponse).build();
+        } finally {
+            CurrentRequestVersion.remove();
+        }
+    }
+
+    /**
+     * Answers with the cached payload of the changes made after the given registry version, which the clients
+     * that applied the same delta share.
+     *
+     * @return the response, or null if the regular delta must be served instead
+     */
+    @Nullable
+    private Response getDeltaSince(Key cacheKey, String sinceStr, String acceptEncoding, String ifNoneMatch) {
+        long since;
+        try {
+            since = Long.parseLong(sinceStr);
+        } catch (NumberFormatException e) {
+            logger.debug("Invalid delta version {}; serving the regular delta", sinceStr);
+            return null;
+        }
+        PayloadEncoding encoding = PayloadEncoding.fromAcceptEncoding(acceptEncoding);
+        EncodedPayload payload = responseCache.getDeltaSincePayload(cacheKey, since, encoding);
+        if (payload == null) {
+            return null;
+        }
+        return toCachedResponse(cacheKey, payload, encoding, ifNoneMatch);
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.resources;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import com.netflix.eureka.registry.EncodedPayload;
+
+/**
+ * Writes the {@link EncodedPayload} of the response cache as is, with its length as the content length.
+ * Without this provider, Jersey still writes a payload as {@link javax.ws.rs.core.StreamingOutput}, but with
+ * chunked encoding.
+ */
+@Provider
+@Produces("*/*")
+public class EncodedPayloadProvider implements MessageBodyWriter<EncodedPayload> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return EncodedPayload.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(EncodedPayload payload, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return payload.length();
+    }
+
+    @Override
+    public void writeTo(EncodedPayload payload, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        payload.write(entityStream);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.resources;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import com.netflix.eureka.registry.EncodedPayload;
+
+/**
+ * Conditional request support for the cached registry payloads. A response carries the entity tag of its
+ * {@link EncodedPayload} in the <code>ETag</code> header, and a request whose <code>If-None-Match</code> header
+ * matches the entity tag of the current payload gets a <code>304 Not Modified</code> response without a body.
+ */
+final class EntityTags {
+
+    static final String HEADER_ETAG = "ETag";
+    static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    /**
+     * @return a <code>304 Not Modified</code> response if the payload matches the given <code>If-None-Match</code>
+     *         header, or null if the payload has to be sent
+     */
+    @Nullable
+    static Response notModified(@Nullable EncodedPayload payload, @Nullable String ifNoneMatch) {
+        if (payload == null || !matches(ifNoneMatch, payload.getEntityTag())) {
+            return null;
+        }
+        return Response.status(Status.NOT_MODIFIED).header(HEADER_ETAG, payload.getEntityTag()).build();
+    }
+
+    /**
+     * @return a <code>200 OK</code> response builder for the payload, with the <code>ETag</code> header if the
+     *         payload has an entity tag
+     */
+    static Response.ResponseBuilder ok(@Nullable EncodedPayload payload) {
+        Response.ResponseBuilder builder = Response.ok(payload);
+        if (payload != null && payload.getEntityTag() != null) {
+            builder.header(HEADER_ETAG, payload.getEntityTag());
+        }
+        return builder;
+    }
+
+    /**
+     * Matches the entity tag against an <code>If-None-Match</code> header, which holds either <code>*</code> or a
+     * comma separated list of entity tags. As required for <code>If-None-Match</code>, the weak comparison is used.
+     */
+    static boolean matches(@Nullable String ifNoneMatch, @Nullable String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(entityTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || opaqueTag.equals(stripWeakPrefix(trimmed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String entityTag) {
+        return entityTag.startsWith(WEAK_PREFIX) ? entityTag.substring(WEAK_PREFIX.length()) : entityTag;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.resources;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.registry.EncodedPayload;
+import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.registry.PayloadEncoding;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+
+/**
+ * The eureka REST API for servers that do not run the <em>jersey</em> 1 resources, such as the embedded netty server
+ * or the asynchronous <em>jersey</em> 2 resources. Each method serves one request of the API with the semantics of
+ * the <em>jersey</em> resource it delegates to, given the decoded path, query parameters, headers and entity of the
+ * request, and returns the response to write.
+ * <p>
+ * The methods that may block are to be called from a thread that can block, with the version of the request set
+ * in {@link CurrentRequestVersion}. The heartbeats do not block, see {@link Heartbeats}.
+ */
+public class EurekaResources {
+
+    private final EurekaServerConfig serverConfig;
+    private final PeerAwareInstanceRegistry registry;
+    private final ApplicationsResource applicationsResource;
+    private final PeerReplicationResource peerReplicationResource;
+    private final InstancesResource instancesResource;
+    private final VIPResource vipResource;
+    private final SecureVIPResource secureVipResource;
+    private final ASGResource asgResource;
+
+    public EurekaResources(EurekaServerContext serverContext) {
+        this.serverConfig = serverContext.getServerConfig();
+        this.registry = serverContext.getRegistry();
+        this.applicationsResource = new ApplicationsResource(serverContext);
+        this.peerReplicationResource = new PeerReplicationResource(serverContext);
+        this.instancesResource = new InstancesResource(serverContext);
+        this.vipResource = new VIPResource(serverContext);
+        this.secureVipResource = new SecureVIPResource(serverContext);
+        this.asgResource = new ASGResource(serverContext);
+    }
+
+    /**
+     * <code>GET /{version}/apps</code> and <code>GET /{version}/apps/delta</code> without the <code>since</code>
+     * parameter, served from the response cache without blocking. See
+     * {@link com.netflix.eureka.registry.ResponseCache#getPayloadAsync}.
+     *
+     * @param delta true for the delta, false for all applications
+     * @param responseExecutor the executor completing the requests whose payload is being generated
+     * @return a future of the response
+     */
+    public CompletableFuture<Response> getApplicationsAsync(String version,
+                                                            String acceptHeader,
+                                                            String acceptEncoding,
+                                                            String eurekaAccept,
+                                                            @Nullable String regionsStr,
+                                                            @Nullable final String ifNoneMatch,
+                                                            boolean delta,
+                                                            Executor responseExecutor) {
+        final Key cacheKey = delta
+                ? applicationsResource.getContainerDifferentialKey(version, acceptHeader, eurekaAccept, regionsStr)
+                : applicationsResource.getContainersKey(version, acceptHeader, eurekaAccept, regionsStr);
+        if (cacheKey == null) {
+            return CompletableFuture.completedFuture(Response.status(Status.FORBIDDEN).build());
+        }
+        final PayloadEncoding encoding = PayloadEncoding.fromAcceptEncoding(acceptEncoding);
+        return registry.getResponseCache().getPayloadAsync(cacheKey, encoding, responseExecutor)
+                .thenApply(new Function<EncodedPayload, Response>() {
+                    @Override
+                    public Response apply(EncodedPayload payload) {
+                        return applicationsResource.toCachedResponse(cacheKey, payload, encoding, ifNoneMatch);
+                    }
+                });
+    }
+
+    /**
+     * <code>GET /{version}/apps/delta</code>, see {@link ApplicationsResource#getContainerDifferential}. Blocks
+     * while the changes after the <code>since</code> version are generated.
+     */
+    public Response getApplicationsDelta(String version,
+                                         String acceptHeader,
+                                         String acceptEncoding,
+                                         String eurekaAccept,
+                                         @Nullable String regionsStr,
+                                         @Nullable String sinceStr,
+                                         @Nullable String ifNoneMatch) {
+        return applicationsResource.getContainerDifferential(version, acceptHeader, acceptEncoding, eurekaAccept,
+                null, regionsStr, sinceStr, ifNoneMatch);
+    }
+
+    /**
+     * <code>POST /{version}/apps/heartbeats</code>, see {@link ApplicationsResource#batchHeartbeats}.
+     */
+    public Response batchHeartbeats(String version, @Nullable String isReplication, HeartbeatBatch heartbeatBatch) {
+        return applicationsResource.batchHeartbeats(version, isReplication, heartbeatBatch);
+    }
+
+    /**
+     * <code>GET /{version}/apps/{appId}</code>, see {@link ApplicationResource#getApplication}.
+     */
+    public Response getApplication(String version,
+                                   String appName,
+                                   String acceptHeader,
+                                   String eurekaAccept,
+                                   @Nullable String ifNoneMatch) {
+        return applicationResource(appName).getApplication(version, acceptHeader, eurekaAccept, ifNoneMatch);
+    }
+
+    /**
+     * <code>POST /{version}/apps/{appId}</code>, see {@link ApplicationResource#addInstance}.
+     */
+    public Response addInstance(String appName, InstanceInfo instanceInfo, @Nullable String isReplication) {
+        return applicationResource(appName).addInstance(instanceInfo, isReplication);
+    }
+
+    /**
+     * <code>GET /{version}/apps/{appId}/{id}</code>, see {@link InstanceResource#getInstanceInfo}.
+     */
+    public Response getInstance(String appName, String id) {
+        return instanceResource(appName, id).getInstanceInfo();
+    }
+
+    /**
+     * <code>DELETE /{version}/apps/{appId}/{id}</code>, see {@link InstanceResource#cancelLease}.
+     */
+    public Response cancelLease(String appName, String id, @Nullable String isReplication) {
+        return instanceResource(appName, id).cancelLease(isReplication);
+    }
+
+    /**
+     * <code>PUT /{version}/apps/{appId}/{id}/status</code>, see {@link InstanceResource#statusUpdate}.
+     */
+    public Response statusUpdate(String appName,
+                                 String id,
+                                 String newStatus,
+                                 @Nullable String isReplication,
+                                 @Nullable String lastDirtyTimestamp) {
+        return instanceResource(appName, id).statusUpdate(newStatus, isReplication, lastDirtyTimestamp);
+    }
+
+    /**
+     * <code>DELETE /{version}/apps/{appId}/{id}/status</code>, see {@link InstanceResource#deleteStatusUpdate}.
+     */
+    public Response deleteStatusUpdate(String appName,
+                                       String id,
+                                       @Nullable String newStatus,
+                                       @Nullable String isReplication,
+                                       @Nullable String lastDirtyTimestamp) {
+        return instanceResource(appName, id).deleteStatusUpdate(isReplication, newStatus, lastDirtyTimestamp);
+    }
+
+    /**
+     * <code>PUT /{version}/apps/{appId}/{id}/metadata</code>, see {@link InstanceResource#updateMetadata}.
+     *
+     * @param metadata the first value of each query parameter, by name
+     */
+    public Response updateMetadata(String appName, String id, Map<String, String> metadata) {
+        return instanceResource(appName, id).updateMetadata(metadata);
+    }
+
+    /**
+     * <code>GET /{version}/instances/{id}</code>, see {@link InstancesResource#getById}.
+     */
+    public Response getInstanceById(String version, String id) {
+        return instancesResource.getById(version, id);
+    }
+
+    /**
+     * <code>GET /{version}/vips/{vipAddress}</code> and <code>GET /{version}/svips/{svipAddress}</code>, see
+     * {@link VIPResource} and {@link SecureVIPResource}.
+     *
+     * @param secure true for a secure VIP address
+     */
+    public Response getVip(String version,
+                           String vipAddress,
+                           boolean secure,
+                           String acceptHeader,
+                           String eurekaAccept,
+                           @Nullable String ifNoneMatch) {
+        return secure
+                ? secureVipResource.statusUpdate(version, vipAddress, acceptHeader, eurekaAccept, ifNoneMatch)
+                : vipResource.statusUpdate(version, vipAddress, acceptHeader, eurekaAccept, ifNoneMatch);
+    }
+
+    /**
+     * <code>PUT /{version}/asg/{asgName}/status</code>, see {@link ASGResource#statusUpdate}.
+     */
+    public Response asgStatusUpdate(String asgName, String newStatus, @Nullable String isReplication) {
+        return asgResource.statusUpdate(asgName, newStatus, isReplication);
+    }
+
+    /**
+     * <code>POST /{version}/peerreplication/batch</code>, see {@link PeerReplicationResource#batchReplication}.
+     */
+    public Response batchReplication(ReplicationList replicationList) {
+        return peerReplicationResource.batchReplication(replicationList);
+    }
+
+    /**
+     * <code>POST /{version}/peerreplication/heartbeats</code>, see
+     * {@link PeerReplicationResource#batchHeartbeats}.
+     */
+    public Response batchPeerHeartbeats(HeartbeatReplicationList heartbeatList) {
+        return peerReplicationResource.batchHeartbeats(heartbeatList);
+    }
+
+    private ApplicationResource applicationResource(String appName) {
+        return new ApplicationResource(appName, serverConfig, registry);
+    }
+
+    private InstanceResource instanceResource(String appName, String id) {
+        return new InstanceResource(applicationResource(appName), id, serverConfig, registry);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.resources;
+
+import javax.ws.rs.core.Response.Status;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.lease.Lease;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Heartbeats received outside of the {@link InstanceResource}, in a batch or by the
+ * {@link com.netflix.eureka.HeartbeatFilter}, renewed with the same semantics as a heartbeat request.
+ */
+public final class Heartbeats {
+
+    private static final Logger logger = LoggerFactory.getLogger(Heartbeats.class);
+
+    private Heartbeats() {
+    }
+
+    /**
+     * Renews the lease of an instance for a heartbeat of the instance itself, with the semantics of
+     * {@link InstanceResource#renewLease}, but without creating the resources and the response of a heartbeat
+     * request.
+     *
+     * @param lastDirtyTimestamp the last dirty timestamp of the instance on the client, or null
+     * @return the status code of the heartbeat, {@link Status#NOT_FOUND} asking the client to register again
+     */
+    public static int renewLease(EurekaServerConfig serverConfig,
+                                 PeerAwareInstanceRegistry registry,
+                                 String appName,
+                                 String id,
+                                 Long lastDirtyTimestamp) {
+        String name = appName.toUpperCase();
+        Lease<InstanceInfo> lease = registry.renewAndGet(name, id, false);
+        if (lease == null) {
+            logger.warn("Not Found (Renew): {} - {}", name, id);
+            return Status.NOT_FOUND.getStatusCode();
+        }
+        InstanceInfo instanceInfo = lease.getHolder();
+        Long registryDirtyTimestamp = instanceInfo == null ? null : instanceInfo.getLastDirtyTimestamp();
+        if (lastDirtyTimestamp != null && serverConfig.shouldSyncWhenTimestampDiffers()
+                && registryDirtyTimestamp != null && lastDirtyTimestamp > registryDirtyTimestamp) {
+            // The client has changed since it last registered, and will register again
+            logger.debug("Time to sync, since the last dirty timestamp differs -"
+                    + " Instance id : {},Registry : {} Incoming: {}", id, registryDirtyTimestamp, lastDirtyTimestamp);
+            return Status.NOT_FOUND.getStatusCode();
+        }
+        return Status.OK.getStatusCode();
+    }
+
+    /**
+     * Renews the lease of an instance for a heartbeat replicated by a peer, with the semantics of
+     * {@link InstanceResource#renewLease} and of a heartbeat in a replication batch, but without creating the
+     * resources and the response of a heartbeat request.
+     *
+     * @param lastDirtyTimestamp the last dirty timestamp of the instance on the peer, or null
+     * @param overriddenStatus the overridden status of the instance on the peer, or null
+     * @return the status code of the heartbeat, and the instance to return to the peer, if any
+     */
+    public static ReplicationInstanceResponse renewReplicatedLease(EurekaServerConfig serverConfig,
+                                                                   PeerAwareInstanceRegistry registry,
+                                                                   String appName,
+                                                                   String id,
+                                                                   Long lastDirtyTimestamp,
+                                                                   String overriddenStatus) {
+        String name = appName.toUpperCase();
+        Lease<InstanceInfo> lease = registry.renewAndGet(name, id, true);
+        if (lease == null) {
+            logger.warn("Not Found (Renew): {} - {}", name, id);
+            return new ReplicationInstanceResponse(Status.NOT_FOUND.getStatusCode(), null);
+        }
+        InstanceInfo instanceInfo = lease.getHolder();
+        Long registryDirtyTimestamp = instanceInfo == null ? null : instanceInfo.getLastDirtyTimestamp();
+        if (lastDirtyTimestamp == null || !serverConfig.shouldSyncWhenTimestampDiffers()
+                || registryDirtyTimestamp == null || lastDirtyTimestamp.equals(registryDirtyTimestamp)) {
+            return new ReplicationInstanceResponse(Status.OK.getStatusCode(), null);
+        }
+        if (lastDirtyTimestamp > registryDirtyTimestamp) {
+            // The peer has the latest instance, and will register it again
+            if (overriddenStatus != null && !InstanceStatus.UNKNOWN.name().equals(overriddenStatus)) {
+                registry.storeOverriddenStatusIfRequired(name, id, InstanceStatus.valueOf(overriddenStatus));
+            }
+            return new ReplicationInstanceResponse(Status.NOT_FOUND.getStatusCode(), null);
+        }
+        // The peer syncs itself with the decorated instance, with up to date lease information
+        InstanceInfo responseEntity = null;
+        if (!"false".equals(serverConfig.getExperimental("bugfix.934"))) {
+            InstanceInfo registryInfo = registry.getInstanceByAppAndId(name, id, false);
+            responseEntity = registryInfo == null ? instanceInfo : registryInfo;
+        }
+        return new ReplicationInstanceResponse(Status.CONFLICT.getStatusCode(), responseEntity);
+    }
+}
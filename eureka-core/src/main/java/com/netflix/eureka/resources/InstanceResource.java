@@ -29,6 +29,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,6 +41,7 @@ import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.lease.Lease;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -109,10 +111,10 @@ public class InstanceResource {
             @QueryParam("status") String status,
             @QueryParam("lastDirtyTimestamp") String lastDirtyTimestamp) {
         boolean isFromReplicaNode = "true".equals(isReplication);
-        boolean isSuccess = registry.renew(app.getName(), id, isFromReplicaNode);
+        Lease<InstanceInfo> lease = registry.renewAndGet(app.getName(), id, isFromReplicaNode);
 
         // Not found in the registry, immediately ask for a register
-        if (!isSuccess) {
+        if (lease == null) {
             logger.warn("Not Found (Renew): {} - {}", app.getName(), id);
             return Response.status(Status.NOT_FOUND).build();
         }
@@ -120,7 +122,7 @@ public class InstanceResource {
         // instance might have changed some value
         Response response;
         if (lastDirtyTimestamp != null && serverConfig.shouldSyncWhenTimestampDiffers()) {
-            response = this.validateDirtyTimestamp(Long.valueOf(lastDirtyTimestamp), isFromReplicaNode);
+            response = this.validateDirtyTimestamp(lease.getHolder(), Long.parseLong(lastDirtyTimestamp), isFromReplicaNode);
             // Store the overridden status since the validation found out the node that replicates wins
             if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()
                     && (overriddenStatus != null)
@@ -131,7 +133,9 @@ public class InstanceResource {
         } else {
             response = Response.ok().build();
         }
-        logger.debug("Found (Renew): {} - {}; reply status={}", app.getName(), id, response.getStatus());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Found (Renew): {} - {}; reply status={}", app.getName(), id, response.getStatus());
+        }
         return response;
     }
 
@@ -235,6 +239,21 @@ public class InstanceResource {
     @PUT
     @Path("metadata")
     public Response updateMetadata(@Context UriInfo uriInfo) {
+        MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+        Set<Entry<String, List<String>>> entrySet = queryParams.entrySet();
+        Map<String, String> metadata = new HashMap<>();
+        for (Entry<String, List<String>> entry : entrySet) {
+            metadata.put(entry.getKey(), entry.getValue().get(0));
+        }
+        return updateMetadata(metadata);
+    }
+
+    /**
+     * Updates user-specific metadata information, see {@link #updateMetadata(UriInfo)}.
+     *
+     * @param metadata the entries to add or overwrite
+     */
+    Response updateMetadata(Map<String, String> metadata) {
         try {
             InstanceInfo instanceInfo = registry.getInstanceByAppAndId(app.getName(), id);
             // ReplicationInstance information is not found, generate an error
@@ -242,8 +261,6 @@ public class InstanceResource {
                 logger.warn("Cannot find instance while updating metadata for instance {}/{}", app.getName(), id);
                 return Response.status(Status.NOT_FOUND).build();
             }
-            MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
-            Set<Entry<String, List<String>>> entrySet = queryParams.entrySet();
             Map<String, String> metadataMap = instanceInfo.getMetadata();
             // Metadata map is empty - create a new map
             if (Collections.emptyMap().getClass().equals(metadataMap.getClass())) {
@@ -253,9 +270,7 @@ public class InstanceResource {
                 instanceInfo = builder.build();
             }
             // Add all the user supplied entries to the map
-            for (Entry<String, List<String>> entry : entrySet) {
-                metadataMap.put(entry.getKey(), entry.getValue().get(0));
-            }
+            metadataMap.putAll(metadata);
             registry.register(instanceInfo, false);
             return Response.ok().build();
         } catch (Throwable e) {
@@ -295,20 +310,21 @@ public class InstanceResource {
 
     }
 
-    private Response validateDirtyTimestamp(Long lastDirtyTimestamp,
+    private Response validateDirtyTimestamp(InstanceInfo appInfo,
+                                            long lastDirtyTimestamp,
                                             boolean isReplication) {
-        InstanceInfo appInfo = registry.getInstanceByAppAndId(app.getName(), id, false);
         if (appInfo != null) {
-            if ((lastDirtyTimestamp != null) && (!lastDirtyTimestamp.equals(appInfo.getLastDirtyTimestamp()))) {
-                Object[] args = {id, appInfo.getLastDirtyTimestamp(), lastDirtyTimestamp, isReplication};
+            Long registryDirtyTimestamp = appInfo.getLastDirtyTimestamp();
+            if (registryDirtyTimestamp != null && lastDirtyTimestamp != registryDirtyTimestamp) {
+                Object[] args = {id, registryDirtyTimestamp, lastDirtyTimestamp, isReplication};
 
-                if (lastDirtyTimestamp > appInfo.getLastDirtyTimestamp()) {
+                if (lastDirtyTimestamp > registryDirtyTimestamp) {
                     logger.debug(
                             "Time to sync, since the last dirty timestamp differs -"
                                     + " ReplicationInstance id : {},Registry : {} Incoming: {} Replication: {}",
                             args);
                     return Response.status(Status.NOT_FOUND).build();
-                } else if (appInfo.getLastDirtyTimestamp() > lastDirtyTimestamp) {
+                } else if (registryDirtyTimestamp > lastDirtyTimestamp) {
                     // In the case of replication, send the current instance info in the registry for the
                     // replicating node to sync itself with this one.
                     if (isReplication) {
@@ -316,7 +332,9 @@ public class InstanceResource {
                                 "Time to sync, since the last dirty timestamp differs -"
                                         + " ReplicationInstance id : {},Registry : {} Incoming: {} Replication: {}",
                                 args);
-                        return Response.status(Status.CONFLICT).entity(appInfo).build();
+                        // Send the decorated instance, with up to date lease information
+                        InstanceInfo registryInfo = registry.getInstanceByAppAndId(app.getName(), id, false);
+                        return Response.status(Status.CONFLICT).entity(registryInfo == null ? appInfo : registryInfo).build();
                     } else {
                         return Response.ok().build();
                     }
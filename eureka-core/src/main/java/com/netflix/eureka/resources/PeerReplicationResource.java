@@ -22,11 +22,25 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.eureka.EurekaServerContext;
 import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.EurekaServerContextHolder;
+import com.netflix.eureka.cluster.PeerEurekaNodes;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList.AppHeartbeats;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse.HeartbeatFailure;
 import com.netflix.eureka.cluster.protocol.ReplicationInstance;
 import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse.Builder;
@@ -52,11 +66,13 @@ public class PeerReplicationResource {
 
     private final EurekaServerConfig serverConfig;
     private final PeerAwareInstanceRegistry registry;
+    private final PeerEurekaNodes peerEurekaNodes;
 
     @Inject
     PeerReplicationResource(EurekaServerContext server) {
         this.serverConfig = server.getServerConfig();
         this.registry = server.getRegistry();
+        this.peerEurekaNodes = server.getPeerEurekaNodes();
     }
 
     public PeerReplicationResource() {
@@ -68,7 +84,9 @@ public class PeerReplicationResource {
      *
      * <p>
      *  The batched events are delegated to underlying resources to generate a
-     *  {@link ReplicationListResponse} containing the individual responses to the batched events
+     *  {@link ReplicationListResponse} containing the individual responses to the batched events.
+     *  If the batch replication executor of the {@link PeerEurekaNodes} is enabled, the events of different
+     *  instances are processed in parallel, and the events of an instance in the order of the batch
      * </p>
      *
      * @param replicationList
@@ -79,15 +97,16 @@ public class PeerReplicationResource {
     @POST
     public Response batchReplication(ReplicationList replicationList) {
         try {
-            ReplicationListResponse batchResponse = new ReplicationListResponse();
-            for (ReplicationInstance instanceInfo : replicationList.getReplicationList()) {
-                try {
-                    batchResponse.addResponse(dispatch(instanceInfo));
-                } catch (Exception e) {
-                    batchResponse.addResponse(new ReplicationInstanceResponse(Status.INTERNAL_SERVER_ERROR.getStatusCode(), null));
-                    logger.error("{} request processing failed for batch item {}/{}",
-                            instanceInfo.getAction(), instanceInfo.getAppName(), instanceInfo.getId(), e);
+            List<ReplicationInstance> items = replicationList.getReplicationList();
+            ExecutorService executor = peerEurekaNodes == null ? null : peerEurekaNodes.getBatchReplicationExecutor();
+            ReplicationListResponse batchResponse;
+            if (executor == null || items.size() < 2) {
+                batchResponse = new ReplicationListResponse();
+                for (ReplicationInstance instanceInfo : items) {
+                    batchResponse.addResponse(process(instanceInfo));
                 }
+            } else {
+                batchResponse = new ReplicationListResponse(processInParallel(items, executor));
             }
             return Response.ok(batchResponse).build();
         } catch (Throwable e) {
@@ -96,6 +115,97 @@ public class PeerReplicationResource {
         }
     }
 
+    /**
+     * Processes the items of each instance in a task of the executor, in the order of the batch.
+     *
+     * @return the responses, in the order of the batch
+     */
+    private List<ReplicationInstanceResponse> processInParallel(final List<ReplicationInstance> items,
+                                                                ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        Map<String, List<Integer>> itemsByInstance = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            ReplicationInstance item = items.get(i);
+            String instanceKey = item.getAppName() + '/' + item.getId();
+            List<Integer> instanceItems = itemsByInstance.get(instanceKey);
+            if (instanceItems == null) {
+                instanceItems = new ArrayList<>();
+                itemsByInstance.put(instanceKey, instanceItems);
+            }
+            instanceItems.add(i);
+        }
+
+        final ReplicationInstanceResponse[] responses = new ReplicationInstanceResponse[items.size()];
+        List<Callable<Void>> tasks = new ArrayList<>(itemsByInstance.size());
+        for (final List<Integer> instanceItems : itemsByInstance.values()) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int index : instanceItems) {
+                        responses[index] = process(items.get(index));
+                    }
+                    return null;
+                }
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+        return new ArrayList<>(Arrays.asList(responses));
+    }
+
+    private ReplicationInstanceResponse process(ReplicationInstance instanceInfo) {
+        try {
+            return dispatch(instanceInfo);
+        } catch (Exception e) {
+            logger.error("{} request processing failed for batch item {}/{}",
+                    instanceInfo.getAction(), instanceInfo.getAppName(), instanceInfo.getId(), e);
+            return new ReplicationInstanceResponse(Status.INTERNAL_SERVER_ERROR.getStatusCode(), null);
+        }
+    }
+
+    /**
+     * Process the heartbeats replicated by peer eureka nodes in a compact batch.
+     *
+     * <p>
+     *  The leases are renewed directly, with the same outcome as the heartbeats of a {@link ReplicationList}. Only
+     *  the heartbeats that did not succeed are listed in the {@link HeartbeatReplicationListResponse}
+     * </p>
+     *
+     * @param heartbeatList
+     *            The heartbeats from peer eureka nodes
+     * @return A batched response containing the heartbeats that failed
+     */
+    @Path("heartbeats")
+    @POST
+    public Response batchHeartbeats(HeartbeatReplicationList heartbeatList) {
+        try {
+            HeartbeatReplicationListResponse batchResponse = new HeartbeatReplicationListResponse();
+            int index = 0;
+            for (AppHeartbeats appHeartbeats : heartbeatList.getApps()) {
+                List<String> ids = appHeartbeats.getIds();
+                List<Long> lastDirtyTimestamps = appHeartbeats.getLastDirtyTimestamps();
+                for (int i = 0; i < ids.size(); i++, index++) {
+                    String id = ids.get(i);
+                    try {
+                        ReplicationInstanceResponse response = Heartbeats.renewReplicatedLease(serverConfig, registry,
+                                appHeartbeats.getAppName(), id, lastDirtyTimestamps.get(i), appHeartbeats.getOverriddenStatus(id));
+                        if (response.getStatusCode() != Status.OK.getStatusCode()) {
+                            batchResponse.addFailure(new HeartbeatFailure(index, response.getStatusCode(), response.getResponseEntity()));
+                        }
+                    } catch (Exception e) {
+                        batchResponse.addFailure(new HeartbeatFailure(index, Status.INTERNAL_SERVER_ERROR.getStatusCode(), null));
+                        logger.error("Heartbeat request processing failed for batch item {}/{}", appHeartbeats.getAppName(), id, e);
+                    }
+                }
+            }
+            return Response.ok(batchResponse).build();
+        } catch (Throwable e) {
+            logger.error("Cannot execute heartbeat batch Request", e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     private ReplicationInstanceResponse dispatch(ReplicationInstance instanceInfo) {
         ApplicationResource applicationResource = createApplicationResource(instanceInfo);
         InstanceResource resource = createInstanceResource(instanceInfo, applicationResource);
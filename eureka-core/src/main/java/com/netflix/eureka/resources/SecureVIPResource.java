@@ -53,9 +53,10 @@ public class SecureVIPResource extends AbstractVIPResource {
     public Response statusUpdate(@PathParam("version") String version,
                                  @PathParam("svipAddress") String svipAddress,
                                  @HeaderParam("Accept") final String acceptHeader,
-                                 @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept) {
+                                 @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
+                                 @HeaderParam(EntityTags.HEADER_IF_NONE_MATCH) String ifNoneMatch) {
         return getVipResponse(version, svipAddress, acceptHeader,
-                EurekaAccept.fromString(eurekaAccept), Key.EntityType.SVIP);
+                EurekaAccept.fromString(eurekaAccept), Key.EntityType.SVIP, ifNoneMatch);
     }
 
 }
@@ -53,9 +53,10 @@ public class VIPResource extends AbstractVIPResource {
     public Response statusUpdate(@PathParam("version") String version,
                                  @PathParam("vipAddress") String vipAddress,
                                  @HeaderParam("Accept") final String acceptHeader,
-                                 @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept) {
+                                 @HeaderParam(EurekaAccept.HTTP_X_EUREKA_ACCEPT) String eurekaAccept,
+                                 @HeaderParam(EntityTags.HEADER_IF_NONE_MATCH) String ifNoneMatch) {
         return getVipResponse(version, vipAddress, acceptHeader,
-                EurekaAccept.fromString(eurekaAccept), Key.EntityType.VIP);
+                EurekaAccept.fromString(eurekaAccept), Key.EntityType.VIP, ifNoneMatch);
     }
 
 }
@@ -19,6 +19,8 @@ import com.netflix.eureka.EurekaServerIdentity;
 import com.netflix.eureka.cluster.DynamicGZIPContentEncodingFilter;
 import com.netflix.eureka.cluster.HttpReplicationClient;
 import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
 import com.netflix.eureka.resources.ASGResource.ASGStatus;
@@ -127,6 +129,27 @@ public class JerseyReplicationClient extends AbstractJerseyEurekaHttpClient impl
         }
     }
 
+    @Override
+    public EurekaHttpResponse<HeartbeatReplicationListResponse> submitHeartbeats(HeartbeatReplicationList heartbeatList) {
+        ClientResponse response = null;
+        try {
+            response = jerseyApacheClient.resource(serviceUrl)
+                    .path(PeerEurekaNode.HEARTBEATS_URL_PATH)
+                    .accept(MediaType.APPLICATION_JSON_TYPE)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .post(ClientResponse.class, heartbeatList);
+            if (!isSuccess(response.getStatus())) {
+                return anEurekaHttpResponse(response.getStatus(), HeartbeatReplicationListResponse.class).build();
+            }
+            HeartbeatReplicationListResponse heartbeatsResponse = response.getEntity(HeartbeatReplicationListResponse.class);
+            return anEurekaHttpResponse(response.getStatus(), heartbeatsResponse).type(MediaType.APPLICATION_JSON_TYPE).build();
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
     public void addReplicationClientFilter(ClientFilter clientFilter) {
         jerseyApacheClient.addFilter(clientFilter);
     }
@@ -56,6 +56,8 @@ public enum EurekaMonitors {
     GET_ALL_WITH_REMOTE_REGIONS("getAllWithRemoteRegionCounter",
             "Number of total registry queries with remote regions, seen since startup"),
     GET_APPLICATION("getApplicationCounter", "Number of total application queries seen since startup"),
+    GET_NOT_MODIFIED("getNotModifiedCounter",
+            "Number of total registry queries answered as not modified since startup"),
     REGISTER("registerCounter", "Number of total registers seen since startup"),
     EXPIRED("expiredCounter", "Number of total expired leases since startup"),
     STATUS_UPDATE("statusUpdateCounter", "Number of total admin status updates since startup"),
@@ -67,7 +69,9 @@ public enum EurekaMonitors {
     RATE_LIMITED("numOfRateLimitedRequests", "Number of requests discarded by the rate limiter"),
     RATE_LIMITED_CANDIDATES("numOfRateLimitedRequestCandidates", "Number of requests that would be discarded if the rate limiter's throttling is activated"),
     RATE_LIMITED_FULL_FETCH("numOfRateLimitedFullFetchRequests", "Number of full registry fetch requests discarded by the rate limiter"),
-    RATE_LIMITED_FULL_FETCH_CANDIDATES("numOfRateLimitedFullFetchRequestCandidates", "Number of full registry fetch requests that would be discarded if the rate limiter's throttling is activated");
+    RATE_LIMITED_FULL_FETCH_CANDIDATES("numOfRateLimitedFullFetchRequestCandidates", "Number of full registry fetch requests that would be discarded if the rate limiter's throttling is activated"),
+    SHED_FULL_FETCH("numOfShedFullFetchRequests", "Number of full registry fetch requests shed by the rate limiter because of the server load"),
+    SHED_DELTA_FETCH("numOfShedDeltaFetchRequests", "Number of delta registry fetch requests shed by the rate limiter because of the server load");
 
     private final String name;
 
@@ -1,18 +1,16 @@
 package com.netflix.eureka.util.batcher;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.Semaphore;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
 import com.netflix.servo.annotations.DataSourceType;
@@ -36,36 +34,66 @@ import static com.netflix.eureka.Names.METRIC_REPLICATION_PREFIX;
  * Each task passed for processing has a corresponding task id. This id is used to remove duplicates (replace
  * older copies with newer ones).
  *
+ * <h3>Priorities</h3>
+ * The pending tasks are kept in one lane per {@link TaskPriority}. Work is taken from the highest priority lane
+ * first, and when the buffer is full, the oldest task of the lowest priority lane is dropped, or the new task itself
+ * if all the pending tasks have a higher priority. A newer task replacing a pending one of the same id keeps its
+ * position, and thus its lane.
+ *
  * <h3>Re-processing</h3>
  * If data processing by a worker failed, and the failure is transient in nature, the worker will put back the
  * task(s) back to the {@link AcceptorExecutor}. This data will be merged with current workload, possibly discarded if
  * a newer version has been already received.
  *
+ * <h3>Threading</h3>
+ * The clients and the workers never block, nor take a lock. New and re-processed tasks, and the work requests of
+ * the workers, are passed to the acceptor thread through lock-free queues, the task queues being bounded
+ * {@link MpscArrayQueue}s. The acceptor thread alone owns the pending tasks, so a newer task replaces an older one
+ * of the same id in place, keeping its position. Once it has assigned all the work it can, the acceptor thread parks
+ * until it is signalled new input, or until the next batch is due, and it hands work directly to the requesting
+ * worker, which it unparks.
+ *
+ * <h3>Adaptive batching</h3>
+ * If constructed with an {@link AdaptiveBatching} policy, the batch size and the batching delay are not fixed, but
+ * follow the policy, which adapts them to the processing latency and errors reported by the workers. The configured
+ * maximum batch size and batching delay are then only upper bounds.
+ *
  * @author Tomasz Bak
  */
 class AcceptorExecutor<ID, T> {
 
     private static final Logger logger = LoggerFactory.getLogger(AcceptorExecutor.class);
 
+    /**
+     * The task queues can hold at least this many tasks, so a burst of tasks is not dropped before the acceptor
+     * thread gets to apply the buffer overflow policy, even with a small buffer.
+     */
+    private static final int MIN_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The longest time the acceptor thread parks without a signal, as a safeguard.
+     */
+    private static final long MAX_PARK_TIME_MS = 1000;
+
     private final String id;
     private final int maxBufferSize;
     private final int maxBatchingSize;
     private final long maxBatchingDelay;
+    private final AdaptiveBatching adaptiveBatching;
 
     private final AtomicBoolean isShutdown = new AtomicBoolean(false);
 
-    private final BlockingQueue<TaskHolder<ID, T>> acceptorQueue = new LinkedBlockingQueue<>();
-    private final BlockingDeque<TaskHolder<ID, T>> reprocessQueue = new LinkedBlockingDeque<>();
+    private final MpscArrayQueue<TaskHolder<ID, T>> acceptorQueue;
+    private final MpscArrayQueue<TaskHolder<ID, T>> reprocessQueue;
     private final Thread acceptorThread;
+    private volatile boolean acceptorParked;
+    private volatile boolean signalled;
 
     private final Map<ID, TaskHolder<ID, T>> pendingTasks = new HashMap<>();
-    private final Deque<ID> processingOrder = new LinkedList<>();
+    private final List<Deque<ID>> processingOrders = new ArrayList<>();
 
-    private final Semaphore singleItemWorkRequests = new Semaphore(0);
-    private final BlockingQueue<TaskHolder<ID, T>> singleItemWorkQueue = new LinkedBlockingQueue<>();
-
-    private final Semaphore batchWorkRequests = new Semaphore(0);
-    private final BlockingQueue<List<TaskHolder<ID, T>>> batchWorkQueue = new LinkedBlockingQueue<>();
+    private final Queue<WorkRequest<TaskHolder<ID, T>>> singleItemWorkRequests = new ConcurrentLinkedQueue<>();
+    private final Queue<WorkRequest<List<TaskHolder<ID, T>>>> batchWorkRequests = new ConcurrentLinkedQueue<>();
 
     private final TrafficShaper trafficShaper;
 
@@ -95,16 +123,27 @@ class AcceptorExecutor<ID, T> {
                      long maxBatchingDelay,
                      long congestionRetryDelayMs,
                      long networkFailureRetryMs) {
+        this(id, maxBufferSize, maxBatchingSize, maxBatchingDelay, congestionRetryDelayMs, networkFailureRetryMs, null);
+    }
+
+    AcceptorExecutor(String id,
+                     int maxBufferSize,
+                     int maxBatchingSize,
+                     long maxBatchingDelay,
+                     long congestionRetryDelayMs,
+                     long networkFailureRetryMs,
+                     AdaptiveBatching adaptiveBatching) {
         this.id = id;
         this.maxBufferSize = maxBufferSize;
         this.maxBatchingSize = maxBatchingSize;
         this.maxBatchingDelay = maxBatchingDelay;
+        this.adaptiveBatching = adaptiveBatching;
         this.trafficShaper = new TrafficShaper(congestionRetryDelayMs, networkFailureRetryMs);
-
-        ThreadGroup threadGroup = new ThreadGroup("eurekaTaskExecutors");
-        this.acceptorThread = new Thread(threadGroup, new AcceptorRunner(), "TaskAcceptor-" + id);
-        this.acceptorThread.setDaemon(true);
-        this.acceptorThread.start();
+        this.acceptorQueue = new MpscArrayQueue<>(Math.max(MIN_QUEUE_CAPACITY, maxBufferSize));
+        this.reprocessQueue = new MpscArrayQueue<>(Math.max(MIN_QUEUE_CAPACITY, maxBufferSize));
+        for (int i = 0; i < TaskPriority.values().length; i++) {
+            processingOrders.add(new ArrayDeque<ID>());
+        }
 
         final double[] percentiles = {50.0, 95.0, 99.0, 99.5};
         final StatsConfig statsConfig = new StatsConfig.Builder()
@@ -119,33 +158,70 @@ class AcceptorExecutor<ID, T> {
         } catch (Throwable e) {
             logger.warn("Cannot register servo monitor for this object", e);
         }
+
+        ThreadGroup threadGroup = new ThreadGroup("eurekaTaskExecutors");
+        this.acceptorThread = new Thread(threadGroup, new AcceptorRunner(), "TaskAcceptor-" + id);
+        this.acceptorThread.setDaemon(true);
+        this.acceptorThread.start();
     }
 
     void process(ID id, T task, long expiryTime) {
-        acceptorQueue.add(new TaskHolder<ID, T>(id, task, expiryTime));
-        acceptedTasks++;
+        process(id, task, expiryTime, TaskPriority.Normal);
+    }
+
+    void process(ID id, T task, long expiryTime, TaskPriority priority) {
+        if (acceptorQueue.offer(new TaskHolder<ID, T>(id, task, expiryTime, priority))) {
+            acceptedTasks++;
+            signalAcceptor();
+        } else {
+            queueOverflows++;
+        }
     }
 
     void reprocess(List<TaskHolder<ID, T>> holders, ProcessingResult processingResult) {
-        reprocessQueue.addAll(holders);
+        for (TaskHolder<ID, T> holder : holders) {
+            if (!reprocessQueue.offer(holder)) {
+                queueOverflows++;
+            }
+        }
         replayedTasks += holders.size();
         trafficShaper.registerFailure(processingResult);
+        signalAcceptor();
     }
 
     void reprocess(TaskHolder<ID, T> taskHolder, ProcessingResult processingResult) {
-        reprocessQueue.add(taskHolder);
+        if (!reprocessQueue.offer(taskHolder)) {
+            queueOverflows++;
+        }
         replayedTasks++;
         trafficShaper.registerFailure(processingResult);
+        signalAcceptor();
+    }
+
+    void registerBatchResult(ProcessingResult processingResult, long startTime, long latencyMs) {
+        if (adaptiveBatching != null) {
+            adaptiveBatching.registerBatchResult(processingResult, startTime, latencyMs);
+        }
     }
 
-    BlockingQueue<TaskHolder<ID, T>> requestWorkItem() {
-        singleItemWorkRequests.release();
-        return singleItemWorkQueue;
+    /**
+     * The returned work queue is to be polled by the calling thread.
+     */
+    WorkQueue<TaskHolder<ID, T>> requestWorkItem() {
+        WorkRequest<TaskHolder<ID, T>> request = new WorkRequest<>();
+        singleItemWorkRequests.add(request);
+        signalAcceptor();
+        return request;
     }
 
-    BlockingQueue<List<TaskHolder<ID, T>>> requestWorkItems() {
-        batchWorkRequests.release();
-        return batchWorkQueue;
+    /**
+     * The returned work queue is to be polled by the calling thread.
+     */
+    WorkQueue<List<TaskHolder<ID, T>>> requestWorkItems() {
+        WorkRequest<List<TaskHolder<ID, T>>> request = new WorkRequest<>();
+        batchWorkRequests.add(request);
+        signalAcceptor();
+        return request;
     }
 
     void shutdown() {
@@ -155,6 +231,19 @@ class AcceptorExecutor<ID, T> {
         }
     }
 
+    /**
+     * Wakes up the acceptor thread if it is parked, unless it has already been signalled since it last looked for
+     * input. As the acceptor thread publishes that it is parked before checking the signal, a signal is never lost.
+     */
+    private void signalAcceptor() {
+        if (!signalled) {
+            signalled = true;
+            if (acceptorParked) {
+                LockSupport.unpark(acceptorThread);
+            }
+        }
+    }
+
     @Monitor(name = METRIC_REPLICATION_PREFIX + "acceptorQueueSize", description = "Number of tasks waiting in the acceptor queue", type = DataSourceType.GAUGE)
     public long getAcceptorQueueSize() {
         return acceptorQueue.size();
@@ -170,42 +259,109 @@ class AcceptorExecutor<ID, T> {
         return pendingTasks.size();
     }
 
+    @Monitor(name = METRIC_REPLICATION_PREFIX + "highPriorityQueueSize", description = "Number of pending high priority tasks", type = DataSourceType.GAUGE)
+    public long getHighPriorityQueueSize() {
+        return processingOrders.get(TaskPriority.High.ordinal()).size();
+    }
+
+    @Monitor(name = METRIC_REPLICATION_PREFIX + "normalPriorityQueueSize", description = "Number of pending normal priority tasks", type = DataSourceType.GAUGE)
+    public long getNormalPriorityQueueSize() {
+        return processingOrders.get(TaskPriority.Normal.ordinal()).size();
+    }
+
+    @Monitor(name = METRIC_REPLICATION_PREFIX + "lowPriorityQueueSize", description = "Number of pending low priority tasks", type = DataSourceType.GAUGE)
+    public long getLowPriorityQueueSize() {
+        return processingOrders.get(TaskPriority.Low.ordinal()).size();
+    }
+
     @Monitor(name = METRIC_REPLICATION_PREFIX + "pendingJobRequests", description = "Number of worker threads awaiting job assignment", type = DataSourceType.GAUGE)
     public long getPendingJobRequests() {
-        return singleItemWorkRequests.availablePermits() + batchWorkRequests.availablePermits();
+        return singleItemWorkRequests.size() + batchWorkRequests.size();
     }
 
-    @Monitor(name = METRIC_REPLICATION_PREFIX + "availableJobs", description = "Number of jobs ready to be taken by the workers", type = DataSourceType.GAUGE)
-    public long workerTaskQueueSize() {
-        return singleItemWorkQueue.size() + batchWorkQueue.size();
+    @Monitor(name = METRIC_REPLICATION_PREFIX + "batchingSize", description = "Current maximum batch size", type = DataSourceType.GAUGE)
+    public long getBatchingSize() {
+        return adaptiveBatching == null ? maxBatchingSize : Math.min(maxBatchingSize, adaptiveBatching.getBatchSize());
+    }
+
+    @Monitor(name = METRIC_REPLICATION_PREFIX + "batchingDelay", description = "Current batching delay in milliseconds", type = DataSourceType.GAUGE)
+    public long getBatchingDelay() {
+        return adaptiveBatching == null ? maxBatchingDelay : Math.min(maxBatchingDelay, adaptiveBatching.getBatchingDelay());
+    }
+
+    /**
+     * The work assigned to a worker, in response to its request.
+     */
+    interface WorkQueue<W> {
+
+        /**
+         * @return the work, or null if none was assigned within the timeout
+         */
+        W poll(long timeout, TimeUnit unit) throws InterruptedException;
+    }
+
+    /**
+     * A single work request, through which the acceptor thread hands the work directly to the requesting thread.
+     */
+    static class WorkRequest<W> implements WorkQueue<W> {
+
+        private final Thread requester = Thread.currentThread();
+        private volatile W work;
+
+        void assign(W work) {
+            this.work = work;
+            LockSupport.unpark(requester);
+        }
+
+        @Override
+        public W poll(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            W result;
+            while ((result = work) == null) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            work = null;
+            return result;
+        }
     }
 
     class AcceptorRunner implements Runnable {
+
+        private final List<TaskHolder<ID, T>> reprocessedTasks = new ArrayList<>();
+
         @Override
         public void run() {
             long scheduleTime = 0;
             while (!isShutdown.get()) {
                 try {
+                    signalled = false;
+                    // Only the requests made before draining the input are served, so the tasks a worker
+                    // re-processed before requesting more work are taken into account
+                    int singleItemRequests = singleItemWorkRequests.size();
+                    int batchRequests = batchWorkRequests.size();
                     drainInputQueues();
 
-                    int totalItems = processingOrder.size();
-
                     long now = System.currentTimeMillis();
                     if (scheduleTime < now) {
                         scheduleTime = now + trafficShaper.transmissionDelay();
                     }
+                    long wakeUpTime;
                     if (scheduleTime <= now) {
-                        assignBatchWork();
-                        assignSingleItemWork();
-                    }
-
-                    // If no worker is requesting data or there is a delay injected by the traffic shaper,
-                    // sleep for some time to avoid tight loop.
-                    if (totalItems == processingOrder.size()) {
-                        Thread.sleep(10);
+                        assignBatchWork(batchRequests);
+                        assignSingleItemWork(singleItemRequests);
+                        wakeUpTime = nextBatchTime(now);
+                    } else {
+                        // Delay injected by the traffic shaper
+                        wakeUpTime = scheduleTime;
                     }
-                } catch (InterruptedException ex) {
-                    // Ignore
+                    park(wakeUpTime - now);
                 } catch (Throwable e) {
                     // Safe-guard, so we never exit this loop in an uncontrolled way.
                     logger.warn("Discovery AcceptorThread error", e);
@@ -213,121 +369,193 @@ class AcceptorExecutor<ID, T> {
             }
         }
 
+        private void park(long delayMs) {
+            if (delayMs <= 0) {
+                return;
+            }
+            acceptorParked = true;
+            if (!signalled && acceptorQueue.isEmpty()) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(delayMs));
+            }
+            acceptorParked = false;
+            // Interrupts only matter on shutdown, which the loop checks, and would otherwise keep parking from blocking
+            Thread.interrupted();
+        }
+
+        /**
+         * @return the time at which the oldest pending task has waited the batching delay, if a worker is waiting for
+         * a batch, as no sooner batch can be assigned without a signal
+         */
+        private long nextBatchTime(long now) {
+            if (pendingTasks.isEmpty() || batchWorkRequests.isEmpty()) {
+                return now + MAX_PARK_TIME_MS;
+            }
+            return Math.min(oldestSubmitTimestamp() + getBatchingDelay(), now + MAX_PARK_TIME_MS);
+        }
+
         private boolean isFull() {
             return pendingTasks.size() >= maxBufferSize;
         }
 
-        private void drainInputQueues() throws InterruptedException {
-            do {
-                drainReprocessQueue();
-                drainAcceptorQueue();
+        private Deque<ID> processingOrderOf(TaskHolder<ID, T> taskHolder) {
+            return processingOrders.get(taskHolder.getPriority().ordinal());
+        }
 
-                if (isShutdown.get()) {
-                    break;
+        /**
+         * @return the id of the next task from the highest priority lane, or null if there is no pending task
+         */
+        private ID pollNextId() {
+            for (Deque<ID> processingOrder : processingOrders) {
+                ID id = processingOrder.poll();
+                if (id != null) {
+                    return id;
                 }
-                // If all queues are empty, block for a while on the acceptor queue
-                if (reprocessQueue.isEmpty() && acceptorQueue.isEmpty() && pendingTasks.isEmpty()) {
-                    TaskHolder<ID, T> taskHolder = acceptorQueue.poll(10, TimeUnit.MILLISECONDS);
-                    if (taskHolder != null) {
-                        appendTaskHolder(taskHolder);
-                    }
+            }
+            return null;
+        }
+
+        /**
+         * @return the submit time of the oldest task at the head of a lane, to be called with pending tasks only
+         */
+        private long oldestSubmitTimestamp() {
+            long oldest = Long.MAX_VALUE;
+            for (Deque<ID> processingOrder : processingOrders) {
+                ID id = processingOrder.peek();
+                if (id != null) {
+                    oldest = Math.min(oldest, pendingTasks.get(id).getSubmitTimestamp());
                 }
-            } while (!reprocessQueue.isEmpty() || !acceptorQueue.isEmpty() || pendingTasks.isEmpty());
+            }
+            return oldest;
+        }
+
+        /**
+         * Drops the oldest task of the lowest priority lane, among the lanes from the given one down.
+         *
+         * @return false if there is no task in these lanes
+         */
+        private boolean dropLowestPriorityTask(int highestLane) {
+            for (int i = processingOrders.size() - 1; i >= highestLane; i--) {
+                ID id = processingOrders.get(i).poll();
+                if (id != null) {
+                    pendingTasks.remove(id);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void drainInputQueues() {
+            drainReprocessQueue();
+            drainAcceptorQueue();
         }
 
+        /**
+         * Takes at most a queue capacity of tasks, so a constant stream of tasks does not hold back the dispatching.
+         */
         private void drainAcceptorQueue() {
-            while (!acceptorQueue.isEmpty()) {
-                appendTaskHolder(acceptorQueue.poll());
+            TaskHolder<ID, T> taskHolder;
+            for (int i = acceptorQueue.capacity(); i > 0 && (taskHolder = acceptorQueue.poll()) != null; i--) {
+                appendTaskHolder(taskHolder);
             }
         }
 
+        /**
+         * Puts the re-processed tasks in front of the pending ones, in the order they were re-processed.
+         */
         private void drainReprocessQueue() {
+            TaskHolder<ID, T> taskHolder;
+            while ((taskHolder = reprocessQueue.poll()) != null) {
+                reprocessedTasks.add(taskHolder);
+            }
             long now = System.currentTimeMillis();
-            while (!reprocessQueue.isEmpty() && !isFull()) {
-                TaskHolder<ID, T> taskHolder = reprocessQueue.pollLast();
+            for (int idx = reprocessedTasks.size() - 1; idx >= 0; idx--) {
+                taskHolder = reprocessedTasks.get(idx);
                 ID id = taskHolder.getId();
                 if (taskHolder.getExpiryTime() <= now) {
                     expiredTasks++;
                 } else if (pendingTasks.containsKey(id)) {
                     overriddenTasks++;
                 } else {
+                    if (isFull()) {
+                        queueOverflows++;
+                        // Only tasks of a lower priority make room, as the oldest ones of the same priority are
+                        // the re-processed tasks themselves
+                        if (!dropLowestPriorityTask(taskHolder.getPriority().ordinal() + 1)) {
+                            continue;
+                        }
+                    }
                     pendingTasks.put(id, taskHolder);
-                    processingOrder.addFirst(id);
+                    processingOrderOf(taskHolder).addFirst(id);
                 }
             }
-            if (isFull()) {
-                queueOverflows += reprocessQueue.size();
-                reprocessQueue.clear();
-            }
+            reprocessedTasks.clear();
         }
 
         private void appendTaskHolder(TaskHolder<ID, T> taskHolder) {
-            if (isFull()) {
-                pendingTasks.remove(processingOrder.poll());
+            if (isFull() && !pendingTasks.containsKey(taskHolder.getId())) {
                 queueOverflows++;
+                if (!dropLowestPriorityTask(taskHolder.getPriority().ordinal())) {
+                    return;
+                }
             }
             TaskHolder<ID, T> previousTask = pendingTasks.put(taskHolder.getId(), taskHolder);
             if (previousTask == null) {
-                processingOrder.add(taskHolder.getId());
+                processingOrderOf(taskHolder).add(taskHolder.getId());
             } else {
                 overriddenTasks++;
             }
         }
 
-        void assignSingleItemWork() {
-            if (!processingOrder.isEmpty()) {
-                if (singleItemWorkRequests.tryAcquire(1)) {
-                    long now = System.currentTimeMillis();
-                    while (!processingOrder.isEmpty()) {
-                        ID id = processingOrder.poll();
-                        TaskHolder<ID, T> holder = pendingTasks.remove(id);
-                        if (holder.getExpiryTime() > now) {
-                            singleItemWorkQueue.add(holder);
-                            return;
-                        }
-                        expiredTasks++;
-                    }
-                    singleItemWorkRequests.release();
+        void assignSingleItemWork(int requests) {
+            long now = System.currentTimeMillis();
+            while (requests > 0 && !pendingTasks.isEmpty()) {
+                ID id = pollNextId();
+                TaskHolder<ID, T> holder = pendingTasks.remove(id);
+                if (holder.getExpiryTime() > now) {
+                    singleItemWorkRequests.poll().assign(holder);
+                    requests--;
+                } else {
+                    expiredTasks++;
                 }
             }
         }
 
-        void assignBatchWork() {
-            if (hasEnoughTasksForNextBatch()) {
-                if (batchWorkRequests.tryAcquire(1)) {
-                    long now = System.currentTimeMillis();
-                    int len = Math.min(maxBatchingSize, processingOrder.size());
-                    List<TaskHolder<ID, T>> holders = new ArrayList<>(len);
-                    while (holders.size() < len && !processingOrder.isEmpty()) {
-                        ID id = processingOrder.poll();
-                        TaskHolder<ID, T> holder = pendingTasks.remove(id);
-                        if (holder.getExpiryTime() > now) {
-                            holders.add(holder);
-                        } else {
-                            expiredTasks++;
-                        }
-                    }
-                    if (holders.isEmpty()) {
-                        batchWorkRequests.release();
+        void assignBatchWork(int requests) {
+            while (requests > 0 && hasEnoughTasksForNextBatch()) {
+                long now = System.currentTimeMillis();
+                int len = (int) Math.min(getBatchingSize(), pendingTasks.size());
+                List<TaskHolder<ID, T>> holders = new ArrayList<>(len);
+                while (holders.size() < len && !pendingTasks.isEmpty()) {
+                    ID id = pollNextId();
+                    TaskHolder<ID, T> holder = pendingTasks.remove(id);
+                    if (holder.getExpiryTime() > now) {
+                        holders.add(holder);
                     } else {
-                        batchSizeMetric.record(holders.size(), TimeUnit.MILLISECONDS);
-                        batchWorkQueue.add(holders);
+                        expiredTasks++;
                     }
                 }
+                if (!holders.isEmpty()) {
+                    batchSizeMetric.record(holders.size(), TimeUnit.MILLISECONDS);
+                    batchWorkRequests.poll().assign(holders);
+                    requests--;
+                }
             }
         }
 
         private boolean hasEnoughTasksForNextBatch() {
-            if (processingOrder.isEmpty()) {
+            if (pendingTasks.isEmpty()) {
                 return false;
             }
             if (pendingTasks.size() >= maxBufferSize) {
                 return true;
             }
+            // With adaptive batching, a full batch is not held back by the batching delay
+            if (adaptiveBatching != null && pendingTasks.size() >= getBatchingSize()) {
+                return true;
+            }
 
-            TaskHolder<ID, T> nextHolder = pendingTasks.get(processingOrder.peek());
-            long delay = System.currentTimeMillis() - nextHolder.getSubmitTimestamp();
-            return delay >= maxBatchingDelay;
+            long delay = System.currentTimeMillis() - oldestSubmitTimestamp();
+            return delay >= getBatchingDelay();
         }
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.eureka.util.batcher;
+
+import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
+
+/**
+ * Adapts the batch size, and the delay the {@link AcceptorExecutor} waits for tasks before dispatching a batch, to
+ * how fast the batches are processed, in the additive increase / multiplicative decrease manner of TCP congestion
+ * control.
+ * <p>
+ * It starts with the smallest batches and the longest delay. Each batch processed successfully within the target
+ * latency grows the batch size by the minimum batch size, and shortens the delay by the minimum delay. A batch that
+ * is too slow, or fails with a congestion or a transient error, halves the batch size and doubles the delay. As
+ * several batches are processed concurrently, a back off only happens once for all the batches dispatched before
+ * the previous one, that is for the batches already in flight when the peer got into trouble. Permanent errors are
+ * not related to the load of the peer, and are ignored.
+ */
+class AdaptiveBatching {
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long minBatchingDelay;
+    private final long maxBatchingDelay;
+    private final long targetLatencyMs;
+
+    private volatile int batchSize;
+    private volatile long batchingDelay;
+    private long lastBackOffTime;
+
+    AdaptiveBatching(int minBatchSize, int maxBatchSize, long minBatchingDelay, long maxBatchingDelay, long targetLatencyMs) {
+        this.minBatchSize = Math.max(1, minBatchSize);
+        this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+        this.minBatchingDelay = Math.max(1, minBatchingDelay);
+        this.maxBatchingDelay = Math.max(this.minBatchingDelay, maxBatchingDelay);
+        this.targetLatencyMs = targetLatencyMs;
+        this.batchSize = this.minBatchSize;
+        this.batchingDelay = this.maxBatchingDelay;
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    long getBatchingDelay() {
+        return batchingDelay;
+    }
+
+    /**
+     * @param startTime the time the processing of the batch started
+     * @param latencyMs the time it took to process the batch
+     */
+    synchronized void registerBatchResult(ProcessingResult result, long startTime, long latencyMs) {
+        switch (result) {
+            case Success:
+                if (latencyMs <= targetLatencyMs) {
+                    increase();
+                } else {
+                    backOff(startTime);
+                }
+                break;
+            case Congestion:
+            case TransientError:
+                backOff(startTime);
+                break;
+            case PermanentError:
+                break;
+        }
+    }
+
+    private void increase() {
+        batchSize = Math.min(maxBatchSize, batchSize + minBatchSize);
+        batchingDelay = Math.max(minBatchingDelay, batchingDelay - minBatchingDelay);
+    }
+
+    private void backOff(long startTime) {
+        if (startTime < lastBackOffTime) {
+            return;
+        }
+        lastBackOffTime = System.currentTimeMillis();
+        batchSize = Math.max(minBatchSize, batchSize / 2);
+        batchingDelay = Math.min(maxBatchingDelay, batchingDelay * 2);
+    }
+}
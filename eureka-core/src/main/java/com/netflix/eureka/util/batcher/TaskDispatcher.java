@@ -12,12 +12,20 @@ package com.netflix.eureka.util.batcher;
  * <h3>Execution modes</h3>
  * To create non batched executor call {@link TaskDispatchers#createNonBatchingTaskDispatcher(String, int, int, long, long, TaskProcessor)}
  * method. Batched executor is created by {@link TaskDispatchers#createBatchingTaskDispatcher(String, int, int, int, long, long, TaskProcessor)}.
+ * <h3>Priorities</h3>
+ * Each task belongs to a {@link TaskPriority} class, {@link TaskPriority#Normal} unless given. Tasks of a higher
+ * priority are dispatched before the others, and when the buffer is full, the tasks of the lowest priority are
+ * dropped first.
  *
  * @author Tomasz Bak
  */
 public interface TaskDispatcher<ID, T> {
 
-    void process(ID id, T task, long expiryTime);
+    default void process(ID id, T task, long expiryTime) {
+        process(id, task, expiryTime, TaskPriority.Normal);
+    }
+
+    void process(ID id, T task, long expiryTime, TaskPriority priority);
 
     void shutdown();
 }
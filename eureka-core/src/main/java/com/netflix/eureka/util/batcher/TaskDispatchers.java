@@ -20,8 +20,8 @@ public class TaskDispatchers {
         final TaskExecutors<ID, T> taskExecutor = TaskExecutors.singleItemExecutors(id, workerCount, taskProcessor, acceptorExecutor);
         return new TaskDispatcher<ID, T>() {
             @Override
-            public void process(ID id, T task, long expiryTime) {
-                acceptorExecutor.process(id, task, expiryTime);
+            public void process(ID id, T task, long expiryTime, TaskPriority priority) {
+                acceptorExecutor.process(id, task, expiryTime, priority);
             }
 
             @Override
@@ -46,8 +46,47 @@ public class TaskDispatchers {
         final TaskExecutors<ID, T> taskExecutor = TaskExecutors.batchExecutors(id, workerCount, taskProcessor, acceptorExecutor);
         return new TaskDispatcher<ID, T>() {
             @Override
-            public void process(ID id, T task, long expiryTime) {
-                acceptorExecutor.process(id, task, expiryTime);
+            public void process(ID id, T task, long expiryTime, TaskPriority priority) {
+                acceptorExecutor.process(id, task, expiryTime, priority);
+            }
+
+            @Override
+            public void shutdown() {
+                acceptorExecutor.shutdown();
+                taskExecutor.shutdown();
+            }
+        };
+    }
+
+    /**
+     * Creates a batching dispatcher with an {@link AdaptiveBatching} policy, which adapts the batch size between
+     * the minimum and maximum workload sizes, and the batching delay between the minimum and maximum delays, to the
+     * processing latency of the batches and to the errors.
+     *
+     * @param targetLatencyMs the longest batch processing time still considered healthy
+     */
+    public static <ID, T> TaskDispatcher<ID, T> createAdaptiveBatchingTaskDispatcher(String id,
+                                                                                     int maxBufferSize,
+                                                                                     int minWorkloadSize,
+                                                                                     int maxWorkloadSize,
+                                                                                     int workerCount,
+                                                                                     long minBatchingDelay,
+                                                                                     long maxBatchingDelay,
+                                                                                     long targetLatencyMs,
+                                                                                     long congestionRetryDelayMs,
+                                                                                     long networkFailureRetryMs,
+                                                                                     TaskProcessor<T> taskProcessor) {
+        final AdaptiveBatching adaptiveBatching = new AdaptiveBatching(
+                minWorkloadSize, maxWorkloadSize, minBatchingDelay, maxBatchingDelay, targetLatencyMs
+        );
+        final AcceptorExecutor<ID, T> acceptorExecutor = new AcceptorExecutor<>(
+                id, maxBufferSize, maxWorkloadSize, maxBatchingDelay, congestionRetryDelayMs, networkFailureRetryMs, adaptiveBatching
+        );
+        final TaskExecutors<ID, T> taskExecutor = TaskExecutors.batchExecutors(id, workerCount, taskProcessor, acceptorExecutor);
+        return new TaskDispatcher<ID, T>() {
+            @Override
+            public void process(ID id, T task, long expiryTime, TaskPriority priority) {
+                acceptorExecutor.process(id, task, expiryTime, priority);
             }
 
             @Override
@@ -1,13 +1,16 @@
 package com.netflix.eureka.util.batcher;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.netflix.eureka.util.batcher.AcceptorExecutor.WorkQueue;
 import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
 import com.netflix.servo.annotations.DataSourceType;
 import com.netflix.servo.annotations.Monitor;
@@ -94,6 +97,7 @@ class TaskExecutors<ID, T> {
         volatile long numberOfCongestionIssues;
 
         final StatsTimer taskWaitingTimeForProcessing;
+        final StatsTimer batchProcessingTime;
 
         TaskExecutorMetrics(String id) {
             final double[] percentiles = {50.0, 95.0, 99.0, 99.5};
@@ -104,6 +108,7 @@ class TaskExecutors<ID, T> {
                     .build();
             final MonitorConfig config = MonitorConfig.builder(METRIC_REPLICATION_PREFIX + "executionTime").build();
             taskWaitingTimeForProcessing = new StatsTimer(config, statsConfig);
+            batchProcessingTime = new StatsTimer(MonitorConfig.builder(METRIC_REPLICATION_PREFIX + "batchProcessingTime").build(), statsConfig);
 
             try {
                 Monitors.registerObject(id, this);
@@ -187,18 +192,27 @@ class TaskExecutors<ID, T> {
                     metrics.registerExpiryTimes(holders);
 
                     List<T> tasks = getTasksOf(holders);
-                    ProcessingResult result = processor.process(tasks);
+                    List<T> failedTasks = new ArrayList<>();
+                    long startTime = System.currentTimeMillis();
+                    ProcessingResult result = processor.process(tasks, failedTasks);
+                    long latencyMs = System.currentTimeMillis() - startTime;
+                    metrics.batchProcessingTime.record(latencyMs, TimeUnit.MILLISECONDS);
+                    taskDispatcher.registerBatchResult(result, startTime, latencyMs);
+                    if (result == ProcessingResult.Success) {
+                        metrics.registerTaskResult(result, tasks.size());
+                        continue;
+                    }
+                    List<TaskHolder<ID, T>> failedHolders = getHoldersOf(holders, failedTasks);
                     switch (result) {
-                        case Success:
-                            break;
                         case Congestion:
                         case TransientError:
-                            taskDispatcher.reprocess(holders, result);
+                            taskDispatcher.reprocess(failedHolders, result);
                             break;
                         case PermanentError:
-                            logger.warn("Discarding {} tasks of {} due to permanent error", holders.size(), workerName);
+                            logger.warn("Discarding {} tasks of {} due to permanent error", failedHolders.size(), workerName);
                     }
-                    metrics.registerTaskResult(result, tasks.size());
+                    metrics.registerTaskResult(ProcessingResult.Success, holders.size() - failedHolders.size());
+                    metrics.registerTaskResult(result, failedHolders.size());
                 }
             } catch (InterruptedException e) {
                 // Ignore
@@ -209,7 +223,7 @@ class TaskExecutors<ID, T> {
         }
 
         private List<TaskHolder<ID, T>> getWork() throws InterruptedException {
-            BlockingQueue<List<TaskHolder<ID, T>>> workQueue = taskDispatcher.requestWorkItems();
+            WorkQueue<List<TaskHolder<ID, T>>> workQueue = taskDispatcher.requestWorkItems();
             List<TaskHolder<ID, T>> result;
             do {
                 result = workQueue.poll(1, TimeUnit.SECONDS);
@@ -224,6 +238,21 @@ class TaskExecutors<ID, T> {
             }
             return tasks;
         }
+
+        private List<TaskHolder<ID, T>> getHoldersOf(List<TaskHolder<ID, T>> holders, List<T> tasks) {
+            if (tasks.size() == holders.size()) {
+                return holders;
+            }
+            Set<T> taskSet = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+            taskSet.addAll(tasks);
+            List<TaskHolder<ID, T>> result = new ArrayList<>(tasks.size());
+            for (TaskHolder<ID, T> holder : holders) {
+                if (taskSet.contains(holder.getTask())) {
+                    result.add(holder);
+                }
+            }
+            return result;
+        }
     }
 
     static class SingleTaskWorkerRunnable<ID, T> extends WorkerRunnable<ID, T> {
@@ -240,7 +269,7 @@ class TaskExecutors<ID, T> {
         public void run() {
             try {
                 while (!isShutdown.get()) {
-                    BlockingQueue<TaskHolder<ID, T>> workQueue = taskDispatcher.requestWorkItem();
+                    WorkQueue<TaskHolder<ID, T>> workQueue = taskDispatcher.requestWorkItem();
                     TaskHolder<ID, T> taskHolder;
                     while ((taskHolder = workQueue.poll(1, TimeUnit.SECONDS)) == null) {
                         if (isShutdown.get()) {
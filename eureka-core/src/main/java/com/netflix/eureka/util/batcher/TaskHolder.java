@@ -8,12 +8,18 @@ class TaskHolder<ID, T> {
     private final ID id;
     private final T task;
     private final long expiryTime;
+    private final TaskPriority priority;
     private final long submitTimestamp;
 
     TaskHolder(ID id, T task, long expiryTime) {
+        this(id, task, expiryTime, TaskPriority.Normal);
+    }
+
+    TaskHolder(ID id, T task, long expiryTime, TaskPriority priority) {
         this.id = id;
         this.expiryTime = expiryTime;
         this.task = task;
+        this.priority = priority;
         this.submitTimestamp = System.currentTimeMillis();
     }
 
@@ -29,6 +35,10 @@ class TaskHolder<ID, T> {
         return expiryTime;
     }
 
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
     public long getSubmitTimestamp() {
         return submitTimestamp;
     }
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.eureka.util.batcher;
+
+/**
+ * The priority class of a task given to a {@link TaskDispatcher}, from the most to the least important. The tasks
+ * of a higher priority are dispatched first, and when the buffer is full, the tasks of the lowest priority are
+ * dropped first. Within a priority class, the tasks are dispatched in the order they were submitted.
+ */
+public enum TaskPriority {
+    High, Normal, Low
+}
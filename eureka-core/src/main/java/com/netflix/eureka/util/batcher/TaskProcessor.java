@@ -32,4 +32,17 @@ public interface TaskProcessor<T> {
      * error is transient).
      */
     ProcessingResult process(List<T> tasks);
+
+    /**
+     * For batched mode, when some tasks of a batch may fail while the others succeed. The failed tasks are added to
+     * the given list, and are handled according to what is returned, while the other tasks succeeded. By default,
+     * all tasks are handled in the same way, as by {@link #process(List)}.
+     */
+    default ProcessingResult process(List<T> tasks, List<T> failedTasks) {
+        ProcessingResult result = process(tasks);
+        if (result != ProcessingResult.Success) {
+            failedTasks.addAll(tasks);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,39 @@
+package com.netflix.eureka;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.eureka.RateLimitingFilter.Target;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdmissionControllerTest {
+
+    @Test
+    public void testShedRatioFollowsFetchLatency() throws Exception {
+        EurekaServerConfig serverConfig = mock(EurekaServerConfig.class);
+        when(serverConfig.getRateLimiterTargetFetchLatencyMs()).thenReturn(100);
+        AdmissionController admissionController = new AdmissionController(serverConfig, null);
+
+        assertEquals(0, admissionController.getShedRatio(Target.FullFetch), 0.001);
+
+        // Fetches taking 150ms, that is a load of 1.5
+        for (int i = 0; i < 1000; i++) {
+            admissionController.fetchCompleted(TimeUnit.MILLISECONDS.toNanos(150));
+        }
+        assertEquals(1.5, admissionController.getLoad(), 0.01);
+        assertEquals(0.5, admissionController.getShedRatio(Target.FullFetch), 0.01);
+        assertEquals(0, admissionController.getShedRatio(Target.DeltaFetch), 0.001);
+
+        // Fetches taking 1s: as many fetches as possible are shed, but never the other requests
+        for (int i = 0; i < 1000; i++) {
+            admissionController.fetchCompleted(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertEquals(AdmissionController.MAX_SHED_RATIO, admissionController.getShedRatio(Target.FullFetch), 0.001);
+        assertEquals(AdmissionController.MAX_SHED_RATIO, admissionController.getShedRatio(Target.DeltaFetch), 0.001);
+        assertEquals(0, admissionController.getShedRatio(Target.Application), 0.001);
+        assertEquals(0, admissionController.getShedRatio(Target.Other), 0.001);
+    }
+}
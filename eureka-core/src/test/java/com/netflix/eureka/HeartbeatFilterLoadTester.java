@@ -0,0 +1,178 @@
+package com.netflix.eureka;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.DefaultEurekaClientConfig;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.cluster.PeerEurekaNodes;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl;
+import com.netflix.eureka.resources.DefaultServerCodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the throughput of the client heartbeats served by the {@link HeartbeatFilter}, per thread and per
+ * second of CPU time used by the process, that is per core. The requests are light stubs, so the result excludes
+ * the servlet container, but includes everything done for a heartbeat once it reaches the filter. Compare with
+ * {@link com.netflix.eureka.registry.RenewLoadTester} for the cost of the lease renewal alone.
+ *
+ * <p>
+ * Arguments (all optional): thread count, instance count, test duration in seconds.
+ * </p>
+ */
+public class HeartbeatFilterLoadTester {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeartbeatFilterLoadTester.class);
+
+    private static final FilterChain JERSEY_CHAIN = new FilterChain() {
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) {
+            throw new IllegalStateException("Heartbeat was not served by the filter");
+        }
+    };
+
+    private final int threadCount;
+    private final List<HttpServletRequest> requests = new ArrayList<>();
+    private final HttpServletResponse response = stub(HttpServletResponse.class, null);
+    private final HeartbeatFilter filter;
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    public HeartbeatFilterLoadTester(int threadCount, int instanceCount) {
+        this.threadCount = threadCount;
+
+        DefaultEurekaServerConfig serverConfig = new DefaultEurekaServerConfig();
+        PeerAwareInstanceRegistryImpl registry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                mock(EurekaClient.class)
+        ) {
+            {
+                // No peers to replicate the heartbeats to
+                peerEurekaNodes = mock(PeerEurekaNodes.class);
+            }
+        };
+        registry.initializedResponseCache();
+        EurekaServerContext serverContext = mock(EurekaServerContext.class);
+        when(serverContext.getServerConfig()).thenReturn(serverConfig);
+        when(serverContext.getRegistry()).thenReturn(registry);
+        filter = new HeartbeatFilter(serverContext);
+
+        Iterator<InstanceInfo> instanceIt = InstanceInfoGenerator.newBuilder(instanceCount, instanceCount / 10 + 1)
+                .build().serviceIterator();
+        while (instanceIt.hasNext()) {
+            InstanceInfo instanceInfo = instanceIt.next();
+            registry.register(instanceInfo, 90, false);
+            requests.add(stub(HttpServletRequest.class,
+                    "/v2/apps/" + instanceInfo.getAppName() + '/' + instanceInfo.getId()));
+        }
+    }
+
+    public void run(long warmUpSec, long durationSec) throws InterruptedException {
+        final long[] heartbeatCounts = new long[threadCount];
+        final CountDownLatch measureLatch = new CountDownLatch(threadCount);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        final long measureFrom = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(warmUpSec);
+        final com.sun.management.OperatingSystemMXBean osMXBean =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIdx = i;
+            Thread heartbeater = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    long count = 0;
+                    boolean measuring = false;
+                    int requestIdx = threadIdx;
+                    try {
+                        while (running.get()) {
+                            if (!measuring && System.currentTimeMillis() >= measureFrom) {
+                                measuring = true;
+                                count = 0;
+                                measureLatch.countDown();
+                            }
+                            filter.doFilter(requests.get(requestIdx), response, JERSEY_CHAIN);
+                            count++;
+                            requestIdx += threadCount;
+                            if (requestIdx >= requests.size()) {
+                                requestIdx = threadIdx;
+                            }
+                        }
+                    } catch (Exception e) {
+                        logger.error("Heartbeater {} failed", threadIdx, e);
+                    }
+                    heartbeatCounts[threadIdx] = count;
+                    doneLatch.countDown();
+                }
+            }, "Heartbeater-" + i);
+            heartbeater.start();
+        }
+
+        measureLatch.await();
+        long startCpuNanos = osMXBean.getProcessCpuTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSec));
+        running.set(false);
+        doneLatch.await();
+        long cpuNanos = osMXBean.getProcessCpuTime() - startCpuNanos;
+
+        long totalHeartbeats = 0;
+        for (long count : heartbeatCounts) {
+            totalHeartbeats += count;
+        }
+        System.out.printf("Heartbeats=%d, heartbeats/sec/thread=%.0f, heartbeats/cpu-sec=%.0f%n",
+                totalHeartbeats,
+                totalHeartbeats / (double) durationSec / threadCount,
+                cpuNanos == 0 ? 0.0 : totalHeartbeats / (cpuNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * @return a stub of a servlet request or response, returning only the values the filter needs for a heartbeat
+     */
+    private static <T> T stub(Class<T> type, final String requestURI) {
+        return type.cast(Proxy.newProxyInstance(HeartbeatFilterLoadTester.class.getClassLoader(), new Class<?>[]{type},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        switch (method.getName()) {
+                            case "getMethod":
+                                return "PUT";
+                            case "getRequestURI":
+                                return requestURI;
+                            case "getContextPath":
+                                return "";
+                            default:
+                                return null;
+                        }
+                    }
+                }));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int instanceCount = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        long durationSec = args.length > 2 ? Long.parseLong(args[2]) : 30;
+
+        new HeartbeatFilterLoadTester(threadCount, instanceCount).run(5, durationSec);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.netflix.eureka;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.util.EurekaMonitors;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HeartbeatFilterTest extends AbstractTester {
+
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain filterChain;
+    private HeartbeatFilter filter;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        registerInstanceLocally(createLocalInstance(LOCAL_REGION_INSTANCE_1_HOSTNAME));
+
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        filterChain = mock(FilterChain.class);
+        filter = new HeartbeatFilter(serverContext);
+    }
+
+    @Test
+    public void testClientHeartbeatRenewsLease() throws Exception {
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME.toLowerCase() + "/foo");
+        long renewCount = EurekaMonitors.RENEW.getCount();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(filterChain, never()).doFilter(request, response);
+        assertEquals(renewCount + 1, EurekaMonitors.RENEW.getCount());
+    }
+
+    @Test
+    public void testHeartbeatOfUnknownInstance() throws Exception {
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/bar");
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    public void testHeartbeatOfChangedInstanceAsksForRegistration() throws Exception {
+        long registryDirtyTimestamp = registry.getInstanceByAppAndId(LOCAL_REGION_APP_NAME, "foo")
+                .getLastDirtyTimestamp();
+
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/foo");
+        when(request.getParameter("lastDirtyTimestamp")).thenReturn(Long.toString(registryDirtyTimestamp + 1));
+        filter.doFilter(request, response, filterChain);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+
+        when(request.getParameter("lastDirtyTimestamp")).thenReturn(Long.toString(registryDirtyTimestamp - 1));
+        filter.doFilter(request, response, filterChain);
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    public void testReplicatedHeartbeatLeftToJersey() throws Exception {
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/foo");
+        when(request.getHeader(PeerEurekaNode.HEADER_REPLICATION)).thenReturn("true");
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    public void testOtherRequestsLeftToJersey() throws Exception {
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/foo/status");
+        filter.doFilter(request, response, filterChain);
+
+        whenRequest("GET", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/foo");
+        filter.doFilter(request, response, filterChain);
+
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/foo%3A1");
+        filter.doFilter(request, response, filterChain);
+
+        whenRequest("PUT", "/v2/apps/" + LOCAL_REGION_APP_NAME + "/foo");
+        when(request.getParameter("lastDirtyTimestamp")).thenReturn("notANumber");
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain, times(4)).doFilter(request, response);
+        verify(response, never()).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    private void whenRequest(String method, String path) {
+        when(request.getMethod()).thenReturn(method);
+        when(request.getContextPath()).thenReturn("");
+        when(request.getRequestURI()).thenReturn(path);
+    }
+}
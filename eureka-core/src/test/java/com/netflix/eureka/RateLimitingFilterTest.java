@@ -25,6 +25,8 @@ import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.EurekaClientIdentity;
 import com.netflix.appinfo.MyDataCenterInstanceConfig;
 import com.netflix.config.ConfigurationManager;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.registry.ResponseCache;
 import com.netflix.eureka.util.EurekaMonitors;
 import org.junit.Before;
 import org.junit.Test;
@@ -33,6 +35,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -73,6 +76,9 @@ public class RateLimitingFilterTest {
         ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.registryFetchAverageRate", 1);
         ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.fullFetchAverageRate", 1);
         ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.throttleStandardClients", false);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.adaptive", false);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.perClient", false);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.clientBurstSize", 2);
 
         ApplicationInfoManager applicationInfoManager = new ApplicationInfoManager(new MyDataCenterInstanceConfig());
         DefaultEurekaServerConfig config = new DefaultEurekaServerConfig();
@@ -154,6 +160,113 @@ public class RateLimitingFilterTest {
         verify(response, times(0)).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
     }
 
+    @Test
+    public void testAdaptiveSheddingOfFullFetchesFirst() throws Exception {
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.adaptive", true);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.burstSize", 1000);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.registryFetchAverageRate", 1000);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.fullFetchAverageRate", 1000);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.targetPayloadGenerationMs", 100);
+
+        // Load of 2.5: 90% of the full fetches and 50% of the delta fetches are shed
+        ResponseCache responseCache = mock(ResponseCache.class);
+        when(responseCache.getPayloadGenerationTimeMs()).thenReturn(250L);
+        PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+        when(registry.getResponseCache()).thenReturn(responseCache);
+        EurekaServerContext server = mock(EurekaServerContext.class);
+        when(server.getServerConfig()).thenReturn(new DefaultEurekaServerConfig());
+        when(server.getRegistry()).thenReturn(registry);
+        RateLimitingFilter adaptiveFilter = new RateLimitingFilter(server);
+
+        long rateLimited = EurekaMonitors.RATE_LIMITED.getCount();
+        long shedFullFetches = EurekaMonitors.SHED_FULL_FETCH.getCount();
+        long shedDeltaFetches = EurekaMonitors.SHED_DELTA_FETCH.getCount();
+
+        whenRequest(FULL_FETCH, CUSTOM_CLIENT);
+        sendRequests(adaptiveFilter, 100);
+        long fullFetchesShed = EurekaMonitors.SHED_FULL_FETCH.getCount() - shedFullFetches;
+        assertTrue("Unexpected full fetch shedding: " + fullFetchesShed, fullFetchesShed > 50 && fullFetchesShed < 100);
+
+        whenRequest(DELTA_FETCH, CUSTOM_CLIENT);
+        sendRequests(adaptiveFilter, 100);
+        long deltaFetchesShed = EurekaMonitors.SHED_DELTA_FETCH.getCount() - shedDeltaFetches;
+        assertTrue("Unexpected delta fetch shedding: " + deltaFetchesShed, deltaFetchesShed > 10 && deltaFetchesShed < 90);
+
+        // Privileged clients and other requests are never shed
+        whenRequest(FULL_FETCH, EurekaClientIdentity.DEFAULT_CLIENT_NAME);
+        sendRequests(adaptiveFilter, 100);
+        whenRequest(APP_FETCH, CUSTOM_CLIENT);
+        sendRequests(adaptiveFilter, 100);
+
+        assertEquals(rateLimited + fullFetchesShed + deltaFetchesShed, EurekaMonitors.RATE_LIMITED.getCount());
+        verify(response, times((int) (fullFetchesShed + deltaFetchesShed))).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void testFetchLatencyStopsAtFirstByte() throws Exception {
+        RateLimitingFilter.FirstByteTimingResponse timingResponse = new RateLimitingFilter.FirstByteTimingResponse(response);
+        timingResponse.getOutputStream();
+        long timeToFirstByte = timingResponse.getTimeToFirstByteNanos();
+
+        // Streaming the body, or a slow client, does not count
+        Thread.sleep(50);
+        timingResponse.getOutputStream();
+        timingResponse.flushBuffer();
+        assertEquals(timeToFirstByte, timingResponse.getTimeToFirstByteNanos());
+    }
+
+    @Test
+    public void testPerClientThrottlingSparesOtherClients() throws Exception {
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.perClient", true);
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.burstSize", 4);
+        try {
+            // The custom client exhausts its own buckets
+            whenRequest(FULL_FETCH, CUSTOM_CLIENT);
+            sendRequests(filter, 3);
+            verify(filterChain, times(2)).doFilter(request, response);
+            verify(response, times(1)).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+            // Another client is still served up to its own window limit
+            whenRequest(FULL_FETCH, "OtherClient");
+            sendRequests(filter, 2);
+            verify(filterChain, times(4)).doFilter(request, response);
+            verify(response, times(1)).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+            ClientRateLimiters clientRateLimiters = filter.getClientRateLimiters();
+            assertEquals(2, clientRateLimiters.getClientCount());
+            assertEquals(1, clientRateLimiters.getThrottledCount(CUSTOM_CLIENT));
+            assertEquals(0, clientRateLimiters.getThrottledCount("OtherClient"));
+        } finally {
+            filter.destroy();
+        }
+    }
+
+    @Test
+    public void testPerClientThrottlingKeepsTheGlobalLimit() throws Exception {
+        ConfigurationManager.getConfigInstance().setProperty("eureka.rateLimiter.perClient", true);
+        try {
+            // The custom client empties the global buckets, within its own limit
+            whenRequest(FULL_FETCH, CUSTOM_CLIENT);
+            sendRequests(filter, 2);
+            verify(filterChain, times(2)).doFilter(request, response);
+
+            // Another client is within its own limit, but not within the global one
+            whenRequest(FULL_FETCH, "OtherClient");
+            sendRequests(filter, 1);
+            verify(filterChain, times(2)).doFilter(request, response);
+            verify(response, times(1)).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            assertEquals(0, filter.getClientRateLimiters().getThrottledCount("OtherClient"));
+        } finally {
+            filter.destroy();
+        }
+    }
+
+    private void sendRequests(RateLimitingFilter filter, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            filter.doFilter(request, response, filterChain);
+        }
+    }
+
     private void whenRequest(String path, String client) {
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn(path);
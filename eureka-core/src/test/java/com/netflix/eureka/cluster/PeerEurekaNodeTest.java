@@ -22,10 +22,12 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Tomasz Bak
@@ -83,6 +85,7 @@ public class PeerEurekaNodeTest {
     public void testHeartbeatReplicationFailure() throws Throwable {
         httpReplicationClient.withNetworkStatusCode(200, 200);
         httpReplicationClient.withBatchReply(404); // Not found, to trigger registration
+        when(registry.getInstanceByAppAndId(instanceInfo.getAppName(), instanceInfo.getId(), false)).thenReturn(instanceInfo);
         createPeerEurekaNode().heartbeat(instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, null, false);
 
         // Heartbeat replied with an error
@@ -94,6 +97,19 @@ public class PeerEurekaNodeTest {
         assertThat(replicationInstance.getAction(), is(equalTo(Action.Register)));
     }
 
+    @Test
+    public void testHeartbeatReplicationFailureOfCancelledInstance() throws Throwable {
+        httpReplicationClient.withNetworkStatusCode(200, 200);
+        httpReplicationClient.withBatchReply(404);
+        createPeerEurekaNode().heartbeat(instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, null, false);
+
+        ReplicationInstance replicationInstance = expectSingleBatchRequest();
+        assertThat(replicationInstance.getAction(), is(equalTo(Action.Heartbeat)));
+
+        // The instance is no longer registered locally, so it is not registered again on the peer
+        assertThat(httpReplicationClient.nextHandledRequest(500, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
     @Test
     public void testHeartbeatWithInstanceInfoFromPeer() throws Throwable {
         InstanceInfo instanceInfoFromPeer = ClusterSampleData.newInstanceInfo(2);
@@ -1,10 +1,20 @@
 package com.netflix.eureka.cluster;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.cluster.TestableHttpReplicationClient.HandledRequest;
+import com.netflix.eureka.cluster.TestableHttpReplicationClient.RequestType;
 import com.netflix.eureka.cluster.TestableInstanceReplicationTask.ProcessingState;
+import com.netflix.eureka.cluster.TestableInstanceReplicationTask.TestableReplicationTaskBuilder;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
 import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
 import org.junit.Before;
@@ -13,6 +23,8 @@ import org.junit.Test;
 import static com.netflix.eureka.cluster.TestableInstanceReplicationTask.aReplicationTask;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Tomasz Bak
@@ -118,4 +130,107 @@ public class ReplicationTaskProcessorTest {
         assertThat(status, is(ProcessingResult.Success));
         assertThat(task.getProcessingState(), is(ProcessingState.Failed));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompactHeartbeatsExecution() throws Exception {
+        ReplicationTaskProcessor compactingProcessor = createCompactingProcessor();
+        // The tasks of a builder have distinct instance ids
+        TestableReplicationTaskBuilder taskBuilder = aReplicationTask();
+        TestableInstanceReplicationTask heartbeat1 = taskBuilder.build();
+        TestableInstanceReplicationTask heartbeat2 = taskBuilder.build();
+        TestableInstanceReplicationTask register = taskBuilder.withAction(Action.Register).build();
+
+        replicationClient.withBatchReply(200);
+        replicationClient.withNetworkStatusCode(200, 200);
+        ProcessingResult status = compactingProcessor.process(Arrays.<ReplicationTask>asList(heartbeat1, register, heartbeat2));
+
+        assertThat(status, is(ProcessingResult.Success));
+        assertThat(heartbeat1.getProcessingState(), is(ProcessingState.Finished));
+        assertThat(heartbeat2.getProcessingState(), is(ProcessingState.Finished));
+        assertThat(register.getProcessingState(), is(ProcessingState.Finished));
+
+        HandledRequest heartbeats = replicationClient.nextHandledRequest(0, TimeUnit.SECONDS);
+        assertThat(heartbeats.getRequestType(), is(RequestType.Heartbeats));
+        assertThat(((HeartbeatReplicationList) heartbeats.getData()).size(), is(2));
+        HandledRequest batch = replicationClient.nextHandledRequest(0, TimeUnit.SECONDS);
+        assertThat(batch.getRequestType(), is(RequestType.Batch));
+        assertThat(((ReplicationList) batch.getData()).getReplicationList().size(), is(1));
+    }
+
+    @Test
+    public void testCompactHeartbeatFailureHandling() throws Exception {
+        ReplicationTaskProcessor compactingProcessor = createCompactingProcessor();
+        TestableInstanceReplicationTask heartbeat1 = aReplicationTask().build();
+        TestableInstanceReplicationTask heartbeat2 = aReplicationTask().build();
+
+        replicationClient.withBatchReply(404);
+        replicationClient.withNetworkStatusCode(200);
+        ProcessingResult status = compactingProcessor.process(Arrays.<ReplicationTask>asList(heartbeat1, heartbeat2));
+
+        assertThat(status, is(ProcessingResult.Success));
+        assertThat(heartbeat1.getProcessingState(), is(ProcessingState.Failed));
+        assertThat(heartbeat2.getProcessingState(), is(ProcessingState.Finished));
+    }
+
+    @Test
+    public void testCompactHeartbeatsNotSupportedByPeer() throws Exception {
+        ReplicationTaskProcessor compactingProcessor = createCompactingProcessor();
+        TestableInstanceReplicationTask heartbeat = aReplicationTask().build();
+
+        replicationClient.withBatchReply(200);
+        replicationClient.withNetworkStatusCode(404, 200, 200);
+        ProcessingResult status = compactingProcessor.process(Collections.<ReplicationTask>singletonList(heartbeat));
+
+        assertThat(status, is(ProcessingResult.Success));
+        assertThat(heartbeat.getProcessingState(), is(ProcessingState.Finished));
+        assertThat(replicationClient.nextHandledRequest(0, TimeUnit.SECONDS).getRequestType(), is(RequestType.Heartbeats));
+        assertThat(replicationClient.nextHandledRequest(0, TimeUnit.SECONDS).getRequestType(), is(RequestType.Batch));
+
+        // Regular batches from now on
+        compactingProcessor.process(Collections.<ReplicationTask>singletonList(aReplicationTask().build()));
+        assertThat(replicationClient.nextHandledRequest(0, TimeUnit.SECONDS).getRequestType(), is(RequestType.Batch));
+    }
+
+    @Test
+    public void testCompactHeartbeatsReprobedAfterRetryInterval() throws Exception {
+        ReplicationTaskProcessor compactingProcessor = createCompactingProcessor(0);
+
+        replicationClient.withBatchReply(200);
+        replicationClient.withNetworkStatusCode(404, 200, 200);
+        compactingProcessor.process(Collections.<ReplicationTask>singletonList(aReplicationTask().build()));
+        assertThat(replicationClient.nextHandledRequest(0, TimeUnit.SECONDS).getRequestType(), is(RequestType.Heartbeats));
+        assertThat(replicationClient.nextHandledRequest(0, TimeUnit.SECONDS).getRequestType(), is(RequestType.Batch));
+
+        // The peer may have been upgraded since
+        compactingProcessor.process(Collections.<ReplicationTask>singletonList(aReplicationTask().build()));
+        assertThat(replicationClient.nextHandledRequest(0, TimeUnit.SECONDS).getRequestType(), is(RequestType.Heartbeats));
+    }
+
+    @Test
+    public void testOnlyRegularBatchRetriedAfterCompactHeartbeats() throws Exception {
+        ReplicationTaskProcessor compactingProcessor = createCompactingProcessor();
+        TestableReplicationTaskBuilder taskBuilder = aReplicationTask();
+        TestableInstanceReplicationTask heartbeat = taskBuilder.build();
+        TestableInstanceReplicationTask register = taskBuilder.withAction(Action.Register).build();
+
+        replicationClient.withBatchReply(200);
+        replicationClient.withNetworkStatusCode(200, 503);
+        List<ReplicationTask> failedTasks = new ArrayList<>();
+        ProcessingResult status = compactingProcessor.process(Arrays.<ReplicationTask>asList(heartbeat, register), failedTasks);
+
+        assertThat(status, is(ProcessingResult.Congestion));
+        assertThat(heartbeat.getProcessingState(), is(ProcessingState.Finished));
+        assertThat(failedTasks, is(Collections.<ReplicationTask>singletonList(register)));
+    }
+
+    private ReplicationTaskProcessor createCompactingProcessor() {
+        return createCompactingProcessor(60 * 1000);
+    }
+
+    private ReplicationTaskProcessor createCompactingProcessor(long retryIntervalMs) {
+        EurekaServerConfig config = mock(EurekaServerConfig.class);
+        when(config.shouldCompactHeartbeatReplication()).thenReturn(true);
+        when(config.getCompactHeartbeatReplicationRetryIntervalMs()).thenReturn(retryIntervalMs);
+        return new ReplicationTaskProcessor("peerId#test", replicationClient, config);
+    }
+}
@@ -15,6 +15,11 @@ import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse.HeartbeatFailure;
 import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
@@ -94,6 +99,11 @@ public class TestableHttpReplicationClient implements HttpReplicationClient {
         return anEurekaHttpResponse(statusCode, instanceInfoFromPeer).type(MediaType.APPLICATION_JSON_TYPE).build();
     }
 
+    @Override
+    public EurekaHttpResponse<HeartbeatBatchResponse> sendHeartBeats(HeartbeatBatch heartbeatBatch) {
+        throw new IllegalStateException("method not supported");
+    }
+
     @Override
     public EurekaHttpResponse<Void> statusUpdate(String asgName, ASGStatus newStatus) {
         handledRequests.add(new HandledRequest(RequestType.AsgStatusUpdate, newStatus));
@@ -117,6 +127,11 @@ public class TestableHttpReplicationClient implements HttpReplicationClient {
         throw new IllegalStateException("method not supported");
     }
 
+    @Override
+    public EurekaHttpResponse<Applications> getApplicationsIfNoneMatch(String entityTag, String... regions) {
+        throw new IllegalStateException("method not supported");
+    }
+
     @Override
     public EurekaHttpResponse<Applications> getDelta(String... regions) {
         throw new IllegalStateException("method not supported");
@@ -179,11 +194,30 @@ public class TestableHttpReplicationClient implements HttpReplicationClient {
         return anEurekaHttpResponse(statusCode, replicationListResponse).type(MediaType.APPLICATION_JSON_TYPE).build();
     }
 
+    @Override
+    public EurekaHttpResponse<HeartbeatReplicationListResponse> submitHeartbeats(HeartbeatReplicationList heartbeatList) {
+        if (networkFailureCounter.get() < networkFailuresRepeatCount) {
+            networkFailureCounter.incrementAndGet();
+            throw new RuntimeException(new IOException("simulated network failure"));
+        }
+
+        // The batch reply applies to the first heartbeat, the others succeed
+        HeartbeatReplicationListResponse heartbeatsResponse = new HeartbeatReplicationListResponse();
+        if (batchStatusCode < 200 || batchStatusCode >= 300) {
+            heartbeatsResponse.addFailure(new HeartbeatFailure(0, batchStatusCode, instanceInfoFromPeer));
+        }
+
+        handledRequests.add(new HandledRequest(RequestType.Heartbeats, heartbeatList));
+
+        int statusCode = networkStatusCodes[callCounter.getAndIncrement()];
+        return anEurekaHttpResponse(statusCode, heartbeatsResponse).type(MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
     @Override
     public void shutdown() {
     }
 
-    public enum RequestType {Heartbeat, Register, Cancel, StatusUpdate, DeleteStatusOverride, AsgStatusUpdate, Batch}
+    public enum RequestType {Heartbeat, Register, Cancel, StatusUpdate, DeleteStatusOverride, AsgStatusUpdate, Batch, Heartbeats}
 
     public static class HandledRequest {
         private final RequestType requestType;
@@ -2,6 +2,8 @@ package com.netflix.eureka.cluster.protocol;
 
 import com.netflix.discovery.converters.EurekaJacksonCodec;
 import com.netflix.discovery.shared.transport.ClusterSampleData;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList.AppHeartbeats;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse.HeartbeatFailure;
 
 import org.junit.Test;
 
@@ -61,4 +63,33 @@ public class JacksonEncodingTest {
 
         assertThat(decodedValue, is(equalTo(replicationListResponse)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testHeartbeatReplicationListEncoding() throws Exception {
+        AppHeartbeats appHeartbeats = new AppHeartbeats("testApp");
+        appHeartbeats.addHeartbeat("id#1", 1L, null);
+        appHeartbeats.addHeartbeat("id#2", 2L, "OUT_OF_SERVICE");
+        HeartbeatReplicationList heartbeatList = new HeartbeatReplicationList();
+        heartbeatList.addAppHeartbeats(appHeartbeats);
+
+        // Encode / decode
+        String jsonText = jacksonCodec.writeToString(heartbeatList);
+        HeartbeatReplicationList decodedValue = jacksonCodec.readValue(HeartbeatReplicationList.class, jsonText);
+
+        assertThat(decodedValue, is(equalTo(heartbeatList)));
+        assertThat(decodedValue.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testHeartbeatReplicationListResponseEncoding() throws Exception {
+        HeartbeatReplicationListResponse heartbeatListResponse = new HeartbeatReplicationListResponse();
+        heartbeatListResponse.addFailure(new HeartbeatFailure(3, 409,
+                ClusterSampleData.newReplicationInstanceResponse(true).getResponseEntity()));
+
+        // Encode / decode
+        String jsonText = jacksonCodec.writeToString(heartbeatListResponse);
+        HeartbeatReplicationListResponse decodedValue = jacksonCodec.readValue(HeartbeatReplicationListResponse.class, jsonText);
+
+        assertThat(decodedValue, is(equalTo(heartbeatListResponse)));
+    }
+}
@@ -3,13 +3,21 @@ package com.netflix.eureka.registry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.ActionType;
 import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
 import com.netflix.eureka.AbstractTester;
+import com.netflix.eureka.lease.Lease;
 import com.netflix.eureka.registry.AbstractInstanceRegistry.CircularQueue;
 import com.netflix.eureka.registry.AbstractInstanceRegistry.EvictionTask;
 import org.junit.Assert;
@@ -17,6 +25,7 @@ import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
@@ -76,6 +85,218 @@ public class InstanceRegistryTest extends AbstractTester {
         Assert.assertEquals("UP_2_", registry.getApplicationsFromAllRemoteRegions().getAppsHashCode());
     }
 
+    @Test
+    public void testGetAppsDeltaSinceVersion() throws Exception {
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+
+        registerInstanceLocally(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME,
+                LOCAL_REGION_INSTANCE_1_HOSTNAME, InstanceStatus.UP));
+        Applications allDelta = registry.getApplicationDeltas();
+        registerInstanceLocally(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME,
+                LOCAL_REGION_INSTANCE_2_HOSTNAME, InstanceStatus.UP));
+
+        Applications sinceDelta = registry.getApplicationDeltasSince(allDelta.getVersion());
+        Assert.assertNotNull("Delta since a known version not available", sinceDelta);
+        List<Application> registeredApplications = sinceDelta.getRegisteredApplications();
+        Assert.assertEquals("Apps size in delta do not match", 1, registeredApplications.size());
+        Application localApplication = registeredApplications.get(0);
+        Assert.assertEquals(LOCAL_REGION_APP_NAME, localApplication.getName());
+        Assert.assertEquals("Delta contains changes seen before", 1, localApplication.getInstances().size());
+        Assert.assertEquals(LOCAL_REGION_INSTANCE_2_HOSTNAME, localApplication.getInstances().get(0).getHostName());
+        Assert.assertEquals(registry.getApplicationsFromLocalRegionOnly().getReconcileHashCode(),
+                sinceDelta.getAppsHashCode());
+
+        Applications emptyDelta = registry.getApplicationDeltasSince(sinceDelta.getVersion());
+        Assert.assertNotNull(emptyDelta);
+        Assert.assertEquals(0, emptyDelta.getRegisteredApplications().size());
+        Assert.assertEquals(sinceDelta.getVersion(), emptyDelta.getVersion());
+
+        Assert.assertNull("Foreign version accepted", registry.getApplicationDeltasSince(1L));
+        registry.clearRegistry();
+        Assert.assertNull("Version older than retained changes accepted",
+                registry.getApplicationDeltasSince(allDelta.getVersion()));
+    }
+
+    @Test
+    public void testDeltaIsNotAffectedByLaterChanges() throws Exception {
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+
+        registerInstanceLocally(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME, "first", InstanceStatus.UP));
+        registerInstanceLocally(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME, "second", InstanceStatus.UP));
+        Applications delta = registry.getApplicationDeltas();
+        String hashCode = registry.getApplicationsFromLocalRegionOnly().getReconcileHashCode();
+        Assert.assertEquals(hashCode, delta.getAppsHashCode());
+
+        registry.cancel(LOCAL_REGION_APP_NAME, "first", false);
+        registry.statusUpdate(LOCAL_REGION_APP_NAME, "second", InstanceStatus.OUT_OF_SERVICE, "0", false);
+
+        Application localApplication = delta.getRegisteredApplications(LOCAL_REGION_APP_NAME);
+        Assert.assertEquals(ActionType.ADDED, localApplication.getByInstanceId("first").getActionType());
+        Assert.assertEquals(InstanceStatus.UP, localApplication.getByInstanceId("second").getStatus());
+        Assert.assertEquals(hashCode, delta.getAppsHashCode());
+
+        Applications sinceDelta = registry.getApplicationDeltasSince(delta.getVersion());
+        localApplication = sinceDelta.getRegisteredApplications(LOCAL_REGION_APP_NAME);
+        Assert.assertEquals(ActionType.DELETED, localApplication.getByInstanceId("first").getActionType());
+        Assert.assertEquals(InstanceStatus.OUT_OF_SERVICE, localApplication.getByInstanceId("second").getStatus());
+        Assert.assertEquals(registry.getApplicationsFromLocalRegionOnly().getReconcileHashCode(), sinceDelta.getAppsHashCode());
+    }
+
+    @Test
+    public void testDeltasAreConsistentWithConcurrentChanges() throws Exception {
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        registry.clearRegistry();
+        long version = registry.getApplicationDeltas().getVersion();
+
+        final int writerCount = 4;
+        final int changesPerWriter = 600;
+        final CountDownLatch writersDone = new CountDownLatch(writerCount);
+        for (int i = 0; i < writerCount; i++) {
+            final int writerIdx = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int change = 0; change < changesPerWriter; change++) {
+                        String id = "writer" + writerIdx + '-' + (change / 3) % 10;
+                        switch (change % 3) {
+                            case 0:
+                                registry.register(createLocalInstanceWithIdAndStatus(id, id, InstanceStatus.UP), 10000000, false);
+                                break;
+                            case 1:
+                                registry.statusUpdate(LOCAL_REGION_APP_NAME, id, InstanceStatus.OUT_OF_SERVICE, "0", false);
+                                break;
+                            default:
+                                registry.cancel(LOCAL_REGION_APP_NAME, id, false);
+                        }
+                    }
+                    writersDone.countDown();
+                }
+            }).start();
+        }
+
+        // Applies the deltas as a client would, and checks the reconcile hash code of each of them
+        Map<String, InstanceStatus> clientStatuses = new HashMap<>();
+        boolean done;
+        do {
+            done = writersDone.await(1, TimeUnit.MILLISECONDS);
+            Applications delta = registry.getApplicationDeltasSince(version);
+            Assert.assertNotNull("Delta since a known version not available", delta);
+            for (Application application : delta.getRegisteredApplications()) {
+                for (InstanceInfo instanceInfo : application.getInstancesAsIsFromEureka()) {
+                    if (instanceInfo.getActionType() == ActionType.DELETED) {
+                        clientStatuses.remove(instanceInfo.getId());
+                    } else {
+                        clientStatuses.put(instanceInfo.getId(), instanceInfo.getStatus());
+                    }
+                }
+            }
+            Assert.assertEquals(reconcileHashCodeOf(clientStatuses), delta.getAppsHashCode());
+            version = delta.getVersion();
+        } while (!done);
+
+        Assert.assertEquals(registry.getApplicationsFromLocalRegionOnly().getReconcileHashCode(),
+                reconcileHashCodeOf(clientStatuses));
+    }
+
+    private static String reconcileHashCodeOf(Map<String, InstanceStatus> statuses) {
+        Map<String, AtomicInteger> instanceCountMap = new TreeMap<>();
+        for (InstanceStatus status : statuses.values()) {
+            AtomicInteger instanceCount = instanceCountMap.get(status.name());
+            if (instanceCount == null) {
+                instanceCount = new AtomicInteger(0);
+                instanceCountMap.put(status.name(), instanceCount);
+            }
+            instanceCount.incrementAndGet();
+        }
+        return Applications.getReconcileHashCode(instanceCountMap);
+    }
+
+    @Test
+    public void testLocalRegionSnapshotIsUpdatedOnChange() throws Exception {
+        Applications apps = registry.getApplicationsFromLocalRegionOnly();
+        Assert.assertSame("Snapshot rebuilt without registry change", apps, registry.getApplicationsFromLocalRegionOnly());
+
+        registerInstanceLocally(createLocalInstance(LOCAL_REGION_INSTANCE_1_HOSTNAME));
+        Applications afterRegister = registry.getApplicationsFromLocalRegionOnly();
+        Application localApplication = afterRegister.getRegisteredApplications(LOCAL_REGION_APP_NAME);
+        Assert.assertNotNull("Registered app not in snapshot", localApplication);
+        Assert.assertEquals(1, localApplication.getInstances().size());
+        Assert.assertEquals(afterRegister.getReconcileHashCode(), afterRegister.getAppsHashCode());
+
+        registry.cancel(LOCAL_REGION_APP_NAME, localApplication.getInstances().get(0).getId(), false);
+        Applications afterCancel = registry.getApplicationsFromLocalRegionOnly();
+        Assert.assertNull("Cancelled app still in snapshot", afterCancel.getRegisteredApplications(LOCAL_REGION_APP_NAME));
+        Assert.assertEquals(afterCancel.getReconcileHashCode(), afterCancel.getAppsHashCode());
+    }
+
+    @Test
+    public void testGetApplicationsForVip() throws Exception {
+        InstanceInfo multiVip = new InstanceInfo.Builder(
+                createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME, "multiVip", InstanceStatus.UP))
+                .setVIPAddress("vipA,vipB")
+                .setSecureVIPAddress("svipA")
+                .build();
+        InstanceInfo singleVip = new InstanceInfo.Builder(
+                createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME, "singleVip", InstanceStatus.UP))
+                .setVIPAddress("vipB")
+                .build();
+        registerInstanceLocally(multiVip);
+        registerInstanceLocally(singleVip);
+
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vipA", false)), is(Collections.singletonList("multiVip")));
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vipB", false)).size(), is(2));
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("svipA", true)), is(Collections.singletonList("multiVip")));
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vip", false)).isEmpty(), is(true));
+
+        // Changing the VIP of an instance moves it to the new VIP
+        InstanceInfo movedVip = new InstanceInfo.Builder(multiVip).setVIPAddress("vipC").build();
+        registerInstanceLocally(movedVip);
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vipA", false)).isEmpty(), is(true));
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vipB", false)), is(Collections.singletonList("singleVip")));
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vipC", false)), is(Collections.singletonList("multiVip")));
+
+        registry.cancel(LOCAL_REGION_APP_NAME, "singleVip", false);
+        assertThat(instanceIdsOf(registry.getApplicationsForVip("vipB", false)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGetInstancesById() throws Exception {
+        InstanceInfo localInstance = createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME, "sharedId", InstanceStatus.UP);
+        InstanceInfo otherAppInstance = new InstanceInfo.Builder(
+                createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME, "sharedId", InstanceStatus.UP))
+                .setAppName("OTHERAPP")
+                .build();
+        registerInstanceLocally(localInstance);
+        registerInstanceLocally(otherAppInstance);
+
+        // The same id in two applications
+        assertThat(registry.getInstancesById("sharedId", false).size(), is(2));
+
+        registry.cancel("OTHERAPP", "sharedId", false);
+        List<InstanceInfo> instances = registry.getInstancesById("sharedId", false);
+        assertThat(instances.size(), is(1));
+        assertThat(instances.get(0).getAppName(), is(LOCAL_REGION_APP_NAME));
+
+        registry.cancel(LOCAL_REGION_APP_NAME, "sharedId", false);
+        assertThat(registry.getInstancesById("sharedId", false).isEmpty(), is(true));
+
+        // Instances of remote regions are found only if requested
+        assertThat(registry.getInstancesById(REMOTE_REGION_INSTANCE_1_HOSTNAME, false).isEmpty(), is(true));
+        instances = registry.getInstancesById(REMOTE_REGION_INSTANCE_1_HOSTNAME, true);
+        assertThat(instances.size(), is(1));
+        assertThat(instances.get(0).getAppName(), is(REMOTE_REGION_APP_NAME));
+    }
+
+    private static List<String> instanceIdsOf(Applications applications) {
+        List<String> ids = new ArrayList<>();
+        for (Application application : applications.getRegisteredApplications()) {
+            for (InstanceInfo instanceInfo : application.getInstances()) {
+                ids.add(instanceInfo.getId());
+            }
+        }
+        return ids;
+    }
+
     private void waitForDeltaToBeRetrieved() throws InterruptedException {
         int count = 0;
         System.out.println("Sleeping up to 35 seconds to let the remote registry fetch delta.");
@@ -199,6 +420,39 @@ public class InstanceRegistryTest extends AbstractTester {
         verifyLocalInstanceStatus(seed.getId(), InstanceStatus.UP);
     }
 
+    @Test
+    public void testRenewAndGetReturnsTheRenewedLease() throws Exception {
+        InstanceInfo myInstance = createLocalInstance(LOCAL_REGION_INSTANCE_1_HOSTNAME);
+        registerInstanceLocally(myInstance);
+        Lease<InstanceInfo> lease = registry.getLease(LOCAL_REGION_APP_NAME, myInstance.getId());
+        long registrationRenewalTimestamp = lease.getLastRenewalTimestamp();
+
+        Lease<InstanceInfo> renewedLease = registry.renewAndGet(LOCAL_REGION_APP_NAME, myInstance.getId(), false);
+        Assert.assertSame(lease, renewedLease);
+        Assert.assertTrue("Lease not renewed", renewedLease.getLastRenewalTimestamp() > registrationRenewalTimestamp);
+
+        Assert.assertNull(registry.renewAndGet(LOCAL_REGION_APP_NAME, "unknownId", false));
+        Assert.assertNull(registry.renewAndGet("UNKNOWNAPP", myInstance.getId(), false));
+    }
+
+    @Test
+    public void testRenewAndGetAppliesTheOverriddenStatus() throws Exception {
+        InstanceInfo myInstance = createLocalInstance(LOCAL_REGION_INSTANCE_1_HOSTNAME);
+        registerInstanceLocally(myInstance);
+        registry.statusUpdate(LOCAL_REGION_APP_NAME, myInstance.getId(), InstanceStatus.OUT_OF_SERVICE, "0", false);
+
+        // As in a replica that has the override, but not yet applied to its instance
+        registry.getInstanceByAppAndId(LOCAL_REGION_APP_NAME, myInstance.getId()).setStatusWithoutDirty(InstanceStatus.UP);
+        Lease<InstanceInfo> renewedLease = registry.renewAndGet(LOCAL_REGION_APP_NAME, myInstance.getId(), true);
+        Assert.assertNotNull(renewedLease);
+        Assert.assertEquals(InstanceStatus.OUT_OF_SERVICE, renewedLease.getHolder().getStatus());
+        verifyLocalInstanceStatus(myInstance.getId(), InstanceStatus.OUT_OF_SERVICE);
+
+        // The status counts of the deltas follow the correction
+        Assert.assertEquals(registry.getApplicationsFromLocalRegionOnly().getReconcileHashCode(),
+                registry.getApplicationDeltasFromMultipleRegions(new String[0]).getAppsHashCode());
+    }
+
     @Test
     public void testStatusOverrideStartingStatus() throws Exception {
         // Regular registration first
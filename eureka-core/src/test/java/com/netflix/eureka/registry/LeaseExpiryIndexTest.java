@@ -0,0 +1,53 @@
+package com.netflix.eureka.registry;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.lease.Lease;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LeaseExpiryIndexTest {
+
+    private final LeaseExpiryIndex index = new LeaseExpiryIndex();
+
+    @Test
+    public void testExpiredLeasesArePolledOnce() throws Exception {
+        Lease<InstanceInfo> expiredLease = new Lease<>(InstanceInfoGenerator.takeOne(), 0);
+        Lease<InstanceInfo> activeLease = new Lease<>(InstanceInfoGenerator.takeOne(), 90);
+        index.add(expiredLease);
+        index.add(activeLease);
+        Thread.sleep(10);
+
+        List<Lease<InstanceInfo>> expired = index.pollExpired(0, lease -> true);
+        assertThat(expired, is(Collections.singletonList(expiredLease)));
+        assertThat(index.pollExpired(0, lease -> true).isEmpty(), is(true));
+
+        // Leases not evicted must be added back by the caller to be polled again
+        index.add(expiredLease);
+        assertThat(index.pollExpired(0, lease -> true), is(Collections.singletonList(expiredLease)));
+    }
+
+    @Test
+    public void testUnregisteredLeasesAreDropped() throws Exception {
+        index.add(new Lease<>(InstanceInfoGenerator.takeOne(), 0));
+        Thread.sleep(10);
+
+        assertThat(index.pollExpired(0, lease -> false).isEmpty(), is(true));
+        assertThat(index.pollExpired(0, lease -> true).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testAdditionalLeaseTimeDelaysExpiry() throws Exception {
+        Lease<InstanceInfo> lease = new Lease<>(InstanceInfoGenerator.takeOne(), 0);
+        index.add(lease);
+        Thread.sleep(10);
+
+        assertThat(index.pollExpired(60000, l -> true).isEmpty(), is(true));
+        assertThat(index.pollExpired(0, l -> true), is(Collections.singletonList(lease)));
+    }
+}
@@ -0,0 +1,72 @@
+package com.netflix.eureka.registry;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PayloadCompressorTest {
+
+    private static final byte[] PAYLOAD = "{\"applications\":{\"versions__delta\":\"1\",\"apps__hashcode\":\"UP_1_\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testCompressedPayloadsRoundTrip() throws Exception {
+        PayloadCompressor compressor = new PayloadCompressor(Deflater.DEFAULT_COMPRESSION, 1);
+        try {
+            for (int i = 0; i < 2; i++) {
+                Assert.assertArrayEquals(PAYLOAD, ByteStreams.toByteArray(
+                        new GZIPInputStream(new ByteArrayInputStream(compressor.gzip(PAYLOAD)))));
+                Assert.assertArrayEquals(PAYLOAD, ByteStreams.toByteArray(
+                        new InflaterInputStream(new ByteArrayInputStream(compressor.deflate(PAYLOAD)))));
+            }
+            Assert.assertEquals(1, compressor.retainedCount());
+        } finally {
+            compressor.stop();
+        }
+    }
+
+    @Test
+    public void testPoolIsBoundedAndReleasedOnStop() throws Exception {
+        final PayloadCompressor compressor = new PayloadCompressor(Deflater.DEFAULT_COMPRESSION, 2);
+        final CountDownLatch allStarted = new CountDownLatch(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[4];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws Exception {
+                        allStarted.countDown();
+                        allStarted.await(10, TimeUnit.SECONDS);
+                        return compressor.gzip(PAYLOAD);
+                    }
+                });
+            }
+            for (Future<?> result : results) {
+                Assert.assertNotNull(result.get(10, TimeUnit.SECONDS));
+            }
+            Assert.assertTrue(compressor.retainedCount() <= 2);
+
+            compressor.stop();
+            Assert.assertEquals(0, compressor.retainedCount());
+            // Requests still being served after stop compress without retaining anything
+            Assert.assertArrayEquals(PAYLOAD, ByteStreams.toByteArray(
+                    new InflaterInputStream(new ByteArrayInputStream(compressor.deflate(PAYLOAD)))));
+            Assert.assertEquals(0, compressor.retainedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.netflix.eureka.registry;
+
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class RegistryChangeLogTest {
+
+    private static final long EPOCH = 7;
+
+    private final RegistryChangeLog changeLog = new RegistryChangeLog(4, EPOCH);
+    private final InstanceInfo instanceInfo = InstanceInfoGenerator.takeOne();
+
+    @Test
+    public void testChangesSinceVersion() throws Exception {
+        long initialVersion = changeLog.getLastVersion();
+        long first = changeLog.append(instanceInfo);
+        long second = changeLog.append(instanceInfo);
+
+        assertThat(first, is(initialVersion + 1));
+        assertThat(changeLog.size(), is(2));
+
+        List<RegistryChangeLog.Change> changes = changeLog.changesSince(initialVersion);
+        assertThat(changes.size(), is(2));
+        assertThat(changes.get(0).getVersion(), is(first));
+        assertThat(changes.get(1).getVersion(), is(second));
+
+        assertThat(changeLog.changesSince(first).size(), is(1));
+        assertThat(changeLog.changesSince(second).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testChangesUpToLastVersion() throws Exception {
+        long initialVersion = changeLog.getLastVersion();
+        long first = changeLog.append(instanceInfo);
+        changeLog.append(instanceInfo);
+
+        List<RegistryChangeLog.Change> changes = changeLog.changesSince(initialVersion, first);
+        assertThat(changes.size(), is(1));
+        assertThat(changes.get(0).getVersion(), is(first));
+        assertThat(changes.get(0).getInstanceInfo(), is(instanceInfo));
+        assertThat(changeLog.retainedChanges(first).size(), is(1));
+        assertThat(changeLog.changesSince(first + 1, first), is(nullValue()));
+    }
+
+    @Test
+    public void testForeignVersionIsRejected() throws Exception {
+        changeLog.append(instanceInfo);
+
+        RegistryChangeLog otherLog = new RegistryChangeLog(4, EPOCH + 1);
+        long foreignVersion = otherLog.append(instanceInfo);
+
+        assertThat(changeLog.isOwnVersion(foreignVersion), is(false));
+        assertThat(changeLog.changesSince(foreignVersion), is(nullValue()));
+        assertThat(changeLog.changesSince(changeLog.getLastVersion() + 1), is(nullValue()));
+    }
+
+    @Test
+    public void testWrapAround() throws Exception {
+        long initialVersion = changeLog.getLastVersion();
+        for (int i = 0; i < 6; i++) {
+            changeLog.append(instanceInfo);
+        }
+
+        assertThat(changeLog.getCapacity(), is(4));
+        assertThat(changeLog.size(), is(4));
+        assertThat(changeLog.retainedChanges().get(0).getVersion(), is(initialVersion + 3));
+        assertThat(changeLog.changesSince(initialVersion + 1), is(nullValue()));
+        assertThat(changeLog.changesSince(initialVersion + 2).size(), is(4));
+    }
+
+    @Test
+    public void testEvictionAndClear() throws Exception {
+        long first = changeLog.append(instanceInfo);
+        long second = changeLog.append(instanceInfo);
+
+        changeLog.evictOlderThan(System.currentTimeMillis() + 1);
+        assertThat(changeLog.size(), is(0));
+        assertThat(changeLog.changesSince(first), is(nullValue()));
+        assertThat(changeLog.changesSince(second).isEmpty(), is(true));
+        // The evicted changes do not keep their instance copies
+        assertThat(changeLog.occupiedSlots(), is(0));
+
+        long third = changeLog.append(instanceInfo);
+        changeLog.clear();
+        assertThat(changeLog.retainedChanges().isEmpty(), is(true));
+        assertThat(changeLog.getLastVersion(), is(third));
+        assertThat(changeLog.occupiedSlots(), is(0));
+    }
+}
@@ -0,0 +1,164 @@
+package com.netflix.eureka.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.DefaultEurekaClientConfig;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.DefaultEurekaServerConfig;
+import com.netflix.eureka.resources.DefaultServerCodecs;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the latency of registry changes (register/cancel), while deltas are generated concurrently, and the
+ * latency of the delta generation. Running it with and without the delta generator shows how much delta generation
+ * stalls registry changes.
+ *
+ * <p>
+ * Arguments (all optional): writer thread count, instance count, test duration in seconds,
+ * delta generation interval in milliseconds (0 disables the delta generator).
+ * </p>
+ */
+public class RegistryContentionLoadTester {
+
+    private final int writerCount;
+    private final int deltaIntervalMs;
+    private final List<InstanceInfo> instances = new ArrayList<>();
+    private final AbstractInstanceRegistry registry;
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final long[] deltaLatencies = new long[1_000_000];
+    private final AtomicLong deltaCount = new AtomicLong();
+
+    public RegistryContentionLoadTester(int writerCount, int instanceCount, int deltaIntervalMs) {
+        this.writerCount = writerCount;
+        this.deltaIntervalMs = deltaIntervalMs;
+
+        DefaultEurekaServerConfig serverConfig = new DefaultEurekaServerConfig();
+        registry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                mock(EurekaClient.class)
+        );
+        registry.initializedResponseCache();
+
+        Iterator<InstanceInfo> instanceIt = InstanceInfoGenerator.newBuilder(instanceCount, instanceCount / 10 + 1)
+                .build().serviceIterator();
+        while (instanceIt.hasNext()) {
+            InstanceInfo instanceInfo = instanceIt.next();
+            instances.add(instanceInfo);
+            registry.register(instanceInfo, 90, false);
+        }
+    }
+
+    public void run(long durationSec) throws InterruptedException {
+        final List<long[]> latencies = new ArrayList<>();
+        final int[] sampleCounts = new int[writerCount];
+        final CountDownLatch doneLatch = new CountDownLatch(writerCount);
+
+        for (int i = 0; i < writerCount; i++) {
+            final long[] samples = new long[1_000_000];
+            final int writerIdx = i;
+            latencies.add(samples);
+            Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    int count = 0;
+                    int instanceIdx = writerIdx;
+                    while (running.get() && count < samples.length) {
+                        InstanceInfo instanceInfo = instances.get(instanceIdx);
+                        long start = System.nanoTime();
+                        if (count % 2 == 0) {
+                            registry.internalCancel(instanceInfo.getAppName(), instanceInfo.getId(), false);
+                        } else {
+                            registry.register(instanceInfo, 90, false);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                        if (count % 2 == 0) {
+                            instanceIdx = (instanceIdx + writerCount) % instances.size();
+                        }
+                    }
+                    sampleCounts[writerIdx] = count;
+                    doneLatch.countDown();
+                }
+            }, "RegistryWriter-" + i);
+            writer.start();
+        }
+
+        Thread deltaGenerator = null;
+        if (deltaIntervalMs > 0) {
+            deltaGenerator = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (running.get() && deltaCount.get() < deltaLatencies.length) {
+                        long start = System.nanoTime();
+                        registry.getApplicationDeltas();
+                        deltaLatencies[(int) deltaCount.getAndIncrement()] = System.nanoTime() - start;
+                        try {
+                            Thread.sleep(deltaIntervalMs);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            }, "DeltaGenerator");
+            deltaGenerator.start();
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSec));
+        running.set(false);
+        doneLatch.await();
+        if (deltaGenerator != null) {
+            deltaGenerator.join();
+        }
+
+        int total = 0;
+        for (int count : sampleCounts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int i = 0; i < writerCount; i++) {
+            System.arraycopy(latencies.get(i), 0, all, offset, sampleCounts[i]);
+            offset += sampleCounts[i];
+        }
+        Arrays.sort(all);
+
+        long[] deltas = Arrays.copyOf(deltaLatencies, (int) deltaCount.get());
+        Arrays.sort(deltas);
+
+        System.out.printf("Registry changes=%d, deltas=%d%n", total, deltas.length);
+        System.out.printf("Change latency [us]: p50=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(all, 0.5), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0));
+        System.out.printf("Delta latency [us]: p50=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(deltas, 0.5), percentile(deltas, 0.99), percentile(deltas, 0.999), percentile(deltas, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int idx = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, idx)] / 1000.0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int writerCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int instanceCount = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        long durationSec = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        int deltaIntervalMs = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        new RegistryContentionLoadTester(writerCount, instanceCount, deltaIntervalMs).run(durationSec);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,151 @@
+package com.netflix.eureka.registry;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.DefaultEurekaClientConfig;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.DefaultEurekaServerConfig;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.resources.DefaultServerCodecs;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+public class RegistrySnapshotStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private EurekaServerConfig serverConfig;
+    private ServerCodecs serverCodecs;
+    private File snapshotFile;
+    private RegistrySnapshotStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        snapshotFile = new File(folder.getRoot(), "registry.snapshot");
+        serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(snapshotFile.getPath()).when(serverConfig).getRegistrySnapshotFile();
+        serverCodecs = new DefaultServerCodecs(serverConfig);
+        store = new RegistrySnapshotStore(snapshotFile.toPath(), serverCodecs.getFullJsonCodec());
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        Applications applications = InstanceInfoGenerator.newBuilder(10, 2).build().toApplications();
+        store.write(applications, 1234L);
+
+        RegistrySnapshotStore.Snapshot snapshot = store.read();
+        assertNotNull(snapshot);
+        assertEquals(1234L, snapshot.getTimestamp());
+        for (Application application : applications.getRegisteredApplications()) {
+            Application restored = snapshot.getApplications().getRegisteredApplications(application.getName());
+            assertNotNull(restored);
+            assertEquals(application.getInstances().size(), restored.getInstances().size());
+            for (InstanceInfo instance : application.getInstances()) {
+                assertNotNull(restored.getByInstanceId(instance.getId()));
+            }
+        }
+    }
+
+    @Test
+    public void testUnreadableSnapshotsAreIgnored() throws Exception {
+        assertNull(store.read());
+
+        store.write(InstanceInfoGenerator.newBuilder(10, 2).build().toApplications(), 1234L);
+        try (RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw")) {
+            long position = file.length() - 1;
+            file.seek(position);
+            int lastByte = file.read();
+            file.seek(position);
+            file.write(lastByte ^ 0xFF);
+        }
+        assertNull(store.read());
+
+        store.write(InstanceInfoGenerator.newBuilder(10, 2).build().toApplications(), 1234L);
+        try (RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw")) {
+            file.setLength(file.length() - 10);
+        }
+        assertNull(store.read());
+    }
+
+    @Test
+    public void testRegistryRestoredWithoutExpiredInstances() throws Exception {
+        long snapshotTime = System.currentTimeMillis() - 5000;
+        Iterator<InstanceInfo> instances = InstanceInfoGenerator.newBuilder(2, 1).build().serviceIterator();
+        InstanceInfo liveInstance = withLastRenewal(instances.next(), snapshotTime - 10 * 1000);
+        InstanceInfo expiredInstance = withLastRenewal(instances.next(), snapshotTime - 200 * 1000);
+        Applications applications = new Applications();
+        Application application = new Application(liveInstance.getAppName());
+        application.addInstance(liveInstance);
+        application.addInstance(expiredInstance);
+        applications.addApplication(application);
+        store.write(applications, snapshotTime);
+
+        EurekaClient eurekaClient = mock(EurekaClient.class);
+        when(eurekaClient.getApplications()).thenReturn(new Applications());
+        PeerAwareInstanceRegistryImpl registry = new PeerAwareInstanceRegistryImpl(
+                serverConfig, new DefaultEurekaClientConfig(), serverCodecs, eurekaClient);
+        registry.initializedResponseCache();
+        try {
+            assertEquals(1, registry.syncUp());
+            assertNotNull(registry.getInstanceByAppAndId(liveInstance.getAppName(), liveInstance.getId()));
+            assertNull(registry.getInstanceByAppAndId(expiredInstance.getAppName(), expiredInstance.getId()));
+        } finally {
+            registry.getResponseCache().stop();
+        }
+    }
+
+    @Test
+    public void testRegistrySnapshotHasTheRenewals() throws Exception {
+        EurekaClient eurekaClient = mock(EurekaClient.class);
+        PeerAwareInstanceRegistryImpl registry = new PeerAwareInstanceRegistryImpl(
+                serverConfig, new DefaultEurekaClientConfig(), serverCodecs, eurekaClient);
+        registry.initializedResponseCache();
+        try {
+            InstanceInfo instance = InstanceInfoGenerator.takeOne();
+            registry.register(instance, false);
+            // Builds the shared snapshot of the applications before the renewal
+            registry.getApplicationsFromLocalRegionOnly();
+            assertTrue(registry.renew(instance.getAppName(), instance.getId(), false));
+
+            registry.writeRegistrySnapshot();
+            RegistrySnapshotStore.Snapshot snapshot = store.read();
+            assertNotNull(snapshot);
+            InstanceInfo saved = snapshot.getApplications().getRegisteredApplications(instance.getAppName())
+                    .getByInstanceId(instance.getId());
+            assertEquals(registry.getLease(instance.getAppName(), instance.getId()).getLastRenewalTimestamp(),
+                    saved.getLeaseInfo().getRenewalTimestamp());
+        } finally {
+            registry.getResponseCache().stop();
+        }
+    }
+
+    private static InstanceInfo withLastRenewal(InstanceInfo instance, long renewalTimestamp) {
+        LeaseInfo leaseInfo = LeaseInfo.Builder.newBuilder()
+                .setDurationInSecs(90)
+                .setRenewalIntervalInSecs(30)
+                .setRegistrationTimestamp(renewalTimestamp - 60 * 1000)
+                .setRenewalTimestamp(renewalTimestamp)
+                .build();
+        return new InstanceInfo.Builder(instance).setLeaseInfo(leaseInfo).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.netflix.eureka.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RemoteVipIndexTest {
+
+    private final Applications applications = new Applications();
+    private InstanceInfo multiVip;
+    private InstanceInfo singleVip;
+
+    @Before
+    public void setUp() throws Exception {
+        InstanceInfo seed = InstanceInfoGenerator.takeOne();
+        multiVip = new InstanceInfo.Builder(new InstanceInfo(seed))
+                .setInstanceId("multiVip")
+                .setVIPAddress("vipA,vipB")
+                .setSecureVIPAddress("svipA")
+                .build();
+        singleVip = new InstanceInfo.Builder(new InstanceInfo(seed))
+                .setInstanceId("singleVip")
+                .setVIPAddress("vipB")
+                .setSecureVIPAddress("svipB")
+                .build();
+        Application application = new Application(seed.getAppName());
+        application.addInstance(multiVip);
+        application.addInstance(singleVip);
+        applications.addApplication(application);
+    }
+
+    @Test
+    public void testLookupByVip() throws Exception {
+        RemoteVipIndex index = RemoteVipIndex.of(applications);
+
+        assertThat(idsOf(index.getInstances(applications, "vipA", false)), is(Collections.singletonList("multiVip")));
+        assertThat(idsOf(index.getInstances(applications, "vipB", false)).size(), is(2));
+        assertThat(idsOf(index.getInstances(applications, "svipA", true)), is(Collections.singletonList("multiVip")));
+        assertThat(index.getInstances(applications, "svipA", false).isEmpty(), is(true));
+        assertThat(index.getInstances(applications, "vip", false).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testInstanceMovedToAnotherVip() throws Exception {
+        RemoteVipIndex index = RemoteVipIndex.of(applications);
+
+        InstanceInfo movedVip = new InstanceInfo.Builder(new InstanceInfo(multiVip)).setVIPAddress("vipC").build();
+        index.remove(multiVip);
+        applications.getRegisteredApplications(multiVip.getAppName()).addInstance(movedVip);
+        index.add(movedVip);
+
+        assertThat(index.getInstances(applications, "vipA", false).isEmpty(), is(true));
+        assertThat(idsOf(index.getInstances(applications, "vipB", false)), is(Collections.singletonList("singleVip")));
+        assertThat(idsOf(index.getInstances(applications, "vipC", false)), is(Collections.singletonList("multiVip")));
+    }
+
+    @Test
+    public void testEntriesAheadOfTheApplicationsAreIgnored() throws Exception {
+        RemoteVipIndex index = RemoteVipIndex.of(applications);
+
+        // Removed from the applications, but not yet from the index
+        applications.getRegisteredApplications(singleVip.getAppName()).removeInstance(singleVip);
+        assertThat(idsOf(index.getInstances(applications, "vipB", false)), is(Collections.singletonList("multiVip")));
+    }
+
+    private static List<String> idsOf(List<InstanceInfo> instances) {
+        List<String> ids = new ArrayList<>();
+        for (InstanceInfo instanceInfo : instances) {
+            ids.add(instanceInfo.getId());
+        }
+        return ids;
+    }
+}
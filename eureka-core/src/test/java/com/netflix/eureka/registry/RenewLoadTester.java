@@ -0,0 +1,123 @@
+package com.netflix.eureka.registry;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.DefaultEurekaClientConfig;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.DefaultEurekaServerConfig;
+import com.netflix.eureka.resources.DefaultServerCodecs;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the throughput of lease renewals, and the number of bytes allocated per renewal.
+ * Each thread renews its own subset of instances, so the result is the renewal rate per core.
+ *
+ * <p>
+ * Arguments (all optional): thread count, instance count, test duration in seconds,
+ * replication flag (true to renew as a replica node).
+ * </p>
+ */
+public class RenewLoadTester {
+
+    private final int threadCount;
+    private final boolean isReplication;
+    private final List<InstanceInfo> instances = new ArrayList<>();
+    private final AbstractInstanceRegistry registry;
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    public RenewLoadTester(int threadCount, int instanceCount, boolean isReplication) {
+        this.threadCount = threadCount;
+        this.isReplication = isReplication;
+
+        DefaultEurekaServerConfig serverConfig = new DefaultEurekaServerConfig();
+        registry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                mock(EurekaClient.class)
+        );
+        registry.initializedResponseCache();
+
+        Iterator<InstanceInfo> instanceIt = InstanceInfoGenerator.newBuilder(instanceCount, instanceCount / 10 + 1)
+                .build().serviceIterator();
+        while (instanceIt.hasNext()) {
+            InstanceInfo instanceInfo = instanceIt.next();
+            instances.add(instanceInfo);
+            registry.register(instanceInfo, 90, false);
+        }
+    }
+
+    public void run(long warmUpSec, long durationSec) throws InterruptedException {
+        final long[] renewCounts = new long[threadCount];
+        final long[] allocatedBytes = new long[threadCount];
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        final long measureFrom = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(warmUpSec);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIdx = i;
+            Thread renewer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    long threadId = Thread.currentThread().getId();
+                    long count = 0;
+                    long startAllocated = -1;
+                    int instanceIdx = threadIdx;
+                    while (running.get()) {
+                        if (startAllocated < 0 && System.currentTimeMillis() >= measureFrom) {
+                            startAllocated = threadMXBean.getThreadAllocatedBytes(threadId);
+                            count = 0;
+                        }
+                        InstanceInfo instanceInfo = instances.get(instanceIdx);
+                        registry.renewAndGet(instanceInfo.getAppName(), instanceInfo.getId(), isReplication);
+                        count++;
+                        instanceIdx += threadCount;
+                        if (instanceIdx >= instances.size()) {
+                            instanceIdx = threadIdx;
+                        }
+                    }
+                    renewCounts[threadIdx] = count;
+                    allocatedBytes[threadIdx] = threadMXBean.getThreadAllocatedBytes(threadId) - startAllocated;
+                    doneLatch.countDown();
+                }
+            }, "Renewer-" + i);
+            renewer.start();
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmUpSec + durationSec));
+        running.set(false);
+        doneLatch.await();
+
+        long totalRenews = 0;
+        long totalAllocated = 0;
+        for (int i = 0; i < threadCount; i++) {
+            totalRenews += renewCounts[i];
+            totalAllocated += allocatedBytes[i];
+        }
+        System.out.printf("Renewals=%d, renewals/sec/thread=%.0f, allocated bytes/renewal=%.2f%n",
+                totalRenews,
+                totalRenews / (double) durationSec / threadCount,
+                totalRenews == 0 ? 0.0 : totalAllocated / (double) totalRenews);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int instanceCount = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        long durationSec = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        boolean isReplication = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        new RenewLoadTester(threadCount, instanceCount, isReplication).run(5, durationSec);
+        System.exit(0);
+    }
+}
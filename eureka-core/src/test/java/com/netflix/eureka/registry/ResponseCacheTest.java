@@ -1,18 +1,42 @@
 package com.netflix.eureka.registry;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.google.common.io.ByteStreams;
 import com.netflix.appinfo.EurekaAccept;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.discovery.DefaultEurekaClientConfig;
+import com.netflix.discovery.shared.Application;
 import com.netflix.eureka.AbstractTester;
 import com.netflix.eureka.DefaultEurekaServerConfig;
 import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.Version;
 import com.netflix.eureka.resources.DefaultServerCodecs;
+import com.netflix.eureka.resources.ServerCodecs;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Nitesh Kant
@@ -91,4 +115,346 @@ public class ResponseCacheTest extends AbstractTester {
         Assert.assertNull("Cache after invalidate did not return null.", cache.get(key1, true));
         Assert.assertNull("Cache after invalidate did not return null.", cache.get(key2, true));
     }
+
+    @Test
+    public void testReadOnlyCacheRefreshOnChange() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(true).when(serverConfig).shouldRefreshReadOnlyResponseCacheOnChange();
+        doReturn(0L).when(serverConfig).getResponseCacheMinRefreshIntervalMs();
+        PeerAwareInstanceRegistryImpl refreshingRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                client
+        );
+        refreshingRegistry.init(serverContext.getPeerEurekaNodes());
+        refreshingRegistry.syncUp();
+
+        ResponseCacheImpl cache = (ResponseCacheImpl) refreshingRegistry.getResponseCache();
+        Key key = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V1, EurekaAccept.full);
+        Assert.assertNotNull("Cache get returned null.", cache.get(key, true));
+
+        // The read only cache is refreshed well before the next periodic update
+        refreshingRegistry.cancel(REMOTE_REGION_APP_NAME, REMOTE_REGION_INSTANCE_1_HOSTNAME, true);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.get(key, true) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertNull("Read only cache was not refreshed after invalidate.", cache.get(key, true));
+    }
+
+    @Test
+    public void testAllAppsPayloadFromApplicationFragments() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(true).when(serverConfig).shouldUseApplicationFragmentsInResponseCache();
+        DefaultServerCodecs serverCodecs = new DefaultServerCodecs(serverConfig);
+        PeerAwareInstanceRegistryImpl fragmentRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                serverCodecs,
+                client
+        );
+        fragmentRegistry.init(serverContext.getPeerEurekaNodes());
+        fragmentRegistry.syncUp();
+        fragmentRegistry.register(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME, "first", InstanceStatus.UP), 10000000, false);
+
+        ResponseCacheImpl cache = (ResponseCacheImpl) fragmentRegistry.getResponseCache();
+        verifyAllAppsPayloads(cache, serverCodecs, fragmentRegistry);
+
+        // Only the changed application is encoded again
+        fragmentRegistry.register(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME, "second", InstanceStatus.UP), 10000000, false);
+        verifyAllAppsPayloads(cache, serverCodecs, fragmentRegistry);
+    }
+
+    @Test
+    public void testDirectBufferPayloads() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(true).when(serverConfig).shouldUseDirectBuffersInResponseCache();
+        PeerAwareInstanceRegistryImpl directRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                client
+        );
+        directRegistry.init(serverContext.getPeerEurekaNodes());
+        directRegistry.syncUp();
+
+        ResponseCacheImpl cache = (ResponseCacheImpl) directRegistry.getResponseCache();
+        Key key = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+        EncodedPayload payload = cache.getPayload(key, PayloadEncoding.IDENTITY);
+        Assert.assertTrue("Payload is not held in a direct buffer.", payload.isDirect());
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        payload.write(written);
+        Assert.assertEquals(cache.get(key), new String(written.toByteArray(), StandardCharsets.UTF_8));
+
+        EncodedPayload gzipped = cache.getPayload(key, PayloadEncoding.GZIP);
+        GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()));
+        Assert.assertEquals(cache.get(key), new String(ByteStreams.toByteArray(gzipInput), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCompressedVariantsOnDemand() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(true).when(serverConfig).shouldCompressResponseCachePayloadsOnDemand();
+        doReturn(Deflater.BEST_COMPRESSION).when(serverConfig).getResponseCacheCompressionLevel();
+        PeerAwareInstanceRegistryImpl onDemandRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                client
+        );
+        onDemandRegistry.init(serverContext.getPeerEurekaNodes());
+        onDemandRegistry.syncUp();
+
+        ResponseCacheImpl cache = (ResponseCacheImpl) onDemandRegistry.getResponseCache();
+        Key key = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+        EncodedPayload payload = cache.getPayload(key, PayloadEncoding.IDENTITY);
+        Assert.assertEquals("Payload was compressed before it was requested.", payload.length(), cache.getCurrentSizeInBytes());
+
+        EncodedPayload gzipped = cache.getPayload(key, PayloadEncoding.GZIP);
+        Assert.assertSame(gzipped, cache.getPayload(key, PayloadEncoding.GZIP));
+        GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()));
+        Assert.assertEquals(cache.get(key), new String(ByteStreams.toByteArray(gzipInput), StandardCharsets.UTF_8));
+
+        EncodedPayload deflated = cache.getPayload(key, PayloadEncoding.DEFLATE);
+        InflaterInputStream deflateInput = new InflaterInputStream(new ByteArrayInputStream(deflated.toByteArray()));
+        Assert.assertEquals(cache.get(key), new String(ByteStreams.toByteArray(deflateInput), StandardCharsets.UTF_8));
+
+        Assert.assertEquals(payload.length() + gzipped.length() + deflated.length(), cache.getCurrentSizeInBytes());
+        Assert.assertFalse(gzipped.getEntityTag().equals(deflated.getEntityTag()));
+    }
+
+    @Test
+    public void testMetricsByEntityType() throws Exception {
+        ResponseCacheImpl cache = (ResponseCacheImpl) testRegistry.getResponseCache();
+        Key key = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+
+        cache.get(key, false);
+        cache.get(key, false);
+        Assert.assertEquals(0.5, cache.getMetrics().hitRatio(Key.EntityType.Application), 0.001);
+        Assert.assertEquals(0, cache.getMetrics().hitRatio(Key.EntityType.VIP), 0.001);
+        Assert.assertTrue("Payload bytes are not accounted.", cache.getCurrentSizeInBytes() > 0);
+
+        cache.invalidate(key);
+        Assert.assertEquals(0, cache.getCurrentSizeInBytes());
+    }
+
+    @Test
+    public void testByteBudgetEviction() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(true).when(serverConfig).shouldUseReadOnlyResponseCache();
+        PeerAwareInstanceRegistryImpl boundedRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                client
+        );
+        boundedRegistry.init(serverContext.getPeerEurekaNodes());
+        boundedRegistry.syncUp();
+        ResponseCacheImpl unboundedCache = (ResponseCacheImpl) boundedRegistry.getResponseCache();
+        // Both versions have the same payload
+        Key firstKey = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V1, EurekaAccept.full);
+        Key secondKey = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+        unboundedCache.get(firstKey, false);
+        long payloadSize = unboundedCache.getCurrentSizeInBytes();
+        unboundedCache.stop();
+
+        // Room for one payload only
+        doReturn(payloadSize + 1).when(serverConfig).getResponseCacheMaxSizeInBytes();
+        ResponseCacheImpl cache = new ResponseCacheImpl(serverConfig, new DefaultServerCodecs(serverConfig), boundedRegistry);
+        try {
+            Assert.assertNotNull(cache.get(firstKey, true));
+            Assert.assertEquals(payloadSize, cache.getCurrentSizeInBytes());
+
+            Assert.assertNotNull(cache.get(secondKey, true));
+            Assert.assertEquals(1, cache.getMetrics().getEvictions());
+            Assert.assertEquals(payloadSize, cache.getCurrentSizeInBytes());
+
+            // The evicted entry is dropped from the read only cache too, so it is a miss
+            Assert.assertNotNull(cache.get(firstKey, true));
+            Assert.assertEquals(0, cache.getMetrics().hitRatio(Key.EntityType.Application), 0.001);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testVariantsCompressedOnDemandAreWeighed() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(true).when(serverConfig).shouldUseReadOnlyResponseCache();
+        doReturn(true).when(serverConfig).shouldCompressResponseCachePayloadsOnDemand();
+        PeerAwareInstanceRegistryImpl boundedRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                client
+        );
+        boundedRegistry.init(serverContext.getPeerEurekaNodes());
+        boundedRegistry.syncUp();
+        ResponseCacheImpl unboundedCache = (ResponseCacheImpl) boundedRegistry.getResponseCache();
+        // Both versions have the same payload
+        Key firstKey = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V1, EurekaAccept.full);
+        Key secondKey = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+        unboundedCache.get(firstKey, false);
+        long payloadSize = unboundedCache.getCurrentSizeInBytes();
+        unboundedCache.stop();
+
+        // Room for both uncompressed payloads, but not for a compressed variant on top of them
+        doReturn(2 * payloadSize + 1).when(serverConfig).getResponseCacheMaxSizeInBytes();
+        ResponseCacheImpl cache = new ResponseCacheImpl(serverConfig, new DefaultServerCodecs(serverConfig), boundedRegistry);
+        try {
+            Assert.assertNotNull(cache.get(firstKey, false));
+            Assert.assertNotNull(cache.get(secondKey, false));
+            Assert.assertEquals(2 * payloadSize, cache.getCurrentSizeInBytes());
+
+            EncodedPayload gzipped = cache.getPayload(firstKey, PayloadEncoding.GZIP);
+            Assert.assertNotNull(gzipped);
+            Assert.assertEquals(1, cache.getMetrics().getEvictions());
+            Assert.assertEquals(payloadSize + gzipped.length(), cache.getCurrentSizeInBytes());
+            // The compressed payload is still cached
+            Assert.assertSame(gzipped, cache.getPayload(firstKey, PayloadEncoding.GZIP));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testDeltaSincePayloadsAreBoundedByBytes() throws Exception {
+        EurekaServerConfig serverConfig = spy(new DefaultEurekaServerConfig());
+        doReturn(true).when(serverConfig).disableTransparentFallbackToOtherRegion();
+        doReturn(1L).when(serverConfig).getResponseCacheDeltaSinceMaxSizeInBytes();
+        PeerAwareInstanceRegistryImpl boundedRegistry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                new DefaultServerCodecs(serverConfig),
+                client
+        );
+        boundedRegistry.init(serverContext.getPeerEurekaNodes());
+        boundedRegistry.syncUp();
+        ResponseCacheImpl cache = (ResponseCacheImpl) boundedRegistry.getResponseCache();
+        Key key = new Key(Key.EntityType.Application, ResponseCacheImpl.ALL_APPS_DELTA,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+        boundedRegistry.register(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME,
+                LOCAL_REGION_INSTANCE_1_HOSTNAME, InstanceStatus.UP), false);
+        long version = boundedRegistry.getApplicationDeltas().getVersion();
+        boundedRegistry.register(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME,
+                LOCAL_REGION_INSTANCE_2_HOSTNAME, InstanceStatus.UP), false);
+
+        // A payload larger than the budget is served, but not kept
+        EncodedPayload payload = cache.getDeltaSincePayload(key, version, PayloadEncoding.IDENTITY);
+        Assert.assertNotNull(payload);
+        Assert.assertNotSame(payload, cache.getDeltaSincePayload(key, version, PayloadEncoding.IDENTITY));
+        Assert.assertEquals(0, cache.getMetrics().hitRatio(Key.EntityType.Application), 0.001);
+    }
+
+    @Test
+    public void testConcurrentAsyncRequestsShareOneLoad() throws Exception {
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadReleased = new CountDownLatch(1);
+        AbstractInstanceRegistry blockingRegistry = spy(registry);
+        doAnswer(new Answer<Application>() {
+            @Override
+            public Application answer(InvocationOnMock invocation) throws Throwable {
+                loadStarted.countDown();
+                loadReleased.await();
+                return (Application) invocation.callRealMethod();
+            }
+        }).when(blockingRegistry).getApplication(REMOTE_REGION_APP_NAME);
+
+        final AtomicInteger completedResponses = new AtomicInteger();
+        final ExecutorService containerExecutor = Executors.newSingleThreadExecutor();
+        Executor responseExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                completedResponses.incrementAndGet();
+                containerExecutor.execute(command);
+            }
+        };
+
+        ResponseCacheImpl cache = new ResponseCacheImpl(serverConfig, new DefaultServerCodecs(serverConfig), blockingRegistry);
+        try {
+            Key key = new Key(Key.EntityType.Application, REMOTE_REGION_APP_NAME,
+                    Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+            CompletableFuture<EncodedPayload> first = cache.getPayloadAsync(key, PayloadEncoding.IDENTITY, responseExecutor);
+            Assert.assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+            CompletableFuture<EncodedPayload> second = cache.getPayloadAsync(key, PayloadEncoding.IDENTITY, responseExecutor);
+            Assert.assertFalse("Request completed before its payload was generated.", first.isDone() || second.isDone());
+
+            loadReleased.countDown();
+            EncodedPayload payload = first.get(10, TimeUnit.SECONDS);
+            Assert.assertNotNull(payload);
+            Assert.assertSame(payload, second.get(10, TimeUnit.SECONDS));
+            verify(blockingRegistry, times(1)).getApplication(REMOTE_REGION_APP_NAME);
+            // The waiting requests are completed by the container, not by the loader threads
+            Assert.assertEquals(2, completedResponses.get());
+
+            // A cached payload completes the request right away
+            CompletableFuture<EncodedPayload> cached = cache.getPayloadAsync(key, PayloadEncoding.IDENTITY, responseExecutor);
+            Assert.assertTrue(cached.isDone());
+            Assert.assertSame(payload, cached.get());
+            Assert.assertEquals(2, completedResponses.get());
+        } finally {
+            cache.stop();
+            containerExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeltaSincePayloadIsSharedUntilRegistryChanges() throws Exception {
+        ResponseCacheImpl cache = (ResponseCacheImpl) testRegistry.getResponseCache();
+        Key key = new Key(Key.EntityType.Application, ResponseCacheImpl.ALL_APPS_DELTA,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full);
+        testRegistry.register(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_1_HOSTNAME,
+                LOCAL_REGION_INSTANCE_1_HOSTNAME, InstanceStatus.UP), false);
+        long version = testRegistry.getApplicationDeltas().getVersion();
+        testRegistry.register(createLocalInstanceWithIdAndStatus(LOCAL_REGION_INSTANCE_2_HOSTNAME,
+                LOCAL_REGION_INSTANCE_2_HOSTNAME, InstanceStatus.UP), false);
+
+        EncodedPayload payload = cache.getDeltaSincePayload(key, version, PayloadEncoding.IDENTITY);
+        Assert.assertNotNull("Delta since a known version not available.", payload);
+        Assert.assertTrue(payload.toString().contains(LOCAL_REGION_INSTANCE_2_HOSTNAME));
+        Assert.assertFalse("Delta contains changes seen before.",
+                payload.toString().contains('"' + LOCAL_REGION_INSTANCE_1_HOSTNAME + '"'));
+        Assert.assertSame(payload, cache.getDeltaSincePayload(key, version, PayloadEncoding.IDENTITY));
+        Assert.assertEquals(0.5, cache.getMetrics().hitRatio(Key.EntityType.Application), 0.001);
+
+        EncodedPayload gzipped = cache.getDeltaSincePayload(key, version, PayloadEncoding.GZIP);
+        GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()));
+        Assert.assertEquals(payload.toString(), new String(ByteStreams.toByteArray(gzipInput), StandardCharsets.UTF_8));
+
+        testRegistry.cancel(LOCAL_REGION_APP_NAME, LOCAL_REGION_INSTANCE_2_HOSTNAME, false);
+        EncodedPayload changed = cache.getDeltaSincePayload(key, version, PayloadEncoding.IDENTITY);
+        Assert.assertNotNull(changed);
+        Assert.assertNotSame("Payload not regenerated after a registry change.", payload, changed);
+        Assert.assertTrue(changed.toString().contains(InstanceInfo.ActionType.DELETED.name()));
+
+        Assert.assertNull("Foreign version accepted.", cache.getDeltaSincePayload(key, 1L, PayloadEncoding.IDENTITY));
+    }
+
+    private static void verifyAllAppsPayloads(ResponseCacheImpl cache, ServerCodecs serverCodecs,
+                                              AbstractInstanceRegistry registry) throws Exception {
+        for (Key.KeyType keyType : Key.KeyType.values()) {
+            for (EurekaAccept eurekaAccept : EurekaAccept.values()) {
+                Key key = new Key(Key.EntityType.Application, ResponseCacheImpl.ALL_APPS, keyType, Version.V2, eurekaAccept);
+                String payload = cache.get(key, false);
+                String expected = serverCodecs.getEncoder(keyType, eurekaAccept).encode(registry.getApplications());
+                Assert.assertEquals("Assembled payload differs for " + keyType + '/' + eurekaAccept, expected, payload);
+            }
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.netflix.eureka.registry.rule;
+
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatusOverrideResultTest {
+
+    @Test
+    public void testMatchingResultsAreSharedPerStatus() throws Exception {
+        for (InstanceStatus status : InstanceStatus.values()) {
+            StatusOverrideResult result = StatusOverrideResult.matchingStatus(status);
+            Assert.assertTrue(result.matches());
+            Assert.assertEquals(status, result.status());
+            Assert.assertSame(result, StatusOverrideResult.matchingStatus(status));
+        }
+    }
+
+    @Test
+    public void testMatchingResultWithoutStatus() throws Exception {
+        StatusOverrideResult result = StatusOverrideResult.matchingStatus(null);
+        Assert.assertTrue(result.matches());
+        Assert.assertNull(result.status());
+    }
+
+    @Test
+    public void testNoMatch() throws Exception {
+        Assert.assertFalse(StatusOverrideResult.NO_MATCH.matches());
+        Assert.assertNull(StatusOverrideResult.NO_MATCH.status());
+    }
+}
@@ -37,8 +37,9 @@ public class AbstractVIPResourceTest extends AbstractTester {
 
         resource = new AbstractVIPResource(serverContext) {
             @Override
-            protected Response getVipResponse(String version, String entityName, String acceptHeader, EurekaAccept eurekaAccept, Key.EntityType entityType) {
-                return super.getVipResponse(version, entityName, acceptHeader, eurekaAccept, entityType);
+            protected Response getVipResponse(String version, String entityName, String acceptHeader, EurekaAccept eurekaAccept,
+                                              Key.EntityType entityType, String ifNoneMatch) {
+                return super.getVipResponse(version, entityName, acceptHeader, eurekaAccept, entityType, ifNoneMatch);
             }
         };
 
@@ -60,7 +61,8 @@ public class AbstractVIPResourceTest extends AbstractTester {
                 vipName,
                 MediaType.APPLICATION_JSON,
                 EurekaAccept.full,
-                Key.EntityType.VIP
+                Key.EntityType.VIP,
+                null  // if none match
         );
 
         String json = String.valueOf(response.getEntity());
@@ -78,7 +80,8 @@ public class AbstractVIPResourceTest extends AbstractTester {
                 vipName,
                 MediaType.APPLICATION_JSON,
                 EurekaAccept.compact,
-                Key.EntityType.VIP
+                Key.EntityType.VIP,
+                null  // if none match
         );
 
         String json = String.valueOf(response.getEntity());
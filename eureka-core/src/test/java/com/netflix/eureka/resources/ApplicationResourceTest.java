@@ -51,7 +51,8 @@ public class ApplicationResourceTest extends AbstractTester {
         Response response = applicationResource.getApplication(
                 Version.V2.name(),
                 MediaType.APPLICATION_JSON,
-                EurekaAccept.full.name()
+                EurekaAccept.full.name(),
+                null  // if none match
         );
 
         String json = String.valueOf(response.getEntity());
@@ -66,7 +67,8 @@ public class ApplicationResourceTest extends AbstractTester {
         Response response = applicationResource.getApplication(
                 Version.V2.name(),
                 MediaType.APPLICATION_JSON,
-                EurekaAccept.compact.name()
+                EurekaAccept.compact.name(),
+                null  // if none match
         );
 
         String json = String.valueOf(response.getEntity());
@@ -7,6 +7,9 @@ import com.netflix.discovery.converters.wrappers.CodecWrappers;
 import com.netflix.discovery.converters.wrappers.DecoderWrapper;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse.HeartbeatResult;
 import com.netflix.discovery.util.InstanceInfoGenerator;
 import com.netflix.eureka.AbstractTester;
 import com.netflix.eureka.Version;
@@ -15,8 +18,11 @@ import org.junit.Test;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
@@ -50,7 +56,8 @@ public class ApplicationsResourceTest extends AbstractTester {
                 null, // encoding
                 EurekaAccept.full.name(),
                 null,  // uriInfo
-                null  // remote regions
+                null,  // remote regions
+                null  // if none match
         );
 
         String json = String.valueOf(response.getEntity());
@@ -72,7 +79,8 @@ public class ApplicationsResourceTest extends AbstractTester {
                 "gzip", // encoding
                 EurekaAccept.full.name(),
                 null,  // uriInfo
-                null  // remote regions
+                null,  // remote regions
+                null  // if none match
         );
 
         assertThat(response.getMetadata().getFirst("Content-Encoding").toString(), is("gzip"));
@@ -87,7 +95,8 @@ public class ApplicationsResourceTest extends AbstractTester {
                 "gzip", // encoding
                 EurekaAccept.full.name(),
                 null,  // uriInfo
-                null  // remote regions
+                null,  // remote regions
+                null  // if none match
         );
 
         assertThat(response.getMetadata().getFirst("Content-Encoding").toString(), is("gzip"));
@@ -102,7 +111,8 @@ public class ApplicationsResourceTest extends AbstractTester {
                 null, // encoding
                 EurekaAccept.compact.name(),
                 null,  // uriInfo
-                null  // remote regions
+                null,  // remote regions
+                null  // if none match
         );
 
         String json = String.valueOf(response.getEntity());
@@ -126,4 +136,62 @@ public class ApplicationsResourceTest extends AbstractTester {
             }
         }
     }
+
+    @Test
+    public void testFullAppsGetNotModified() throws Exception {
+        Response response = applicationsResource.getContainers(
+                Version.V2.name(),
+                MediaType.APPLICATION_JSON,
+                null, // encoding
+                EurekaAccept.full.name(),
+                null,  // uriInfo
+                null,  // remote regions
+                null  // if none match
+        );
+        String entityTag = response.getMetadata().getFirst("ETag").toString();
+
+        Response notModified = applicationsResource.getContainers(
+                Version.V2.name(),
+                MediaType.APPLICATION_JSON,
+                null, // encoding
+                EurekaAccept.full.name(),
+                null,  // uriInfo
+                null,  // remote regions
+                "\"other\", " + entityTag
+        );
+        assertThat(notModified.getStatus(), is(304));
+        assertThat(notModified.getEntity(), is(nullValue()));
+        assertThat(notModified.getMetadata().getFirst("ETag").toString(), is(entityTag));
+
+        // The gzipped payload is a different representation, with its own entity tag
+        Response gzipped = applicationsResource.getContainers(
+                Version.V2.name(),
+                MediaType.APPLICATION_JSON,
+                "gzip", // encoding
+                EurekaAccept.full.name(),
+                null,  // uriInfo
+                null,  // remote regions
+                entityTag
+        );
+        assertThat(gzipped.getStatus(), is(200));
+        assertThat(gzipped.getMetadata().getFirst("ETag").toString(), is(not(entityTag)));
+    }
+
+    @Test
+    public void testBatchHeartbeats() throws Exception {
+        InstanceInfo registered = testApplications.getRegisteredApplications().get(0).getInstances().get(0);
+        HeartbeatBatch heartbeatBatch = new HeartbeatBatch();
+        heartbeatBatch.addHeartbeat(HeartbeatBatch.Heartbeat.of(registered.getAppName(), registered.getId(), registered, null));
+        heartbeatBatch.addHeartbeat(new HeartbeatBatch.Heartbeat(registered.getAppName(), "unknownId", "UP", null, null));
+
+        Response response = applicationsResource.batchHeartbeats(Version.V2.name(), null, heartbeatBatch);
+        assertThat(response.getStatus(), is(200));
+
+        List<HeartbeatResult> results = ((HeartbeatBatchResponse) response.getEntity()).getResults();
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).getId(), is(registered.getId()));
+        assertThat(results.get(0).getStatusCode(), is(200));
+        assertThat(results.get(1).getId(), is("unknownId"));
+        assertThat(results.get(1).getStatusCode(), is(404));
+    }
 }
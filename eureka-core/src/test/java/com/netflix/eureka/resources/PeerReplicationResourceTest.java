@@ -2,18 +2,33 @@ package com.netflix.eureka.resources;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.shared.transport.ClusterSampleData;
 import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.cluster.PeerEurekaNodes;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList.AppHeartbeats;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationListResponse.HeartbeatFailure;
 import com.netflix.eureka.cluster.protocol.ReplicationInstance;
 import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
 import com.netflix.eureka.cluster.protocol.ReplicationList;
 import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.lease.Lease;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import static com.netflix.discovery.shared.transport.ClusterSampleData.newReplicationInstanceOf;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -21,6 +36,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -43,7 +59,11 @@ public class PeerReplicationResourceTest {
     public void setUp() {
         serverContext = mock(EurekaServerContext.class);
         when(serverContext.getServerConfig()).thenReturn(mock(EurekaServerConfig.class));
-        peerReplicationResource = new PeerReplicationResource(serverContext) {
+        peerReplicationResource = createPeerReplicationResource();
+    }
+
+    private PeerReplicationResource createPeerReplicationResource() {
+        return new PeerReplicationResource(serverContext) {
             @Override
             ApplicationResource createApplicationResource(ReplicationInstance instanceInfo) {
                 return applicationResource;
@@ -133,6 +153,94 @@ public class PeerReplicationResourceTest {
         );
     }
 
+    @Test
+    public void testParallelBatchProcessingKeepsOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PeerEurekaNodes peerEurekaNodes = mock(PeerEurekaNodes.class);
+            when(peerEurekaNodes.getBatchReplicationExecutor()).thenReturn(executor);
+            when(serverContext.getPeerEurekaNodes()).thenReturn(peerEurekaNodes);
+            peerReplicationResource = createPeerReplicationResource();
+
+            // The last dirty timestamps identify the heartbeats; the odd ones are not found
+            final List<Long> processed = Collections.synchronizedList(new ArrayList<Long>());
+            when(instanceResource.renewLease(anyString(), anyString(), anyString(), anyString())).thenAnswer(new Answer<Response>() {
+                @Override
+                public Response answer(InvocationOnMock invocation) throws Throwable {
+                    long lastDirtyTimestamp = Long.parseLong((String) invocation.getArguments()[3]);
+                    processed.add(lastDirtyTimestamp);
+                    return Response.status(lastDirtyTimestamp % 2 == 0 ? Status.OK : Status.NOT_FOUND).build();
+                }
+            });
+            ReplicationList replicationList = new ReplicationList();
+            int instanceCount = 10;
+            int heartbeatsPerInstance = 5;
+            for (int i = 0; i < heartbeatsPerInstance; i++) {
+                for (int j = 0; j < instanceCount; j++) {
+                    InstanceInfo instance = ClusterSampleData.newInstanceInfo(j);
+                    replicationList.addReplicationInstance(ReplicationInstance.replicationInstance()
+                            .withAppName(instance.getAppName())
+                            .withId(instance.getId())
+                            .withLastDirtyTimestamp((long) (i * instanceCount + j))
+                            .withStatus(instance.getStatus().name())
+                            .withOverriddenStatus(InstanceInfo.InstanceStatus.UNKNOWN.name())
+                            .withAction(Action.Heartbeat)
+                            .build());
+                }
+            }
+
+            Response response = peerReplicationResource.batchReplication(replicationList);
+
+            List<ReplicationInstanceResponse> responses = ((ReplicationListResponse) response.getEntity()).getResponseList();
+            assertThat(responses.size(), is(equalTo(replicationList.getReplicationList().size())));
+            for (int i = 0; i < responses.size(); i++) {
+                assertThat(responses.get(i).getStatusCode(), is(equalTo(i % 2 == 0 ? 200 : 404)));
+            }
+            // The heartbeats of each instance are processed in order
+            long[] lastProcessed = new long[instanceCount];
+            Arrays.fill(lastProcessed, -1);
+            for (long lastDirtyTimestamp : processed) {
+                int instance = (int) (lastDirtyTimestamp % instanceCount);
+                assertThat(lastDirtyTimestamp > lastProcessed[instance], is(true));
+                lastProcessed[instance] = lastDirtyTimestamp;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompactHeartbeats() throws Exception {
+        EurekaServerConfig serverConfig = mock(EurekaServerConfig.class);
+        when(serverConfig.shouldSyncWhenTimestampDiffers()).thenReturn(true);
+        PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+        when(serverContext.getServerConfig()).thenReturn(serverConfig);
+        when(serverContext.getRegistry()).thenReturn(registry);
+        String appName = instanceInfo.getAppName();
+        when(registry.renewAndGet(eq(appName), eq(instanceInfo.getId()), eq(true)))
+                .thenReturn(new Lease<>(instanceInfo, 90));
+
+        AppHeartbeats appHeartbeats = new AppHeartbeats(appName.toLowerCase());
+        appHeartbeats.addHeartbeat(instanceInfo.getId(), instanceInfo.getLastDirtyTimestamp(), null);
+        appHeartbeats.addHeartbeat("unknownId", instanceInfo.getLastDirtyTimestamp(), null);
+        appHeartbeats.addHeartbeat(instanceInfo.getId(), instanceInfo.getLastDirtyTimestamp() - 1, null);
+        HeartbeatReplicationList heartbeatList = new HeartbeatReplicationList();
+        heartbeatList.addAppHeartbeats(appHeartbeats);
+
+        Response response = new PeerReplicationResource(serverContext).batchHeartbeats(heartbeatList);
+
+        assertThat(response.getStatus(), is(equalTo(200)));
+        HeartbeatReplicationListResponse entity = (HeartbeatReplicationListResponse) response.getEntity();
+        assertThat(entity.getFailures().size(), is(equalTo(2)));
+        HeartbeatFailure notFound = entity.getFailures().get(0);
+        assertThat(notFound.getIndex(), is(equalTo(1)));
+        assertThat(notFound.getStatusCode(), is(equalTo(404)));
+        HeartbeatFailure conflict = entity.getFailures().get(1);
+        assertThat(conflict.getIndex(), is(equalTo(2)));
+        assertThat(conflict.getStatusCode(), is(equalTo(409)));
+        assertThat(conflict.getResponseEntity(), is(equalTo(instanceInfo)));
+    }
+
     private static void assertStatusOkReply(Response httpResponse) {
         assertStatus(httpResponse, 200);
     }
@@ -0,0 +1,136 @@
+package com.netflix.eureka.util.batcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
+
+/**
+ * Measures the throughput of a batching {@link TaskDispatcher}, and the latency of submitting a task to it, with
+ * many producer threads submitting tasks concurrently, as the registry threads do when replicating to a peer.
+ * The tasks are spread over a fixed set of ids, so some of them are overridden by newer ones before being dispatched.
+ *
+ * <p>
+ * Arguments (all optional): producer thread count, task id count, test duration in seconds, worker thread count.
+ * </p>
+ */
+public class AcceptorExecutorLoadTester {
+
+    private static final int MAX_BUFFER_SIZE = 10000;
+    private static final int BATCH_SIZE = 250;
+    private static final long MAX_BATCHING_DELAY_MS = 500;
+
+    private final int producerCount;
+    private final int idCount;
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicLong processedTasks = new AtomicLong();
+    private final TaskDispatcher<Integer, Integer> dispatcher;
+
+    public AcceptorExecutorLoadTester(int producerCount, int idCount, int workerCount) {
+        this.producerCount = producerCount;
+        this.idCount = idCount;
+        this.dispatcher = TaskDispatchers.createBatchingTaskDispatcher(
+                "LoadTest",
+                MAX_BUFFER_SIZE,
+                BATCH_SIZE,
+                workerCount,
+                MAX_BATCHING_DELAY_MS,
+                1000,
+                100,
+                new TaskProcessor<Integer>() {
+                    @Override
+                    public ProcessingResult process(Integer task) {
+                        processedTasks.incrementAndGet();
+                        return ProcessingResult.Success;
+                    }
+
+                    @Override
+                    public ProcessingResult process(List<Integer> tasks) {
+                        processedTasks.addAndGet(tasks.size());
+                        return ProcessingResult.Success;
+                    }
+                }
+        );
+    }
+
+    public void run(long durationSec) throws InterruptedException {
+        final List<long[]> latencies = new ArrayList<>();
+        final long[] taskCounts = new long[producerCount];
+        final CountDownLatch doneLatch = new CountDownLatch(producerCount);
+
+        for (int i = 0; i < producerCount; i++) {
+            // Only the latest samples are kept, as the producers are not limited in the number of tasks
+            final long[] samples = new long[1_000_000];
+            final int producerIdx = i;
+            latencies.add(samples);
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    long count = 0;
+                    int id = producerIdx;
+                    while (running.get()) {
+                        long start = System.nanoTime();
+                        dispatcher.process(id, id, System.currentTimeMillis() + 60 * 1000);
+                        samples[(int) (count++ % samples.length)] = System.nanoTime() - start;
+                        id = (id + producerCount) % idCount;
+                    }
+                    taskCounts[producerIdx] = count;
+                    doneLatch.countDown();
+                }
+            }, "TaskProducer-" + i);
+            producer.start();
+        }
+
+        long startTime = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSec));
+        running.set(false);
+        doneLatch.await();
+        double elapsedSec = (System.nanoTime() - startTime) / 1e9;
+        long processed = processedTasks.get();
+        dispatcher.shutdown();
+
+        long total = 0;
+        int sampleCount = 0;
+        for (long count : taskCounts) {
+            total += count;
+            sampleCount += (int) Math.min(count, latencies.get(0).length);
+        }
+        long[] all = new long[sampleCount];
+        int offset = 0;
+        for (int i = 0; i < producerCount; i++) {
+            int producerSamples = (int) Math.min(taskCounts[i], latencies.get(i).length);
+            System.arraycopy(latencies.get(i), 0, all, offset, producerSamples);
+            offset += producerSamples;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("Producers=%d, submitted tasks=%d (%.0f/s), processed tasks=%d (%.0f/s)%n",
+                producerCount, total, total / elapsedSec, processed, processed / elapsedSec);
+        System.out.printf("Enqueue latency [us]: p50=%.2f p99=%.2f p99.9=%.2f max=%.1f%n",
+                percentile(all, 0.5), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int idx = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, idx)] / 1000.0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int producerCount = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int idCount = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        long durationSec = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        int workerCount = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        new AcceptorExecutorLoadTester(producerCount, idCount, workerCount).run(durationSec);
+        System.exit(0);
+    }
+}
@@ -17,9 +17,9 @@
 package com.netflix.eureka.util.batcher;
 
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import com.netflix.eureka.util.batcher.AcceptorExecutor.WorkQueue;
 import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +28,7 @@ import org.junit.Test;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -117,9 +118,36 @@ public class AcceptorExecutorTest {
         verifyTaskHolder(firstTaskHolder, 1, "Task1");
     }
 
+    @Test
+    public void testHigherPriorityTasksAreDispatchedFirst() throws Exception {
+        acceptorExecutor.process(1, "Task1", System.currentTimeMillis() + 60 * 1000, TaskPriority.Low);
+        acceptorExecutor.process(2, "Task2", System.currentTimeMillis() + 60 * 1000, TaskPriority.Normal);
+        acceptorExecutor.process(3, "Task3", System.currentTimeMillis() + 60 * 1000, TaskPriority.High);
+
+        verifyTaskHolder(acceptorExecutor.requestWorkItem().poll(5, TimeUnit.SECONDS), 3, "Task3");
+        verifyTaskHolder(acceptorExecutor.requestWorkItem().poll(5, TimeUnit.SECONDS), 2, "Task2");
+        verifyTaskHolder(acceptorExecutor.requestWorkItem().poll(5, TimeUnit.SECONDS), 1, "Task1");
+    }
+
+    @Test
+    public void testWhenBufferOverflowsLowestPriorityTasksAreRemoved() throws Exception {
+        acceptorExecutor.process(1, "Task1", System.currentTimeMillis() + 60 * 1000, TaskPriority.Low);
+        acceptorExecutor.process(2, "Task2", System.currentTimeMillis() + 60 * 1000, TaskPriority.High);
+        acceptorExecutor.process(3, "Task3", System.currentTimeMillis() + 60 * 1000, TaskPriority.High);
+        // Task 1 should be dropped out
+        acceptorExecutor.process(4, "Task4", System.currentTimeMillis() + 60 * 1000, TaskPriority.Normal);
+        // Task 5 should be dropped out, as all the pending tasks have a higher priority
+        acceptorExecutor.process(5, "Task5", System.currentTimeMillis() + 60 * 1000, TaskPriority.Low);
+
+        verifyTaskHolder(acceptorExecutor.requestWorkItem().poll(5, TimeUnit.SECONDS), 2, "Task2");
+        verifyTaskHolder(acceptorExecutor.requestWorkItem().poll(5, TimeUnit.SECONDS), 3, "Task3");
+        verifyTaskHolder(acceptorExecutor.requestWorkItem().poll(5, TimeUnit.SECONDS), 4, "Task4");
+        assertThat(acceptorExecutor.requestWorkItem().poll(100, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
     @Test
     public void testTasksAreDelayToMaximizeBatchSize() throws Exception {
-        BlockingQueue<List<TaskHolder<Integer, String>>> taskQueue = acceptorExecutor.requestWorkItems();
+        WorkQueue<List<TaskHolder<Integer, String>>> taskQueue = acceptorExecutor.requestWorkItems();
 
         acceptorExecutor.process(1, "Task1", System.currentTimeMillis() + 60 * 1000);
         Thread.sleep(MAX_BATCHING_DELAY_MS / 2);
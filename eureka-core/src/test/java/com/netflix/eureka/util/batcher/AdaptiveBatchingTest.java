@@ -0,0 +1,77 @@
+package com.netflix.eureka.util.batcher;
+
+import com.netflix.eureka.util.batcher.TaskProcessor.ProcessingResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveBatchingTest {
+
+    private static final long TARGET_LATENCY_MS = 100;
+
+    private AdaptiveBatching adaptiveBatching;
+
+    @Before
+    public void setUp() throws Exception {
+        adaptiveBatching = new AdaptiveBatching(10, 40, 50, 200, TARGET_LATENCY_MS);
+    }
+
+    @Test
+    public void testHealthyBatchesGrowUpToTheLimits() throws Exception {
+        assertEquals(10, adaptiveBatching.getBatchSize());
+        assertEquals(200, adaptiveBatching.getBatchingDelay());
+
+        adaptiveBatching.registerBatchResult(ProcessingResult.Success, System.currentTimeMillis(), 10);
+        assertEquals(20, adaptiveBatching.getBatchSize());
+        assertEquals(150, adaptiveBatching.getBatchingDelay());
+
+        for (int i = 0; i < 10; i++) {
+            adaptiveBatching.registerBatchResult(ProcessingResult.Success, System.currentTimeMillis(), 10);
+        }
+        assertEquals(40, adaptiveBatching.getBatchSize());
+        assertEquals(50, adaptiveBatching.getBatchingDelay());
+    }
+
+    @Test
+    public void testSlowOrFailedBatchesBackOff() throws Exception {
+        growToTheLimits();
+
+        adaptiveBatching.registerBatchResult(ProcessingResult.Success, System.currentTimeMillis(), 2 * TARGET_LATENCY_MS);
+        assertEquals(20, adaptiveBatching.getBatchSize());
+        assertEquals(100, adaptiveBatching.getBatchingDelay());
+
+        adaptiveBatching.registerBatchResult(ProcessingResult.Congestion, System.currentTimeMillis(), 10);
+        assertEquals(10, adaptiveBatching.getBatchSize());
+        assertEquals(200, adaptiveBatching.getBatchingDelay());
+
+        adaptiveBatching.registerBatchResult(ProcessingResult.TransientError, System.currentTimeMillis(), 10);
+        assertEquals(10, adaptiveBatching.getBatchSize());
+        assertEquals(200, adaptiveBatching.getBatchingDelay());
+    }
+
+    @Test
+    public void testBatchesInFlightBackOffOnce() throws Exception {
+        growToTheLimits();
+        long inFlightStartTime = System.currentTimeMillis() - 1000;
+
+        adaptiveBatching.registerBatchResult(ProcessingResult.Congestion, inFlightStartTime, 10);
+        adaptiveBatching.registerBatchResult(ProcessingResult.Congestion, inFlightStartTime, 10);
+        adaptiveBatching.registerBatchResult(ProcessingResult.TransientError, inFlightStartTime, 10);
+        assertEquals(20, adaptiveBatching.getBatchSize());
+        assertEquals(100, adaptiveBatching.getBatchingDelay());
+    }
+
+    @Test
+    public void testPermanentErrorsAreIgnored() throws Exception {
+        adaptiveBatching.registerBatchResult(ProcessingResult.PermanentError, System.currentTimeMillis(), 2 * TARGET_LATENCY_MS);
+        assertEquals(10, adaptiveBatching.getBatchSize());
+        assertEquals(200, adaptiveBatching.getBatchingDelay());
+    }
+
+    private void growToTheLimits() {
+        for (int i = 0; i < 10; i++) {
+            adaptiveBatching.registerBatchResult(ProcessingResult.Success, System.currentTimeMillis(), 10);
+        }
+    }
+}
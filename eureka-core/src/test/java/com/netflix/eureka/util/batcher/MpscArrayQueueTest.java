@@ -0,0 +1,76 @@
+package com.netflix.eureka.util.batcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MpscArrayQueueTest {
+
+    @Test
+    public void testBoundedFifoOrder() throws Exception {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+        assertEquals(4, queue.capacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+
+        assertEquals(Integer.valueOf(0), queue.poll());
+        assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final int producerCount = 4;
+        final int itemsPerProducer = 100000;
+        final MpscArrayQueue<int[]> queue = new MpscArrayQueue<>(64);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            final int producerIdx = i;
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int item = 0; item < itemsPerProducer; item++) {
+                        while (!queue.offer(new int[]{producerIdx, item})) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        // Each producer's items are consumed in the order they were offered
+        int[] nextItems = new int[producerCount];
+        int consumed = 0;
+        while (consumed < producerCount * itemsPerProducer) {
+            int[] element = queue.poll();
+            if (element == null) {
+                Thread.yield();
+            } else {
+                assertEquals(nextItems[element[0]]++, element[1]);
+                consumed++;
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
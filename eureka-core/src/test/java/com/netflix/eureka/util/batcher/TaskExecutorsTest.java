@@ -51,8 +51,8 @@ public class TaskExecutorsTest {
 
     @Before
     public void setUp() throws Exception {
-        when(acceptorExecutor.requestWorkItem()).thenReturn(taskQueue);
-        when(acceptorExecutor.requestWorkItems()).thenReturn(taskBatchQueue);
+        when(acceptorExecutor.requestWorkItem()).thenReturn(taskQueue::poll);
+        when(acceptorExecutor.requestWorkItems()).thenReturn(taskBatchQueue::poll);
     }
 
     @After
@@ -0,0 +1,513 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.netty;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.netflix.appinfo.EurekaAccept;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.Version;
+import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.cluster.protocol.HeartbeatReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.registry.EncodedPayload;
+import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.CurrentRequestVersion;
+import com.netflix.eureka.resources.EurekaResources;
+import com.netflix.eureka.resources.Heartbeats;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.timeout.IdleStateEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the eureka REST API over a netty HTTP pipeline, with the same semantics as the <em>jersey</em> resources,
+ * through {@link EurekaResources}. The requests are served as follows:
+ * <ul>
+ * <li>
+ *     the heartbeats of the clients, single or batched, the compact heartbeat batches of the peers, and the queries
+ *     of all applications and of the delta, are served on the event loop: a lease renewal does not block, and a
+ *     query whose payload is not cached yet is completed by the {@link com.netflix.eureka.registry.ResponseCache}
+ *     when the payload is ready, without holding a thread
+ * </li>
+ * <li>
+ *     the requests that may block, that is registrations, cancellations, status and metadata updates, ASG status
+ *     updates, the queries of an application, an instance or a VIP address, the deltas since a version and the
+ *     batches replicated from the peers, are served by the given executor
+ * </li>
+ * </ul>
+ * Other requests are answered with <code>404 Not Found</code>. The servlet filters of the WAR deployment, such as
+ * the rate limiting and the request authentication, are not applied. The responses of a connection are written
+ * as they complete, so pipelined requests are not supported; none of the eureka clients pipeline.
+ */
+@Sharable
+public class EurekaHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+    private static final Logger logger = LoggerFactory.getLogger(EurekaHttpHandler.class);
+
+    private static final String APPS = "apps";
+    private static final String DELTA = "delta";
+    private static final String STATUS = "status";
+    private static final String METADATA = "metadata";
+    private static final String INSTANCES = "instances";
+    private static final String VIPS = "vips";
+    private static final String SVIPS = "svips";
+    private static final String ASG = "asg";
+    private static final String PEER_REPLICATION = "peerreplication";
+    private static final String BATCH = "batch";
+    private static final String HEARTBEATS = "heartbeats";
+
+    // The codecs of the entities, as registered in jersey by the discovery provider
+    private static final CodecWrapper JSON_CODEC = CodecWrappers.getCodec(CodecWrappers.LegacyJacksonJson.class);
+    private static final CodecWrapper XML_CODEC = CodecWrappers.getCodec(CodecWrappers.XStreamXml.class);
+
+    private final EurekaServerConfig serverConfig;
+    private final PeerAwareInstanceRegistry registry;
+    private final EurekaResources resources;
+    private final String contextPath;
+    private final Executor blockingExecutor;
+
+    /**
+     * @param contextPath the path prefix of the resources, for instance <code>/eureka</code>, or an empty string
+     * @param blockingExecutor the executor of the requests that may block
+     */
+    public EurekaHttpHandler(EurekaServerContext serverContext, String contextPath, Executor blockingExecutor) {
+        this.serverConfig = serverContext.getServerConfig();
+        this.registry = serverContext.getRegistry();
+        this.resources = new EurekaResources(serverContext);
+        this.contextPath = contextPath.endsWith("/")
+                ? contextPath.substring(0, contextPath.length() - 1)
+                : contextPath;
+        this.blockingExecutor = blockingExecutor;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        if (!request.decoderResult().isSuccess()) {
+            send(ctx, keepAlive, Response.status(Status.BAD_REQUEST).build(), Key.KeyType.JSON);
+            return;
+        }
+        try {
+            if (!dispatch(ctx, request, keepAlive)) {
+                send(ctx, keepAlive, Response.status(Status.NOT_FOUND).build(), Key.KeyType.JSON);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.debug("Invalid request {} {}", request.method(), request.uri(), e);
+            send(ctx, keepAlive, Response.status(Status.BAD_REQUEST).build(), Key.KeyType.JSON);
+        } catch (RuntimeException e) {
+            logger.error("Cannot serve {} {}", request.method(), request.uri(), e);
+            send(ctx, keepAlive, Response.serverError().build(), Key.KeyType.JSON);
+        }
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object event) throws Exception {
+        if (event instanceof IdleStateEvent) {
+            ctx.close();
+        } else {
+            super.userEventTriggered(ctx, event);
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        logger.debug("Closing connection {} after an error", ctx.channel().remoteAddress(), cause);
+        ctx.close();
+    }
+
+    /**
+     * @return false if the request matches no resource
+     */
+    private boolean dispatch(ChannelHandlerContext ctx, FullHttpRequest request, boolean keepAlive) {
+        QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+        List<String> segments = pathSegments(request.uri());
+        if (segments == null || segments.size() < 2) {
+            return false;
+        }
+        HttpMethod method = request.method();
+        HttpHeaders headers = request.headers();
+        String version = segments.get(0);
+        String resource = segments.get(1);
+        String isReplication = headers.get(PeerEurekaNode.HEADER_REPLICATION);
+        Key.KeyType keyType = keyTypeOf(headers.get(HttpHeaderNames.ACCEPT));
+
+        if (PEER_REPLICATION.equals(resource)) {
+            if (segments.size() == 3 && BATCH.equals(segments.get(2)) && method == HttpMethod.POST) {
+                ReplicationList replicationList = decode(request, ReplicationList.class);
+                serveBlocking(ctx, keepAlive, version, Key.KeyType.JSON,
+                        () -> resources.batchReplication(replicationList));
+                return true;
+            }
+            if (segments.size() == 3 && HEARTBEATS.equals(segments.get(2)) && method == HttpMethod.POST) {
+                HeartbeatReplicationList heartbeatList = decode(request, HeartbeatReplicationList.class);
+                send(ctx, keepAlive, resources.batchPeerHeartbeats(heartbeatList), Key.KeyType.JSON);
+                return true;
+            }
+            return false;
+        }
+        if (INSTANCES.equals(resource)) {
+            if (segments.size() == 3 && method == HttpMethod.GET) {
+                String id = segments.get(2);
+                serveBlocking(ctx, keepAlive, version, keyType, () -> resources.getInstanceById(version, id));
+                return true;
+            }
+            return false;
+        }
+        if (VIPS.equals(resource) || SVIPS.equals(resource)) {
+            if (segments.size() == 3 && method == HttpMethod.GET) {
+                String vipAddress = segments.get(2);
+                boolean secure = SVIPS.equals(resource);
+                serveBlocking(ctx, keepAlive, version, keyType, () -> resources.getVip(
+                        version,
+                        vipAddress,
+                        secure,
+                        headers.get(HttpHeaderNames.ACCEPT),
+                        headers.get(EurekaAccept.HTTP_X_EUREKA_ACCEPT),
+                        headers.get(HttpHeaderNames.IF_NONE_MATCH)
+                ));
+                return true;
+            }
+            return false;
+        }
+        if (ASG.equals(resource)) {
+            if (segments.size() == 4 && STATUS.equals(segments.get(3)) && method == HttpMethod.PUT) {
+                String asgName = segments.get(2);
+                String newStatus = parameter(uri, "value");
+                serveBlocking(ctx, keepAlive, version, keyType,
+                        () -> resources.asgStatusUpdate(asgName, newStatus, isReplication));
+                return true;
+            }
+            return false;
+        }
+        if (!APPS.equals(resource)) {
+            return false;
+        }
+
+        switch (segments.size()) {
+            case 2:
+                if (method == HttpMethod.GET) {
+                    serveApplications(ctx, keepAlive, uri, headers, version, false);
+                    return true;
+                }
+                return false;
+            case 3:
+                String appName = segments.get(2);
+                if (method == HttpMethod.GET && DELTA.equals(appName)) {
+                    serveApplications(ctx, keepAlive, uri, headers, version, true);
+                    return true;
+                }
+                if (method == HttpMethod.POST && HEARTBEATS.equals(appName)) {
+                    // The renewals do not block, as for a single heartbeat
+                    HeartbeatBatch heartbeatBatch = decode(request, HeartbeatBatch.class);
+                    send(ctx, keepAlive, resources.batchHeartbeats(version, isReplication, heartbeatBatch),
+                            Key.KeyType.JSON);
+                    return true;
+                }
+                if (method == HttpMethod.GET) {
+                    serveBlocking(ctx, keepAlive, version, keyType, () -> resources.getApplication(
+                            version,
+                            appName,
+                            headers.get(HttpHeaderNames.ACCEPT),
+                            headers.get(EurekaAccept.HTTP_X_EUREKA_ACCEPT),
+                            headers.get(HttpHeaderNames.IF_NONE_MATCH)
+                    ));
+                    return true;
+                }
+                if (method == HttpMethod.POST) {
+                    InstanceInfo instanceInfo = decode(request, InstanceInfo.class);
+                    serveBlocking(ctx, keepAlive, version, keyType,
+                            () -> resources.addInstance(appName, instanceInfo, isReplication));
+                    return true;
+                }
+                return false;
+            case 4:
+                String instanceAppName = segments.get(2);
+                String id = segments.get(3);
+                if (method == HttpMethod.PUT) {
+                    renewLease(ctx, keepAlive, uri, version, keyType, instanceAppName, id, isReplication);
+                    return true;
+                }
+                if (method == HttpMethod.DELETE) {
+                    serveBlocking(ctx, keepAlive, version, keyType,
+                            () -> resources.cancelLease(instanceAppName, id, isReplication));
+                    return true;
+                }
+                if (method == HttpMethod.GET) {
+                    serveBlocking(ctx, keepAlive, version, keyType, () -> resources.getInstance(instanceAppName, id));
+                    return true;
+                }
+                return false;
+            case 5:
+                return dispatchInstanceUpdate(ctx, keepAlive, uri, method, version, keyType, segments, isReplication);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Dispatches the status and metadata updates of an instance, <code>/{version}/apps/{appId}/{id}/...</code>.
+     *
+     * @return false if the request matches no resource
+     */
+    private boolean dispatchInstanceUpdate(ChannelHandlerContext ctx, boolean keepAlive, QueryStringDecoder uri,
+                                           HttpMethod method, String version, Key.KeyType keyType,
+                                           List<String> segments, String isReplication) {
+        String appName = segments.get(2);
+        String id = segments.get(3);
+        if (METADATA.equals(segments.get(4))) {
+            if (method != HttpMethod.PUT) {
+                return false;
+            }
+            Map<String, String> metadata = new HashMap<>();
+            for (Map.Entry<String, List<String>> parameter : uri.parameters().entrySet()) {
+                metadata.put(parameter.getKey(), parameter.getValue().get(0));
+            }
+            serveBlocking(ctx, keepAlive, version, keyType, () -> resources.updateMetadata(appName, id, metadata));
+            return true;
+        }
+        if (!STATUS.equals(segments.get(4))) {
+            return false;
+        }
+        String newStatus = parameter(uri, "value");
+        String lastDirtyTimestamp = parameter(uri, "lastDirtyTimestamp");
+        if (method == HttpMethod.PUT) {
+            serveBlocking(ctx, keepAlive, version, keyType,
+                    () -> resources.statusUpdate(appName, id, newStatus, isReplication, lastDirtyTimestamp));
+            return true;
+        }
+        if (method == HttpMethod.DELETE) {
+            serveBlocking(ctx, keepAlive, version, keyType,
+                    () -> resources.deleteStatusUpdate(appName, id, newStatus, isReplication, lastDirtyTimestamp));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Serves a query of all applications or of the delta from the response cache, without blocking.
+     */
+    private void serveApplications(ChannelHandlerContext ctx, boolean keepAlive, QueryStringDecoder uri,
+                                   HttpHeaders headers, String version, boolean delta) {
+        String acceptHeader = headers.get(HttpHeaderNames.ACCEPT);
+        String acceptEncoding = headers.get(HttpHeaderNames.ACCEPT_ENCODING);
+        String eurekaAccept = headers.get(EurekaAccept.HTTP_X_EUREKA_ACCEPT);
+        String ifNoneMatch = headers.get(HttpHeaderNames.IF_NONE_MATCH);
+        String regionsStr = parameter(uri, "regions");
+        Key.KeyType keyType = keyTypeOf(acceptHeader);
+
+        String sinceStr = parameter(uri, "since");
+        if (delta && sinceStr != null && !sinceStr.isEmpty()) {
+            // Generated on the first request after a registry change, so it may block
+            serveBlocking(ctx, keepAlive, version, keyType, () -> resources.getApplicationsDelta(
+                    version, acceptHeader, acceptEncoding, eurekaAccept, regionsStr, sinceStr, ifNoneMatch));
+            return;
+        }
+
+        // The waiting requests are completed on the event loop of their channel, as writing does not block
+        resources.getApplicationsAsync(version, acceptHeader, acceptEncoding, eurekaAccept, regionsStr, ifNoneMatch,
+                delta, ctx.executor()
+        ).whenComplete((response, error) -> {
+            if (error != null) {
+                logger.error("Cannot load the payload of {}", uri.path(), error);
+                send(ctx, keepAlive, Response.serverError().build(), keyType);
+            } else {
+                send(ctx, keepAlive, response, keyType);
+            }
+        });
+    }
+
+    /**
+     * Renews the lease of an instance on the event loop, as the renewal and its replication do not block.
+     */
+    private void renewLease(ChannelHandlerContext ctx, boolean keepAlive, QueryStringDecoder uri, String version,
+                            Key.KeyType keyType, String appName, String id, String isReplication) {
+        CurrentRequestVersion.set(Version.toEnum(version));
+        try {
+            String lastDirtyTimestampStr = parameter(uri, "lastDirtyTimestamp");
+            Long lastDirtyTimestamp;
+            try {
+                lastDirtyTimestamp = lastDirtyTimestampStr == null ? null : Long.valueOf(lastDirtyTimestampStr);
+            } catch (NumberFormatException e) {
+                send(ctx, keepAlive, Response.status(Status.BAD_REQUEST).build(), keyType);
+                return;
+            }
+            Response response;
+            if ("true".equals(isReplication)) {
+                ReplicationInstanceResponse replicationResponse = Heartbeats.renewReplicatedLease(serverConfig,
+                        registry, appName, id, lastDirtyTimestamp, parameter(uri, "overriddenstatus"));
+                response = Response.status(replicationResponse.getStatusCode())
+                        .entity(replicationResponse.getResponseEntity()).build();
+            } else {
+                response = Response.status(Heartbeats.renewLease(serverConfig, registry, appName, id,
+                        lastDirtyTimestamp)).build();
+            }
+            send(ctx, keepAlive, response, keyType);
+        } finally {
+            CurrentRequestVersion.remove();
+        }
+    }
+
+    private void serveBlocking(ChannelHandlerContext ctx, boolean keepAlive, String version, Key.KeyType keyType,
+                               Callable<Response> resourceCall) {
+        try {
+            blockingExecutor.execute(() -> {
+                CurrentRequestVersion.set(Version.toEnum(version));
+                try {
+                    send(ctx, keepAlive, resourceCall.call(), keyType);
+                } catch (Exception e) {
+                    logger.error("Cannot serve request", e);
+                    send(ctx, keepAlive, Response.serverError().build(), keyType);
+                } finally {
+                    CurrentRequestVersion.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            send(ctx, keepAlive, Response.status(Status.SERVICE_UNAVAILABLE).build(), keyType);
+        }
+    }
+
+    /**
+     * Writes a resource response, encoding its entity as the discovery provider of <em>jersey</em> does. The
+     * cached payloads are written as is, with the headers set by the resource.
+     */
+    private void send(ChannelHandlerContext ctx, boolean keepAlive, Response response, Key.KeyType keyType) {
+        ByteBuf content = Unpooled.EMPTY_BUFFER;
+        String contentType = null;
+        Object entity = response.getEntity();
+        try {
+            if (entity instanceof EncodedPayload) {
+                EncodedPayload payload = (EncodedPayload) entity;
+                content = ctx.alloc().buffer(payload.length());
+                payload.write(new ByteBufOutputStream(content));
+                contentType = mediaTypeOf(keyType);
+            } else if (entity instanceof String) {
+                content = Unpooled.copiedBuffer((String) entity, StandardCharsets.UTF_8);
+                contentType = MediaType.TEXT_PLAIN;
+            } else if (entity != null) {
+                CodecWrapper codec = keyType == Key.KeyType.JSON ? JSON_CODEC : XML_CODEC;
+                content = Unpooled.copiedBuffer(codec.encode(entity), StandardCharsets.UTF_8);
+                contentType = mediaTypeOf(keyType);
+            }
+        } catch (IOException e) {
+            logger.error("Cannot encode the response entity {}", entity.getClass().getName(), e);
+            content.release();
+            content = Unpooled.EMPTY_BUFFER;
+            response = Response.serverError().build();
+            contentType = null;
+        }
+
+        FullHttpResponse httpResponse = new DefaultFullHttpResponse(
+                HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(response.getStatus()), content);
+        HttpHeaders headers = httpResponse.headers();
+        for (Map.Entry<String, List<Object>> header : response.getMetadata().entrySet()) {
+            for (Object value : header.getValue()) {
+                headers.add(header.getKey(), String.valueOf(value));
+            }
+        }
+        if (contentType != null && !headers.contains(HttpHeaderNames.CONTENT_TYPE)) {
+            headers.set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        }
+        HttpUtil.setContentLength(httpResponse, content.readableBytes());
+        if (keepAlive) {
+            headers.set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            ctx.writeAndFlush(httpResponse);
+        } else {
+            ctx.writeAndFlush(httpResponse).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * @return the decoded segments of the request path after the context path, or null if the path is not under
+     *         the context path
+     */
+    List<String> pathSegments(String requestUri) {
+        int queryStart = requestUri.indexOf('?');
+        String path = queryStart < 0 ? requestUri : requestUri.substring(0, queryStart);
+        if (!path.startsWith(contextPath)
+                || (path.length() > contextPath.length() && path.charAt(contextPath.length()) != '/')) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.substring(contextPath.length()).split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(QueryStringDecoder.decodeComponent(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static <T> T decode(FullHttpRequest request, Class<T> type) {
+        String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        CodecWrapper codec = contentType != null && contentType.contains("json") ? JSON_CODEC : XML_CODEC;
+        try (InputStream input = new ByteBufInputStream(request.content().retainedDuplicate(), true)) {
+            return codec.decode(input, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot parse request body", e);
+        }
+    }
+
+    private static String parameter(QueryStringDecoder uri, String name) {
+        List<String> values = uri.parameters().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static Key.KeyType keyTypeOf(String acceptHeader) {
+        return acceptHeader == null || !acceptHeader.contains("json") ? Key.KeyType.XML : Key.KeyType.JSON;
+    }
+
+    private static String mediaTypeOf(Key.KeyType keyType) {
+        return keyType == Key.KeyType.JSON ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_XML;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.netty;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.eureka.EurekaBootStrap;
+import com.netflix.eureka.EurekaServerContext;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.timeout.IdleStateHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An embedded eureka server, serving the eureka REST API on a non blocking netty HTTP server instead of
+ * <em>jersey</em> in a servlet container. The connections are held by a few event loop threads, which also serve
+ * the heartbeats and the cached registry fetches, so the number of clients is not bound by a thread per request.
+ * See {@link EurekaHttpHandler} for how the requests are served.
+ *
+ * <p>
+ * The server either runs on a given {@link EurekaServerContext}, or bootstraps its own as the WAR deployment does,
+ * see {@link #main(String[])}. It is configured by {@link EurekaNettyServerConfig}.
+ * </p>
+ */
+public class EurekaNettyServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EurekaNettyServer.class);
+
+    private final EurekaServerContext serverContext;
+    private final EurekaNettyServerConfig config;
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private ThreadPoolExecutor blockingExecutor;
+    private Channel serverChannel;
+
+    public EurekaNettyServer(EurekaServerContext serverContext, EurekaNettyServerConfig config) {
+        this.serverContext = serverContext;
+        this.config = config;
+    }
+
+    /**
+     * Binds the server, and returns once it accepts connections.
+     */
+    public synchronized void start() throws InterruptedException {
+        bossGroup = new NioEventLoopGroup(1, new ThreadFactoryBuilder()
+                .setNameFormat("Eureka-NettyBoss-%d")
+                .setDaemon(true)
+                .build());
+        workerGroup = new NioEventLoopGroup(config.getIoThreads(), new ThreadFactoryBuilder()
+                .setNameFormat("Eureka-NettyWorker-%d")
+                .setDaemon(true)
+                .build());
+        int blockingThreads = Math.max(1, config.getBlockingThreads());
+        blockingExecutor = new ThreadPoolExecutor(
+                blockingThreads, blockingThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Eureka-NettyBlocking-%d")
+                        .setDaemon(true)
+                        .build()
+        );
+        blockingExecutor.allowCoreThreadTimeOut(true);
+
+        final EurekaHttpHandler handler = new EurekaHttpHandler(serverContext, config.getContextPath(), blockingExecutor);
+        final int maxContentLength = config.getMaxContentLength();
+        final int idleTimeoutSeconds = config.getIdleTimeoutSeconds();
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.SO_KEEPALIVE, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel channel) {
+                        ChannelPipeline pipeline = channel.pipeline();
+                        if (idleTimeoutSeconds > 0) {
+                            pipeline.addLast(new IdleStateHandler(0, 0, idleTimeoutSeconds));
+                        }
+                        pipeline.addLast(new HttpServerCodec());
+                        pipeline.addLast(new HttpContentDecompressor());
+                        pipeline.addLast(new HttpObjectAggregator(maxContentLength));
+                        pipeline.addLast(handler);
+                    }
+                });
+        serverChannel = bootstrap.bind(config.getPort()).sync().channel();
+        logger.info("Eureka netty server listening on port {}", getPort());
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    /**
+     * Closes the server and its connections. The server context is left to its owner.
+     */
+    public synchronized void stop() {
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+            serverChannel = null;
+        }
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS).syncUninterruptibly();
+            workerGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS).syncUninterruptibly();
+            blockingExecutor.shutdown();
+            bossGroup = null;
+        }
+    }
+
+    /**
+     * Bootstraps a eureka server context, as the servlet context listener of the WAR deployment, and serves it
+     * until the JVM shuts down.
+     */
+    public static void main(String[] args) throws Exception {
+        final NettyEurekaBootStrap bootStrap = new NettyEurekaBootStrap();
+        bootStrap.start();
+
+        final EurekaNettyServer server = new EurekaNettyServer(bootStrap.getServerContext(), new EurekaNettyServerConfig());
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                server.stop();
+                bootStrap.stop();
+            }
+        }, "Eureka-NettyShutdown"));
+        server.start();
+        server.serverChannel.closeFuture().sync();
+    }
+
+    private static class NettyEurekaBootStrap extends EurekaBootStrap {
+
+        void start() throws Exception {
+            initEurekaEnvironment();
+            initEurekaServerContext();
+        }
+
+        EurekaServerContext getServerContext() {
+            return serverContext;
+        }
+
+        void stop() {
+            try {
+                destroyEurekaServerContext();
+                destroyEurekaEnvironment();
+            } catch (Exception e) {
+                logger.error("Error shutting down eureka", e);
+            }
+        }
+    }
+}
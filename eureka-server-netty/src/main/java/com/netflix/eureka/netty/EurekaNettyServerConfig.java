@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.netflix.eureka.netty;
+
+import com.netflix.config.DynamicPropertyFactory;
+
+/**
+ * Configuration of the {@link EurekaNettyServer}, read from the <em>eureka.netty.</em> properties. The properties
+ * are read when the server starts, so changing them takes effect on the next start.
+ */
+public class EurekaNettyServerConfig {
+
+    private static final DynamicPropertyFactory configInstance = DynamicPropertyFactory.getInstance();
+
+    private final String namespace;
+
+    public EurekaNettyServerConfig() {
+        this("eureka.netty.");
+    }
+
+    public EurekaNettyServerConfig(String namespace) {
+        this.namespace = namespace.endsWith(".") ? namespace : namespace + '.';
+    }
+
+    /**
+     * @return the port the server listens on, or 0 for any free port
+     */
+    public int getPort() {
+        return configInstance.getIntProperty(namespace + "port", 8080).get();
+    }
+
+    /**
+     * @return the path prefix of the resources, as the context path of the servlet deployment, for instance
+     *         <code>/eureka</code> to serve <code>/eureka/v2/apps</code>
+     */
+    public String getContextPath() {
+        return configInstance.getStringProperty(namespace + "contextPath", "/eureka").get();
+    }
+
+    /**
+     * @return the number of event loop threads, which accept the connections and serve the heartbeats and the
+     *         cached registry fetches, or 0 for twice the number of cores
+     */
+    public int getIoThreads() {
+        return configInstance.getIntProperty(namespace + "ioThreads", 0).get();
+    }
+
+    /**
+     * @return the number of threads serving the requests that may block, such as registrations, cancellations and
+     *         the batches replicated from the peers
+     */
+    public int getBlockingThreads() {
+        return configInstance.getIntProperty(namespace + "blockingThreads", 20).get();
+    }
+
+    /**
+     * @return the maximum size, in bytes, of a request body
+     */
+    public int getMaxContentLength() {
+        return configInstance.getIntProperty(namespace + "maxContentLength", 10 * 1024 * 1024).get();
+    }
+
+    /**
+     * @return the time, in seconds, after which a connection without any request is closed, or 0 to keep idle
+     *         connections open
+     */
+    public int getIdleTimeoutSeconds() {
+        return configInstance.getIntProperty(namespace + "idleTimeoutSeconds", 120).get();
+    }
+}
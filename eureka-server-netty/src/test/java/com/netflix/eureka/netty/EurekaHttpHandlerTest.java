@@ -0,0 +1,217 @@
+package com.netflix.eureka.netty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.EurekaAccept;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.DefaultEurekaClientConfig;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.HeartbeatBatch;
+import com.netflix.discovery.shared.transport.HeartbeatBatch.Heartbeat;
+import com.netflix.discovery.shared.transport.HeartbeatBatchResponse;
+import com.netflix.discovery.util.InstanceInfoGenerator;
+import com.netflix.eureka.DefaultEurekaServerConfig;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.Version;
+import com.netflix.eureka.cluster.PeerEurekaNodes;
+import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl;
+import com.netflix.eureka.registry.ResponseCacheImpl;
+import com.netflix.eureka.resources.DefaultServerCodecs;
+import com.netflix.eureka.resources.ServerCodecs;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EurekaHttpHandlerTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private PeerAwareInstanceRegistryImpl registry;
+    private EmbeddedChannel channel;
+    private InstanceInfo instanceInfo;
+
+    @Before
+    public void setUp() throws Exception {
+        EurekaServerConfig serverConfig = new DefaultEurekaServerConfig();
+        ServerCodecs serverCodecs = new DefaultServerCodecs(serverConfig);
+        registry = new PeerAwareInstanceRegistryImpl(
+                serverConfig,
+                new DefaultEurekaClientConfig(),
+                serverCodecs,
+                mock(EurekaClient.class)
+        ) {
+            {
+                // No peers to replicate to
+                peerEurekaNodes = mock(PeerEurekaNodes.class);
+            }
+        };
+        registry.initializedResponseCache();
+        EurekaServerContext serverContext = mock(EurekaServerContext.class);
+        when(serverContext.getServerConfig()).thenReturn(serverConfig);
+        when(serverContext.getServerCodecs()).thenReturn(serverCodecs);
+        when(serverContext.getRegistry()).thenReturn(registry);
+
+        instanceInfo = InstanceInfoGenerator.takeOne();
+        registry.register(instanceInfo, false);
+
+        channel = new EmbeddedChannel(new EurekaHttpHandler(serverContext, "/eureka", DIRECT_EXECUTOR));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        channel.finishAndReleaseAll();
+        registry.getResponseCache().stop();
+    }
+
+    @Test
+    public void testHeartbeat() throws Exception {
+        FullHttpResponse response = send(HttpMethod.PUT,
+                "/eureka/v2/apps/" + instanceInfo.getAppName() + '/' + instanceInfo.getId());
+        assertEquals(HttpResponseStatus.OK, response.status());
+        response.release();
+
+        response = send(HttpMethod.PUT, "/eureka/v2/apps/" + instanceInfo.getAppName() + "/unknownId");
+        assertEquals(HttpResponseStatus.NOT_FOUND, response.status());
+        response.release();
+    }
+
+    @Test
+    public void testCachedFetch() throws Exception {
+        // Generated beforehand, so the response is written on the event loop
+        registry.getResponseCache().get(new Key(Key.EntityType.Application, ResponseCacheImpl.ALL_APPS,
+                Key.KeyType.JSON, Version.V2, EurekaAccept.full));
+
+        FullHttpRequest request = request(HttpMethod.GET, "/eureka/v2/apps");
+        request.headers().set(HttpHeaderNames.ACCEPT, "application/json");
+        FullHttpResponse response = send(request);
+
+        assertEquals(HttpResponseStatus.OK, response.status());
+        assertEquals("application/json", response.headers().get(HttpHeaderNames.CONTENT_TYPE));
+        Applications applications = CodecWrappers.getCodec(CodecWrappers.LegacyJacksonJson.class)
+                .decode(response.content().toString(StandardCharsets.UTF_8), Applications.class);
+        assertNotNull(applications.getRegisteredApplications(instanceInfo.getAppName()));
+        response.release();
+    }
+
+    @Test
+    public void testRegistration() throws Exception {
+        InstanceInfo newInstance = new InstanceInfo.Builder(instanceInfo).setInstanceId("newInstance").build();
+        FullHttpRequest request = request(HttpMethod.POST, "/eureka/v2/apps/" + newInstance.getAppName());
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        request.content().writeBytes(CodecWrappers.getCodec(CodecWrappers.LegacyJacksonJson.class)
+                .encode(newInstance).getBytes(StandardCharsets.UTF_8));
+
+        FullHttpResponse response = send(request);
+        assertEquals(HttpResponseStatus.NO_CONTENT, response.status());
+        assertNotNull(registry.getInstanceByAppAndId(newInstance.getAppName(), "newInstance"));
+        response.release();
+    }
+
+    @Test
+    public void testHeartbeatBatch() throws Exception {
+        HeartbeatBatch batch = new HeartbeatBatch();
+        batch.addHeartbeat(Heartbeat.of(instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, null));
+        batch.addHeartbeat(Heartbeat.of(instanceInfo.getAppName(), "unknownId", instanceInfo, null));
+        FullHttpRequest request = request(HttpMethod.POST, "/eureka/v2/apps/heartbeats");
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        request.content().writeBytes(new ObjectMapper().writeValueAsBytes(batch));
+
+        FullHttpResponse response = send(request);
+        assertEquals(HttpResponseStatus.OK, response.status());
+        HeartbeatBatchResponse batchResponse = new ObjectMapper().readValue(
+                response.content().toString(StandardCharsets.UTF_8), HeartbeatBatchResponse.class);
+        assertEquals(200, batchResponse.getResults().get(0).getStatusCode());
+        assertEquals(404, batchResponse.getResults().get(1).getStatusCode());
+        // Not taken for the registration of an application named "heartbeats"
+        assertNull(registry.getApplication("HEARTBEATS"));
+        response.release();
+    }
+
+    @Test
+    public void testInstanceQueries() throws Exception {
+        FullHttpRequest request = request(HttpMethod.GET, "/eureka/v2/instances/" + instanceInfo.getId());
+        request.headers().set(HttpHeaderNames.ACCEPT, "application/json");
+        FullHttpResponse response = send(request);
+        assertEquals(HttpResponseStatus.OK, response.status());
+        response.release();
+
+        request = request(HttpMethod.GET, "/eureka/v2/vips/" + instanceInfo.getVIPAddress());
+        request.headers().set(HttpHeaderNames.ACCEPT, "application/json");
+        response = send(request);
+        assertEquals(HttpResponseStatus.OK, response.status());
+        Applications applications = CodecWrappers.getCodec(CodecWrappers.LegacyJacksonJson.class)
+                .decode(response.content().toString(StandardCharsets.UTF_8), Applications.class);
+        assertNotNull(applications.getRegisteredApplications(instanceInfo.getAppName()));
+        response.release();
+    }
+
+    @Test
+    public void testMetadataUpdate() throws Exception {
+        FullHttpResponse response = send(HttpMethod.PUT, "/eureka/v2/apps/" + instanceInfo.getAppName() + '/'
+                + instanceInfo.getId() + "/metadata?myKey=myValue");
+        assertEquals(HttpResponseStatus.OK, response.status());
+        assertEquals("myValue", registry.getInstanceByAppAndId(instanceInfo.getAppName(), instanceInfo.getId())
+                .getMetadata().get("myKey"));
+        response.release();
+    }
+
+    @Test
+    public void testAsgStatusUpdate() throws Exception {
+        // Served by the ASG resource, which needs an AWS registry
+        FullHttpResponse response = send(HttpMethod.PUT, "/eureka/v2/asg/myAsg/status?value=ENABLED");
+        assertEquals(HttpResponseStatus.BAD_REQUEST, response.status());
+        response.release();
+    }
+
+    @Test
+    public void testUnknownResource() throws Exception {
+        FullHttpResponse response = send(HttpMethod.GET, "/eureka/v2/unknown");
+        assertEquals(HttpResponseStatus.NOT_FOUND, response.status());
+        response.release();
+
+        response = send(HttpMethod.GET, "/other/v2/apps");
+        assertEquals(HttpResponseStatus.NOT_FOUND, response.status());
+        response.release();
+    }
+
+    private FullHttpResponse send(HttpMethod method, String uri) {
+        return send(request(method, uri));
+    }
+
+    private FullHttpResponse send(FullHttpRequest request) {
+        channel.writeInbound(request);
+        FullHttpResponse response = channel.readOutbound();
+        assertNotNull("No response", response);
+        return response;
+    }
+
+    private static FullHttpRequest request(HttpMethod method, String uri) {
+        return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri, Unpooled.buffer());
+    }
+}
@@ -35,6 +35,7 @@ import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEureka
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -114,6 +115,20 @@ public abstract class EurekaHttpClientCompatibilityTestSuite {
         verifyResponseOkWithEntity(updated, httpResponse);
     }
 
+    @Test
+    public void testBatchHeartbeatRequest() throws Exception {
+        InstanceInfo instance = InstanceInfoGenerator.takeOne();
+        HeartbeatBatch heartbeatBatch = new HeartbeatBatch();
+        heartbeatBatch.addHeartbeat(HeartbeatBatch.Heartbeat.of(instance.getAppName(), instance.getId(), instance, null));
+        HeartbeatBatchResponse batchResponse = new HeartbeatBatchResponse();
+        batchResponse.addResult(new HeartbeatBatchResponse.HeartbeatResult(instance.getAppName(), instance.getId(), 404));
+        when(requestHandler.sendHeartBeats(heartbeatBatch)).thenReturn(createResponse(batchResponse));
+
+        EurekaHttpResponse<HeartbeatBatchResponse> httpResponse = getEurekaHttpClient().sendHeartBeats(heartbeatBatch);
+        assertThat(httpResponse.getStatusCode(), is(equalTo(200)));
+        assertThat(httpResponse.getEntity(), is(equalTo(batchResponse)));
+    }
+
     @Test
     public void testStatusUpdateRequest() throws Exception {
         InstanceInfo instance = InstanceInfoGenerator.takeOne();
@@ -142,6 +157,18 @@ public abstract class EurekaHttpClientCompatibilityTestSuite {
         verifyResponseOkWithEntity(apps, httpResponse);
     }
 
+    @Test
+    public void testGetApplicationsIfNoneMatchRequest() throws Exception {
+        String entityTag = "\"abc\"";
+        when(requestHandler.getApplicationsIfNoneMatch(entityTag)).thenReturn(
+                anEurekaHttpResponse(304, Applications.class).headers("ETag", entityTag).build()
+        );
+
+        EurekaHttpResponse<Applications> httpResponse = getEurekaHttpClient().getApplicationsIfNoneMatch(entityTag);
+        assertThat(httpResponse.getStatusCode(), is(equalTo(304)));
+        assertThat(httpResponse.getEntity(), is(nullValue()));
+    }
+
     @Test
     public void testGetDeltaRequest() throws Exception {
         Applications delta = InstanceInfoGenerator.newBuilder(2, 1).build().takeDelta(2);
@@ -17,6 +17,7 @@
 package com.netflix.discovery.shared.transport;
 
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -135,7 +136,14 @@ public class SimpleEurekaHttpServer {
         Matcher matcher;
         if (path.matches("/v2/apps[/]?")) {
             String regions = getQueryParam(httpExchange, "regions");
-            httpResponse = regions == null ? requestHandler.getApplications() : requestHandler.getApplications(regions);
+            String entityTag = httpExchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            if (entityTag != null) {
+                httpResponse = regions == null
+                        ? requestHandler.getApplicationsIfNoneMatch(entityTag)
+                        : requestHandler.getApplicationsIfNoneMatch(entityTag, regions);
+            } else {
+                httpResponse = regions == null ? requestHandler.getApplications() : requestHandler.getApplications(regions);
+            }
         } else if (path.matches("/v2/apps/delta[/]?")) {
             String regions = getQueryParam(httpExchange, "regions");
             httpResponse = regions == null ? requestHandler.getDelta() : requestHandler.getDelta(regions);
@@ -155,7 +163,10 @@ public class SimpleEurekaHttpServer {
         EurekaHttpResponse<?> httpResponse;
         String path = httpExchange.getRequestURI().getPath();
 
-        if (path.matches("/v2/apps/([^/]+)(/)?")) {
+        if (path.matches("/v2/apps/heartbeats(/)?")) {
+            HeartbeatBatch heartbeatBatch = decoder.decode(httpExchange.getRequestBody(), HeartbeatBatch.class);
+            httpResponse = requestHandler.sendHeartBeats(heartbeatBatch);
+        } else if (path.matches("/v2/apps/([^/]+)(/)?")) {
             InstanceInfo instance = decoder.decode(httpExchange.getRequestBody(), InstanceInfo.class);
             httpResponse = requestHandler.register(instance);
         } else {